@@ -0,0 +1,173 @@
+package org.netbeans.gradle.model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.netbeans.gradle.model.api.GradleProjectInfoQuery2;
+import org.netbeans.gradle.model.api.ModelClassPathDef;
+import org.netbeans.gradle.model.api.ProjectInfoBuilder2;
+import org.netbeans.gradle.model.internal.CustomSerializedMap;
+import org.netbeans.gradle.model.internal.IssueTransformer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures deserializing the results of the project info builders of a
+ * build received from the Gradle daemon. Deserializing every result of every
+ * project (which is what the plugin did before the results were deserialized
+ * lazily) is compared to collecting only the failed builders of every project
+ * and deserializing the results of a single extension.
+ * <P>
+ * This class is in the package of {@code GradleInfoQueryMap}, because the
+ * results are only accessible through it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class ProjectInfoResultsBenchmark {
+    private static final int KEY_COUNT = 10;
+    private static final int MODEL_SIZE = 50;
+
+    @Param({"10", "100", "1000"})
+    public int projectCount;
+
+    private GradleInfoQueryMap queries;
+    private IssueTransformer issueTransformer;
+    private List<CustomSerializedMap> projectResults;
+    private List<CustomSerializedMap> projectIssues;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        queries = createQueries();
+        issueTransformer = GradleInfoQueryMap.builderIssueTransformer();
+
+        Map<Object, ?> builderMap = queries.getBuilderMap().getMap();
+
+        projectResults = new ArrayList<>(projectCount);
+        projectIssues = new ArrayList<>(projectCount);
+        for (int projectIndex = 0; projectIndex < projectCount; projectIndex++) {
+            CustomSerializedMap.Builder results = new CustomSerializedMap.Builder(builderMap.size());
+            CustomSerializedMap.Builder issues = new CustomSerializedMap.Builder(0);
+
+            int keyIndex = 0;
+            for (Object key: builderMap.keySet()) {
+                // Let every tenth project have a failed builder.
+                if (projectIndex % 10 == 0 && keyIndex == 0) {
+                    BuilderIssue issue = new BuilderIssue("FailingBuilder", new IllegalStateException("Failure"));
+                    issues.addValue(key, new BuilderResult(null, issue));
+                }
+                else {
+                    results.addValue(key, new BuilderResult(new BenchmarkModel(projectIndex), null));
+                }
+                keyIndex++;
+            }
+
+            projectResults.add(results.create());
+            projectIssues.add(issues.create());
+        }
+    }
+
+    private static GradleInfoQueryMap createQueries() {
+        Map<Object, List<GradleProjectInfoQuery2<?>>> queries = new LinkedHashMap<>();
+        for (int keyIndex = 0; keyIndex < KEY_COUNT; keyIndex++) {
+            List<GradleProjectInfoQuery2<?>> keyQueries = new ArrayList<>();
+            keyQueries.add(new BenchmarkQuery());
+            queries.put("ext" + keyIndex, keyQueries);
+        }
+        return GradleInfoQueryMap.fromProjectInfos(queries);
+    }
+
+    @Benchmark
+    public void deserializeAllResults(Blackhole blackhole) {
+        for (CustomSerializedMap results: projectResults) {
+            blackhole.consume(queries.deserializeResults(results, issueTransformer));
+        }
+    }
+
+    @Benchmark
+    public void collectIssuesOnly(Blackhole blackhole) {
+        for (int i = 0; i < projectCount; i++) {
+            Map<Object, GradleInfoQueryMap.LazyResults> lazyResults = queries.deserializeResultsLazily(
+                    projectResults.get(i),
+                    projectIssues.get(i),
+                    issueTransformer);
+            for (GradleInfoQueryMap.LazyResults keyResults: lazyResults.values()) {
+                blackhole.consume(keyResults.getIssues());
+            }
+        }
+    }
+
+    @Benchmark
+    public void collectIssuesAndResultsOfOneKey(Blackhole blackhole) {
+        for (int i = 0; i < projectCount; i++) {
+            Map<Object, GradleInfoQueryMap.LazyResults> lazyResults = queries.deserializeResultsLazily(
+                    projectResults.get(i),
+                    projectIssues.get(i),
+                    issueTransformer);
+            for (GradleInfoQueryMap.LazyResults keyResults: lazyResults.values()) {
+                blackhole.consume(keyResults.getIssues());
+            }
+
+            GradleInfoQueryMap.LazyResults keyResults = lazyResults.get("ext" + (KEY_COUNT - 1));
+            if (keyResults != null) {
+                blackhole.consume(keyResults.getResults());
+            }
+        }
+    }
+
+    private static final class BenchmarkQuery implements GradleProjectInfoQuery2<Object> {
+        @Override
+        public ProjectInfoBuilder2<Object> getInfoBuilder() {
+            return new BenchmarkBuilder();
+        }
+
+        @Override
+        public ModelClassPathDef getInfoClassPath() {
+            return ModelClassPathDef.EMPTY;
+        }
+    }
+
+    private static final class BenchmarkBuilder implements ProjectInfoBuilder2<Object> {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public Object getProjectInfo(Object project) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String getName() {
+            return getClass().getSimpleName();
+        }
+    }
+
+    private static final class BenchmarkModel implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final List<String> values;
+
+        public BenchmarkModel(int projectIndex) {
+            this.values = new ArrayList<>(MODEL_SIZE);
+            for (int i = 0; i < MODEL_SIZE; i++) {
+                values.add("project" + projectIndex + "/value" + i);
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package org.netbeans.gradle.project;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.netbeans.gradle.project.lookups.DynamicLookup;
+import org.openide.util.Lookup;
+import org.openide.util.lookup.Lookups;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the cached extension lookups of {@code UpdatableProjectExtensions}
+ * with querying the combined lookup of the extensions directly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class UpdatableProjectExtensionsBenchmark {
+    @Param({"15"})
+    public int extensionCount;
+
+    private Lookup combinedLookup;
+    private UpdatableProjectExtensions extensions;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        List<Lookup> extensionLookups = new ArrayList<>(extensionCount);
+        for (int i = 0; i < extensionCount; i++) {
+            DynamicLookup extensionLookup = new DynamicLookup(Lookups.fixed("extension" + i, i));
+            extensionLookups.add(extensionLookup.getUnmodifiableView());
+        }
+
+        DynamicLookup lookup = new DynamicLookup();
+        lookup.replaceLookups(extensionLookups);
+
+        combinedLookup = lookup.getUnmodifiableView();
+        extensions = new UpdatableProjectExtensions(combinedLookup);
+    }
+
+    @Benchmark
+    public Collection<? extends String> cachedLookupAll() {
+        return extensions.lookupAllExtensionObjs(String.class);
+    }
+
+    @Benchmark
+    public Collection<? extends String> uncachedLookupAll() {
+        return combinedLookup.lookupAll(String.class);
+    }
+
+    @Benchmark
+    public String cachedLookupFirst() {
+        return extensions.lookupExtensionObj(String.class);
+    }
+
+    @Benchmark
+    public String uncachedLookupFirst() {
+        return combinedLookup.lookup(String.class);
+    }
+}
@@ -0,0 +1,31 @@
+package org.netbeans.gradle.project.benchmark;
+
+import java.nio.file.Path;
+import org.jtrim.utils.ExceptionHelper;
+import org.netbeans.api.project.Project;
+import org.openide.filesystems.FileObject;
+import org.openide.filesystems.FileUtil;
+import org.openide.util.Lookup;
+
+/**
+ * Defines a project without any services, for the code requiring a
+ * {@code Project} instance but not using it for the measured work.
+ */
+public final class BenchmarkProject implements Project {
+    private final FileObject projectDir;
+
+    public BenchmarkProject(Path projectDir) {
+        ExceptionHelper.checkNotNullArgument(projectDir, "projectDir");
+        this.projectDir = FileUtil.toFileObject(FileUtil.normalizeFile(projectDir.toFile()));
+    }
+
+    @Override
+    public FileObject getProjectDirectory() {
+        return projectDir;
+    }
+
+    @Override
+    public Lookup getLookup() {
+        return Lookup.EMPTY;
+    }
+}
@@ -0,0 +1,115 @@
+package org.netbeans.gradle.project.benchmark;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.Writer;
+import org.openide.windows.InputOutput;
+import org.openide.windows.OutputListener;
+import org.openide.windows.OutputWriter;
+
+/**
+ * Defines an {@code InputOutput} discarding everything written to it, so that
+ * output processing can be measured without the output window of NetBeans.
+ */
+public final class NullInputOutput implements InputOutput {
+    private final OutputWriter out;
+    private final OutputWriter err;
+
+    public NullInputOutput() {
+        this.out = new NullOutputWriter();
+        this.err = new NullOutputWriter();
+    }
+
+    @Override
+    public OutputWriter getOut() {
+        return out;
+    }
+
+    @Override
+    public Reader getIn() {
+        return new StringReader("");
+    }
+
+    @Override
+    public OutputWriter getErr() {
+        return err;
+    }
+
+    @Override
+    public void closeInputOutput() {
+    }
+
+    @Override
+    public boolean isClosed() {
+        return false;
+    }
+
+    @Override
+    public void setOutputVisible(boolean value) {
+    }
+
+    @Override
+    public void setErrVisible(boolean value) {
+    }
+
+    @Override
+    public void setInputVisible(boolean value) {
+    }
+
+    @Override
+    public void select() {
+    }
+
+    @Override
+    public boolean isErrSeparated() {
+        return false;
+    }
+
+    @Override
+    public void setErrSeparated(boolean value) {
+    }
+
+    @Override
+    public boolean isFocusTaken() {
+        return false;
+    }
+
+    @Override
+    public void setFocusTaken(boolean value) {
+    }
+
+    @Override
+    @Deprecated
+    public Reader flushReader() {
+        return getIn();
+    }
+
+    private static final class NullOutputWriter extends OutputWriter {
+        public NullOutputWriter() {
+            super(new NullWriter());
+        }
+
+        @Override
+        public void println(String s, OutputListener l) throws IOException {
+        }
+
+        @Override
+        public void reset() throws IOException {
+        }
+    }
+
+    private static final class NullWriter extends Writer {
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package org.netbeans.gradle.project.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.jtrim.cancel.Cancellation;
+import org.jtrim.utils.ExceptionHelper;
+import org.netbeans.gradle.model.GenericProjectProperties;
+import org.netbeans.gradle.model.GradleTaskID;
+import org.netbeans.gradle.model.ProjectId;
+import org.netbeans.gradle.model.java.JavaClassPaths;
+import org.netbeans.gradle.model.java.JavaOutputDirs;
+import org.netbeans.gradle.model.java.JavaSourceGroup;
+import org.netbeans.gradle.model.java.JavaSourceGroupName;
+import org.netbeans.gradle.model.java.JavaSourceSet;
+import org.netbeans.gradle.model.java.JavaSourcesModel;
+import org.netbeans.gradle.project.model.NbGenericModelInfo;
+import org.netbeans.gradle.project.model.NbGradleModel;
+import org.netbeans.gradle.project.model.NbGradleMultiProjectDef;
+import org.netbeans.gradle.project.model.NbGradleProjectTree;
+import org.netbeans.gradle.project.util.NbFileUtils;
+
+/**
+ * Defines a generated multi-project build with a given number of subprojects.
+ * The directories and the build scripts of the projects are created on the
+ * disk, so that the code converting them to {@code FileObject} works as for
+ * real projects. The models of the projects are created without Gradle.
+ * <P>
+ * Every project has a {@code main} and a {@code test} source set. The class
+ * path of a project contains the outputs of the previous few projects and
+ * a subset of a shared pool of external jars, as it is usual in large builds.
+ */
+public final class SyntheticBuild implements AutoCloseable {
+    public static final String JAVA_EXTENSION_NAME = "org.netbeans.gradle.project.java.JavaExtension";
+
+    private static final String GROUP = "org.example.synthetic";
+    private static final int EXTERNAL_JAR_COUNT = 200;
+    private static final int EXTERNAL_JARS_PER_PROJECT = 40;
+    private static final int PROJECT_DEPENDENCY_COUNT = 5;
+
+    private final Path rootDir;
+    private final Path settingsFile;
+    private final List<File> externalJars;
+    private final NbGradleProjectTree rootProject;
+    private final List<NbGradleModel> models;
+
+    private SyntheticBuild(Path rootDir, int subprojectCount) throws IOException {
+        this.rootDir = rootDir;
+        this.settingsFile = rootDir.resolve("settings.gradle");
+        this.externalJars = createExternalJars(rootDir.resolve("repo"));
+
+        List<NbGradleProjectTree> subprojects = new ArrayList<>(subprojectCount);
+        for (int i = 0; i < subprojectCount; i++) {
+            subprojects.add(createProjectTree(getSubprojectName(i)));
+        }
+        this.rootProject = createProjectTree(null, subprojects);
+
+        writeScripts(subprojectCount);
+
+        this.models = new ArrayList<>(subprojectCount + 1);
+        this.models.add(createModel(rootProject, -1));
+        for (int i = 0; i < subprojectCount; i++) {
+            this.models.add(createModel(subprojects.get(i), i));
+        }
+    }
+
+    /**
+     * Creates the build in a new temporary directory. The directory is removed
+     * by the {@link #close() close} method.
+     *
+     * @param subprojectCount the number of projects beside the root project.
+     *   This argument must be greater than or equal to zero.
+     * @return the new build. This method never returns {@code null}.
+     *
+     * @throws IOException thrown if the files of the build could not be created
+     */
+    public static SyntheticBuild create(int subprojectCount) throws IOException {
+        ExceptionHelper.checkArgumentInRange(subprojectCount, 0, Integer.MAX_VALUE, "subprojectCount");
+
+        Path rootDir = Files.createTempDirectory("nb-gradle-synthetic-build");
+        try {
+            return new SyntheticBuild(rootDir, subprojectCount);
+        } catch (IOException | RuntimeException ex) {
+            NbFileUtils.deleteDirectory(Cancellation.UNCANCELABLE_TOKEN, rootDir);
+            throw ex;
+        }
+    }
+
+    private static String getSubprojectName(int index) {
+        return "module" + index;
+    }
+
+    private static List<File> createExternalJars(Path repoDir) {
+        List<File> result = new ArrayList<>(EXTERNAL_JAR_COUNT);
+        for (int i = 0; i < EXTERNAL_JAR_COUNT; i++) {
+            String name = "lib" + i;
+            Path jar = repoDir.resolve(GROUP).resolve(name).resolve("1.0").resolve(name + "-1.0.jar");
+            result.add(jar.toFile());
+        }
+        return result;
+    }
+
+    private NbGradleProjectTree createProjectTree(String name) {
+        return createProjectTree(name, Collections.<NbGradleProjectTree>emptyList());
+    }
+
+    private NbGradleProjectTree createProjectTree(String name, List<NbGradleProjectTree> children) {
+        File projectDir = name != null ? rootDir.resolve(name).toFile() : rootDir.toFile();
+        String projectName = name != null ? name : rootDir.getFileName().toString();
+        String fullName = name != null ? ":" + name : ":";
+
+        GenericProjectProperties properties = new GenericProjectProperties(
+                new ProjectId(GROUP, projectName, "1.0"),
+                fullName,
+                projectDir,
+                new File(projectDir, "build.gradle"),
+                new File(projectDir, "build"));
+
+        String taskPrefix = name != null ? fullName + ":" : ":";
+        List<GradleTaskID> tasks = new ArrayList<>();
+        for (String taskName: Arrays.asList("assemble", "build", "check", "clean", "compileJava", "jar", "test")) {
+            tasks.add(new GradleTaskID(taskName, taskPrefix + taskName));
+        }
+
+        return new NbGradleProjectTree(properties, tasks, children);
+    }
+
+    private void writeScripts(int subprojectCount) throws IOException {
+        StringBuilder settings = new StringBuilder(subprojectCount * 24);
+        for (int i = 0; i < subprojectCount; i++) {
+            String name = getSubprojectName(i);
+            settings.append("include '").append(name).append("'\n");
+
+            Path projectDir = Files.createDirectories(rootDir.resolve(name));
+            String buildScript = "apply plugin: 'java'\n";
+            Files.write(projectDir.resolve("build.gradle"), buildScript.getBytes(StandardCharsets.UTF_8));
+        }
+
+        Files.write(settingsFile, settings.toString().getBytes(StandardCharsets.UTF_8));
+        Files.write(rootDir.resolve("build.gradle"), new byte[0]);
+    }
+
+    private NbGradleModel createModel(NbGradleProjectTree mainProject, int index) {
+        NbGradleMultiProjectDef projectDef = new NbGradleMultiProjectDef(rootProject, mainProject);
+        NbGenericModelInfo genericInfo = new NbGenericModelInfo(projectDef, settingsFile);
+
+        Map<String, Object> extensionModels = Collections.<String, Object>singletonMap(
+                JAVA_EXTENSION_NAME,
+                createSourcesModel(mainProject.getProjectDir(), index));
+        return new NbGradleModel(genericInfo, extensionModels, false);
+    }
+
+    private JavaSourcesModel createSourcesModel(File projectDir, int index) {
+        List<File> compileClassPath = new ArrayList<>();
+        for (int i = Math.max(0, index - PROJECT_DEPENDENCY_COUNT); i < index; i++) {
+            File dependencyDir = rootDir.resolve(getSubprojectName(i)).toFile();
+            compileClassPath.add(new File(dependencyDir, "build/libs/" + getSubprojectName(i) + ".jar"));
+        }
+
+        int firstJar = Math.max(0, index) * 7;
+        for (int i = 0; i < EXTERNAL_JARS_PER_PROJECT; i++) {
+            compileClassPath.add(externalJars.get((firstJar + i) % externalJars.size()));
+        }
+
+        JavaSourceSet main = createSourceSet(projectDir, "main", compileClassPath);
+
+        List<File> testClassPath = new ArrayList<>(compileClassPath);
+        testClassPath.add(new File(projectDir, "build/classes/java/main"));
+        JavaSourceSet test = createSourceSet(projectDir, "test", testClassPath);
+
+        return new JavaSourcesModel(Arrays.asList(main, test));
+    }
+
+    private static JavaSourceSet createSourceSet(File projectDir, String name, List<File> classPath) {
+        File buildDir = new File(projectDir, "build");
+        JavaOutputDirs outputDirs = new JavaOutputDirs(
+                Collections.singleton(new File(buildDir, "classes/java/" + name)),
+                new File(buildDir, "resources/" + name),
+                Collections.<File>emptyList());
+
+        JavaSourceSet.Builder result = new JavaSourceSet.Builder(name, outputDirs);
+
+        File sourceDir = new File(projectDir, "src/" + name);
+        result.addSourceGroup(new JavaSourceGroup(JavaSourceGroupName.JAVA,
+                Collections.singleton(new File(sourceDir, "java"))));
+        result.addSourceGroup(new JavaSourceGroup(JavaSourceGroupName.RESOURCES,
+                Collections.singleton(new File(sourceDir, "resources"))));
+        result.setClasspaths(new JavaClassPaths(classPath));
+
+        return result.create();
+    }
+
+    public Path getRootDir() {
+        return rootDir;
+    }
+
+    public Path getSettingsFile() {
+        return settingsFile;
+    }
+
+    public NbGradleProjectTree getRootProject() {
+        return rootProject;
+    }
+
+    /**
+     * Returns the models of every project of the build. The first element is
+     * the model of the root project.
+     *
+     * @return the models of every project of the build. This method never
+     *   returns {@code null}.
+     */
+    public List<NbGradleModel> getModels() {
+        return Collections.unmodifiableList(models);
+    }
+
+    @Override
+    public void close() throws IOException {
+        NbFileUtils.deleteDirectory(Cancellation.UNCANCELABLE_TOKEN, rootDir);
+    }
+}
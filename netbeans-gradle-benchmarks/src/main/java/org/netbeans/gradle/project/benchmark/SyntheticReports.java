@@ -0,0 +1,193 @@
+package org.netbeans.gradle.project.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Defines methods generating the outputs of builds: console logs, JUnit XML
+ * reports and JaCoCo XML reports. The generated content is deterministic, so
+ * subsequent benchmark runs work on the same input.
+ */
+public final class SyntheticReports {
+    private static final long SEED = 20171019L;
+
+    /**
+     * Returns the lines of a build log. The log is a mix of task headers,
+     * compiler errors, stack traces, URLs, paths within the given project
+     * directory and plain messages, similar to the output of a failing build.
+     *
+     * @param projectDir the directory of the project whose paths should
+     *   appear in the output. This argument cannot be {@code null}.
+     * @param lineCount the number of lines to generate
+     * @return the lines of a build log. This method never returns {@code null}.
+     */
+    public static List<String> createLogLines(Path projectDir, int lineCount) {
+        Random random = new Random(SEED);
+        List<String> result = new ArrayList<>(lineCount);
+
+        String sourceFile = projectDir.resolve("src/main/java/org/example/Service.java").toString();
+        for (int i = 0; i < lineCount; i++) {
+            int lineKind = random.nextInt(16);
+            switch (lineKind) {
+                case 0:
+                    result.add(":module" + random.nextInt(100) + ":compileJava");
+                    break;
+                case 1:
+                    result.add(sourceFile + ":" + (1 + random.nextInt(500)) + ": error: cannot find symbol");
+                    break;
+                case 2:
+                    result.add("java.lang.IllegalStateException: Unexpected state " + i);
+                    break;
+                case 3:
+                case 4:
+                case 5:
+                    result.add("\tat org.example.module" + random.nextInt(100) + ".Service.process(Service.java:"
+                            + (1 + random.nextInt(500)) + ")");
+                    break;
+                case 6:
+                    result.add("Download https://repo1.maven.org/maven2/org/example/lib" + random.nextInt(200)
+                            + "/1.0/lib-1.0.jar");
+                    break;
+                case 7:
+                    result.add("See the report at: file://" + projectDir.resolve("build/reports/tests/index.html"));
+                    break;
+                case 8:
+                    result.add("Writing " + projectDir.resolve("build/libs/module" + random.nextInt(100) + ".jar"));
+                    break;
+                default:
+                    result.add("Processing item " + i + " of the synthetic build (" + random.nextInt(1000) + " ms)");
+                    break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the content of a build log with the given lines.
+     *
+     * @param lines the lines of the log. This argument cannot be {@code null}.
+     * @return the content of a build log. This method never returns {@code null}.
+     */
+    public static String toLogText(List<String> lines) {
+        StringBuilder result = new StringBuilder(lines.size() * 64);
+        for (String line: lines) {
+            result.append(line);
+            result.append('\n');
+        }
+        return result.toString();
+    }
+
+    /**
+     * Writes a JUnit XML report in the format written by the {@code test} task
+     * of Gradle. Every tenth test case fails with a stack trace and there is
+     * also a considerable amount of standard output.
+     *
+     * @param reportFile the file to be written. This argument cannot be
+     *   {@code null}.
+     * @param testCount the number of test cases in the report
+     *
+     * @throws IOException thrown if the report could not be written
+     */
+    public static void writeJUnitReport(File reportFile, int testCount) throws IOException {
+        Random random = new Random(SEED);
+        String className = "org.example.SyntheticTest";
+
+        try (Writer output = Files.newBufferedWriter(reportFile.toPath(), StandardCharsets.UTF_8)) {
+            output.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+            output.write("<testsuite name=\"" + className + "\" tests=\"" + testCount
+                    + "\" skipped=\"0\" failures=\"" + (testCount / 10) + "\" errors=\"0\""
+                    + " timestamp=\"2017-10-19T10:00:00\" hostname=\"localhost\" time=\"12.5\">\n");
+            output.write("  <properties/>\n");
+
+            for (int i = 0; i < testCount; i++) {
+                String time = "0." + (100 + random.nextInt(900));
+                output.write("  <testcase name=\"testMethod" + i + "\" classname=\"" + className
+                        + "\" time=\"" + time + "\"");
+                if (i % 10 == 9) {
+                    output.write(">\n");
+                    output.write("    <failure message=\"java.lang.AssertionError: expected:&lt;" + i
+                            + "&gt; but was:&lt;0&gt;\" type=\"java.lang.AssertionError\">");
+                    output.write("java.lang.AssertionError: expected:&lt;" + i + "&gt; but was:&lt;0&gt;\n");
+                    for (int frame = 0; frame < 30; frame++) {
+                        output.write("\tat org.example.Frame" + frame + ".call(Frame" + frame + ".java:"
+                                + (10 + frame) + ")\n");
+                    }
+                    output.write("</failure>\n");
+                    output.write("  </testcase>\n");
+                }
+                else {
+                    output.write("/>\n");
+                }
+            }
+
+            output.write("  <system-out><![CDATA[");
+            for (int i = 0; i < testCount; i++) {
+                output.write("Output line of testMethod" + i + "\n");
+            }
+            output.write("]]></system-out>\n");
+            output.write("  <system-err><![CDATA[]]></system-err>\n");
+            output.write("</testsuite>\n");
+        }
+    }
+
+    /**
+     * Writes a JaCoCo XML report with the given number of packages and
+     * source files per package.
+     *
+     * @param reportFile the file to be written. This argument cannot be
+     *   {@code null}.
+     * @param packageCount the number of packages in the report
+     * @param filesPerPackage the number of source files in each package
+     * @param linesPerFile the number of covered lines reported for each
+     *   source file
+     *
+     * @throws IOException thrown if the report could not be written
+     */
+    public static void writeJacocoReport(
+            File reportFile,
+            int packageCount,
+            int filesPerPackage,
+            int linesPerFile) throws IOException {
+
+        Random random = new Random(SEED);
+
+        try (Writer output = Files.newBufferedWriter(reportFile.toPath(), StandardCharsets.UTF_8)) {
+            output.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>");
+            output.write("<!DOCTYPE report PUBLIC \"-//JACOCO//DTD Report 1.0//EN\" \"report.dtd\">");
+            output.write("<report name=\"synthetic\">");
+            output.write("<sessioninfo id=\"localhost-1\" start=\"1508400000000\" dump=\"1508400010000\"/>");
+
+            for (int packageIndex = 0; packageIndex < packageCount; packageIndex++) {
+                String packageName = "org/example/package" + packageIndex;
+                output.write("<package name=\"" + packageName + "\">");
+
+                for (int fileIndex = 0; fileIndex < filesPerPackage; fileIndex++) {
+                    output.write("<sourcefile name=\"Class" + fileIndex + ".java\">");
+                    for (int line = 1; line <= linesPerFile; line++) {
+                        int covered = random.nextInt(4);
+                        output.write("<line nr=\"" + (line * 2) + "\" mi=\"" + (3 - covered)
+                                + "\" ci=\"" + covered + "\" mb=\"0\" cb=\"0\"/>");
+                    }
+                    output.write("<counter type=\"LINE\" missed=\"" + (linesPerFile / 4)
+                            + "\" covered=\"" + (linesPerFile - linesPerFile / 4) + "\"/>");
+                    output.write("</sourcefile>");
+                }
+
+                output.write("</package>");
+            }
+
+            output.write("</report>");
+        }
+    }
+
+    private SyntheticReports() {
+        throw new AssertionError();
+    }
+}
@@ -0,0 +1,82 @@
+package org.netbeans.gradle.project.coverage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.jtrim.cancel.Cancellation;
+import org.netbeans.gradle.project.benchmark.SyntheticReports;
+import org.netbeans.gradle.project.util.NbFileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+/**
+ * Measures parsing a JaCoCo XML report and reading the line coverage of every
+ * source file from it, like {@code GradleCoverageProvider.getResults} does
+ * (without looking up the source files on the source path).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class GradleCoverageProviderBenchmark {
+    private static final int FILES_PER_PACKAGE = 20;
+    private static final int LINES_PER_FILE = 100;
+
+    @Param({"10", "100"})
+    public int packageCount;
+
+    private Path tempDir;
+    private File reportFile;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        tempDir = Files.createTempDirectory("nb-gradle-coverage-benchmark");
+        reportFile = tempDir.resolve("jacocoTestReport.xml").toFile();
+        SyntheticReports.writeJacocoReport(reportFile, packageCount, FILES_PER_PACKAGE, LINES_PER_FILE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        NbFileUtils.deleteDirectory(Cancellation.UNCANCELABLE_TOKEN, tempDir);
+    }
+
+    @Benchmark
+    public int readLineCoverage() throws IOException, SAXException {
+        Document report = GradleCoverageProvider.parseReport(reportFile);
+
+        int executedLineCount = 0;
+        NodeList sourceFiles = report.getElementsByTagName("sourcefile");
+        for (int i = 0; i < sourceFiles.getLength(); i++) {
+            NodeList lines = sourceFiles.item(i).getChildNodes();
+            for (int j = 0; j < lines.getLength(); j++) {
+                Node line = lines.item(j);
+                if (line instanceof Element && "line".equals(((Element)line).getTagName())) {
+                    if (!"0".equals(((Element)line).getAttribute("ci"))) {
+                        executedLineCount++;
+                    }
+                }
+            }
+        }
+        return executedLineCount;
+    }
+}
@@ -0,0 +1,146 @@
+package org.netbeans.gradle.project.java.model;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.netbeans.gradle.model.GenericProjectProperties;
+import org.netbeans.gradle.model.java.JavaClassPaths;
+import org.netbeans.gradle.model.java.JavaCompatibilityModel;
+import org.netbeans.gradle.model.java.JavaOutputDirs;
+import org.netbeans.gradle.model.java.JavaSourceGroup;
+import org.netbeans.gradle.model.java.JavaSourceGroupName;
+import org.netbeans.gradle.model.java.JavaSourceSet;
+import org.netbeans.gradle.model.java.JavaTestModel;
+import org.netbeans.gradle.model.java.JavaTestTask;
+import org.netbeans.gradle.model.java.SourceIncludePatterns;
+import org.netbeans.gradle.project.util.ExcludeIncludeRules;
+import org.netbeans.gradle.project.util.NbFileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares finding the source set of a source file with {@link JavaSourceRootIndex}
+ * to scanning every class path entry and source root of the source sets (which
+ * is what {@code GradleClassPathProvider} did before the index).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class JavaSourceRootIndexBenchmark {
+    private static final File PROJECT_DIR = new File("benchmark-project").getAbsoluteFile();
+    private static final File GRADLE_CACHE = new File("gradle-cache").getAbsoluteFile();
+
+    @Param({"40", "400"})
+    public int classPathSize;
+
+    private List<JavaSourceSet> sourceSets;
+    private NbJavaModule module;
+    private JavaSourceRootIndex index;
+    private File testSourceFile;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        List<File> mainClassPath = new ArrayList<>(classPathSize);
+        for (int i = 0; i < classPathSize; i++) {
+            File artifactDir = new File(new File(GRADLE_CACHE, "org.example.group" + (i % 20)), "artifact" + i);
+            mainClassPath.add(new File(artifactDir, "artifact" + i + "-1.0.jar"));
+        }
+
+        List<File> testClassPath = new ArrayList<>(mainClassPath);
+        testClassPath.add(new File(PROJECT_DIR, "build/classes/main"));
+
+        sourceSets = Arrays.asList(
+                sourceSet("main", mainClassPath),
+                sourceSet("test", testClassPath));
+        module = new NbJavaModule(
+                new GenericProjectProperties("benchmark", ":benchmark", PROJECT_DIR, new File(PROJECT_DIR, "build.gradle")),
+                new JavaCompatibilityModel("1.8", "1.8"),
+                sourceSets,
+                Collections.<NbListedDir>emptyList(),
+                Collections.<NbJarOutput>emptyList(),
+                new JavaTestModel(Collections.<JavaTestTask>emptyList()),
+                NbCodeCoverage.NO_CODE_COVERAGE);
+        index = module.getSourceRootIndex();
+
+        testSourceFile = new File(PROJECT_DIR, "src/test/java/org/example/benchmark/pckg/MyClassTest.java");
+    }
+
+    private static JavaSourceSet sourceSet(String name, List<File> classPath) {
+        File buildDir = new File(PROJECT_DIR, "build");
+        JavaSourceSet.Builder result = new JavaSourceSet.Builder(name, new JavaOutputDirs(
+                Collections.singleton(new File(buildDir, "classes/" + name)),
+                new File(buildDir, "resources/" + name),
+                Collections.<File>emptyList()));
+        result.setClasspaths(new JavaClassPaths(classPath));
+
+        File srcDir = new File(PROJECT_DIR, "src/" + name);
+        result.addSourceGroup(new JavaSourceGroup(
+                JavaSourceGroupName.JAVA,
+                Collections.singleton(new File(srcDir, "java")),
+                SourceIncludePatterns.create(Arrays.asList("**/generated/**"), Collections.<String>emptyList())));
+        result.addSourceGroup(new JavaSourceGroup(
+                JavaSourceGroupName.RESOURCES,
+                Collections.singleton(new File(srcDir, "resources"))));
+        return result.create();
+    }
+
+    @Benchmark
+    public JavaSourceSet indexLookup() {
+        return index.tryGetClassPathSourceSet(testSourceFile);
+    }
+
+    @Benchmark
+    public JavaSourceRootIndex createIndex() {
+        return JavaSourceRootIndex.create(module);
+    }
+
+    @Benchmark
+    public JavaSourceSet linearScan() {
+        for (JavaSourceSet sourceSet: sourceSets) {
+            if (isInOneOf(testSourceFile, sourceSet.getClasspaths().getCompileClasspaths(), null)) {
+                return sourceSet;
+            }
+
+            if (isInOneOf(testSourceFile, sourceSet.getClasspaths().getRuntimeClasspaths(), null)) {
+                return sourceSet;
+            }
+
+            for (JavaSourceGroup sourceGroup: sourceSet.getSourceGroups()) {
+                ExcludeIncludeRules excludeRules = ExcludeIncludeRules.create(sourceGroup);
+                if (isInOneOf(testSourceFile, sourceGroup.getSourceRoots(), excludeRules)) {
+                    return sourceSet;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean isInOneOf(File file, Collection<File> roots, ExcludeIncludeRules excludeRules) {
+        for (File root: roots) {
+            if (NbFileUtils.isParentOrSame(root, file)) {
+                if (excludeRules == null) {
+                    return true;
+                }
+                return excludeRules.isIncluded(root.toPath(), file);
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,117 @@
+package org.netbeans.gradle.project.java.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+import org.jtrim.cancel.Cancellation;
+import org.netbeans.gradle.project.benchmark.BenchmarkProject;
+import org.netbeans.gradle.project.benchmark.SyntheticReports;
+import org.netbeans.gradle.project.others.test.NbGradleTestSession;
+import org.netbeans.gradle.project.others.test.NbGradleTestSuite;
+import org.netbeans.gradle.project.util.NbFileUtils;
+import org.netbeans.modules.gsf.testrunner.api.TestSession;
+import org.netbeans.modules.gsf.testrunner.api.Testcase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures parsing a JUnit XML report into test cases. The parsed test cases
+ * are passed to a test session ignoring them instead of the test results
+ * window.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class TestXmlDisplayerBenchmark {
+    @Param({"100", "1000", "10000"})
+    public int testCount;
+
+    private Path tempDir;
+    private File reportFile;
+    private SAXParser parser;
+    private NbGradleTestSession testSession;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        tempDir = Files.createTempDirectory("nb-gradle-test-report-benchmark");
+        reportFile = tempDir.resolve("TEST-org.example.SyntheticTest.xml").toFile();
+        SyntheticReports.writeJUnitReport(reportFile, testCount);
+
+        parser = SAXParserFactory.newInstance().newSAXParser();
+        testSession = new DiscardingTestSession(new BenchmarkProject(tempDir));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        NbFileUtils.deleteDirectory(Cancellation.UNCANCELABLE_TOKEN, tempDir);
+    }
+
+    @Benchmark
+    public void parseReport() throws Exception {
+        TestXmlDisplayer.displayTestSuite(reportFile, parser, testSession);
+    }
+
+    private static final class DiscardingTestSession implements NbGradleTestSession {
+        private final TestSession gsfSession;
+
+        public DiscardingTestSession(BenchmarkProject project) {
+            this.gsfSession = new TestSession("benchmark", project, TestSession.SessionType.TEST);
+        }
+
+        @Override
+        public NbGradleTestSuite startTestSuite(String suiteName) {
+            return new DiscardingTestSuite(gsfSession);
+        }
+
+        @Override
+        public void displayOutput(String output, boolean error) {
+        }
+
+        @Override
+        public void endSession() {
+        }
+    }
+
+    private static final class DiscardingTestSuite implements NbGradleTestSuite {
+        private final TestSession gsfSession;
+
+        public DiscardingTestSuite(TestSession gsfSession) {
+            this.gsfSession = gsfSession;
+        }
+
+        @Override
+        public Testcase addTestcase(String name) {
+            return new Testcase(name, null, gsfSession);
+        }
+
+        @Override
+        public void setStdOut(String stdOut) {
+        }
+
+        @Override
+        public void setStdErr(String stdErr) {
+        }
+
+        @Override
+        public void endSuite(long elapsedTimeInMillis) {
+        }
+    }
+}
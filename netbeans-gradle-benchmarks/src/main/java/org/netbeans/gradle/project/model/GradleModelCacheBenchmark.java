@@ -0,0 +1,90 @@
+package org.netbeans.gradle.project.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.netbeans.gradle.project.benchmark.SyntheticBuild;
+import org.openide.filesystems.FileUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures introducing the models of a whole build into the cache (this
+ * happens after each model load) and looking up the model of every project
+ * (this happens when opening the projects of the build).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class GradleModelCacheBenchmark {
+    @Param({"10", "100", "1000"})
+    public int subprojectCount;
+
+    private SyntheticBuild build;
+    private List<NbGradleModel> models;
+    private List<File> projectDirs;
+    private File settingsFile;
+    private GradleModelCache filledCache;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        build = SyntheticBuild.create(subprojectCount);
+        models = build.getModels();
+        settingsFile = FileUtil.normalizeFile(build.getSettingsFile().toFile());
+
+        projectDirs = new ArrayList<>(models.size());
+        for (NbGradleModel model: models) {
+            projectDirs.add(model.getProjectDir());
+        }
+
+        filledCache = new GradleModelCache(models.size());
+        for (NbGradleModel model: models) {
+            filledCache.updateEntry(model);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        build.close();
+    }
+
+    @Benchmark
+    public GradleModelCache introduceBuildToEmptyCache() {
+        GradleModelCache cache = new GradleModelCache(models.size());
+        for (NbGradleModel model: models) {
+            cache.updateEntry(model);
+        }
+        return cache;
+    }
+
+    @Benchmark
+    public void updateBuildInFilledCache(Blackhole blackhole) {
+        for (NbGradleModel model: models) {
+            blackhole.consume(filledCache.updateEntry(model));
+        }
+    }
+
+    @Benchmark
+    public void lookupEveryProject(Blackhole blackhole) {
+        for (File projectDir: projectDirs) {
+            blackhole.consume(filledCache.tryGet(projectDir, settingsFile));
+        }
+    }
+}
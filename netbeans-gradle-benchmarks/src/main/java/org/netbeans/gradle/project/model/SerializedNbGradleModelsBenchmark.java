@@ -0,0 +1,78 @@
+package org.netbeans.gradle.project.model;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.netbeans.gradle.project.benchmark.SyntheticBuild;
+import org.netbeans.gradle.project.util.SerializationUtils2;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures persisting and reading back the model of a single project the
+ * same way {@code PersistentProjectModelStoreFactory} does it. The model
+ * contains the project tree of the whole build, so its size depends on the
+ * number of projects in the build.
+ * <P>
+ * Deserializing the extension models is not measured, because it requires
+ * the extensions of a loaded project.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class SerializedNbGradleModelsBenchmark {
+    @Param({"10", "100", "1000"})
+    public int subprojectCount;
+
+    private SyntheticBuild build;
+    private NbGradleModel model;
+    private Path persistedModel;
+    private Path tempFile;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        build = SyntheticBuild.create(subprojectCount);
+        model = build.getModels().get(build.getModels().size() - 1);
+
+        persistedModel = build.getRootDir().resolve("persisted-model.bin");
+        SerializationUtils2.serializeToFile(persistedModel, SerializedNbGradleModels.createSerialized(model));
+
+        tempFile = build.getRootDir().resolve("temp-model.bin");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        build.close();
+    }
+
+    @Benchmark
+    public SerializedNbGradleModels createSerialized() {
+        return SerializedNbGradleModels.createSerialized(model);
+    }
+
+    @Benchmark
+    public long persistModel() throws IOException {
+        SerializationUtils2.serializeToFile(tempFile, SerializedNbGradleModels.createSerialized(model));
+        return Files.size(tempFile);
+    }
+
+    @Benchmark
+    public Object loadPersistedModel() throws IOException {
+        return SerializationUtils2.deserializeFile(persistedModel);
+    }
+}
@@ -0,0 +1,103 @@
+package org.netbeans.gradle.project.output;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.jtrim.cancel.Cancellation;
+import org.netbeans.gradle.project.api.task.TaskOutputProcessor;
+import org.netbeans.gradle.project.benchmark.BenchmarkProject;
+import org.netbeans.gradle.project.benchmark.NullInputOutput;
+import org.netbeans.gradle.project.benchmark.SyntheticReports;
+import org.netbeans.gradle.project.util.NbFileUtils;
+import org.openide.windows.InputOutput;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures forwarding the output of a build to the output window: splitting
+ * the output into lines and searching links in the lines with the same link
+ * finders as {@code AsyncGradleTask} uses for the standard error.
+ * <P>
+ * The stack trace links are searched on an empty class path, because the
+ * benchmark project has no class path provider.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class OutputProcessingBenchmark {
+    @Param({"10000", "100000"})
+    public int lineCount;
+
+    private Path projectDir;
+    private String logText;
+    private InputOutput io;
+    private List<SmartOutputHandler.Consumer> consumers;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        projectDir = Files.createTempDirectory("nb-gradle-output-benchmark");
+        logText = SyntheticReports.toLogText(SyntheticReports.createLogLines(projectDir, lineCount));
+        io = new NullInputOutput();
+
+        BenchmarkProject project = new BenchmarkProject(projectDir);
+        consumers = Arrays.<SmartOutputHandler.Consumer>asList(
+                new BuildErrorConsumer(),
+                new OutputLinkPrinter(
+                        new StackTraceConsumer(project),
+                        new OutputUrlConsumer(),
+                        SubPathConsumer.pathLinks(Collections.singletonList(projectDir)),
+                        new FileLineConsumer(),
+                        new RegexpFileLineConsumer()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        NbFileUtils.deleteDirectory(Cancellation.UNCANCELABLE_TOKEN, projectDir);
+    }
+
+    private void forwardLog(List<SmartOutputHandler.Consumer> lineConsumers) throws IOException {
+        SmartOutputHandler handler = new SmartOutputHandler(
+                io,
+                io.getOut(),
+                Collections.<TaskOutputProcessor>emptyList(),
+                lineConsumers);
+
+        try (Writer output = new LineOutputWriter(handler)) {
+            // Gradle forwards the output in small chunks.
+            int chunkSize = 4096;
+            for (int offset = 0; offset < logText.length(); offset += chunkSize) {
+                int length = Math.min(chunkSize, logText.length() - offset);
+                output.write(logText, offset, length);
+            }
+        }
+    }
+
+    @Benchmark
+    public void forwardWithLinkFinders() throws IOException {
+        forwardLog(consumers);
+    }
+
+    @Benchmark
+    public void forwardWithoutLinkFinders() throws IOException {
+        forwardLog(Collections.<SmartOutputHandler.Consumer>emptyList());
+    }
+}
@@ -0,0 +1,93 @@
+package org.netbeans.gradle.project.properties;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.stream.StreamResult;
+import org.netbeans.gradle.project.api.config.ConfigTree;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Document;
+import org.xml.sax.SAXException;
+
+/**
+ * Measures building configuration trees and converting them from and to the
+ * XML format of the project properties. The tree has {@code depth} levels
+ * with {@value #CHILD_COUNT} children on each level and a value in every
+ * leaf.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class ConfigXmlUtilsBenchmark {
+    private static final int CHILD_COUNT = 4;
+
+    @Param({"3", "6"})
+    public int depth;
+
+    private ConfigTree tree;
+    private byte[] xmlContent;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException, ParserConfigurationException {
+        tree = buildTree();
+        xmlContent = toXml(tree);
+    }
+
+    private static void addChildren(ConfigTree.Builder builder, String prefix, int remainingDepth) {
+        for (int i = 0; i < CHILD_COUNT; i++) {
+            String key = prefix + "-" + i;
+            ConfigTree.Builder childBuilder = builder.addChildBuilder(key);
+            if (remainingDepth <= 1) {
+                childBuilder.setValue("value of " + key);
+            }
+            else {
+                addChildren(childBuilder, key, remainingDepth - 1);
+            }
+        }
+    }
+
+    private static byte[] toXml(ConfigTree tree) throws IOException, ParserConfigurationException {
+        Document document = ConfigXmlUtils.createXml(tree);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream(64 * 1024);
+        ConfigXmlUtils.savePrettyXmlDocument(document, new StreamResult(output));
+        return output.toByteArray();
+    }
+
+    @Benchmark
+    public ConfigTree buildTree() {
+        ConfigTree.Builder result = new ConfigTree.Builder();
+        addChildren(result, "node", depth);
+        return result.create();
+    }
+
+    @Benchmark
+    public byte[] saveTree() throws IOException, ParserConfigurationException {
+        return toXml(tree);
+    }
+
+    @Benchmark
+    public ConfigTree loadTree() throws IOException, ParserConfigurationException, SAXException {
+        Document document = DocumentBuilderFactory.newInstance()
+                .newDocumentBuilder()
+                .parse(new ByteArrayInputStream(xmlContent));
+        return ConfigXmlUtils.parseDocument(document, ConfigXmlUtils.AUXILIARY_NODE_NAME).create();
+    }
+}
@@ -0,0 +1,87 @@
+package org.netbeans.gradle.project.util;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures filtering the files of a source root with exclude and include
+ * patterns, which is done for every file shown in the project view and
+ * for every file the source queries are asked about.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class ExcludeIncludeBenchmark {
+    private static final Collection<String> EXCLUDE_PATTERNS = Arrays.asList(
+            "**/internal/**",
+            "**/*Generated.java",
+            "org/example/legacy/");
+    private static final Collection<String> INCLUDE_PATTERNS = Arrays.asList(
+            "org/example/**",
+            "**/*.java");
+
+    @Param({"1000"})
+    public int fileCount;
+
+    private Path rootPath;
+    private List<Path> files;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        rootPath = Paths.get("synthetic", "module0", "src", "main", "java").toAbsolutePath();
+
+        String[] packages = {"api", "impl", "internal", "legacy", "util"};
+        String[] suffixes = {"", "Generated", "Test", "Impl"};
+
+        files = new ArrayList<>(fileCount);
+        for (int i = 0; i < fileCount; i++) {
+            String packageName = packages[i % packages.length];
+            String className = "Class" + i + suffixes[i % suffixes.length] + ".java";
+            files.add(rootPath.resolve("org/example/" + packageName + "/sub" + (i % 7) + "/" + className));
+        }
+    }
+
+    @Benchmark
+    public int filterWithPatterns() {
+        int includedCount = 0;
+        for (Path file: files) {
+            if (ExcludeInclude.includeFile(file, rootPath, EXCLUDE_PATTERNS, INCLUDE_PATTERNS)) {
+                includedCount++;
+            }
+        }
+        return includedCount;
+    }
+
+    @Benchmark
+    public int filterWithoutPatterns() {
+        int includedCount = 0;
+        for (Path file: files) {
+            if (ExcludeInclude.includeFile(file, rootPath,
+                    Collections.<String>emptySet(), Collections.<String>emptySet())) {
+                includedCount++;
+            }
+        }
+        return includedCount;
+    }
+}
@@ -11,19 +11,23 @@ final class ActionFetchedProjectModels implements Serializable {
 
     private final GradleMultiProjectDef projectDef;
     private final CustomSerializedMap projectInfoResults;
+    private final CustomSerializedMap projectInfoIssues;
     private final Map<Class<?>, Object> toolingModels;
     private final Throwable issue;
 
     public ActionFetchedProjectModels(
             GradleMultiProjectDef projectDef,
             CustomSerializedMap projectInfoResults,
+            CustomSerializedMap projectInfoIssues,
             Map<Class<?>, Object> toolingModels,
             Throwable issue) {
         if (projectDef == null) throw new NullPointerException("projectDef");
         if (projectInfoResults == null) throw new NullPointerException("projectInfoResults");
+        if (projectInfoIssues == null) throw new NullPointerException("projectInfoIssues");
 
         this.projectDef = projectDef;
         this.projectInfoResults = projectInfoResults;
+        this.projectInfoIssues = projectInfoIssues;
         this.toolingModels = CollectionUtils.copyNullSafeHashMap(toolingModels);
         this.issue = TransferableExceptionWrapper.wrap(issue);
     }
@@ -40,6 +44,10 @@ final class ActionFetchedProjectModels implements Serializable {
         return projectInfoResults;
     }
 
+    public CustomSerializedMap getProjectInfoIssues() {
+        return projectInfoIssues;
+    }
+
     public Map<Class<?>, Object> getToolingModels() {
         return toolingModels;
     }
@@ -8,10 +8,22 @@ public final class BuilderResult implements Serializable {
 
     private final Object resultObject;
     private final BuilderIssue issue;
+    private final String builderName;
+    private final long buildTimeNanos;
 
     public BuilderResult(Object resultObject, BuilderIssue issue) {
+        this(resultObject, issue, null, -1);
+    }
+
+    public BuilderResult(Object resultObject, BuilderIssue issue, long buildTimeNanos) {
+        this(resultObject, issue, null, buildTimeNanos);
+    }
+
+    public BuilderResult(Object resultObject, BuilderIssue issue, String builderName, long buildTimeNanos) {
         this.resultObject = resultObject;
         this.issue = issue;
+        this.builderName = builderName;
+        this.buildTimeNanos = buildTimeNanos;
     }
 
     public Object getResultObject() {
@@ -22,6 +34,22 @@ public final class BuilderResult implements Serializable {
         return issue;
     }
 
+    /**
+     * Returns the name of the builder which created this result, or
+     * {@code null} if it is not known.
+     */
+    public String getBuilderName() {
+        return builderName;
+    }
+
+    /**
+     * Returns the wall time spent in the builder creating the result, or
+     * a negative value if it was not measured.
+     */
+    public long getBuildTimeNanos() {
+        return buildTimeNanos;
+    }
+
     public Object getResultIfNoIssue() {
         if (issue != null) {
             throw Exceptions.throwUnchecked(issue.getException());
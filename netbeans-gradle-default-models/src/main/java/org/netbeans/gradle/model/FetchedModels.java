@@ -14,11 +14,22 @@ public final class FetchedModels implements Serializable {
     private final FetchedBuildModels buildModels;
     private final FetchedProjectModels defaultProjectModels;
     private final Collection<FetchedProjectModels> otherProjectModels;
+    private final long buildActionTimeNanos;
+    private final long deserializeTimeNanos;
 
     public FetchedModels(
             FetchedBuildModels buildModels,
             FetchedProjectModels defaultProjectModels,
             Collection<FetchedProjectModels> otherProjectModels) {
+        this(buildModels, defaultProjectModels, otherProjectModels, -1, -1);
+    }
+
+    public FetchedModels(
+            FetchedBuildModels buildModels,
+            FetchedProjectModels defaultProjectModels,
+            Collection<FetchedProjectModels> otherProjectModels,
+            long buildActionTimeNanos,
+            long deserializeTimeNanos) {
         if (buildModels == null) throw new NullPointerException("buildModels");
         if (defaultProjectModels == null) throw new NullPointerException("defaultProjectModels");
 
@@ -27,6 +38,9 @@ public final class FetchedModels implements Serializable {
         this.otherProjectModels = Collections.unmodifiableList(new ArrayList<FetchedProjectModels>(otherProjectModels));
 
         CollectionUtils.checkNoNullElements(this.otherProjectModels, "otherProjectModels");
+
+        this.buildActionTimeNanos = buildActionTimeNanos;
+        this.deserializeTimeNanos = deserializeTimeNanos;
     }
 
     public FetchedBuildModels getBuildModels() {
@@ -44,4 +58,24 @@ public final class FetchedModels implements Serializable {
     public Collection<FetchedProjectModels> getOtherProjectModels() {
         return otherProjectModels;
     }
+
+    /**
+     * Returns the wall time the build action took from the perspective of
+     * the caller: This includes evaluating the build scripts, running the
+     * builders and sending their results. Returns a negative value if this
+     * was not measured.
+     */
+    public long getBuildActionTimeNanos() {
+        return buildActionTimeNanos;
+    }
+
+    /**
+     * Returns the wall time it took to deserialize the results of the
+     * builders after receiving them, or a negative value if this was not
+     * measured. The results of the project info builders are deserialized
+     * lazily, so their deserialization is not included.
+     */
+    public long getDeserializeTimeNanos() {
+        return deserializeTimeNanos;
+    }
 }
@@ -1,8 +1,11 @@
 package org.netbeans.gradle.model;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.netbeans.gradle.model.util.CollectionUtils;
 import org.netbeans.gradle.model.util.TransferableExceptionWrapper;
 
@@ -13,12 +16,23 @@ public final class FetchedProjectModels implements Serializable {
     private final Map<Object, List<BuilderResult>> projectInfoResults;
     private final Map<Class<?>, Object> toolingModels;
     private final Throwable issue;
+    private final Map<Object, Integer> projectInfoResultSizes;
+    private final transient Map<Object, GradleInfoQueryMap.LazyResults> lazyProjectInfoResults;
 
     public FetchedProjectModels(
             GradleMultiProjectDef projectDef,
             Map<Object, List<?>> projectInfoResults,
             Map<Class<?>, Object> toolingModels,
             Throwable issue) {
+        this(projectDef, projectInfoResults, toolingModels, issue, Collections.<Object, Integer>emptyMap());
+    }
+
+    public FetchedProjectModels(
+            GradleMultiProjectDef projectDef,
+            Map<Object, List<?>> projectInfoResults,
+            Map<Class<?>, Object> toolingModels,
+            Throwable issue,
+            Map<Object, Integer> projectInfoResultSizes) {
         if (projectDef == null) throw new NullPointerException("projectDef");
 
         this.projectDef = projectDef;
@@ -27,6 +41,55 @@ public final class FetchedProjectModels implements Serializable {
 
         this.toolingModels = CollectionUtils.copyNullSafeHashMap(toolingModels);
         this.issue = TransferableExceptionWrapper.wrap(issue);
+        this.projectInfoResultSizes = CollectionUtils.copyNullSafeHashMap(projectInfoResultSizes);
+        this.lazyProjectInfoResults = null;
+    }
+
+    private FetchedProjectModels(
+            GradleMultiProjectDef projectDef,
+            Map<Object, List<BuilderResult>> projectInfoResults,
+            Map<Object, GradleInfoQueryMap.LazyResults> lazyProjectInfoResults,
+            Map<Class<?>, Object> toolingModels,
+            Throwable issue,
+            Map<Object, Integer> projectInfoResultSizes) {
+        this.projectDef = projectDef;
+        this.projectInfoResults = projectInfoResults;
+        this.lazyProjectInfoResults = lazyProjectInfoResults;
+        this.toolingModels = toolingModels;
+        this.issue = issue;
+        this.projectInfoResultSizes = projectInfoResultSizes;
+    }
+
+    /**
+     * Creates a {@code FetchedProjectModels} whose project info results are
+     * only deserialized when they are first requested. Serializing the
+     * returned object deserializes all the project info results.
+     */
+    static FetchedProjectModels createLazy(
+            GradleMultiProjectDef projectDef,
+            Map<Object, GradleInfoQueryMap.LazyResults> lazyProjectInfoResults,
+            Map<Class<?>, Object> toolingModels,
+            Throwable issue,
+            Map<Object, Integer> projectInfoResultSizes) {
+        if (projectDef == null) throw new NullPointerException("projectDef");
+
+        return new FetchedProjectModels(
+                projectDef,
+                null,
+                CollectionUtils.copyNullSafeHashMap(lazyProjectInfoResults),
+                CollectionUtils.copyNullSafeHashMap(toolingModels),
+                TransferableExceptionWrapper.wrap(issue),
+                CollectionUtils.copyNullSafeHashMap(projectInfoResultSizes));
+    }
+
+    private static List<BuilderResult> toBuilderResults(List<?> results) {
+        for (Object result: results) {
+            BuilderResult.class.cast(result);
+        }
+
+        @SuppressWarnings("unchecked")
+        List<BuilderResult> builderResults = (List<BuilderResult>)results;
+        return builderResults;
     }
 
     public Throwable getIssue() {
@@ -37,11 +100,142 @@ public final class FetchedProjectModels implements Serializable {
         return projectDef;
     }
 
+    /**
+     * Returns the results of all the project info builders. Calling this
+     * method deserializes all the results not yet deserialized, so prefer
+     * {@link #getProjectInfoResults(Object) getProjectInfoResults(key)} when
+     * only the results of some keys are needed.
+     */
     public Map<Object, List<BuilderResult>> getProjectInfoResults() {
-        return projectInfoResults;
+        if (lazyProjectInfoResults == null) {
+            return projectInfoResults;
+        }
+
+        Map<Object, List<BuilderResult>> result = CollectionUtils.newHashMap(lazyProjectInfoResults.size());
+        for (Map.Entry<Object, GradleInfoQueryMap.LazyResults> entry: lazyProjectInfoResults.entrySet()) {
+            result.put(entry.getKey(), toBuilderResults(entry.getValue().getResults()));
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Returns the results of the project info builders of the given key. The
+     * results of other keys are not deserialized by this method.
+     *
+     * @return the results of the project info builders of the given key. This
+     *   method never returns {@code null}, if there are no results for the
+     *   given key, an empty list is returned.
+     */
+    public List<BuilderResult> getProjectInfoResults(Object key) {
+        List<BuilderResult> result;
+        if (lazyProjectInfoResults == null) {
+            result = projectInfoResults.get(key);
+        }
+        else {
+            GradleInfoQueryMap.LazyResults lazyResults = lazyProjectInfoResults.get(key);
+            result = lazyResults != null
+                    ? toBuilderResults(lazyResults.getResults())
+                    : null;
+        }
+
+        return result != null
+                ? result
+                : Collections.<BuilderResult>emptyList();
+    }
+
+    /**
+     * Returns the results of the failed project info builders of the given
+     * key. Unlike {@link #getProjectInfoResults(Object) getProjectInfoResults(key)},
+     * this method does not deserialize the successfully built models.
+     * <P>
+     * Note that failing to deserialize a result (when it is first requested)
+     * is not included in the returned list.
+     *
+     * @return the results of the failed project info builders of the given
+     *   key. This method never returns {@code null}, if there are no such
+     *   results for the given key, an empty list is returned.
+     */
+    public List<BuilderResult> getProjectInfoIssues(Object key) {
+        List<BuilderResult> allResults;
+        if (lazyProjectInfoResults == null) {
+            allResults = projectInfoResults.get(key);
+        }
+        else {
+            GradleInfoQueryMap.LazyResults lazyResults = lazyProjectInfoResults.get(key);
+            allResults = lazyResults != null
+                    ? toBuilderResults(lazyResults.getIssues())
+                    : null;
+        }
+
+        if (allResults == null) {
+            return Collections.emptyList();
+        }
+
+        List<BuilderResult> result = new ArrayList<BuilderResult>();
+        for (BuilderResult builderResult: allResults) {
+            if (builderResult.getIssue() != null) {
+                result.add(builderResult);
+            }
+        }
+        return result;
+    }
+
+    public Set<Object> getProjectInfoResultKeys() {
+        Set<Object> keys = lazyProjectInfoResults != null
+                ? lazyProjectInfoResults.keySet()
+                : projectInfoResults.keySet();
+        return Collections.unmodifiableSet(keys);
+    }
+
+    /**
+     * Returns the results of the project info builders which were already
+     * deserialized. This method does not deserialize anything.
+     */
+    public Map<Object, List<BuilderResult>> getLoadedProjectInfoResults() {
+        if (lazyProjectInfoResults == null) {
+            return projectInfoResults;
+        }
+
+        Map<Object, List<BuilderResult>> result = CollectionUtils.newHashMap(lazyProjectInfoResults.size());
+        for (Map.Entry<Object, GradleInfoQueryMap.LazyResults> entry: lazyProjectInfoResults.entrySet()) {
+            GradleInfoQueryMap.LazyResults lazyResults = entry.getValue();
+            if (lazyResults.isDeserialized()) {
+                result.put(entry.getKey(), toBuilderResults(lazyResults.getResults()));
+            }
+        }
+        return Collections.unmodifiableMap(result);
     }
 
     public Map<Class<?>, Object> getToolingModels() {
         return toolingModels;
     }
+
+    /**
+     * Returns the number of bytes the results of the project info builders
+     * took when sent by Gradle, summed for each key of
+     * {@link #getProjectInfoResults() getProjectInfoResults()}.
+     *
+     * @return the serialized size of the project info builder results per
+     *   key. This method never returns {@code null} but the map may not
+     *   contain all the keys (e.g., if the size is unknown).
+     */
+    public Map<Object, Integer> getProjectInfoResultSizes() {
+        return projectInfoResultSizes != null
+                ? projectInfoResultSizes
+                : Collections.<Object, Integer>emptyMap();
+    }
+
+    private Object writeReplace() {
+        if (lazyProjectInfoResults == null) {
+            return this;
+        }
+
+        return new FetchedProjectModels(
+                projectDef,
+                getProjectInfoResults(),
+                null,
+                toolingModels,
+                issue,
+                projectInfoResultSizes);
+    }
 }
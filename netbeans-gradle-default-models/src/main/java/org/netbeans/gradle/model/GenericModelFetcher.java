@@ -25,6 +25,7 @@ import org.gradle.tooling.model.gradle.BasicGradleProject;
 import org.gradle.tooling.model.gradle.GradleBuild;
 import org.netbeans.gradle.model.api.GradleProjectInfoQuery2;
 import org.netbeans.gradle.model.internal.CustomSerializedMap;
+import org.netbeans.gradle.model.internal.FilePathDictionary;
 import org.netbeans.gradle.model.internal.ModelQueryInput;
 import org.netbeans.gradle.model.internal.ModelQueryOutput;
 import org.netbeans.gradle.model.internal.ModelQueryOutputRef;
@@ -86,9 +87,11 @@ public final class GenericModelFetcher {
         GenericModelFetcher.initScriptPrefix = initScriptPrefix;
     }
 
-    private FetchedModelsOrError transformActionModels(ActionFetchedModelsOrError actionModels) {
+    private FetchedModelsOrError transformActionModels(
+            ActionFetchedModelsOrError actionModels,
+            long buildActionTimeNanos) {
         return new FetchedModelsOrError(
-                transformActionModels(actionModels.getModels()),
+                transformActionModels(actionModels.getModels(), buildActionTimeNanos),
                 actionModels.getBuildScriptEvaluationError(),
                 actionModels.getUnexpectedError());
     }
@@ -96,12 +99,15 @@ public final class GenericModelFetcher {
     private FetchedProjectModels transformActionModels(ActionFetchedProjectModels actionModels) {
         GradleMultiProjectDef projectDef = actionModels.getProjectDef();
         Map<Class<?>, Object> toolingModels = actionModels.getToolingModels();
-        Map<Object, List<?>> projectInfoResults = projectInfoBuilders.deserializeResults(
+        Map<Object, GradleInfoQueryMap.LazyResults> projectInfoResults = projectInfoBuilders.deserializeResultsLazily(
                 actionModels.getProjectInfoResults(),
+                actionModels.getProjectInfoIssues(),
                 GradleInfoQueryMap.builderIssueTransformer());
         Throwable issue = actionModels.getIssue();
+        Map<Object, Integer> projectInfoResultSizes
+                = GradleInfoQueryMap.getSerializedSizes(actionModels.getProjectInfoResults());
 
-        return new FetchedProjectModels(projectDef, projectInfoResults, toolingModels, issue);
+        return FetchedProjectModels.createLazy(projectDef, projectInfoResults, toolingModels, issue, projectInfoResultSizes);
     }
 
     private Collection<FetchedProjectModels> transformActionModels(Collection<ActionFetchedProjectModels> actionModels) {
@@ -112,11 +118,13 @@ public final class GenericModelFetcher {
         return result;
     }
 
-    private FetchedModels transformActionModels(ActionFetchedModels actionModels) {
+    private FetchedModels transformActionModels(ActionFetchedModels actionModels, long buildActionTimeNanos) {
         if (actionModels == null) {
             return null;
         }
 
+        long deserializeStartTime = System.nanoTime();
+
         Map<Object, List<?>> buildModels = buildInfoBuilders.deserializeResults(
                 actionModels.getBuildModels(),
                 GradleInfoQueryMap.builderIssueTransformer());
@@ -125,7 +133,14 @@ public final class GenericModelFetcher {
         Collection<FetchedProjectModels> otherProjectModels
                 = transformActionModels(actionModels.getOtherProjectModels());
 
-        return new FetchedModels(new FetchedBuildModels(buildModels), defaultProjectModels, otherProjectModels);
+        long deserializeTime = System.nanoTime() - deserializeStartTime;
+
+        return new FetchedModels(
+                new FetchedBuildModels(buildModels),
+                defaultProjectModels,
+                otherProjectModels,
+                buildActionTimeNanos,
+                deserializeTime);
     }
 
     public FetchedModelsOrError getModels(ProjectConnection connection, OperationInitializer init) throws IOException {
@@ -165,7 +180,11 @@ public final class GenericModelFetcher {
 
                 executer.withArguments(executerArgs);
 
-                return transformActionModels(executer.run());
+                long buildActionStartTime = System.nanoTime();
+                ActionFetchedModelsOrError actionModels = executer.run();
+                long buildActionTime = System.nanoTime() - buildActionStartTime;
+
+                return transformActionModels(actionModels, buildActionTime);
             } finally {
                 initScriptRef.close();
             }
@@ -379,6 +398,7 @@ public final class GenericModelFetcher {
         private final String defaultProjectPath;
 
         private final SerializationCache serializationCache;
+        private final FilePathDictionary sharedFilePaths;
 
         public AllProjectInfoBuilder(Set<Class<?>> modelClasses, EvaluatedBuild evaluatedBuild) {
             int projectCount = evaluatedBuild.allProjects.size();
@@ -387,6 +407,7 @@ public final class GenericModelFetcher {
             this.customInfos = CollectionUtils.newHashMap(projectCount);
             this.basicRootProject = evaluatedBuild.buildModel.getRootProject();
             this.serializationCache = SerializationCaches.getDefault();
+            this.sharedFilePaths = new FilePathDictionary();
             this.defaultProjectPath = addCustomInfo(defaultModelGetter(evaluatedBuild.controller));
 
             // TODO: If lazy project evaluation is available, review this
@@ -487,7 +508,8 @@ public final class GenericModelFetcher {
 
             return new ActionFetchedProjectModels(
                     new GradleMultiProjectDef(rootTree, projectTree),
-                    modelOutput.getProjectInfoResults(),
+                    modelOutput.getProjectInfoResults().withSharedFilePaths(sharedFilePaths),
+                    modelOutput.getProjectInfoIssues(),
                     toolingModels,
                     modelOutput.getIssue());
         }
@@ -148,6 +148,99 @@ final class GradleInfoQueryMap {
         return unsafeCast(result);
     }
 
+    private LazyResults getLazyResults(
+            Object key,
+            IssueTransformer issueTransformer,
+            Map<Object, LazyResults> result) {
+
+        LazyResults lazyResults = result.get(key);
+        if (lazyResults == null) {
+            lazyResults = new LazyResults(issueTransformer);
+            result.put(key, lazyResults);
+        }
+        return lazyResults;
+    }
+
+    /**
+     * Groups the results in the given map the same way as
+     * {@link #deserializeResults(CustomSerializedMap, IssueTransformer) deserializeResults}
+     * but without deserializing them. The results of a key are only
+     * deserialized when they are first requested from the returned
+     * {@code LazyResults}.
+     * <P>
+     * The results of the failed builders (passed in {@code issueMap}) are
+     * deserialized immediately, so they are available through
+     * {@link LazyResults#getIssues()} without deserializing the other results.
+     */
+    public Map<Object, LazyResults> deserializeResultsLazily(
+            CustomSerializedMap map,
+            CustomSerializedMap issueMap,
+            IssueTransformer issueTransformer) {
+
+        if (map == null) throw new NullPointerException("map");
+        if (issueMap == null) throw new NullPointerException("issueMap");
+        if (issueTransformer == null) throw new NullPointerException("issueTransformer");
+
+        Map<Object, LazyResults> result = CollectionUtils.newHashMap(map.size());
+
+        for (Map.Entry<Object, SerializedEntries> entry: issueMap.getMap().entrySet()) {
+            KeyWrapper key = (KeyWrapper)entry.getKey();
+            LazyResults lazyResults = getLazyResults(key.wrappedKey, issueTransformer, result);
+            try {
+                for (Object issue: entry.getValue().getUnserialized(serializationCache, getClassLoaderForKey(key))) {
+                    lazyResults.addIssue(issue);
+                }
+            } catch (Throwable deserializeEx) {
+                lazyResults.addIssue(issueTransformer.transformIssue(deserializeEx));
+            }
+        }
+
+        for (Map.Entry<Object, Throwable> entry: issueMap.getSerializationProblems().entrySet()) {
+            KeyWrapper key = (KeyWrapper)entry.getKey();
+            Object issue = issueTransformer.transformIssue(entry.getValue());
+            getLazyResults(key.wrappedKey, issueTransformer, result).addIssue(issue);
+        }
+
+        for (Map.Entry<Object, SerializedEntries> entry: map.getMap().entrySet()) {
+            KeyWrapper key = (KeyWrapper)entry.getKey();
+            getLazyResults(key.wrappedKey, issueTransformer, result).addSerialized(key, entry.getValue());
+        }
+
+        for (Map.Entry<Object, Throwable> entry: map.getSerializationProblems().entrySet()) {
+            KeyWrapper key = (KeyWrapper)entry.getKey();
+            Object issue = issueTransformer.transformIssue(entry.getValue());
+            getLazyResults(key.wrappedKey, issueTransformer, result).addIssue(issue);
+        }
+
+        for (Map.Entry<KeyWrapper, Throwable> entry: serializationIssues.entrySet()) {
+            Object key = entry.getKey().wrappedKey;
+            Object issue = issueTransformer.transformIssue(entry.getValue());
+            getLazyResults(key, issueTransformer, result).addIssue(issue);
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the number of bytes the results of each key took in their
+     * serialized form. The results of the builders of the same key are
+     * serialized separately, and their sizes are summed. Keys whose results
+     * could not be serialized are not part of the returned map.
+     */
+    public static Map<Object, Integer> getSerializedSizes(CustomSerializedMap map) {
+        if (map == null) throw new NullPointerException("map");
+
+        Map<Object, Integer> result = CollectionUtils.newHashMap(map.size());
+        for (Map.Entry<Object, SerializedEntries> entry: map.getMap().entrySet()) {
+            KeyWrapper key = (KeyWrapper)entry.getKey();
+            int size = entry.getValue().getSerializedSize();
+
+            Integer prevSize = result.get(key.wrappedKey);
+            result.put(key.wrappedKey, prevSize != null ? prevSize + size : size);
+        }
+        return result;
+    }
+
     public static IssueTransformer builderIssueTransformer() {
         return BuilderIssueTransformer.INSTANCE;
     }
@@ -190,6 +283,88 @@ final class GradleInfoQueryMap {
         }
     }
 
+    /**
+     * Defines the results of the builders of a single key which are kept in
+     * their serialized form until they are first requested. The serialized
+     * form is released once the results were deserialized. Failing to
+     * deserialize the result of a builder is reported as an issue in place of
+     * the result of that builder.
+     * <P>
+     * The issues known before deserializing the results (i.e., failed
+     * builders and failures to serialize the results in the daemon) are
+     * available through {@link #getIssues()} without deserializing anything.
+     */
+    final class LazyResults {
+        private final IssueTransformer issueTransformer;
+        private final List<Object> issues;
+        private List<KeyWrapper> serializedKeys;
+        private List<SerializedEntries> serializedValues;
+        private volatile List<?> results;
+
+        private LazyResults(IssueTransformer issueTransformer) {
+            this.issueTransformer = issueTransformer;
+            this.issues = new ArrayList<Object>();
+            this.serializedKeys = new ArrayList<KeyWrapper>();
+            this.serializedValues = new ArrayList<SerializedEntries>();
+            this.results = null;
+        }
+
+        private void addSerialized(KeyWrapper key, SerializedEntries values) {
+            serializedKeys.add(key);
+            serializedValues.add(values);
+        }
+
+        private void addIssue(Object issue) {
+            issues.add(issue);
+        }
+
+        public boolean isDeserialized() {
+            return results != null;
+        }
+
+        /**
+         * Returns the issues known without deserializing the results. The
+         * returned list is also included in the list returned by
+         * {@link #getResults()}.
+         */
+        public List<?> getIssues() {
+            return Collections.unmodifiableList(issues);
+        }
+
+        public List<?> getResults() {
+            List<?> currentResults = results;
+            if (currentResults == null) {
+                synchronized (this) {
+                    currentResults = results;
+                    if (currentResults == null) {
+                        currentResults = deserialize();
+                        results = currentResults;
+                        serializedKeys = null;
+                        serializedValues = null;
+                    }
+                }
+            }
+            return currentResults;
+        }
+
+        private List<?> deserialize() {
+            List<Object> result = new ArrayList<Object>();
+
+            int serializedCount = serializedKeys.size();
+            for (int i = 0; i < serializedCount; i++) {
+                ClassLoader classLoader = getClassLoaderForKey(serializedKeys.get(i));
+                try {
+                    result.addAll(serializedValues.get(i).getUnserialized(serializationCache, classLoader));
+                } catch (Throwable deserializeEx) {
+                    result.add(issueTransformer.transformIssue(deserializeEx));
+                }
+            }
+
+            result.addAll(issues);
+            return Collections.unmodifiableList(result);
+        }
+    }
+
     private static final class Deserializer
     implements
             CustomSerializedMap.Deserializer, Serializable {
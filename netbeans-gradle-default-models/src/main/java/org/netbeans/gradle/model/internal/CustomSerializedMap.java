@@ -25,9 +25,22 @@ public final class CustomSerializedMap implements Serializable {
 
     public static final class Builder {
         private final Map<Object, List<Object>> map;
+        private final boolean collectFilePaths;
 
         public Builder(int expectedSize) {
+            this(expectedSize, false);
+        }
+
+        /**
+         * @param collectFilePaths {@code true} if {@code File} instances in
+         *   the values should be stored in a {@link FilePathTable} instead of
+         *   being serialized along with the values. Such tables can be
+         *   {@link CustomSerializedMap#withSharedFilePaths(FilePathDictionary) shared}
+         *   between multiple maps.
+         */
+        public Builder(int expectedSize, boolean collectFilePaths) {
             this.map = CollectionUtils.newHashMap(expectedSize);
+            this.collectFilePaths = collectFilePaths;
         }
 
         public void addValues(Object key, Collection<?> values) {
@@ -61,18 +74,26 @@ public final class CustomSerializedMap implements Serializable {
 
     private final Map<Object, SerializedEntries> map;
     private final Map<Object, Throwable> serializationProblems;
+    private final FilePathTable pathTable;
 
     private CustomSerializedMap(Builder builder, Map<Object, Throwable> issueResult) {
         Map<Object, Throwable> problems = issueResult;
 
-        Map<Object, SerializedEntries> mutableMap = CollectionUtils.newHashMap(builder.map.size());
+        FilePathTable.Builder pathTableBuilder = builder.collectFilePaths
+                ? new FilePathTable.Builder()
+                : null;
+        SerializationCache fileReplacer = pathTableBuilder != null
+                ? pathTableBuilder.getFileReplacer()
+                : SerializationCache.NO_CACHE;
+
+        Map<Object, byte[]> serializedMap = CollectionUtils.newHashMap(builder.map.size());
         for (Map.Entry<Object, List<Object>> entry: builder.map.entrySet()) {
             Object key = entry.getKey();
             List<Object> value = entry.getValue();
 
-            SerializedEntries entries;
+            byte[] serializedValues;
             try {
-                entries = new SerializedEntries(value);
+                serializedValues = SerializedEntries.serializeValues(value, fileReplacer);
             } catch (Throwable ex) {
                 if (problems == null) {
                     problems = new HashMap<Object, Throwable>();
@@ -80,7 +101,16 @@ public final class CustomSerializedMap implements Serializable {
                 problems.put(key, TransferableExceptionWrapper.wrap(ex));
                 continue;
             }
-            mutableMap.put(entry.getKey(), entries);
+            serializedMap.put(entry.getKey(), serializedValues);
+        }
+
+        this.pathTable = pathTableBuilder != null && !pathTableBuilder.isEmpty()
+                ? pathTableBuilder.create()
+                : null;
+
+        Map<Object, SerializedEntries> mutableMap = CollectionUtils.newHashMap(serializedMap.size());
+        for (Map.Entry<Object, byte[]> entry: serializedMap.entrySet()) {
+            mutableMap.put(entry.getKey(), new SerializedEntries(entry.getValue(), pathTable));
         }
 
         this.map = Collections.unmodifiableMap(mutableMap);
@@ -89,6 +119,15 @@ public final class CustomSerializedMap implements Serializable {
                 : null;
     }
 
+    private CustomSerializedMap(
+            Map<Object, SerializedEntries> map,
+            Map<Object, Throwable> serializationProblems,
+            FilePathTable pathTable) {
+        this.map = map;
+        this.serializationProblems = serializationProblems;
+        this.pathTable = pathTable;
+    }
+
     public static <V> CustomSerializedMap fromMap(Map<?, List<V>> map) {
         CustomSerializedMap.Builder result = new Builder(map.size());
         for (Map.Entry<?, List<V>> entry: map.entrySet()) {
@@ -97,6 +136,31 @@ public final class CustomSerializedMap implements Serializable {
         return result.create();
     }
 
+    /**
+     * Returns a map with the same content as this map but with the paths of
+     * the referenced files stored in the given dictionary. Maps sharing the
+     * same dictionary will only send a particular path once when serialized
+     * together (e.g., in the same build action result).
+     */
+    public CustomSerializedMap withSharedFilePaths(FilePathDictionary dictionary) {
+        if (dictionary == null) throw new NullPointerException("dictionary");
+
+        if (pathTable == null) {
+            return this;
+        }
+
+        FilePathTable newPathTable = pathTable.rebase(dictionary);
+        Map<Object, SerializedEntries> newMap = CollectionUtils.newHashMap(map.size());
+        for (Map.Entry<Object, SerializedEntries> entry: map.entrySet()) {
+            newMap.put(entry.getKey(), entry.getValue().withPathTable(newPathTable));
+        }
+
+        return new CustomSerializedMap(
+                Collections.unmodifiableMap(newMap),
+                serializationProblems,
+                newPathTable);
+    }
+
     public int size() {
         return map.size();
     }
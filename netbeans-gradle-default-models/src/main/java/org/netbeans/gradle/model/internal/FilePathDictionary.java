@@ -0,0 +1,88 @@
+package org.netbeans.gradle.model.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Defines a list of file paths which might be referenced by index by multiple
+ * {@link FilePathTable} instances. Sharing a single dictionary between all the
+ * projects of a build allows the same path to be sent only once, regardless
+ * how many projects reference it.
+ * <P>
+ * The {@code File} instances returned by this dictionary are created only once
+ * for each path, so all the projects referencing the same path will share the
+ * same {@code File} object after deserialization.
+ */
+public final class FilePathDictionary implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final List<String> paths;
+
+    private transient Map<String, Integer> indexes;
+    private transient List<File> files;
+
+    public FilePathDictionary() {
+        this.paths = new ArrayList<String>();
+    }
+
+    public synchronized int size() {
+        return paths.size();
+    }
+
+    public synchronized int addPath(String path) {
+        if (path == null) throw new NullPointerException("path");
+
+        Map<String, Integer> currentIndexes = getIndexes();
+        Integer index = currentIndexes.get(path);
+        if (index == null) {
+            index = paths.size();
+            paths.add(path);
+            currentIndexes.put(path, index);
+        }
+        return index;
+    }
+
+    public synchronized String getPath(int index) {
+        return paths.get(index);
+    }
+
+    public synchronized File getFile(int index) {
+        if (files == null) {
+            files = new ArrayList<File>(paths.size());
+        }
+
+        for (int i = files.size(); i < paths.size(); i++) {
+            files.add(null);
+        }
+
+        File result = files.get(index);
+        if (result == null) {
+            result = new File(paths.get(index));
+            files.set(index, result);
+        }
+        return result;
+    }
+
+    private Map<String, Integer> getIndexes() {
+        if (indexes == null) {
+            Map<String, Integer> newIndexes = new HashMap<String, Integer>(2 * paths.size() + 16);
+            int index = 0;
+            for (String path: paths) {
+                newIndexes.put(path, index);
+                index++;
+            }
+            indexes = newIndexes;
+        }
+        return indexes;
+    }
+
+    private synchronized void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+    }
+}
@@ -0,0 +1,131 @@
+package org.netbeans.gradle.model.internal;
+
+import java.io.File;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.netbeans.gradle.model.util.SerializationCache;
+
+/**
+ * Defines the file paths referenced by the serialized entries of a
+ * {@link CustomSerializedMap}. The serialized entries do not contain the
+ * {@code File} instances themselves, only an index into this table. The indexes
+ * of this table point into a {@link FilePathDictionary}, which might be shared
+ * by multiple tables.
+ */
+public final class FilePathTable implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final FilePathDictionary dictionary;
+    private final int[] indexes;
+
+    private FilePathTable(FilePathDictionary dictionary, int[] indexes) {
+        this.dictionary = dictionary;
+        this.indexes = indexes;
+    }
+
+    public int size() {
+        return indexes.length;
+    }
+
+    public File getFile(int index) {
+        return dictionary.getFile(indexes[index]);
+    }
+
+    /**
+     * Returns a table referencing the same files as this table but storing the
+     * paths in the given dictionary. The indexes of the returned table are the
+     * same as the indexes of this table, so the serialized entries referencing
+     * this table do not need to be changed.
+     */
+    public FilePathTable rebase(FilePathDictionary newDictionary) {
+        if (newDictionary == null) throw new NullPointerException("newDictionary");
+
+        if (newDictionary == dictionary) {
+            return this;
+        }
+
+        int[] newIndexes = new int[indexes.length];
+        for (int i = 0; i < newIndexes.length; i++) {
+            newIndexes[i] = newDictionary.addPath(dictionary.getPath(indexes[i]));
+        }
+        return new FilePathTable(newDictionary, newIndexes);
+    }
+
+    public SerializationCache getFileResolver(final SerializationCache cache) {
+        if (cache == null) throw new NullPointerException("cache");
+
+        return new SerializationCache() {
+            public Object getCached(Object src) {
+                if (src instanceof FileRef) {
+                    return cache.getCached(getFile(((FileRef)src).index));
+                }
+                return cache.getCached(src);
+            }
+        };
+    }
+
+    public static final class Builder {
+        private final Map<String, FileRef> refs;
+        private final List<String> paths;
+
+        public Builder() {
+            this.refs = new HashMap<String, FileRef>(64);
+            this.paths = new ArrayList<String>(64);
+        }
+
+        /**
+         * Returns the object to be used during serialization to replace
+         * {@code File} instances with references into the table to be created.
+         */
+        public SerializationCache getFileReplacer() {
+            return new SerializationCache() {
+                public Object getCached(Object src) {
+                    // Subclasses of File might have additional properties, so
+                    // we do not dare to replace them.
+                    if (src != null && src.getClass() == File.class) {
+                        return getRef(((File)src).getPath());
+                    }
+                    return src;
+                }
+            };
+        }
+
+        private FileRef getRef(String path) {
+            // Returning the same instance for the same path allows the
+            // serialization to write a back-reference instead of a new object.
+            FileRef result = refs.get(path);
+            if (result == null) {
+                result = new FileRef(paths.size());
+                paths.add(path);
+                refs.put(path, result);
+            }
+            return result;
+        }
+
+        public boolean isEmpty() {
+            return paths.isEmpty();
+        }
+
+        public FilePathTable create() {
+            FilePathDictionary dictionary = new FilePathDictionary();
+            int[] indexes = new int[paths.size()];
+            for (int i = 0; i < indexes.length; i++) {
+                indexes[i] = dictionary.addPath(paths.get(i));
+            }
+            return new FilePathTable(dictionary, indexes);
+        }
+    }
+
+    private static final class FileRef implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final int index;
+
+        public FileRef(int index) {
+            this.index = index;
+        }
+    }
+}
@@ -15,17 +15,29 @@ public final class ModelQueryOutput implements Serializable {
 
     // Keys -> List of results of ProjectInfoBuilder
     private final CustomSerializedMap projectInfoResults;
+    // Keys -> List of results of failed ProjectInfoBuilder
+    private final CustomSerializedMap projectInfoIssues;
     private final Throwable issue;
 
     public ModelQueryOutput(
             BasicInfo basicInfo,
             CustomSerializedMap projectInfoResults,
             Throwable issue) {
+        this(basicInfo, projectInfoResults, CustomSerializedMap.EMPTY, issue);
+    }
+
+    public ModelQueryOutput(
+            BasicInfo basicInfo,
+            CustomSerializedMap projectInfoResults,
+            CustomSerializedMap projectInfoIssues,
+            Throwable issue) {
         if (basicInfo == null) throw new NullPointerException("basicInfo");
         if (projectInfoResults == null) throw new NullPointerException("projectInfoResults");
+        if (projectInfoIssues == null) throw new NullPointerException("projectInfoIssues");
 
         this.basicInfo = basicInfo;
         this.projectInfoResults = projectInfoResults;
+        this.projectInfoIssues = projectInfoIssues;
         this.issue = TransferableExceptionWrapper.wrap(issue);
     }
 
@@ -41,6 +53,10 @@ public final class ModelQueryOutput implements Serializable {
         return projectInfoResults;
     }
 
+    public CustomSerializedMap getProjectInfoIssues() {
+        return projectInfoIssues;
+    }
+
     public static final class BasicInfo implements Serializable {
         private static final long serialVersionUID = 1L;
 
@@ -0,0 +1,79 @@
+package org.netbeans.gradle.model.internal;
+
+import java.util.List;
+import java.util.Map;
+import org.netbeans.gradle.model.BuilderResult;
+import org.netbeans.gradle.model.api.ProjectInfoBuilder2;
+import org.netbeans.gradle.model.util.BuilderUtils;
+
+/**
+ * Executes the {@link ProjectInfoBuilder2 project info builders} requested for
+ * a single project and records how long each of them took.
+ * <P>
+ * The results of the builders failing with an exception are collected
+ * separately from the successfully built models, so the IDE can report
+ * these issues without deserializing the (possibly large) models.
+ * <P>
+ * The builders are executed one after another on the calling thread (i.e.,
+ * the thread executing the model builder). Builders must not be executed on
+ * other threads, because Gradle does not allow the state of a project
+ * (e.g., its configurations) to be accessed from threads it does not manage.
+ */
+public final class ProjectInfoBuilderRunner {
+    public static void runBuilders(
+            Object project,
+            Map<Object, List<?>> projectInfoRequests,
+            CustomSerializedMap.Builder result,
+            CustomSerializedMap.Builder issues) {
+        if (project == null) throw new NullPointerException("project");
+        if (projectInfoRequests == null) throw new NullPointerException("projectInfoRequests");
+        if (result == null) throw new NullPointerException("result");
+        if (issues == null) throw new NullPointerException("issues");
+
+        for (Map.Entry<?, List<?>> entry: projectInfoRequests.entrySet()) {
+            Object key = entry.getKey();
+            for (Object projectInfoBuilder: entry.getValue()) {
+                BuilderResult builderResult = runBuilder(projectInfoBuilder, project);
+                if (builderResult == null) {
+                    continue;
+                }
+
+                if (builderResult.getIssue() != null) {
+                    issues.addValue(key, builderResult);
+                }
+                else {
+                    result.addValue(key, builderResult);
+                }
+            }
+        }
+    }
+
+    private static BuilderResult runBuilder(Object projectInfoBuilder, Object project) {
+        Object info = null;
+        Throwable issue = null;
+        ProjectInfoBuilder2<?> builder = null;
+
+        long startTime = System.nanoTime();
+        try {
+            builder = (ProjectInfoBuilder2<?>)projectInfoBuilder;
+            info = builder.getProjectInfo(project);
+        } catch (Throwable ex) {
+            issue = ex;
+        }
+        long buildTime = System.nanoTime() - startTime;
+
+        if (info == null && issue == null) {
+            return null;
+        }
+
+        return new BuilderResult(
+                info,
+                BuilderUtils.createIssue(builder, issue),
+                BuilderUtils.getNameOfBuilder(builder),
+                buildTime);
+    }
+
+    private ProjectInfoBuilderRunner() {
+        throw new AssertionError();
+    }
+}
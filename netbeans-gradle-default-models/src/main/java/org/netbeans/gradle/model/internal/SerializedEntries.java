@@ -11,16 +11,42 @@ public final class SerializedEntries implements Serializable {
     private static final long serialVersionUID = 1L;
 
     private final byte[] serializedValues;
+    private final FilePathTable pathTable;
 
     public SerializedEntries(Collection<?> values) {
-        this.serializedValues = SerializationUtils.serializeObject(new ArrayList<Object>(values));
+        this(SerializationUtils.serializeObject(new ArrayList<Object>(values)), null);
+    }
+
+    SerializedEntries(byte[] serializedValues, FilePathTable pathTable) {
+        this.serializedValues = serializedValues;
+        this.pathTable = pathTable;
+    }
+
+    static byte[] serializeValues(Collection<?> values, SerializationCache replacer) {
+        return SerializationUtils.serializeObject(new ArrayList<Object>(values), replacer);
+    }
+
+    SerializedEntries withPathTable(FilePathTable newPathTable) {
+        return new SerializedEntries(serializedValues, newPathTable);
+    }
+
+    /**
+     * Returns the number of bytes the values take in their serialized form
+     * (not counting the shared file paths).
+     */
+    public int getSerializedSize() {
+        return serializedValues.length;
     }
 
     public List<?> getUnserialized(SerializationCache cache, ClassLoader classLoader) {
+        SerializationCache resolvingCache = pathTable != null
+                ? pathTable.getFileResolver(cache)
+                : cache;
+
         try {
             Object result = classLoader != null
-                    ? SerializationUtils.deserializeObject(serializedValues, cache, classLoader)
-                    : SerializationUtils.deserializeObject(serializedValues, cache);
+                    ? SerializationUtils.deserializeObject(serializedValues, resolvingCache, classLoader)
+                    : SerializationUtils.deserializeObject(serializedValues, resolvingCache);
             return (List<?>)result;
         } catch (ClassNotFoundException ex) {
             throw new RuntimeException(ex);
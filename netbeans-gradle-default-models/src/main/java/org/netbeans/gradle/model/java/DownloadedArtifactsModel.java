@@ -0,0 +1,50 @@
+package org.netbeans.gradle.model.java;
+
+import java.io.File;
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.netbeans.gradle.model.util.CollectionUtils;
+
+/**
+ * Defines the additional artifacts (e.g., sources or javadoc) downloaded
+ * by the builder returned by {@link JavaModelBuilders#downloadArtifactsBuilder(String, java.util.Collection, java.util.Collection) JavaModelBuilders.downloadArtifactsBuilder}.
+ */
+public final class DownloadedArtifactsModel implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final Map<String, File> artifacts;
+
+    /**
+     * Creates a new {@code DownloadedArtifactsModel} with the given artifacts.
+     *
+     * @param artifacts the downloaded artifacts mapped by their
+     *   {@code "group:name:version:classifier"} notation. This argument
+     *   cannot be {@code null} and cannot contain {@code null} keys or values.
+     *
+     * @throws NullPointerException thrown if any of the arguments is
+     *   {@code null}
+     */
+    public DownloadedArtifactsModel(Map<String, File> artifacts) {
+        if (artifacts == null) throw new NullPointerException("artifacts");
+
+        this.artifacts = Collections.unmodifiableMap(new LinkedHashMap<String, File>(artifacts));
+
+        CollectionUtils.checkNoNullElements(this.artifacts.keySet(), "artifacts.keys");
+        CollectionUtils.checkNoNullElements(this.artifacts.values(), "artifacts.values");
+    }
+
+    /**
+     * Returns the downloaded artifacts mapped by their
+     * {@code "group:name:version:classifier"} notation. Requested artifacts
+     * which could not be resolved are not contained in the returned map.
+     *
+     * @return the downloaded artifacts mapped by their
+     *   {@code "group:name:version:classifier"} notation. This method never
+     *   returns {@code null}.
+     */
+    public Map<String, File> getArtifacts() {
+        return artifacts;
+    }
+}
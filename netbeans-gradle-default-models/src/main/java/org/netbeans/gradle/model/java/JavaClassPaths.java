@@ -1,18 +1,25 @@
 package org.netbeans.gradle.model.java;
 
 import java.io.File;
+import java.io.InvalidObjectException;
+import java.io.ObjectStreamException;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
-import org.netbeans.gradle.model.util.CollectionUtils;
+import org.netbeans.gradle.model.util.FileTable;
 
 /**
  * Defines the class paths for a source set of a Gradle project. That is, the
  * class path required to compile the source set and the class path required
  * at runtime.
  * <P>
+ * The class paths are stored as arrays of indexes into the
+ * {@link FileTable#getDefault() shared file table}, since large builds have
+ * lots of source sets with mostly the same class path entries.
+ * <P>
  * Instances of this class are immutable and therefore are safe to be shared
  * across multiple threads.
  * <P>
@@ -51,13 +58,11 @@ public final class JavaClassPaths implements Serializable {
         if (compileClasspaths == null) throw new NullPointerException("compileClasspaths");
         if (runtimeClasspaths == null) throw new NullPointerException("runtimeClasspaths");
 
-        this.compileClasspaths = Collections.unmodifiableSet(new LinkedHashSet<File>(compileClasspaths));
+        FileTable fileTable = FileTable.getDefault();
+        this.compileClasspaths = fileTable.toSet(compileClasspaths);
         this.runtimeClasspaths = compileClasspaths != runtimeClasspaths
-                ? Collections.unmodifiableSet(new LinkedHashSet<File>(runtimeClasspaths))
+                ? fileTable.toSet(runtimeClasspaths)
                 : this.compileClasspaths;
-
-        CollectionUtils.checkNoNullElements(this.compileClasspaths, "compileClasspaths");
-        CollectionUtils.checkNoNullElements(this.runtimeClasspaths, "runtimeClasspaths");
     }
 
     /**
@@ -74,10 +79,8 @@ public final class JavaClassPaths implements Serializable {
     public JavaClassPaths(Collection<? extends File> classpaths) {
         if (classpaths == null) throw new NullPointerException("classpaths");
 
-        this.compileClasspaths = Collections.unmodifiableSet(new LinkedHashSet<File>(classpaths));
+        this.compileClasspaths = FileTable.getDefault().toSet(classpaths);
         this.runtimeClasspaths = compileClasspaths;
-
-        CollectionUtils.checkNoNullElements(this.compileClasspaths, "compileClasspaths");
     }
 
     private JavaClassPaths() {
@@ -110,4 +113,39 @@ public final class JavaClassPaths implements Serializable {
     public Set<File> getRuntimeClasspaths() {
         return runtimeClasspaths;
     }
+
+    private Object writeReplace() {
+        return new SerializedFormat(this);
+    }
+
+    // Models persisted before the class paths were stored in a FileTable
+    // contain the fields of this class directly (with plain sets).
+    private Object readResolve() throws ObjectStreamException {
+        if (compileClasspaths == null) throw new InvalidObjectException("compileClasspaths");
+        if (runtimeClasspaths == null) throw new InvalidObjectException("runtimeClasspaths");
+
+        return compileClasspaths != runtimeClasspaths
+                ? new JavaClassPaths(compileClasspaths, runtimeClasspaths)
+                : new JavaClassPaths(compileClasspaths);
+    }
+
+    private static final class SerializedFormat implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final List<File> compileClasspaths;
+        private final List<File> runtimeClasspaths;
+
+        public SerializedFormat(JavaClassPaths source) {
+            this.compileClasspaths = new ArrayList<File>(source.compileClasspaths);
+            this.runtimeClasspaths = source.compileClasspaths != source.runtimeClasspaths
+                    ? new ArrayList<File>(source.runtimeClasspaths)
+                    : null;
+        }
+
+        private Object readResolve() throws ObjectStreamException {
+            return runtimeClasspaths != null
+                    ? new JavaClassPaths(compileClasspaths, runtimeClasspaths)
+                    : new JavaClassPaths(compileClasspaths);
+        }
+    }
 }
@@ -1,5 +1,7 @@
 package org.netbeans.gradle.model.java;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import org.netbeans.gradle.model.api.ProjectInfoBuilder2;
 import org.netbeans.gradle.model.api.util.ModelBuilders;
 
@@ -28,6 +30,38 @@ public class JavaModelBuilders {
     public static final ProjectInfoBuilder2<GroovyBaseModel> GROOVY_BASE_BUILDER
             = ModelBuilders.wrapEnumBuilder(GroovyBaseModel.class, "GroovyBaseModelBuilder");
 
+    /**
+     * Returns a builder downloading the given classifiers of the given external
+     * modules (and nothing else). The builder only downloads the artifacts
+     * when it is executed for the given project, and returns {@code null} for
+     * other projects.
+     *
+     * @param projectPath the path of the project whose repositories are used
+     *   to download the artifacts (e.g., ":subproject"). This argument cannot
+     *   be {@code null}.
+     * @param modules the modules whose artifacts are to be downloaded in
+     *   {@code "group:name:version"} notation. This argument cannot be
+     *   {@code null} and cannot contain {@code null} elements.
+     * @param classifiers the classifiers of the artifacts to be downloaded
+     *   (e.g., "sources" or "javadoc"). This argument cannot be {@code null}
+     *   and cannot contain {@code null} elements.
+     * @return the builder downloading the requested artifacts. This method
+     *   never returns {@code null}.
+     */
+    public static ProjectInfoBuilder2<DownloadedArtifactsModel> downloadArtifactsBuilder(
+            String projectPath,
+            Collection<String> modules,
+            Collection<String> classifiers) {
+        if (projectPath == null) throw new NullPointerException("projectPath");
+
+        return ModelBuilders.wrapWithConstructor(
+                DownloadedArtifactsModel.class,
+                "DownloadedArtifactsModelBuilder",
+                projectPath,
+                new ArrayList<String>(modules),
+                new ArrayList<String>(classifiers));
+    }
+
     private JavaModelBuilders() {
         throw new AssertionError();
     }
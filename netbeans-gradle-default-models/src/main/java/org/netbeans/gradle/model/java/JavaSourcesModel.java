@@ -22,9 +22,12 @@ public final class JavaSourcesModel implements Serializable {
     private static final long serialVersionUID = 1L;
 
     private final Collection<JavaSourceSet> sourceSets;
+    private final boolean hasRuntimeClassPaths;
 
     /**
-     * Creates a new {@code JavaSourcesModel} with the given source sets.
+     * Creates a new {@code JavaSourcesModel} with the given source sets. The
+     * runtime class paths of the source sets are assumed to have been
+     * resolved.
      *
      * @param sourceSets the source sets of the Java project. This argument
      *   cannot be {@code null} and none of its elements can be {@code null}.
@@ -33,7 +36,26 @@ public final class JavaSourcesModel implements Serializable {
      *   is {@code null}
      */
     public JavaSourcesModel(Collection<? extends JavaSourceSet> sourceSets) {
+        this(sourceSets, true);
+    }
+
+    /**
+     * Creates a new {@code JavaSourcesModel} with the given source sets.
+     *
+     * @param sourceSets the source sets of the Java project. This argument
+     *   cannot be {@code null} and none of its elements can be {@code null}.
+     * @param hasRuntimeClassPaths {@code true} if the runtime class paths of
+     *   the source sets were resolved, {@code false} if only the compile time
+     *   class paths were resolved and the runtime class paths are the same as
+     *   the compile time class paths
+     *
+     * @throws NullPointerException thrown if the argument or one of its element
+     *   is {@code null}
+     */
+    public JavaSourcesModel(Collection<? extends JavaSourceSet> sourceSets, boolean hasRuntimeClassPaths) {
         this.sourceSets = Collections.unmodifiableList(new ArrayList<JavaSourceSet>(sourceSets));
+        this.hasRuntimeClassPaths = hasRuntimeClassPaths;
+
         CollectionUtils.checkNoNullElements(this.sourceSets, "sourceSets");
     }
 
@@ -47,4 +69,17 @@ public final class JavaSourcesModel implements Serializable {
     public Collection<JavaSourceSet> getSourceSets() {
         return sourceSets;
     }
+
+    /**
+     * Returns {@code true} if the runtime class paths of the source sets were
+     * resolved. If this method returns {@code false}, then the runtime class
+     * paths of the source sets are only the compile time class paths and the
+     * real runtime class paths has to be retrieved separately if needed.
+     *
+     * @return {@code true} if the runtime class paths of the source sets were
+     *   resolved, {@code false} otherwise
+     */
+    public boolean hasRuntimeClassPaths() {
+        return hasRuntimeClassPaths;
+    }
 }
@@ -70,6 +70,17 @@ public final class BuilderUtils {
                 : getSafeToString(builder);
     }
 
+    /**
+     * Returns the name of the given builder without ever throwing an exception.
+     */
+    public static String getNameOfBuilder(ProjectInfoBuilder2<?> builder) {
+        try {
+            return getNameOfBuilderUnsafe(builder);
+        } catch (Throwable ex) {
+            return builder != null ? builder.getClass().getName() : "null";
+        }
+    }
+
     private static String getNameOfBuilder(ProjectInfoBuilder2<?> builder, Throwable issue) {
         try {
             return getNameOfBuilderUnsafe(builder);
@@ -0,0 +1,364 @@
+package org.netbeans.gradle.model.util;
+
+import java.io.File;
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Defines a table assigning a unique integer id to every file added to it.
+ * Sets of files can then be stored as an array of these ids which needs much
+ * less memory than a hash set, and shares the {@code File} instances with every
+ * other set of the same table.
+ * <P>
+ * Files are never removed from a table. Instead, the
+ * {@link #getDefault() default table} is replaced by a new table once most of
+ * its files are no longer contained by any set still in use (e.g., after the
+ * dependencies of a project were updated). A table is only kept in memory while
+ * there are sets referencing it.
+ * <P>
+ * Instances of this class are safe to be used by multiple threads concurrently.
+ */
+public final class FileTable {
+    private static final AtomicReference<WeakReference<FileTable>> DEFAULT_REF
+            = new AtomicReference<WeakReference<FileTable>>(null);
+
+    private static final int[] NO_IDS = new int[0];
+
+    // Tables smaller than this are never considered to be wasteful, because
+    // replacing them would not save much.
+    private static final int MIN_WASTEFUL_FILE_COUNT = 4096;
+    // The used files are only counted after this many sets were released
+    // (and at least as many as the sets still in use).
+    private static final int MIN_RELEASED_SETS_TO_CHECK = 64;
+
+    private final Lock addLock;
+    private final ConcurrentMap<File, Integer> ids;
+    private volatile File[] files;
+    private int fileCount;
+
+    private final ReferenceQueue<FileIdSet> releasedSets;
+    private final List<WeakReference<FileIdSet>> trackedSets;
+    private int releasedSetCount;
+    private volatile boolean wasteful;
+
+    public FileTable() {
+        this.addLock = new ReentrantLock();
+        this.ids = new ConcurrentHashMap<File, Integer>(256);
+        this.files = new File[256];
+        this.fileCount = 0;
+
+        this.releasedSets = new ReferenceQueue<FileIdSet>();
+        this.trackedSets = new ArrayList<WeakReference<FileIdSet>>();
+        this.releasedSetCount = 0;
+        this.wasteful = false;
+    }
+
+    /**
+     * Returns the table shared by every set of files not requiring a
+     * separate table.
+     *
+     * @return the table shared by every set of files not requiring a
+     *   separate table. This method never returns {@code null}.
+     */
+    public static FileTable getDefault() {
+        while (true) {
+            WeakReference<FileTable> defaultRef = DEFAULT_REF.get();
+            FileTable result = defaultRef != null ? defaultRef.get() : null;
+            if (result != null && !result.wasteful) {
+                return result;
+            }
+
+            // The sets of the replaced table keep it in memory as long as
+            // they are in use.
+            result = new FileTable();
+            if (DEFAULT_REF.compareAndSet(defaultRef, new WeakReference<FileTable>(result))) {
+                return result;
+            }
+        }
+    }
+
+    /**
+     * Returns an immutable set containing the given files in the iteration
+     * order of the given collection. Files listed multiple times are only
+     * contained once in the returned set.
+     *
+     * @param src the files to be contained in the returned set. This argument
+     *   cannot be {@code null} and cannot contain {@code null} elements.
+     * @return an immutable set containing the given files. This method never
+     *   returns {@code null}.
+     */
+    public Set<File> toSet(Collection<? extends File> src) {
+        if (src == null) throw new NullPointerException("src");
+
+        if (src instanceof FileIdSet) {
+            FileIdSet idSet = (FileIdSet)src;
+            if (idSet.table == this) {
+                return idSet;
+            }
+        }
+
+        int[] fileIds = toIds(src);
+        if (fileIds.length == 0) {
+            return new FileIdSet(this, fileIds);
+        }
+
+        FileIdSet result = new FileIdSet(this, fileIds);
+        trackSet(result);
+        return result;
+    }
+
+    private void trackSet(FileIdSet set) {
+        addLock.lock();
+        try {
+            trackedSets.add(new WeakReference<FileIdSet>(set, releasedSets));
+
+            while (releasedSets.poll() != null) {
+                releasedSetCount++;
+            }
+
+            if (releasedSetCount >= MIN_RELEASED_SETS_TO_CHECK
+                    && releasedSetCount >= trackedSets.size() - releasedSetCount) {
+                checkWasteful();
+            }
+        } finally {
+            addLock.unlock();
+        }
+    }
+
+    // Must be called while holding addLock.
+    private void checkWasteful() {
+        BitSet usedIds = new BitSet(fileCount);
+
+        Iterator<WeakReference<FileIdSet>> setItr = trackedSets.iterator();
+        while (setItr.hasNext()) {
+            FileIdSet set = setItr.next().get();
+            if (set == null) {
+                setItr.remove();
+                continue;
+            }
+
+            for (int id: set.fileIds) {
+                usedIds.set(id);
+            }
+        }
+        releasedSetCount = 0;
+
+        if (fileCount >= MIN_WASTEFUL_FILE_COUNT && 2 * usedIds.cardinality() < fileCount) {
+            wasteful = true;
+        }
+    }
+
+    private int[] toIds(Collection<? extends File> src) {
+        if (src.isEmpty()) {
+            return NO_IDS;
+        }
+
+        Collection<? extends File> filesToAdd = src instanceof Set
+                ? src
+                : new LinkedHashSet<File>(src);
+
+        int[] result = new int[filesToAdd.size()];
+        int index = 0;
+        for (File file: filesToAdd) {
+            if (file == null) throw new NullPointerException("src[" + index + "]");
+            result[index] = getId(file);
+            index++;
+        }
+
+        if (index != result.length) {
+            // The source collection was concurrently modified.
+            int[] truncated = new int[index];
+            System.arraycopy(result, 0, truncated, 0, index);
+            result = truncated;
+        }
+        return result;
+    }
+
+    private int getId(File file) {
+        Integer id = ids.get(file);
+        if (id != null) {
+            return id;
+        }
+
+        addLock.lock();
+        try {
+            id = ids.get(file);
+            if (id != null) {
+                return id;
+            }
+
+            File[] currentFiles = files;
+            int newId = fileCount;
+            if (newId >= currentFiles.length) {
+                File[] newFiles = new File[2 * currentFiles.length];
+                System.arraycopy(currentFiles, 0, newFiles, 0, currentFiles.length);
+                currentFiles = newFiles;
+            }
+
+            currentFiles[newId] = file;
+            fileCount = newId + 1;
+            files = currentFiles;
+
+            ids.put(file, newId);
+            return newId;
+        } finally {
+            addLock.unlock();
+        }
+    }
+
+    private int tryGetId(Object file) {
+        if (file == null) {
+            return -1;
+        }
+
+        Integer id = ids.get(file);
+        return id != null ? id : -1;
+    }
+
+    private File getFile(int id) {
+        return files[id];
+    }
+
+    private static final class FileIdSet extends AbstractSet<File> implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        // Searching small sets linearly is faster than sorting them.
+        private static final int MAX_LINEAR_SEARCH_SIZE = 8;
+
+        private final FileTable table;
+        private final int[] fileIds;
+
+        // These are only calculated when needed, and they might be
+        // calculated multiple times by concurrent threads.
+        private transient volatile int[] sortedFileIds;
+        private transient int hash;
+
+        public FileIdSet(FileTable table, int[] fileIds) {
+            this.table = table;
+            this.fileIds = fileIds;
+            this.sortedFileIds = null;
+            this.hash = 0;
+        }
+
+        private int[] getSortedFileIds() {
+            int[] result = sortedFileIds;
+            if (result == null) {
+                result = fileIds.clone();
+                Arrays.sort(result);
+                sortedFileIds = result;
+            }
+            return result;
+        }
+
+        @Override
+        public Iterator<File> iterator() {
+            return new Iterator<File>() {
+                private int index = 0;
+
+                public boolean hasNext() {
+                    return index < fileIds.length;
+                }
+
+                public File next() {
+                    if (index >= fileIds.length) {
+                        throw new NoSuchElementException();
+                    }
+
+                    File result = table.getFile(fileIds[index]);
+                    index++;
+                    return result;
+                }
+
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return fileIds.length;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return fileIds.length == 0;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (fileIds.length == 0) {
+                return false;
+            }
+
+            int id = table.tryGetId(o);
+            if (id < 0) {
+                return false;
+            }
+
+            if (fileIds.length <= MAX_LINEAR_SEARCH_SIZE) {
+                for (int fileId: fileIds) {
+                    if (fileId == id) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+
+            return Arrays.binarySearch(getSortedFileIds(), id) >= 0;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (o == this) {
+                return true;
+            }
+
+            if (o instanceof FileIdSet) {
+                FileIdSet other = (FileIdSet)o;
+                if (other.table == table) {
+                    if (other.fileIds.length != fileIds.length) {
+                        return false;
+                    }
+                    return Arrays.equals(other.fileIds, fileIds)
+                            || Arrays.equals(other.getSortedFileIds(), getSortedFileIds());
+                }
+            }
+            return super.equals(o);
+        }
+
+        @Override
+        public int hashCode() {
+            // The hash code must be the same as of other sets with the same
+            // files, so it is calculated from the files but only once.
+            int result = hash;
+            if (result == 0) {
+                result = super.hashCode();
+                hash = result;
+            }
+            return result;
+        }
+
+        private Object writeReplace() throws ObjectStreamException {
+            return Collections.unmodifiableSet(new LinkedHashSet<File>(this));
+        }
+    }
+}
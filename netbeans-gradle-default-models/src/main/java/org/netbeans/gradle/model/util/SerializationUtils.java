@@ -10,6 +10,7 @@ import java.io.InputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.ObjectStreamClass;
+import java.io.OutputStream;
 
 public final class SerializationUtils {
     public static ObjectInputStream newCachedObjectInputStream(
@@ -39,6 +40,20 @@ public final class SerializationUtils {
         return output.toByteArray();
     }
 
+    public static byte[] serializeObject(Object object, SerializationCache replacer) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(2048);
+
+        try {
+            ObjectOutputStream objOutput = new ReplacingObjectOutputStream(output, replacer);
+            objOutput.writeObject(object);
+            objOutput.close();
+        } catch (IOException ex) {
+            throw new RuntimeException(ex);
+        }
+
+        return output.toByteArray();
+    }
+
     public static void serializeToFile(File file, Object object) throws IOException {
         ObjectOutputStream output = new ObjectOutputStream(new FileOutputStream(file));
         try {
@@ -87,6 +102,30 @@ public final class SerializationUtils {
         }
     }
 
+    private static final class ReplacingObjectOutputStream extends ObjectOutputStream {
+        private final SerializationCache replacer;
+
+        public ReplacingObjectOutputStream(OutputStream out, SerializationCache replacer) throws IOException {
+            super(out);
+
+            if (replacer == null) throw new NullPointerException("replacer");
+            this.replacer = replacer;
+
+            enableReplaceObject(true);
+        }
+
+        @Override
+        protected final boolean enableReplaceObject(boolean enable) throws SecurityException {
+            // This method was declared to disable the warning: virtual method is called from the constructor.
+            return super.enableReplaceObject(enable);
+        }
+
+        @Override
+        protected Object replaceObject(Object obj) throws IOException {
+            return replacer.getCached(obj);
+        }
+    }
+
     private static class CachedObjectInputStream extends ObjectInputStream {
         private final SerializationCache cache;
 
@@ -11,12 +11,9 @@ import org.gradle.api.Project;
 import org.gradle.api.Task;
 import org.gradle.api.tasks.TaskContainer;
 import org.gradle.tooling.provider.model.ToolingModelBuilder;
-import org.netbeans.gradle.model.BuilderResult;
 import org.netbeans.gradle.model.GradleTaskID;
 import org.netbeans.gradle.model.ProjectId;
-import org.netbeans.gradle.model.api.ProjectInfoBuilder2;
 import org.netbeans.gradle.model.util.BasicFileUtils;
-import org.netbeans.gradle.model.util.BuilderUtils;
 import org.netbeans.gradle.model.util.Exceptions;
 import org.netbeans.gradle.model.util.SerializationCache;
 import org.netbeans.gradle.model.util.SerializationCaches;
@@ -37,36 +34,16 @@ public final class DynamicModelLoader implements ToolingModelBuilder {
         return modelName.equals(ModelQueryOutputRef.class.getName());
     }
 
-    private CustomSerializedMap fetchProjectInfos(Project project) {
+    private ProjectInfos fetchProjectInfos(Project project) {
         SerializationCache serializationCache = SerializationCaches.getDefault();
         Map<Object, List<?>> projectInfoRequests = input.getProjectInfoRequests(serializationCache, classLoader);
         int requestCount = projectInfoRequests.size();
-        CustomSerializedMap.Builder projectInfosBuilder = new CustomSerializedMap.Builder(requestCount);
-
-        for (Map.Entry<?, List<?>> entry: projectInfoRequests.entrySet()) {
-            Object key = entry.getKey();
-            for (Object projectInfoBuilder: entry.getValue()) {
-                Object info = null;
-                Throwable issue = null;
-                ProjectInfoBuilder2<?> builder = null;
-
-                try {
-                    builder = (ProjectInfoBuilder2<?>)projectInfoBuilder;
-                    info = builder.getProjectInfo(project);
-                } catch (Throwable ex) {
-                    issue = ex;
-                }
-
-                if (info != null || issue != null) {
-                    BuilderResult builderResult = new BuilderResult(
-                            info,
-                            BuilderUtils.createIssue(builder, issue));
-                    projectInfosBuilder.addValue(key, builderResult);
-                }
-            }
-        }
+        CustomSerializedMap.Builder projectInfosBuilder = new CustomSerializedMap.Builder(requestCount, true);
+        CustomSerializedMap.Builder projectIssuesBuilder = new CustomSerializedMap.Builder(0);
 
-        return projectInfosBuilder.create();
+        ProjectInfoBuilderRunner.runBuilders(project, projectInfoRequests, projectInfosBuilder, projectIssuesBuilder);
+
+        return new ProjectInfos(projectInfosBuilder.create(), projectIssuesBuilder.create());
     }
 
     private Collection<GradleTaskID> findTasks(Project project) {
@@ -129,8 +106,8 @@ public final class DynamicModelLoader implements ToolingModelBuilder {
 
         ModelQueryOutput output;
         try {
-            CustomSerializedMap projectInfos = fetchProjectInfos(project);
-            output = new ModelQueryOutput(basicInfo.info, projectInfos, basicInfo.error);
+            ProjectInfos projectInfos = fetchProjectInfos(project);
+            output = new ModelQueryOutput(basicInfo.info, projectInfos.results, projectInfos.issues, basicInfo.error);
         } catch (Throwable ex) {
             if (basicInfo.error != null) {
                 Exceptions.tryAddSuppressedException(ex, basicInfo.error);
@@ -141,6 +118,16 @@ public final class DynamicModelLoader implements ToolingModelBuilder {
         return new DefaultModelQueryOutputRef(output);
     }
 
+    private static final class ProjectInfos {
+        public final CustomSerializedMap results;
+        public final CustomSerializedMap issues;
+
+        public ProjectInfos(CustomSerializedMap results, CustomSerializedMap issues) {
+            this.results = results;
+            this.issues = issues;
+        }
+    }
+
     private static final class BasicInfoWithError {
         public final ModelQueryOutput.BasicInfo info;
         public final Throwable error;
@@ -0,0 +1,115 @@
+package org.netbeans.gradle.model.java;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.gradle.api.Project;
+import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.artifacts.Dependency;
+import org.gradle.api.artifacts.ModuleDependency;
+import org.gradle.api.artifacts.ModuleVersionIdentifier;
+import org.gradle.api.artifacts.ResolvedArtifact;
+import org.gradle.api.specs.Specs;
+import org.netbeans.gradle.model.api.ProjectInfoBuilder2;
+import org.netbeans.gradle.model.util.BuilderUtils;
+import org.netbeans.gradle.model.util.CollectionUtils;
+
+/**
+ * Resolves the requested classifiers (e.g., "sources") of the given external
+ * modules in the project with the given path. All the artifacts are resolved
+ * in a single detached configuration, so Gradle can download them in parallel
+ * and no configuration of the build has to be resolved.
+ */
+public final class DownloadedArtifactsModelBuilder
+implements
+        ProjectInfoBuilder2<DownloadedArtifactsModel> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String projectPath;
+    private final List<String> modules;
+    private final List<String> classifiers;
+
+    public DownloadedArtifactsModelBuilder(
+            String projectPath,
+            Collection<String> modules,
+            Collection<String> classifiers) {
+        if (projectPath == null) throw new NullPointerException("projectPath");
+
+        this.projectPath = projectPath;
+        this.modules = CollectionUtils.copyNullSafeList(modules);
+        this.classifiers = CollectionUtils.copyNullSafeList(classifiers);
+    }
+
+    public DownloadedArtifactsModel getProjectInfo(Object project) {
+        return getProjectInfo((Project)project);
+    }
+
+    private DownloadedArtifactsModel getProjectInfo(Project project) {
+        // This builder is executed for every project of the build but the
+        // artifacts only need to be downloaded once.
+        if (!projectPath.equals(project.getPath())) {
+            return null;
+        }
+
+        List<Dependency> dependencies = new ArrayList<Dependency>(modules.size() * classifiers.size());
+        for (String module: modules) {
+            Map<String, String> notation = parseModule(module);
+            if (notation == null) {
+                continue;
+            }
+
+            for (String classifier: classifiers) {
+                Map<String, String> classifiedNotation = new HashMap<String, String>(notation);
+                classifiedNotation.put("classifier", classifier);
+
+                Dependency dependency = project.getDependencies().create(classifiedNotation);
+                if (dependency instanceof ModuleDependency) {
+                    ((ModuleDependency)dependency).setTransitive(false);
+                }
+                dependencies.add(dependency);
+            }
+        }
+
+        Map<String, File> result = new HashMap<String, File>();
+        if (dependencies.isEmpty()) {
+            return new DownloadedArtifactsModel(result);
+        }
+
+        Configuration config = project.getConfigurations()
+                .detachedConfiguration(dependencies.toArray(new Dependency[dependencies.size()]));
+
+        Set<ResolvedArtifact> artifacts = config
+                .getResolvedConfiguration()
+                .getLenientConfiguration()
+                .getArtifacts(Specs.SATISFIES_ALL);
+        for (ResolvedArtifact artifact: artifacts) {
+            ModuleVersionIdentifier id = artifact.getModuleVersion().getId();
+            String key = id.getGroup() + ":" + id.getName() + ":" + id.getVersion() + ":" + artifact.getClassifier();
+            result.put(key, artifact.getFile());
+        }
+
+        return new DownloadedArtifactsModel(result);
+    }
+
+    private static Map<String, String> parseModule(String module) {
+        String[] parts = module.split(":");
+        if (parts.length != 3) {
+            return null;
+        }
+
+        Map<String, String> result = new HashMap<String, String>();
+        result.put("group", parts[0]);
+        result.put("name", parts[1]);
+        result.put("version", parts[2]);
+        return result;
+    }
+
+    public String getName() {
+        return BuilderUtils.getNameForGenericBuilder(this, projectPath);
+    }
+}
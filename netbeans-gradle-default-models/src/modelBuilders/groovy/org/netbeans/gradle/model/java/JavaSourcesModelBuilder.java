@@ -101,7 +101,7 @@ implements
                 result.add(parseSourceSet(sourceSet));
             }
 
-            return new JavaSourcesModel(result);
+            return new JavaSourcesModel(result, needRuntime);
         }
 
         private Collection<File> addSourceGroup(
@@ -0,0 +1,257 @@
+package org.netbeans.gradle.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Before;
+import org.junit.Test;
+import org.netbeans.gradle.model.api.GradleProjectInfoQuery2;
+import org.netbeans.gradle.model.api.ModelClassPathDef;
+import org.netbeans.gradle.model.api.ProjectInfoBuilder2;
+import org.netbeans.gradle.model.internal.CustomSerializedMap;
+import org.netbeans.gradle.model.util.SerializationCache;
+import org.netbeans.gradle.model.util.SerializationUtils;
+
+import static org.junit.Assert.*;
+
+public class LazyProjectInfoResultsTest {
+    private static final int PROJECT_COUNT = 200;
+    private static final int KEY_COUNT = 20;
+    private static final int BUILDERS_PER_KEY = 2;
+
+    private static final AtomicInteger DESERIALIZED_COUNT = new AtomicInteger(0);
+
+    @Before
+    public void setUp() {
+        DESERIALIZED_COUNT.set(0);
+    }
+
+    private static String keyName(int index) {
+        return "ext" + index;
+    }
+
+    private static GradleInfoQueryMap createQueries() {
+        Map<Object, List<GradleProjectInfoQuery2<?>>> queries
+                = new LinkedHashMap<Object, List<GradleProjectInfoQuery2<?>>>();
+        for (int keyIndex = 0; keyIndex < KEY_COUNT; keyIndex++) {
+            List<GradleProjectInfoQuery2<?>> keyQueries = new ArrayList<GradleProjectInfoQuery2<?>>();
+            for (int builderIndex = 0; builderIndex < BUILDERS_PER_KEY; builderIndex++) {
+                keyQueries.add(new TestQuery());
+            }
+            queries.put(keyName(keyIndex), keyQueries);
+        }
+        return GradleInfoQueryMap.fromProjectInfos(queries);
+    }
+
+    private static GradleMultiProjectDef createProjectDef(String name) {
+        File projectDir = new File(name);
+        GenericProjectProperties properties = new GenericProjectProperties(name, ":" + name, projectDir);
+        GradleProjectTree tree = new GradleProjectTree(
+                properties,
+                Collections.<GradleTaskID>emptyList(),
+                Collections.<GradleProjectTree>emptyList());
+        return new GradleMultiProjectDef(tree, tree);
+    }
+
+    private static CustomSerializedMap createResults(GradleInfoQueryMap queries, Object model) {
+        Map<Object, ?> builderMap = queries.getBuilderMap().getMap();
+
+        CustomSerializedMap.Builder result = new CustomSerializedMap.Builder(builderMap.size());
+        for (Object key: builderMap.keySet()) {
+            result.addValue(key, new BuilderResult(model, null));
+        }
+        return result.create();
+    }
+
+    private static CustomSerializedMap createIssues(GradleInfoQueryMap queries) {
+        Map<Object, ?> builderMap = queries.getBuilderMap().getMap();
+
+        CustomSerializedMap.Builder result = new CustomSerializedMap.Builder(builderMap.size());
+        for (Object key: builderMap.keySet()) {
+            BuilderIssue issue = new BuilderIssue("FailedBuilder", new IllegalStateException("Test failure"));
+            result.addValue(key, new BuilderResult(null, issue));
+        }
+        return result.create();
+    }
+
+    private static FetchedProjectModels createProjectModels(
+            GradleInfoQueryMap queries,
+            String projectName,
+            Object model) {
+        return createProjectModels(queries, projectName, model, CustomSerializedMap.EMPTY);
+    }
+
+    private static FetchedProjectModels createProjectModels(
+            GradleInfoQueryMap queries,
+            String projectName,
+            Object model,
+            CustomSerializedMap issues) {
+
+        Map<Object, GradleInfoQueryMap.LazyResults> lazyResults = queries.deserializeResultsLazily(
+                createResults(queries, model),
+                issues,
+                GradleInfoQueryMap.builderIssueTransformer());
+        return FetchedProjectModels.createLazy(
+                createProjectDef(projectName),
+                lazyResults,
+                Collections.<Class<?>, Object>emptyMap(),
+                null,
+                Collections.<Object, Integer>emptyMap());
+    }
+
+    private static List<FetchedProjectModels> createLargeBuild(GradleInfoQueryMap queries) {
+        List<FetchedProjectModels> result = new ArrayList<FetchedProjectModels>(PROJECT_COUNT);
+        for (int i = 0; i < PROJECT_COUNT; i++) {
+            String projectName = "project" + i;
+            result.add(createProjectModels(queries, projectName, new CountingModel(projectName)));
+        }
+        return result;
+    }
+
+    private static void verifyResults(String expectedValue, List<BuilderResult> results) {
+        assertEquals("results.size", BUILDERS_PER_KEY, results.size());
+        for (BuilderResult result: results) {
+            assertNull("issue", result.getIssue());
+            assertEquals(expectedValue, ((CountingModel)result.getResultObject()).value);
+        }
+    }
+
+    @Test
+    public void testOnlyRequestedKeysAreDeserialized() {
+        List<FetchedProjectModels> projects = createLargeBuild(createQueries());
+        assertEquals("Deserialized before request", 0, DESERIALIZED_COUNT.get());
+
+        String requestedKey = keyName(3);
+        for (int i = 0; i < projects.size(); i++) {
+            verifyResults("project" + i, projects.get(i).getProjectInfoResults(requestedKey));
+        }
+        assertEquals(PROJECT_COUNT * BUILDERS_PER_KEY, DESERIALIZED_COUNT.get());
+
+        for (FetchedProjectModels project: projects) {
+            project.getProjectInfoResults(requestedKey);
+            assertEquals(Collections.singleton(requestedKey), project.getLoadedProjectInfoResults().keySet());
+        }
+        assertEquals("Results must be deserialized only once",
+                PROJECT_COUNT * BUILDERS_PER_KEY, DESERIALIZED_COUNT.get());
+    }
+
+    @Test
+    public void testGetAllResults() {
+        FetchedProjectModels project = createProjectModels(createQueries(), "project", new CountingModel("value"));
+
+        Map<Object, List<BuilderResult>> results = project.getProjectInfoResults();
+        assertEquals(KEY_COUNT, results.size());
+        assertEquals(results.keySet(), project.getProjectInfoResultKeys());
+        for (List<BuilderResult> keyResults: results.values()) {
+            verifyResults("value", keyResults);
+        }
+
+        assertEquals(KEY_COUNT * BUILDERS_PER_KEY, DESERIALIZED_COUNT.get());
+        assertEquals(results.keySet(), project.getLoadedProjectInfoResults().keySet());
+    }
+
+    @Test
+    public void testUnknownKey() {
+        FetchedProjectModels project = createProjectModels(createQueries(), "project", new CountingModel("value"));
+
+        assertTrue(project.getProjectInfoResults("unknown-key").isEmpty());
+        assertEquals(0, DESERIALIZED_COUNT.get());
+    }
+
+    @Test
+    public void testDeserializationFailureIsReportedAsIssue() {
+        FetchedProjectModels project = createProjectModels(createQueries(), "project", new FailingModel());
+
+        List<BuilderResult> results = project.getProjectInfoResults(keyName(0));
+        assertEquals("results.size", BUILDERS_PER_KEY, results.size());
+        for (BuilderResult result: results) {
+            assertNull(result.getResultObject());
+            assertNotNull("issue", result.getIssue());
+        }
+    }
+
+    @Test
+    public void testIssuesAreAvailableWithoutDeserializingResults() {
+        GradleInfoQueryMap queries = createQueries();
+        FetchedProjectModels project = createProjectModels(
+                queries,
+                "project",
+                new CountingModel("value"),
+                createIssues(queries));
+
+        for (int keyIndex = 0; keyIndex < KEY_COUNT; keyIndex++) {
+            List<BuilderResult> issues = project.getProjectInfoIssues(keyName(keyIndex));
+            assertEquals("issues.size", BUILDERS_PER_KEY, issues.size());
+            assertEquals("FailedBuilder", issues.get(0).getIssue().getName());
+        }
+        assertTrue(project.getProjectInfoIssues("unknown-key").isEmpty());
+        assertEquals("Deserialized for issues", 0, DESERIALIZED_COUNT.get());
+
+        List<BuilderResult> results = project.getProjectInfoResults(keyName(0));
+        assertEquals("results.size", 2 * BUILDERS_PER_KEY, results.size());
+    }
+
+    @Test
+    public void testSerializedCopyIsComplete() throws Exception {
+        FetchedProjectModels project = createProjectModels(createQueries(), "project", new CountingModel("value"));
+        byte[] serialized = SerializationUtils.serializeObject(project);
+
+        FetchedProjectModels copy = (FetchedProjectModels)SerializationUtils.deserializeObject(
+                serialized,
+                SerializationCache.NO_CACHE);
+        assertEquals(project.getProjectInfoResultKeys(), copy.getLoadedProjectInfoResults().keySet());
+        verifyResults("value", copy.getProjectInfoResults(keyName(KEY_COUNT - 1)));
+    }
+
+    private static final class TestQuery implements GradleProjectInfoQuery2<Object> {
+        public ProjectInfoBuilder2<Object> getInfoBuilder() {
+            return new TestBuilder();
+        }
+
+        public ModelClassPathDef getInfoClassPath() {
+            return ModelClassPathDef.EMPTY;
+        }
+    }
+
+    private static final class TestBuilder implements ProjectInfoBuilder2<Object> {
+        private static final long serialVersionUID = 1L;
+
+        public Object getProjectInfo(Object project) {
+            throw new UnsupportedOperationException();
+        }
+
+        public String getName() {
+            return getClass().getSimpleName();
+        }
+    }
+
+    private static final class CountingModel implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        public final String value;
+
+        public CountingModel(String value) {
+            this.value = value;
+        }
+
+        private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+            in.defaultReadObject();
+            DESERIALIZED_COUNT.incrementAndGet();
+        }
+    }
+
+    private static final class FailingModel implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+            throw new IOException("Test failure");
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package org.netbeans.gradle.model.internal;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+import org.netbeans.gradle.model.util.SerializationCache;
+import org.netbeans.gradle.model.util.SerializationUtils;
+
+import static org.junit.Assert.*;
+
+public class CustomSerializedMapTest {
+    private static final String KEY = "classpath";
+
+    private static List<File> sharedJars(int count) {
+        List<File> result = new ArrayList<File>(count);
+        for (int i = 0; i < count; i++) {
+            String groupName = "com.example.group" + i;
+            String artifactName = "artifact-" + i;
+            String version = "1." + i + ".0";
+            String jarName = artifactName + "-" + version + ".jar";
+            result.add(new File("/home/user/.gradle/caches/modules-2/files-2.1/"
+                    + groupName + "/" + artifactName + "/" + version + "/0123456789abcdef0123456789abcdef/" + jarName));
+        }
+        return result;
+    }
+
+    private static List<File> moduleClasspath(int moduleIndex, List<File> sharedJars) {
+        List<File> result = new ArrayList<File>(sharedJars.size() + 2);
+        result.add(new File("/home/user/build/module" + moduleIndex + "/build/classes/java/main"));
+        result.add(new File("/home/user/build/module" + moduleIndex + "/build/resources/main"));
+        result.addAll(sharedJars);
+        return result;
+    }
+
+    private static CustomSerializedMap createMap(List<File> classpath, boolean collectFilePaths) {
+        CustomSerializedMap.Builder builder = new CustomSerializedMap.Builder(1, collectFilePaths);
+        builder.addValue(KEY, new ArrayList<File>(classpath));
+        return builder.create();
+    }
+
+    private static List<CustomSerializedMap> createModuleMaps(
+            int moduleCount,
+            List<File> sharedJars,
+            FilePathDictionary dictionary) {
+
+        List<CustomSerializedMap> result = new ArrayList<CustomSerializedMap>(moduleCount);
+        for (int i = 0; i < moduleCount; i++) {
+            List<File> classpath = moduleClasspath(i, sharedJars);
+            if (dictionary != null) {
+                result.add(createMap(classpath, true).withSharedFilePaths(dictionary));
+            }
+            else {
+                result.add(createMap(classpath, false));
+            }
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<CustomSerializedMap> serializeRoundTrip(List<CustomSerializedMap> maps) throws Exception {
+        byte[] serialized = SerializationUtils.serializeObject(new ArrayList<CustomSerializedMap>(maps));
+        return (List<CustomSerializedMap>)SerializationUtils.deserializeObject(serialized, SerializationCache.NO_CACHE);
+    }
+
+    private static List<?> getValues(CustomSerializedMap map) {
+        Map<Object, SerializedEntries> entries = map.getMap();
+        assertEquals("entries.size", 1, entries.size());
+
+        List<?> values = entries.get(KEY).getUnserialized(SerializationCache.NO_CACHE, null);
+        assertEquals("values.size", 1, values.size());
+        return (List<?>)values.get(0);
+    }
+
+    @Test
+    public void testRoundTripWithoutFilePaths() throws Exception {
+        List<File> classpath = moduleClasspath(0, sharedJars(3));
+
+        CustomSerializedMap map = serializeRoundTrip(Collections.singletonList(createMap(classpath, false))).get(0);
+        assertEquals(classpath, getValues(map));
+    }
+
+    @Test
+    public void testRoundTripWithLocalFilePaths() throws Exception {
+        List<File> classpath = moduleClasspath(0, sharedJars(3));
+
+        CustomSerializedMap map = serializeRoundTrip(Collections.singletonList(createMap(classpath, true))).get(0);
+        assertEquals(classpath, getValues(map));
+    }
+
+    @Test
+    public void testRoundTripWithSharedFilePaths() throws Exception {
+        List<File> sharedJars = sharedJars(5);
+        FilePathDictionary dictionary = new FilePathDictionary();
+
+        List<CustomSerializedMap> maps = serializeRoundTrip(createModuleMaps(3, sharedJars, dictionary));
+        assertEquals("dictionary.size", 5 + 3 * 2, dictionary.size());
+
+        List<?> classpath0 = getValues(maps.get(0));
+        List<?> classpath1 = getValues(maps.get(1));
+
+        assertEquals(moduleClasspath(0, sharedJars), classpath0);
+        assertEquals(moduleClasspath(1, sharedJars), classpath1);
+
+        for (int i = 2; i < classpath0.size(); i++) {
+            assertSame("classpath[" + i + "]", classpath0.get(i), classpath1.get(i));
+        }
+    }
+
+    @Test
+    public void testRoundTripOfNonFileValues() throws Exception {
+        CustomSerializedMap.Builder builder = new CustomSerializedMap.Builder(1, true);
+        builder.addValues(KEY, Arrays.asList("value1", "value2"));
+        CustomSerializedMap map = builder.create().withSharedFilePaths(new FilePathDictionary());
+
+        List<?> values = serializeRoundTrip(Collections.singletonList(map)).get(0)
+                .getMap()
+                .get(KEY)
+                .getUnserialized(SerializationCache.NO_CACHE, null);
+        assertEquals(Arrays.asList("value1", "value2"), values);
+    }
+
+    @Test
+    public void testSharedFilePathsPayloadOfLargeBuild() {
+        int moduleCount = 500;
+        List<File> sharedJars = sharedJars(300);
+
+        List<CustomSerializedMap> separateMaps = createModuleMaps(moduleCount, sharedJars, null);
+        List<CustomSerializedMap> sharedMaps = createModuleMaps(moduleCount, sharedJars, new FilePathDictionary());
+
+        int separateSize = SerializationUtils.serializeObject(new ArrayList<CustomSerializedMap>(separateMaps)).length;
+        int sharedSize = SerializationUtils.serializeObject(new ArrayList<CustomSerializedMap>(sharedMaps)).length;
+
+        assertTrue("Expected at least 3 times smaller payload: " + sharedSize + " vs. " + separateSize,
+                3L * sharedSize < separateSize);
+    }
+}
@@ -0,0 +1,131 @@
+package org.netbeans.gradle.model.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+import org.netbeans.gradle.model.BuilderIssue;
+import org.netbeans.gradle.model.BuilderResult;
+import org.netbeans.gradle.model.api.ProjectInfoBuilder2;
+import org.netbeans.gradle.model.util.SerializationCache;
+
+import static org.junit.Assert.*;
+
+public class ProjectInfoBuilderRunnerTest {
+    private static final String PROJECT = "test-project";
+
+    private static Map<Object, List<BuilderResult>> toResultMap(CustomSerializedMap map) {
+        Map<Object, List<BuilderResult>> result = new LinkedHashMap<Object, List<BuilderResult>>();
+        for (Map.Entry<Object, SerializedEntries> entry: map.getMap().entrySet()) {
+            List<BuilderResult> values = new ArrayList<BuilderResult>();
+            for (Object value: entry.getValue().getUnserialized(SerializationCache.NO_CACHE, null)) {
+                values.add((BuilderResult)value);
+            }
+            result.put(entry.getKey(), values);
+        }
+        return result;
+    }
+
+    private static Map<Object, List<BuilderResult>> runBuilders(
+            Map<Object, List<?>> projectInfoRequests,
+            Map<Object, List<BuilderResult>> issues) {
+
+        CustomSerializedMap.Builder resultBuilder = new CustomSerializedMap.Builder(projectInfoRequests.size(), false);
+        CustomSerializedMap.Builder issueBuilder = new CustomSerializedMap.Builder(0);
+        ProjectInfoBuilderRunner.runBuilders(PROJECT, projectInfoRequests, resultBuilder, issueBuilder);
+
+        issues.putAll(toResultMap(issueBuilder.create()));
+        return toResultMap(resultBuilder.create());
+    }
+
+    private static Map<Object, List<BuilderResult>> runBuilders(Map<Object, List<?>> projectInfoRequests) {
+        Map<Object, List<BuilderResult>> issues = new LinkedHashMap<Object, List<BuilderResult>>();
+        Map<Object, List<BuilderResult>> result = runBuilders(projectInfoRequests, issues);
+        assertTrue("issues", issues.isEmpty());
+        return result;
+    }
+
+    private static List<Object> getResultObjects(List<BuilderResult> builderResults) {
+        List<Object> result = new ArrayList<Object>(builderResults.size());
+        for (BuilderResult builderResult: builderResults) {
+            result.add(builderResult.getResultObject());
+        }
+        return result;
+    }
+
+    @Test
+    public void testResultOrder() {
+        Map<Object, List<?>> requests = new LinkedHashMap<Object, List<?>>();
+        requests.put("key1", Arrays.asList(
+                new ConstBuilder("result0"),
+                new ConstBuilder("result1"),
+                new ConstBuilder("result2")));
+        requests.put("key2", Arrays.asList(new ConstBuilder("other")));
+
+        Map<Object, List<BuilderResult>> results = runBuilders(requests);
+
+        assertEquals(Arrays.asList("key1", "key2"), new ArrayList<Object>(results.keySet()));
+        assertEquals(Arrays.asList("result0", "result1", "result2"), getResultObjects(results.get("key1")));
+        assertEquals(Arrays.asList("other"), getResultObjects(results.get("key2")));
+
+        for (List<BuilderResult> builderResults: results.values()) {
+            for (BuilderResult builderResult: builderResults) {
+                assertTrue("buildTimeNanos", builderResult.getBuildTimeNanos() >= 0);
+            }
+        }
+    }
+
+    @Test
+    public void testFailingBuilder() {
+        Map<Object, List<?>> requests = new LinkedHashMap<Object, List<?>>();
+        requests.put("key", Arrays.asList(new FailingBuilder(), new ConstBuilder("value"), new ConstBuilder(null)));
+
+        Map<Object, List<BuilderResult>> issues = new LinkedHashMap<Object, List<BuilderResult>>();
+        List<BuilderResult> results = runBuilders(requests, issues).get("key");
+
+        List<BuilderResult> keyIssues = issues.get("key");
+        assertEquals("issues.size", 1, keyIssues.size());
+        BuilderIssue issue = keyIssues.get(0).getIssue();
+        assertNotNull("issue", issue);
+        assertEquals("FailingBuilder", issue.getName());
+        assertNull(keyIssues.get(0).getResultObject());
+
+        assertEquals("results.size", 1, results.size());
+        assertNull(results.get(0).getIssue());
+        assertEquals("value", results.get(0).getResultObject());
+        assertEquals("ConstBuilder", results.get(0).getBuilderName());
+    }
+
+    private static final class ConstBuilder implements ProjectInfoBuilder2<String> {
+        private static final long serialVersionUID = 1L;
+
+        private final String result;
+
+        public ConstBuilder(String result) {
+            this.result = result;
+        }
+
+        public String getProjectInfo(Object project) {
+            assertSame(PROJECT, project);
+            return result;
+        }
+
+        public String getName() {
+            return getClass().getSimpleName();
+        }
+    }
+
+    private static final class FailingBuilder implements ProjectInfoBuilder2<String> {
+        private static final long serialVersionUID = 1L;
+
+        public String getProjectInfo(Object project) {
+            throw new IllegalStateException("Test failure");
+        }
+
+        public String getName() {
+            return getClass().getSimpleName();
+        }
+    }
+}
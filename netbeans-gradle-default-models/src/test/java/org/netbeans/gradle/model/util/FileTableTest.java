@@ -0,0 +1,165 @@
+package org.netbeans.gradle.model.util;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FileTableTest {
+    private static List<File> files(String... paths) {
+        List<File> result = new ArrayList<File>(paths.length);
+        for (String path: paths) {
+            result.add(new File(path));
+        }
+        return result;
+    }
+
+    @Test
+    public void testKeepsOrder() {
+        FileTable table = new FileTable();
+        List<File> files = files("c.jar", "a.jar", "b.jar");
+
+        Set<File> set = table.toSet(files);
+        assertEquals(files, new ArrayList<File>(set));
+    }
+
+    @Test
+    public void testRemovesDuplicates() {
+        FileTable table = new FileTable();
+
+        Set<File> set = table.toSet(files("a.jar", "b.jar", "a.jar"));
+        assertEquals(files("a.jar", "b.jar"), new ArrayList<File>(set));
+    }
+
+    @Test
+    public void testContains() {
+        FileTable table = new FileTable();
+        table.toSet(files("other.jar"));
+
+        Set<File> set = table.toSet(files("a.jar", "b.jar"));
+        assertTrue(set.contains(new File("a.jar")));
+        assertTrue(set.contains(new File("b.jar")));
+        assertFalse(set.contains(new File("other.jar")));
+        assertFalse(set.contains(new File("unknown.jar")));
+        assertFalse(set.contains(null));
+        assertFalse(set.contains("a.jar"));
+    }
+
+    @Test
+    public void testContainsInLargeSet() {
+        FileTable table = new FileTable();
+
+        List<File> files = new ArrayList<File>();
+        for (int i = 0; i < 100; i++) {
+            files.add(new File("lib" + i + ".jar"));
+        }
+        table.toSet(files("other.jar"));
+        Collections.reverse(files);
+
+        Set<File> set = table.toSet(files);
+        for (File file: files) {
+            assertTrue(file.getPath(), set.contains(new File(file.getPath())));
+        }
+        assertFalse(set.contains(new File("other.jar")));
+        assertFalse(set.contains(new File("unknown.jar")));
+    }
+
+    @Test
+    public void testSharesFiles() {
+        FileTable table = new FileTable();
+
+        Set<File> set1 = table.toSet(files("a.jar"));
+        Set<File> set2 = table.toSet(files("a.jar"));
+        assertSame(set1.iterator().next(), set2.iterator().next());
+    }
+
+    @Test
+    public void testEquals() {
+        FileTable table = new FileTable();
+
+        Set<File> set1 = table.toSet(files("a.jar", "b.jar"));
+        Set<File> set2 = table.toSet(files("a.jar", "b.jar"));
+        Set<File> set3 = table.toSet(files("b.jar", "a.jar"));
+        Set<File> set4 = table.toSet(files("a.jar"));
+
+        assertEquals(set1, set2);
+        assertEquals(set1, set3);
+        assertEquals(set1, new HashSet<File>(files("a.jar", "b.jar")));
+        assertEquals(new HashSet<File>(files("a.jar", "b.jar")), set1);
+        assertEquals(set1.hashCode(), new HashSet<File>(files("a.jar", "b.jar")).hashCode());
+        assertFalse(set1.equals(set4));
+    }
+
+    @Test
+    public void testEqualsOfLargeSets() {
+        FileTable table = new FileTable();
+
+        List<File> files = new ArrayList<File>();
+        for (int i = 0; i < 100; i++) {
+            files.add(new File("lib" + i + ".jar"));
+        }
+        List<File> reversedFiles = new ArrayList<File>(files);
+        Collections.reverse(reversedFiles);
+        List<File> otherFiles = new ArrayList<File>(files);
+        otherFiles.set(50, new File("other.jar"));
+
+        Set<File> set1 = table.toSet(files);
+        Set<File> set2 = table.toSet(reversedFiles);
+        Set<File> set3 = table.toSet(otherFiles);
+
+        assertEquals(set1, set2);
+        assertEquals(set1.hashCode(), set2.hashCode());
+        assertEquals(new HashSet<File>(files).hashCode(), set1.hashCode());
+        assertFalse(set1.equals(set3));
+    }
+
+    @Test
+    public void testEmpty() {
+        FileTable table = new FileTable();
+
+        Set<File> set = table.toSet(Collections.<File>emptyList());
+        assertTrue(set.isEmpty());
+        assertEquals(Collections.<File>emptySet(), set);
+    }
+
+    @Test
+    public void testManyFiles() {
+        FileTable table = new FileTable();
+
+        List<File> files = new ArrayList<File>();
+        for (int i = 0; i < 1000; i++) {
+            files.add(new File("lib" + i + ".jar"));
+        }
+
+        Set<File> set = table.toSet(files);
+        assertEquals(files, new ArrayList<File>(set));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullElement() {
+        new FileTable().toSet(Arrays.asList(new File("a.jar"), null));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testImmutable() {
+        new FileTable().toSet(files("a.jar")).add(new File("b.jar"));
+    }
+
+    @Test
+    public void testSerialization() throws ClassNotFoundException {
+        FileTable table = new FileTable();
+        Set<File> set = table.toSet(files("c.jar", "a.jar", "b.jar"));
+
+        byte[] serialized = SerializationUtils.serializeObject(set);
+        @SuppressWarnings("unchecked")
+        Set<File> deserialized = (Set<File>)SerializationUtils.deserializeObject(serialized, SerializationCaches.getDefault());
+
+        assertEquals(new ArrayList<File>(set), new ArrayList<File>(deserialized));
+    }
+}
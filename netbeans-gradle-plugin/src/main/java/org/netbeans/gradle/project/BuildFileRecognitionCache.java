@@ -0,0 +1,136 @@
+package org.netbeans.gradle.project;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import org.jtrim.utils.ExceptionHelper;
+import org.netbeans.gradle.project.model.NbGenericModelInfo;
+import org.netbeans.gradle.project.script.ScriptFileProvider;
+import org.netbeans.gradle.project.util.NbFileUtils;
+import org.openide.filesystems.FileChangeAdapter;
+import org.openide.filesystems.FileEvent;
+import org.openide.filesystems.FileObject;
+import org.openide.filesystems.FileRenameEvent;
+import org.openide.filesystems.FileUtil;
+
+/**
+ * Remembers which directories contain a Gradle build script. A remembered
+ * verdict is dropped when a script file is created, deleted or renamed in the
+ * directory, so the file system is only checked again after such a change.
+ * <P>
+ * The directories are referenced weakly, so this cache does not keep
+ * {@code FileObject} instances alive.
+ */
+final class BuildFileRecognitionCache {
+    private final ScriptFileProvider scriptProvider;
+    private final Map<FileObject, DirectoryEntry> entries;
+
+    public BuildFileRecognitionCache(ScriptFileProvider scriptProvider) {
+        ExceptionHelper.checkNotNullArgument(scriptProvider, "scriptProvider");
+
+        this.scriptProvider = scriptProvider;
+        this.entries = Collections.synchronizedMap(new WeakHashMap<FileObject, DirectoryEntry>());
+    }
+
+    public boolean hasBuildFile(FileObject directory) {
+        ExceptionHelper.checkNotNullArgument(directory, "directory");
+
+        DirectoryEntry entry;
+        boolean newEntry;
+        synchronized (entries) {
+            entry = entries.get(directory);
+            newEntry = entry == null;
+            if (newEntry) {
+                entry = new DirectoryEntry();
+                entries.put(directory, entry);
+            }
+        }
+
+        if (newEntry) {
+            // The listener is referenced by the map entry only, so it is
+            // automatically unregistered once the directory is forgotten.
+            directory.addFileChangeListener(FileUtil.weakFileChangeListener(entry, directory));
+        }
+
+        return entry.hasBuildFile(directory);
+    }
+
+    private boolean checkBuildFile(FileObject directory) {
+        Path dirAsPath = NbFileUtils.asPath(directory);
+        return dirAsPath != null
+                ? NbGenericModelInfo.tryGuessBuildFilePath(dirAsPath, scriptProvider) != null
+                : false;
+    }
+
+    private final class DirectoryEntry extends FileChangeAdapter {
+        private final Object verdictLock;
+        private Boolean verdict;
+        private long changeCount;
+
+        public DirectoryEntry() {
+            this.verdictLock = new Object();
+            this.verdict = null;
+            this.changeCount = 0;
+        }
+
+        public boolean hasBuildFile(FileObject directory) {
+            long startChangeCount;
+            synchronized (verdictLock) {
+                if (verdict != null) {
+                    return verdict;
+                }
+                startChangeCount = changeCount;
+            }
+
+            boolean result = checkBuildFile(directory);
+
+            synchronized (verdictLock) {
+                // Do not remember a verdict which might have been computed
+                // before a concurrent change of the directory.
+                if (changeCount == startChangeCount) {
+                    verdict = result;
+                }
+            }
+            return result;
+        }
+
+        private void invalidate() {
+            synchronized (verdictLock) {
+                verdict = null;
+                changeCount++;
+            }
+        }
+
+        private void invalidateIfScript(String fileName) {
+            if (scriptProvider.isScriptFileName(fileName)) {
+                invalidate();
+            }
+        }
+
+        @Override
+        public void fileDataCreated(FileEvent fe) {
+            invalidateIfScript(fe.getFile().getNameExt());
+        }
+
+        @Override
+        public void fileDeleted(FileEvent fe) {
+            invalidateIfScript(fe.getFile().getNameExt());
+        }
+
+        @Override
+        public void fileRenamed(FileRenameEvent fe) {
+            if (fe.getFile().isFolder()) {
+                // The build script might be named after the directory.
+                invalidate();
+                return;
+            }
+
+            String oldNameExt = fe.getExt().isEmpty()
+                    ? fe.getName()
+                    : fe.getName() + "." + fe.getExt();
+            invalidateIfScript(oldNameExt);
+            invalidateIfScript(fe.getFile().getNameExt());
+        }
+    }
+}
@@ -1,18 +1,26 @@
 package org.netbeans.gradle.project;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import java.nio.file.StandardCopyOption;
 import java.security.SecureRandom;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -20,7 +28,6 @@ import java.util.Properties;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.jtrim.cancel.Cancellation;
@@ -36,17 +43,22 @@ import org.netbeans.gradle.project.model.NbGradleModel;
 import org.netbeans.gradle.project.model.NbGradleProjectTree;
 import org.netbeans.gradle.project.model.SettingsGradleDef;
 import org.netbeans.gradle.project.properties.global.GlobalSettingsUtils;
+import org.netbeans.gradle.project.util.BackgroundIOExecutors;
 import org.netbeans.gradle.project.util.LazyPaths;
-import org.netbeans.gradle.project.util.NbTaskExecutors;
 import org.netbeans.gradle.project.util.StringUtils;
 
 public final class DefaultGlobalSettingsFileManager implements GlobalSettingsFileManager {
     private static final Logger LOGGER = Logger.getLogger(DefaultGlobalSettingsFileManager.class.getName());
 
-    private static final TaskExecutor SETTINGS_FILE_UPDATER = NbTaskExecutors.newDefaultFifoExecutor();
+    private static final TaskExecutor SETTINGS_FILE_UPDATER = BackgroundIOExecutors.getCacheExecutor();
     private static final SecureRandom RANDOM = new SecureRandom();
     private static final int STAMP_SIZE = 16 ; // bytes
 
+    private static final String INDEX_FILE_NAME = "settings-gradle.index";
+    private static final String LEGACY_SETTINGS_DIR_NAME = "settings-gradle";
+    private static final int INDEX_FORMAT_VERSION = 1;
+    private static final int INDEX_BUFFER_SIZE = 64 * 1024;
+
     private final LazyPaths cacheDir;
     private final RootProjectRegistry rootProjectRegistry;
     private final UpdateTaskExecutor settingsDefPersistor;
@@ -55,6 +67,7 @@ public final class DefaultGlobalSettingsFileManager implements GlobalSettingsFil
     private final Map<File, SettingsDef> outstandingDefs;
 
     private final Locker locker;
+    private volatile Map<File, SettingsDef> storedDefs;
 
     public DefaultGlobalSettingsFileManager(RootProjectRegistry rootProjectRegistry) {
         this(rootProjectRegistry, GlobalSettingsUtils.cacheRoot());
@@ -67,6 +80,7 @@ public final class DefaultGlobalSettingsFileManager implements GlobalSettingsFil
         this.outstandingDefsLock = new ReentrantLock();
         this.outstandingDefs = new HashMap<>();
         this.locker = new Locker();
+        this.storedDefs = null;
     }
 
     @Override
@@ -176,28 +190,20 @@ public final class DefaultGlobalSettingsFileManager implements GlobalSettingsFil
         getLocker().doWrite(new IoTask<Void>() {
             @Override
             public Void run() throws IOException {
-                MessageDigest hashCalculator = getNameHasher();
+                Map<File, SettingsDef> newStoredDefs = new HashMap<>(getStoredDefsUnsafe());
                 for (SettingsDef def: toSave) {
-                    Path savePath = tryGetProjectSaveFile(def.projectDir, hashCalculator);
-                    if (savePath == null) {
-                        LOGGER.log(Level.WARNING, "Cannot save settings.gradle location for projects.");
-                        break;
-                    }
-
-                    Path settingsGradle = def.settingsGradleDef.getSettingsGradle();
-
-                    Properties output = new Properties();
-                    output.put("projectDir", def.projectDir.toString());
-                    output.put("rootProjectDir", def.rootProjectDir.toString());
-                    output.put("maySearchUpwards", Boolean.toString(def.settingsGradleDef.isMaySearchUpwards()));
-                    output.put("settingsGradle", settingsGradle != null ? settingsGradle.toString() : "");
-                    output.put("stamp", def.stamp);
+                    newStoredDefs.put(def.projectDir, def);
+                }
 
-                    Files.createDirectories(savePath.getParent());
-                    try (OutputStream outputStream = Files.newOutputStream(savePath)) {
-                        output.store(outputStream, null);
-                    }
+                Path indexFile = tryGetIndexFile();
+                if (indexFile == null) {
+                    LOGGER.log(Level.WARNING, "Cannot save settings.gradle location for projects.");
                 }
+                else {
+                    writeIndex(indexFile, newStoredDefs.values());
+                }
+
+                storedDefs = newStoredDefs;
                 return null;
             }
         });
@@ -241,42 +247,203 @@ public final class DefaultGlobalSettingsFileManager implements GlobalSettingsFil
     }
 
     private SettingsDef tryGetStoredSettingsDef(File projectDir) {
+        Map<File, SettingsDef> defs;
         try {
-            return tryGetStoredSettingsDef0(projectDir);
+            defs = getStoredDefs();
         } catch (IOException ex) {
             throw new RuntimeException(ex);
         }
+
+        SettingsDef result = defs.get(projectDir);
+        if (result == null) {
+            return null;
+        }
+
+        if (Objects.equals(result.rootProjectDir, result.projectDir)) {
+            return result;
+        }
+
+        // If the root project was reloaded since, and it no longer contains
+        // this project, then the stored location is stale.
+        SettingsDef rootDef = defs.get(result.rootProjectDir);
+        if (rootDef == null) {
+            return null;
+        }
+
+        return Objects.equals(result.stamp, rootDef.stamp) ? result : null;
     }
 
-    private SettingsDef tryGetStoredSettingsDef0(final File projectDir) throws IOException {
-        return getLocker().doRead(new IoTask<SettingsDef>() {
+    private Map<File, SettingsDef> getStoredDefs() throws IOException {
+        Map<File, SettingsDef> result = storedDefs;
+        if (result != null) {
+            return result;
+        }
+
+        return getLocker().doWrite(new IoTask<Map<File, SettingsDef>>() {
             @Override
-            public SettingsDef run() throws IOException {
-                SettingsDef result = tryGetStoredSettingsDefUnsafe(projectDir);
-                if (result == null) {
-                    return null;
-                }
+            public Map<File, SettingsDef> run() throws IOException {
+                return getStoredDefsUnsafe();
+            }
+        });
+    }
+
+    private Map<File, SettingsDef> getStoredDefsUnsafe() throws IOException {
+        Map<File, SettingsDef> result = storedDefs;
+        if (result == null) {
+            result = loadStoredDefsUnsafe();
+            storedDefs = result;
+        }
+        return result;
+    }
+
+    private Map<File, SettingsDef> loadStoredDefsUnsafe() throws IOException {
+        Path indexFile = tryGetIndexFile();
+        if (indexFile == null) {
+            return Collections.emptyMap();
+        }
+
+        if (Files.isRegularFile(indexFile)) {
+            return removeMissingProjectDirs(readIndex(indexFile));
+        }
+
+        Path legacyDir = cacheDir.tryGetSubPath(LEGACY_SETTINGS_DIR_NAME);
+        if (legacyDir == null || !Files.isDirectory(legacyDir)) {
+            return Collections.emptyMap();
+        }
+
+        Map<File, SettingsDef> result = removeMissingProjectDirs(readLegacySettingsDefs(legacyDir));
+        try {
+            writeIndex(indexFile, result.values());
+            deleteLegacySettingsDefs(legacyDir);
+        } catch (IOException ex) {
+            LOGGER.log(Level.INFO, "Failed to convert the old settings.gradle locations: " + legacyDir, ex);
+        }
+        return result;
+    }
+
+    /**
+     * Removes the entries of projects whose directory no longer exists. The
+     * index is always rewritten from the loaded entries, so the removed
+     * entries are dropped from the index file as well with the next update.
+     */
+    private static Map<File, SettingsDef> removeMissingProjectDirs(Map<File, SettingsDef> defs) {
+        Iterator<File> projectDirItr = defs.keySet().iterator();
+        while (projectDirItr.hasNext()) {
+            if (!projectDirItr.next().isDirectory()) {
+                projectDirItr.remove();
+            }
+        }
+        return defs;
+    }
+
+    private static Map<File, SettingsDef> readIndex(Path indexFile) {
+        Map<File, SettingsDef> result = new HashMap<>();
+
+        try (InputStream fileInput = Files.newInputStream(indexFile);
+                DataInputStream input = new DataInputStream(new BufferedInputStream(fileInput, INDEX_BUFFER_SIZE))) {
 
-                if (Objects.equals(projectDir, result.projectDir)) {
-                    return result;
+            int version = input.readInt();
+            if (version != INDEX_FORMAT_VERSION) {
+                LOGGER.log(Level.INFO, "Ignoring settings.gradle index with unknown version {0}: {1}",
+                        new Object[]{version, indexFile});
+                return result;
+            }
+
+            int count = input.readInt();
+            for (int i = 0; i < count; i++) {
+                File projectDir = new File(input.readUTF());
+                File rootProjectDir = new File(input.readUTF());
+                boolean maySearchUpwards = input.readBoolean();
+                String settingsGradle = input.readUTF();
+                String stamp = input.readUTF();
+
+                SettingsGradleDef settingsGradleDef = new SettingsGradleDef(
+                        settingsGradle.isEmpty() ? null : Paths.get(settingsGradle),
+                        maySearchUpwards);
+                result.put(projectDir, new SettingsDef(rootProjectDir, projectDir, settingsGradleDef, stamp));
+            }
+        } catch (IOException | InvalidPathException ex) {
+            LOGGER.log(Level.INFO, "Failed to load the settings.gradle index: " + indexFile, ex);
+            result.clear();
+        }
+
+        return result;
+    }
+
+    private static void writeIndex(Path indexFile, Collection<SettingsDef> defs) throws IOException {
+        Path tmpFile = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+        Files.createDirectories(indexFile.getParent());
+
+        // The index is not forced to the disk: It is only a cache and a
+        // truncated index is ignored by readIndex, so it is not worth
+        // waiting for the disk on every update.
+        try (OutputStream fileOutput = Files.newOutputStream(tmpFile);
+                DataOutputStream output = new DataOutputStream(new BufferedOutputStream(fileOutput, INDEX_BUFFER_SIZE))) {
+
+            output.writeInt(INDEX_FORMAT_VERSION);
+            output.writeInt(defs.size());
+            for (SettingsDef def: defs) {
+                Path settingsGradle = def.settingsGradleDef.getSettingsGradle();
+
+                output.writeUTF(def.projectDir.toString());
+                output.writeUTF(def.rootProjectDir.toString());
+                output.writeBoolean(def.settingsGradleDef.isMaySearchUpwards());
+                output.writeUTF(settingsGradle != null ? settingsGradle.toString() : "");
+                output.writeUTF(def.stamp);
+            }
+        }
+
+        // Replace the index in a single step, so that readers never see a
+        // partially written index.
+        try {
+            Files.move(tmpFile, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(tmpFile, indexFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static List<Path> listLegacySettingsFiles(Path legacyDir) throws IOException {
+        List<Path> result = new ArrayList<>();
+        try (DirectoryStream<Path> hashDirs = Files.newDirectoryStream(legacyDir)) {
+            for (Path hashDir: hashDirs) {
+                if (!Files.isDirectory(hashDir)) {
+                    continue;
                 }
 
-                SettingsDef rootDef = tryGetStoredSettingsDefUnsafe(projectDir);
-                if (rootDef == null) {
-                    return null;
+                try (DirectoryStream<Path> settingsFiles = Files.newDirectoryStream(hashDir, "*.properties")) {
+                    for (Path settingsFile: settingsFiles) {
+                        result.add(settingsFile);
+                    }
                 }
+            }
+        }
+        return result;
+    }
 
-                return Objects.equals(result.stamp, rootDef.stamp) ? result : null;
+    private static Map<File, SettingsDef> readLegacySettingsDefs(Path legacyDir) throws IOException {
+        Map<File, SettingsDef> result = new HashMap<>();
+        for (Path settingsFile: listLegacySettingsFiles(legacyDir)) {
+            SettingsDef def = tryReadLegacySettingsDef(settingsFile);
+            if (def != null) {
+                result.put(def.projectDir, def);
             }
-        });
+        }
+        return result;
     }
 
-    private SettingsDef tryGetStoredSettingsDefUnsafe(File projectDir) {
-        Path settingsFile = tryGetProjectSaveFile(projectDir);
-        if (settingsFile == null || !Files.isRegularFile(settingsFile)) {
-            return null;
+    private static void deleteLegacySettingsDefs(Path legacyDir) {
+        try {
+            for (Path settingsFile: listLegacySettingsFiles(legacyDir)) {
+                Files.deleteIfExists(settingsFile);
+                Files.deleteIfExists(settingsFile.getParent());
+            }
+            Files.deleteIfExists(legacyDir);
+        } catch (IOException ex) {
+            LOGGER.log(Level.FINE, "Failed to remove the old settings.gradle locations: " + legacyDir, ex);
         }
+    }
 
+    private static SettingsDef tryReadLegacySettingsDef(Path settingsFile) {
         Properties settings = new Properties();
         try (InputStream input = Files.newInputStream(settingsFile)) {
             settings.load(input);
@@ -285,8 +452,8 @@ public final class DefaultGlobalSettingsFileManager implements GlobalSettingsFil
             return null;
         }
 
-        String storedProjectDir = settings.getProperty("projectDir", "");
-        if (!storedProjectDir.isEmpty() && !projectDir.equals(new File(storedProjectDir))) {
+        String projectDir = settings.getProperty("projectDir", "");
+        if (projectDir.isEmpty()) {
             return null;
         }
 
@@ -300,48 +467,21 @@ public final class DefaultGlobalSettingsFileManager implements GlobalSettingsFil
                     settingsGradle.isEmpty() ? null : Paths.get(settingsGradle),
                     Boolean.parseBoolean(maySearchUpwards));
 
-            return new SettingsDef(new File(rootProjectDir), projectDir, settingsGradleDef, stamp);
+            return new SettingsDef(new File(rootProjectDir), new File(projectDir), settingsGradleDef, stamp);
         } catch (InvalidPathException ex) {
             LOGGER.log(Level.INFO, "Failed to parse settings settings in: " + settingsFile, ex);
             return null;
         }
     }
 
-    private Path tryGetProjectSaveFile(File projectDir) {
-        return tryGetProjectSaveFile(projectDir, getNameHasher());
-    }
-
-    private Path tryGetProjectSaveFile(File projectDir, MessageDigest hashCalculator) {
-        hashCalculator.reset();
-        String keyHash = StringUtils.byteArrayToHex(hashCalculator.digest(projectDir.toString().getBytes(StringUtils.UTF8)));
-
-        List<String> subPaths = new ArrayList<>();
-        subPaths.add("settings-gradle");
-
-        if (keyHash.length() > 2) {
-            subPaths.add(keyHash.substring(0, 2));
-            subPaths.add(keyHash.substring(2) + ".properties");
-        }
-        else {
-            subPaths.add("XX");
-            subPaths.add(keyHash + ".properties");
-        }
-
-        return cacheDir.tryGetSubPath(subPaths);
+    private Path tryGetIndexFile() {
+        return cacheDir.tryGetSubPath(INDEX_FILE_NAME);
     }
 
     private Locker getLocker() {
         return locker;
     }
 
-    private static MessageDigest getNameHasher() {
-        try {
-            return MessageDigest.getInstance("MD5");
-        } catch (NoSuchAlgorithmException ex) {
-            throw new RuntimeException("Unable to load the MD5 calculator.", ex);
-        }
-    }
-
     private static final class SettingsDef {
         public final File rootProjectDir;
         public final File projectDir;
@@ -366,25 +506,12 @@ public final class DefaultGlobalSettingsFileManager implements GlobalSettingsFil
     }
 
     private static final class Locker {
-        private final Lock readLock;
         private final Lock writeLock;
 
         public Locker() {
             // TODO: We should also use file lock (though it is not a big issue since
             //       NB cannot run concurrently with itself anyway).
-
-            ReentrantReadWriteLock readWriteLock = new ReentrantReadWriteLock();
-            this.readLock = readWriteLock.readLock();
-            this.writeLock = readWriteLock.writeLock();
-        }
-
-        public <R> R doRead(IoTask<? extends R> task) throws IOException {
-            readLock.lock();
-            try {
-                return task.run();
-            } finally {
-                readLock.unlock();
-            }
+            this.writeLock = new ReentrantLock();
         }
 
         public <R> R doWrite(IoTask<? extends R> task) throws IOException {
@@ -12,6 +12,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import javax.annotation.Nonnull;
 import org.jtrim.cancel.CancellationToken;
+import org.jtrim.property.PropertyFactory;
 import org.jtrim.property.PropertySource;
 import org.netbeans.api.project.Project;
 import org.netbeans.gradle.project.api.config.ProjectSettingsProvider;
@@ -30,6 +31,7 @@ import org.netbeans.gradle.project.model.ModelLoadUtils;
 import org.netbeans.gradle.project.model.ModelRetrievedListener;
 import org.netbeans.gradle.project.model.NbGradleModel;
 import org.netbeans.gradle.project.model.SettingsGradleDef;
+import org.netbeans.gradle.project.model.diagnostics.ModelLoadDiagnosticsLog;
 import org.netbeans.gradle.project.model.issue.ModelLoadIssue;
 import org.netbeans.gradle.project.model.issue.ModelLoadIssueReporter;
 import org.netbeans.gradle.project.properties.DefaultProjectSettingsProvider;
@@ -40,6 +42,7 @@ import org.netbeans.gradle.project.properties.NbGradleCommonProperties;
 import org.netbeans.gradle.project.properties.NbGradleSingleProjectConfigProvider;
 import org.netbeans.gradle.project.properties.ProjectProfileLoader;
 import org.netbeans.gradle.project.properties.ProjectPropertiesApi;
+import org.netbeans.gradle.project.properties.global.CommonGlobalSettings;
 import org.netbeans.gradle.project.query.GradleSharabilityQuery;
 import org.netbeans.gradle.project.query.GradleSourceEncodingQuery;
 import org.netbeans.gradle.project.query.GradleTemplateAttrProvider;
@@ -278,6 +281,8 @@ public final class NbGradleProject implements Project {
                 = NbGradleProjectFactory.ROOT_PROJECT_REGISTRY;
         public static final GlobalSettingsFileManager SETTINGS_FILE_MANAGER
                 = NbGradleProjectFactory.SETTINGS_FILE_MANAGER;
+        public static final ScriptChangeModelRefresher SCRIPT_CHANGE_REFRESHER
+                = new ScriptChangeModelRefresher(NbGradleProjectFactory.DEFAULT_SCRIPT_FILE_PROVIDER);
 
         public final GradleAuxiliaryConfiguration auxConfig;
         public final NbGradleSingleProjectConfigProvider configProvider;
@@ -363,6 +368,7 @@ public final class NbGradleProject implements Project {
             add(projectIssueManager.asProblemProvider(), serviceObjects);
 
             serviceObjects.add(createOpenHook(
+                    projectDirAsFile,
                     modelUpdater,
                     modelManager.currentModel(),
                     commonProperties.licenseHeaderInfo().getActiveSource()));
@@ -403,13 +409,24 @@ public final class NbGradleProject implements Project {
         }
 
         private static ProjectOpenedHook createOpenHook(
+                File projectDir,
                 final ProjectModelUpdater<?> modelUpdater,
                 final PropertySource<NbGradleModel> currentModel,
                 final PropertySource<LicenseHeaderInfo> licenseInfo) {
 
             List<PropertySource<CloseableAction>> actionProperties = Arrays.asList(
                     LICENSE_MANAGER.getRegisterListenerAction(currentModel, licenseInfo),
-                    ROOT_PROJECT_REGISTRY.forProject(currentModel)
+                    ROOT_PROJECT_REGISTRY.forProject(currentModel),
+                    SCRIPT_CHANGE_REFRESHER.forProject(
+                            currentModel,
+                            CommonGlobalSettings.getDefault().reloadOnScriptChange().getActiveSource(),
+                            new Runnable() {
+                                @Override
+                                public void run() {
+                                    modelUpdater.reloadProject();
+                                }
+                            }),
+                    PropertyFactory.<CloseableAction>constSource(ModelLoadDiagnosticsLog.keepLatestWhileOpened(projectDir))
             );
 
             return GenericOpenHook.create(actionProperties, new Runnable() {
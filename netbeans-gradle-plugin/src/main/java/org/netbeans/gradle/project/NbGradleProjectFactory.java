@@ -12,7 +12,6 @@ import java.util.logging.Logger;
 import org.jtrim.utils.ExceptionHelper;
 import org.netbeans.api.project.Project;
 import org.netbeans.api.project.ProjectManager;
-import org.netbeans.gradle.project.model.NbGenericModelInfo;
 import org.netbeans.gradle.project.script.CommonScripts;
 import org.netbeans.gradle.project.script.DefaultScriptFileProvider;
 import org.netbeans.gradle.project.script.ScriptFileProvider;
@@ -38,6 +37,11 @@ public class NbGradleProjectFactory implements ProjectFactory2 {
 
     private static final String TEMP_DIR = System.getProperty("java.io.tmpdir");
 
+    private static final BuildFileRecognitionCache BUILD_FILE_CACHE
+            = new BuildFileRecognitionCache(DEFAULT_SCRIPT_FILE_PROVIDER);
+
+    private static volatile FileObject tempDirObj = null;
+
     public static Project loadSafeProject(Path projectDir) throws IOException {
         return loadSafeProject(projectDir.toFile());
     }
@@ -164,10 +168,17 @@ public class NbGradleProjectFactory implements ProjectFactory2 {
     }
 
     private static boolean hasBuildFile(FileObject directory) {
-        Path dirAsPath = NbFileUtils.asPath(directory);
-        return dirAsPath != null
-                ? NbGenericModelInfo.tryGuessBuildFilePath(dirAsPath, DEFAULT_SCRIPT_FILE_PROVIDER) != null
-                : false;
+        return BUILD_FILE_CACHE.hasBuildFile(directory);
+    }
+
+    private static FileObject tryGetTempDirObj() {
+        FileObject result = tempDirObj;
+        if (result == null && TEMP_DIR != null) {
+            File tempDir = FileUtil.normalizeFile(new File(TEMP_DIR));
+            result = FileUtil.toFileObject(tempDir);
+            tempDirObj = result;
+        }
+        return result;
     }
 
     @Override
@@ -190,13 +201,10 @@ public class NbGradleProjectFactory implements ProjectFactory2 {
         // because NetBeans has a habit to put temporary gradle files to
         // them and then tries to load it which will fail because NetBeans will
         // delete them soon.
-        if (TEMP_DIR != null) {
-            File tempDir = FileUtil.normalizeFile(new File(TEMP_DIR));
-            FileObject tempDirObj = FileUtil.toFileObject(tempDir);
-            if (tempDirObj != null) {
-                if (FileUtil.getRelativePath(tempDirObj, projectDirectory) != null) {
-                    return false;
-                }
+        FileObject currentTempDirObj = tryGetTempDirObj();
+        if (currentTempDirObj != null) {
+            if (FileUtil.getRelativePath(currentTempDirObj, projectDirectory) != null) {
+                return false;
             }
         }
 
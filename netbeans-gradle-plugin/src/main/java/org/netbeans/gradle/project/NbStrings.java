@@ -2,6 +2,7 @@ package org.netbeans.gradle.project;
 
 import java.io.File;
 import java.net.URI;
+import java.nio.file.Path;
 import java.util.Collection;
 import java.util.List;
 import org.gradle.util.GradleVersion;
@@ -42,6 +43,10 @@ public final class NbStrings {
         return NbBundle.getMessage(NbStrings.class, "NbStrings.LoadingProject", projectName);
     }
 
+    public static String getLoadingRuntimeClassPathsText(String projectName) {
+        return NbBundle.getMessage(NbStrings.class, "NbStrings.LoadingRuntimeClassPaths", projectName);
+    }
+
     public static String getExecuteTasksText(String taskName) {
         return NbBundle.getMessage(NbStrings.class, "NbStrings.ExecutingGradleTasks", taskName);
     }
@@ -190,6 +195,25 @@ public final class NbStrings {
         return NbBundle.getMessage(NbStrings.class, "NbStrings.RefreshNodeCommandCaption");
     }
 
+    public static String getShowModelLoadDiagnosticsCaption() {
+        return NbBundle.getMessage(NbStrings.class, "NbStrings.ShowModelLoadDiagnostics");
+    }
+
+    public static String getModelLoadDiagnosticsCaption(String projectName) {
+        return NbBundle.getMessage(NbStrings.class, "NbStrings.ModelLoadDiagnosticsCaption", projectName);
+    }
+
+    public static String getModelLoadDiagnosticsLogFile(Path logFile) {
+        if (logFile == null) {
+            return NbBundle.getMessage(NbStrings.class, "NbStrings.ModelLoadDiagnosticsNoLogFile");
+        }
+        return NbBundle.getMessage(NbStrings.class, "NbStrings.ModelLoadDiagnosticsLogFile", logFile);
+    }
+
+    public static String getNoModelLoadDiagnostics() {
+        return NbBundle.getMessage(NbStrings.class, "NbStrings.NoModelLoadDiagnostics");
+    }
+
     public static String getOpenImmediateSubProjectsCaption() {
         return NbBundle.getMessage(NbStrings.class, "NbStrings.OpenImmediateSubProjects");
     }
@@ -431,6 +455,10 @@ public final class NbStrings {
         return NbBundle.getMessage(NbStrings.class, "NbStrings.DownloadSourcesFailure");
     }
 
+    public static String getDownloadSourcesOfModules(int moduleCount) {
+        return NbBundle.getMessage(NbStrings.class, "NbStrings.DownloadSourcesOfModules", moduleCount);
+    }
+
     public static String getWebPages() {
         return NbBundle.getMessage(NbStrings.class, "NbStrings.WebAppDir");
     }
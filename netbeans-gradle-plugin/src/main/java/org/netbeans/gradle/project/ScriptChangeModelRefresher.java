@@ -0,0 +1,341 @@
+package org.netbeans.gradle.project;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.jtrim.property.PropertySource;
+import org.jtrim.utils.ExceptionHelper;
+import org.netbeans.gradle.project.model.NbGradleModel;
+import org.netbeans.gradle.project.properties.NbProperties;
+import org.netbeans.gradle.project.script.ScriptFileProvider;
+import org.netbeans.gradle.project.util.CloseableAction;
+import org.netbeans.gradle.project.util.NbBiFunction;
+import org.openide.filesystems.FileChangeAdapter;
+import org.openide.filesystems.FileEvent;
+import org.openide.filesystems.FileObject;
+import org.openide.filesystems.FileRenameEvent;
+import org.openide.filesystems.FileUtil;
+
+/**
+ * Reloads the model of opened projects in the background after one of their
+ * build scripts was saved, so that the new model is usually ready by the time
+ * the user needs it.
+ * <P>
+ * A reload is only started after no build script of the build was changed for
+ * a while, so that a series of edits causes a single reload. Loading the model
+ * of a project also updates the models of the other loaded projects of the same
+ * build, so only a single project is reloaded for each build.
+ */
+final class ScriptChangeModelRefresher {
+    private static final Logger LOGGER = Logger.getLogger(ScriptChangeModelRefresher.class.getName());
+
+    private static final long DEFAULT_QUIET_PERIOD_MS = 3000;
+
+    private final ScriptFileProvider scriptProvider;
+    private final ReloadScheduler reloadScheduler;
+
+    private final Lock mainLock;
+    private final Map<File, PendingReload> pendingReloads;
+    private final Map<File, List<ScriptListener>> liveListeners;
+
+    public ScriptChangeModelRefresher(ScriptFileProvider scriptProvider) {
+        this(scriptProvider, new TimerReloadScheduler(DEFAULT_QUIET_PERIOD_MS));
+    }
+
+    ScriptChangeModelRefresher(ScriptFileProvider scriptProvider, ReloadScheduler reloadScheduler) {
+        ExceptionHelper.checkNotNullArgument(scriptProvider, "scriptProvider");
+        ExceptionHelper.checkNotNullArgument(reloadScheduler, "reloadScheduler");
+
+        this.scriptProvider = scriptProvider;
+        this.reloadScheduler = reloadScheduler;
+        this.mainLock = new ReentrantLock();
+        this.pendingReloads = new HashMap<>();
+        this.liveListeners = new HashMap<>();
+    }
+
+    public PropertySource<CloseableAction> forProject(
+            PropertySource<? extends NbGradleModel> currentModel,
+            PropertySource<Boolean> enabled,
+            final Runnable reloadTask) {
+        ExceptionHelper.checkNotNullArgument(currentModel, "currentModel");
+        ExceptionHelper.checkNotNullArgument(enabled, "enabled");
+        ExceptionHelper.checkNotNullArgument(reloadTask, "reloadTask");
+
+        return NbProperties.combine(currentModel, enabled, new NbBiFunction<NbGradleModel, Boolean, CloseableAction>() {
+            @Override
+            public CloseableAction apply(final NbGradleModel model, final Boolean enabledValue) {
+                return new CloseableAction() {
+                    @Override
+                    public CloseableAction.Ref open() {
+                        if (!Boolean.TRUE.equals(enabledValue)) {
+                            return CloseableAction.CLOSED_REF;
+                        }
+                        return watchProject(model, reloadTask);
+                    }
+                };
+            }
+        });
+    }
+
+    private CloseableAction.Ref watchProject(NbGradleModel model, Runnable reloadTask) {
+        // Scripts of the root project (including the settings script) affect
+        // every project, while other scripts are watched by their own project.
+        File rootDir = model.getProjectDef().getRootProject().getProjectDir();
+
+        Set<File> dirs = new LinkedHashSet<>();
+        dirs.add(model.getProjectDir());
+        dirs.add(rootDir);
+
+        Path settingsFile = model.getSettingsFile();
+        Path settingsDir = settingsFile != null ? settingsFile.getParent() : null;
+        if (settingsDir != null) {
+            dirs.add(settingsDir.toFile());
+        }
+
+        return watchDirectories(rootDir, dirs, reloadTask);
+    }
+
+    CloseableAction.Ref watchDirectories(File rootDir, Collection<File> dirs, Runnable reloadTask) {
+        ExceptionHelper.checkNotNullArgument(rootDir, "rootDir");
+        ExceptionHelper.checkNotNullElements(dirs, "dirs");
+        ExceptionHelper.checkNotNullArgument(reloadTask, "reloadTask");
+
+        final ScriptListener listener = new ScriptListener(rootDir, reloadTask);
+        final List<FileObject> listenedDirs = new ArrayList<>(dirs.size());
+        for (File dir: dirs) {
+            FileObject dirObj = FileUtil.toFileObject(FileUtil.normalizeFile(dir));
+            if (dirObj != null && dirObj.isFolder()) {
+                dirObj.addFileChangeListener(listener);
+                listenedDirs.add(dirObj);
+            }
+        }
+
+        addLiveListener(listener);
+
+        return new CloseableAction.Ref() {
+            @Override
+            public void close() {
+                for (FileObject dirObj: listenedDirs) {
+                    dirObj.removeFileChangeListener(listener);
+                }
+                removeLiveListener(listener);
+            }
+        };
+    }
+
+    private void addLiveListener(ScriptListener listener) {
+        mainLock.lock();
+        try {
+            List<ScriptListener> listeners = liveListeners.get(listener.rootDir);
+            if (listeners == null) {
+                listeners = new ArrayList<>();
+                liveListeners.put(listener.rootDir, listeners);
+            }
+            listeners.add(listener);
+
+            // The reload became due while nobody watched the build (e.g.,
+            // between closing the listener of the previous model and
+            // opening this one), so do it now.
+            PendingReload reload = pendingReloads.get(listener.rootDir);
+            if (reload != null && reload.due) {
+                scheduleReload(listener);
+            }
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    private void removeLiveListener(ScriptListener listener) {
+        // The pending reload is kept, because the listener is also closed
+        // when the model of the project changes. In this case, the listener
+        // of the new model takes over the reload.
+        mainLock.lock();
+        try {
+            List<ScriptListener> listeners = liveListeners.get(listener.rootDir);
+            if (listeners != null) {
+                listeners.remove(listener);
+                if (listeners.isEmpty()) {
+                    liveListeners.remove(listener.rootDir);
+                }
+            }
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    private void scheduleReload(ScriptListener owner) {
+        mainLock.lock();
+        try {
+            PendingReload prevReload = pendingReloads.get(owner.rootDir);
+            if (prevReload != null) {
+                prevReload.cancel();
+            }
+
+            PendingReload reload = new PendingReload(owner);
+            pendingReloads.put(owner.rootDir, reload);
+            reload.future = reloadScheduler.scheduleAfterQuietPeriod(reload);
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    private ScriptListener tryStartReload(PendingReload reload) {
+        mainLock.lock();
+        try {
+            File rootDir = reload.owner.rootDir;
+            if (pendingReloads.get(rootDir) != reload) {
+                return null;
+            }
+
+            List<ScriptListener> listeners = liveListeners.get(rootDir);
+            if (listeners == null) {
+                // Keep the reload until somebody watches the build again.
+                reload.due = true;
+                return null;
+            }
+
+            pendingReloads.remove(rootDir);
+            return listeners.contains(reload.owner) ? reload.owner : listeners.get(0);
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    private final class PendingReload implements Runnable {
+        private final ScriptListener owner;
+        private Future<?> future;
+        // Set (while holding mainLock) if the reload became due while no
+        // listener watched the build.
+        private boolean due;
+
+        public PendingReload(ScriptListener owner) {
+            this.owner = owner;
+            this.future = null;
+            this.due = false;
+        }
+
+        // Must be called while holding mainLock.
+        public void cancel() {
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
+
+        @Override
+        public void run() {
+            ScriptListener listener = tryStartReload(this);
+            if (listener == null) {
+                return;
+            }
+
+            try {
+                listener.reloadTask.run();
+            } catch (Throwable ex) {
+                LOGGER.log(Level.SEVERE, "Failed to reload the project after a build script change.", ex);
+            }
+        }
+    }
+
+    /**
+     * Schedules the reloads to be started after the quiet period. Tests may
+     * replace it to control when the reloads are started.
+     */
+    static interface ReloadScheduler {
+        public Future<?> scheduleAfterQuietPeriod(Runnable task);
+    }
+
+    private static final class TimerReloadScheduler implements ReloadScheduler {
+        private final long quietPeriodMs;
+        private final ScheduledThreadPoolExecutor reloadTimer;
+
+        public TimerReloadScheduler(long quietPeriodMs) {
+            ExceptionHelper.checkArgumentInRange(quietPeriodMs, 0, Long.MAX_VALUE, "quietPeriodMs");
+
+            this.quietPeriodMs = quietPeriodMs;
+            this.reloadTimer = createReloadTimer();
+        }
+
+        private static ScheduledThreadPoolExecutor createReloadTimer() {
+            ScheduledThreadPoolExecutor result = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable task) {
+                    Thread thread = new Thread(task, "Gradle-Script-Change-Refresher");
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                }
+            });
+            result.setKeepAliveTime(1, TimeUnit.SECONDS);
+            result.allowCoreThreadTimeOut(true);
+            result.setRemoveOnCancelPolicy(true);
+            return result;
+        }
+
+        @Override
+        public Future<?> scheduleAfterQuietPeriod(Runnable task) {
+            return reloadTimer.schedule(task, quietPeriodMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private final class ScriptListener extends FileChangeAdapter {
+        private final File rootDir;
+        private final Runnable reloadTask;
+
+        public ScriptListener(File rootDir, Runnable reloadTask) {
+            this.rootDir = rootDir;
+            this.reloadTask = reloadTask;
+        }
+
+        private void reloadIfScript(String fileName) {
+            if (scriptProvider.isScriptFileName(fileName)) {
+                scheduleReload(this);
+            }
+        }
+
+        @Override
+        public void fileChanged(FileEvent fe) {
+            reloadIfScript(fe.getFile().getNameExt());
+        }
+
+        @Override
+        public void fileDataCreated(FileEvent fe) {
+            reloadIfScript(fe.getFile().getNameExt());
+        }
+
+        @Override
+        public void fileDeleted(FileEvent fe) {
+            reloadIfScript(fe.getFile().getNameExt());
+        }
+
+        @Override
+        public void fileRenamed(FileRenameEvent fe) {
+            if (fe.getFile().isFolder()) {
+                return;
+            }
+
+            String oldNameExt = fe.getExt().isEmpty()
+                    ? fe.getName()
+                    : fe.getName() + "." + fe.getExt();
+            if (scriptProvider.isScriptFileName(oldNameExt)) {
+                scheduleReload(this);
+            }
+            else {
+                reloadIfScript(fe.getFile().getNameExt());
+            }
+        }
+    }
+}
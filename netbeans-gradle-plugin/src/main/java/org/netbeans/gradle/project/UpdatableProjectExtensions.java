@@ -5,16 +5,22 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import org.netbeans.gradle.model.util.CollectionUtils;
 import org.netbeans.gradle.project.extensions.NbGradleExtensionRef;
 import org.openide.util.Lookup;
+import org.openide.util.LookupEvent;
+import org.openide.util.LookupListener;
 
 final class UpdatableProjectExtensions implements NbGradleProjectExtensions {
     private final Lookup combinedLookup;
+    private final ConcurrentMap<Class<?>, TypedLookupCache<?>> lookupCaches;
     private volatile ExtensionCollection extensions;
 
     public UpdatableProjectExtensions(Lookup combinedLookup) {
         this.combinedLookup = combinedLookup;
+        this.lookupCaches = new ConcurrentHashMap<>();
         this.extensions = ExtensionCollection.EMPTY;
     }
 
@@ -22,14 +28,30 @@ final class UpdatableProjectExtensions implements NbGradleProjectExtensions {
         this.extensions = new ExtensionCollection(extensions);
     }
 
+    private <T> TypedLookupCache<T> getLookupCache(Class<T> type) {
+        TypedLookupCache<?> result = lookupCaches.get(type);
+        if (result == null) {
+            TypedLookupCache<T> newCache = new TypedLookupCache<>(combinedLookup, type);
+            result = lookupCaches.putIfAbsent(type, newCache);
+            if (result == null) {
+                newCache.startListening();
+                result = newCache;
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        TypedLookupCache<T> typedResult = (TypedLookupCache<T>)result;
+        return typedResult;
+    }
+
     @Override
     public <T> Collection<? extends T> lookupAllExtensionObjs(Class<T> type) {
-        return combinedLookup.lookupAll(type);
+        return getLookupCache(type).getAllInstances();
     }
 
     @Override
     public <T> T lookupExtensionObj(Class<T> type) {
-        return combinedLookup.lookup(type);
+        return getLookupCache(type).tryGetFirstInstance();
     }
 
     @Override
@@ -47,6 +69,102 @@ final class UpdatableProjectExtensions implements NbGradleProjectExtensions {
         return extensions.hasExtension(extensionName);
     }
 
+    /**
+     * Caches the instances of a given type found in the combined lookup of
+     * the extensions. The cached instances are dropped when the content of
+     * the lookup changes, that is when the extensions are replaced or an
+     * extension is activated or deactivated.
+     * <P>
+     * The first instance is cached separately, so that looking up a single
+     * instance does not create all the instances of the given type.
+     */
+    private static final class TypedLookupCache<T> implements LookupListener {
+        private final Lookup lookup;
+        private final Class<T> type;
+        private final Lookup.Result<T> lookupResult;
+
+        private final Object instancesLock;
+        private Collection<? extends T> instances;
+        private boolean hasFirstInstance;
+        private T firstInstance;
+        private long changeCount;
+
+        public TypedLookupCache(Lookup lookup, Class<T> type) {
+            this.lookup = lookup;
+            this.type = type;
+            this.lookupResult = lookup.lookupResult(type);
+            this.instancesLock = new Object();
+            this.instances = null;
+            this.hasFirstInstance = false;
+            this.firstInstance = null;
+            this.changeCount = 0;
+        }
+
+        public void startListening() {
+            // The lookup result is kept by this cache, so there is no need for
+            // a weak listener.
+            lookupResult.addLookupListener(this);
+            // Changes are only reported for results which were computed. This
+            // does not create any instance.
+            lookupResult.allClasses();
+        }
+
+        @Override
+        public void resultChanged(LookupEvent ev) {
+            synchronized (instancesLock) {
+                instances = null;
+                hasFirstInstance = false;
+                firstInstance = null;
+                changeCount++;
+            }
+        }
+
+        public Collection<? extends T> getAllInstances() {
+            long startChangeCount;
+            synchronized (instancesLock) {
+                if (instances != null) {
+                    return instances;
+                }
+                startChangeCount = changeCount;
+            }
+
+            Collection<? extends T> result = Collections.unmodifiableList(
+                    new ArrayList<>(lookupResult.allInstances()));
+
+            synchronized (instancesLock) {
+                // Do not cache instances which might have been collected
+                // before a concurrent change of the lookup.
+                if (changeCount == startChangeCount) {
+                    instances = result;
+                }
+            }
+            return result;
+        }
+
+        public T tryGetFirstInstance() {
+            long startChangeCount;
+            synchronized (instancesLock) {
+                if (instances != null) {
+                    return instances.isEmpty() ? null : instances.iterator().next();
+                }
+                if (hasFirstInstance) {
+                    return firstInstance;
+                }
+                startChangeCount = changeCount;
+            }
+
+            T result = lookup.lookup(type);
+
+            synchronized (instancesLock) {
+                if (changeCount == startChangeCount) {
+                    hasFirstInstance = true;
+                    firstInstance = result;
+                }
+            }
+            return result;
+        }
+    }
+
     private static final class ExtensionCollection {
         public static final ExtensionCollection EMPTY
                 = new ExtensionCollection(Collections.<NbGradleExtensionRef>emptySet());
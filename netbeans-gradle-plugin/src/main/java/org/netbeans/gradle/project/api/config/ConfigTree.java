@@ -562,6 +562,91 @@ public final class ConfigTree {
         return result != null ? result.get(0) : EMPTY;
     }
 
+    /**
+     * Returns a configuration tree which is the same as this tree except that
+     * the subtrees along the given path are replaced with the given subtree.
+     * That is, the result is equivalent to what you would get by calling
+     * {@link Builder#setChildTree(String, ConfigTree) setChildTree} on the
+     * {@link Builder#getDeepChildBuilder(ConfigPath) deep child builder} of the
+     * parent path on a {@code Builder} initialized with this tree.
+     * <P>
+     * This tree is not modified by this method (as it is immutable) but the
+     * returned tree shares all the subtrees not along the given path with this
+     * tree. So, the subtrees not affected by the change can be recognized by a
+     * simple reference comparison.
+     * <P>
+     * If the given path contains no keys, the given subtree is returned.
+     *
+     * @param path the path identifying the subtrees to be replaced. This
+     *   argument cannot be {@code null}.
+     * @param tree the new subtree along the given path. This argument cannot
+     *   be {@code null}.
+     * @return the configuration tree with the replaced subtree. This method
+     *   never returns {@code null}. This method returns this tree if it
+     *   already contains exactly the given subtree instance along the path.
+     */
+    @Nonnull
+    public ConfigTree withChildTree(@Nonnull ConfigPath path, @Nonnull ConfigTree tree) {
+        ExceptionHelper.checkNotNullArgument(path, "path");
+        ExceptionHelper.checkNotNullArgument(tree, "tree");
+
+        return withChildTree(path.getKeys(), 0, tree);
+    }
+
+    private ConfigTree withChildTree(List<String> keys, int keyIndex, ConfigTree tree) {
+        int keyCount = keys.size();
+        if (keyIndex >= keyCount) {
+            return tree;
+        }
+
+        String key = keys.get(keyIndex);
+        List<ConfigTree> prevChildren = getChildTrees(key);
+
+        List<ConfigTree> newChildren;
+        if (keyIndex == keyCount - 1) {
+            if (prevChildren.size() == 1 && prevChildren.get(0) == tree) {
+                return this;
+            }
+
+            newChildren = tree.hasValues()
+                    ? Collections.singletonList(tree)
+                    : Collections.<ConfigTree>emptyList();
+        }
+        else {
+            ConfigTree prevChild = prevChildren.isEmpty() ? EMPTY : prevChildren.get(0);
+            ConfigTree newChild = prevChild.withChildTree(keys, keyIndex + 1, tree);
+            if (newChild == prevChild) {
+                return this;
+            }
+
+            int prevChildCount = prevChildren.size();
+            List<ConfigTree> children = new ArrayList<>(Math.max(prevChildCount, 1));
+            if (newChild.hasValues()) {
+                children.add(newChild);
+            }
+            if (prevChildCount > 1) {
+                children.addAll(prevChildren.subList(1, prevChildCount));
+            }
+            newChildren = Collections.unmodifiableList(children);
+        }
+
+        if (newChildren.isEmpty() && prevChildren.isEmpty()) {
+            return this;
+        }
+
+        Map<String, List<ConfigTree>> newChildTrees = new HashMap<>(childTrees);
+        if (newChildren.isEmpty()) {
+            newChildTrees.remove(key);
+        }
+        else {
+            newChildTrees.put(key, newChildren);
+        }
+
+        return new ConfigTree(value, newChildTrees.isEmpty()
+                ? Collections.<String, List<ConfigTree>>emptyMap()
+                : Collections.unmodifiableMap(newChildTrees));
+    }
+
     private static final class TreeOrBuilder {
         private ConfigTree tree;
         private Builder builder;
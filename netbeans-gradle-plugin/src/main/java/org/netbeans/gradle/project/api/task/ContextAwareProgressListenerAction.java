@@ -0,0 +1,42 @@
+package org.netbeans.gradle.project.api.task;
+
+import javax.annotation.Nonnull;
+import org.netbeans.api.project.Project;
+import org.openide.util.Lookup;
+
+/**
+ * Defines a custom action for a {@link GradleCommandTemplate Gradle command}
+ * which needs to listen for the progress of the command and needs the
+ * {@link Lookup} context and the {@link Project} instance associated with the
+ * currently started task.
+ * <P>
+ * The method of this interface is called from a background thread (not the Event Dispatch Thread).
+ *
+ * @see CustomCommandActions
+ * @see SingleExecutionProgressListener
+ */
+public interface ContextAwareProgressListenerAction {
+    /**
+     * Called before a Gradle command is executed and returns the
+     * {@link SingleExecutionProgressListener} creating the listeners for each
+     * execution of the command.
+     * <P>
+     * If the command to be executed is a built-in task, then the
+     * {@code commandContext} is the {@code Lookup}, NetBeans passes to the
+     * {@link org.netbeans.spi.project.ActionProvider}. Otherwise it is an empty
+     * {@code Lookup}.
+     *
+     * @param project the Gradle project in which context the command is
+     *   executed. This argument cannot be {@code null}.
+     * @param commandContext the context when the command was started. This
+     *   argument cannot be {@code null}.
+     *
+     * @return the {@link SingleExecutionProgressListener} creating the
+     *   listeners for each execution of the command. This method may never
+     *   return {@code null}.
+     */
+    @Nonnull
+    public SingleExecutionProgressListener startCommand(
+            @Nonnull Project project,
+            @Nonnull Lookup commandContext);
+}
@@ -77,6 +77,7 @@ public final class CustomCommandActions {
         private SingleExecutionOutputProcessor singleExecutionStdErrProcessor;
         private ContextAwareCommandAction contextAwareAction;
         private ContextAwareCommandCompleteAction contextAwareFinalizer;
+        private ContextAwareProgressListenerAction contextAwareProgressListener;
         private GradleTargetVerifier gradleTargetVerifier;
         private ContextAwareGradleTargetVerifier contextAwareGradleTargetVerifier;
         private CommandExceptionHider commandExceptionHider;
@@ -104,6 +105,7 @@ public final class CustomCommandActions {
             this.stdErrProcessor = null;
             this.contextAwareAction = null;
             this.contextAwareFinalizer = null;
+            this.contextAwareProgressListener = null;
             this.commandExceptionHider = null;
             this.gradleTargetVerifier = null;
             this.contextAwareGradleTargetVerifier = null;
@@ -330,6 +332,23 @@ public final class CustomCommandActions {
             this.contextAwareFinalizer = contextAwareFinalizer;
         }
 
+        /**
+         * Sets the custom code to be notified about the progress of the Gradle
+         * command through the Tooling API. The custom code may use the
+         * {@code Lookup} context used to start the associated Gradle command
+         * and also the {@link org.netbeans.api.project.Project Project} instance.
+         * <P>
+         * You may set this property to {@code null}, if no such action
+         * is needed. The default value for this property is {@code null}.
+         *
+         * @param contextAwareProgressListener the custom code to be notified
+         *   about the progress of the Gradle command. This argument can be
+         *   {@code null}, if no code needs to be notified.
+         */
+        public void setContextAwareProgressListener(@Nullable ContextAwareProgressListenerAction contextAwareProgressListener) {
+            this.contextAwareProgressListener = contextAwareProgressListener;
+        }
+
         /**
          * Sets a custom code (based on calling context) to verify if the
          * associated task can be executed by the given Gradle process. The
@@ -405,6 +424,7 @@ public final class CustomCommandActions {
     private final SingleExecutionOutputProcessor singleExecutionStdErrProcessor;
     private final ContextAwareCommandAction contextAwareAction;
     private final ContextAwareCommandCompleteAction contextAwareFinalizer;
+    private final ContextAwareProgressListenerAction contextAwareProgressListener;
     private final GradleTargetVerifier gradleTargetVerifier;
     private final ContextAwareGradleTargetVerifier contextAwareGradleTargetVerifier;
     private final CommandExceptionHider commandExceptionHider;
@@ -421,6 +441,7 @@ public final class CustomCommandActions {
         this.singleExecutionStdErrProcessor = builder.singleExecutionStdErrProcessor;
         this.contextAwareAction = builder.contextAwareAction;
         this.contextAwareFinalizer = builder.contextAwareFinalizer;
+        this.contextAwareProgressListener = builder.contextAwareProgressListener;
         this.gradleTargetVerifier = builder.gradleTargetVerifier;
         this.contextAwareGradleTargetVerifier = builder.contextAwareGradleTargetVerifier;
         this.commandExceptionHider = builder.commandExceptionHider;
@@ -649,6 +670,22 @@ public final class CustomCommandActions {
         return contextAwareFinalizer;
     }
 
+    /**
+     * Returns the custom code to be notified about the progress of the Gradle
+     * command through the Tooling API. The custom code may use the
+     * {@code Lookup} context used to start the associated Gradle command and
+     * also the {@link org.netbeans.api.project.Project Project} instance.
+     *
+     * @return the custom code to be notified about the progress of the Gradle
+     *   command. This method may return {@code null}, if no such code needs
+     *   to be notified.
+     */
+    @Nullable
+    @CheckForNull
+    public ContextAwareProgressListenerAction getContextAwareProgressListener() {
+        return contextAwareProgressListener;
+    }
+
     /**
      * Returns the custom code (based on calling context) to verify if the
      * associated task can be executed by the given Gradle process. The
@@ -0,0 +1,51 @@
+package org.netbeans.gradle.project.api.task;
+
+import java.util.Set;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import org.gradle.tooling.events.OperationType;
+import org.gradle.tooling.events.ProgressListener;
+import org.netbeans.api.project.Project;
+
+/**
+ * Defines a factory of Tooling API {@link ProgressListener progress listeners}
+ * to be notified about the progress of the associated Gradle command. The
+ * factory is asked to create a new {@code ProgressListener} for each execution
+ * of the command.
+ * <P>
+ * Note that the events are only delivered if the Gradle version executing the
+ * command supports them. For example, test events are not available prior
+ * Gradle 2.4. So, the listener must not rely on receiving any event.
+ *
+ * @see ContextAwareProgressListenerAction
+ * @see CustomCommandActions
+ */
+public interface SingleExecutionProgressListener {
+    /**
+     * Returns the kind of operations the listeners created by this factory
+     * are interested in.
+     *
+     * @return the kind of operations the listeners created by this factory
+     *   are interested in. This method may never return {@code null}.
+     */
+    @Nonnull
+    public Set<OperationType> getOperationTypes();
+
+    /**
+     * Creates a {@code ProgressListener} for a single Gradle command
+     * execution.
+     * <P>
+     * This method is called from the same thread where the command is to be
+     * executed. Therefore it is forbidden for this method to wait for the
+     * completion of a particular Gradle command as this could likely result in
+     * a dead-lock.
+     *
+     * @param project the project against which the command is to be executed.
+     *   This argument cannot be {@code null}.
+     * @return the {@code ProgressListener} for the Gradle command execution.
+     *   This method may return {@code null} if there is nothing to listen for
+     *   in this execution.
+     */
+    @CheckForNull
+    public ProgressListener startExecution(@Nonnull Project project);
+}
@@ -175,20 +175,7 @@ public class GradleCoverageProvider implements CoverageProvider {
             return null;
         }
         try {
-            org.w3c.dom.Document report = XMLUtil.parse(new InputSource(r.toURI().toString()), true, false, XMLUtil.defaultErrorHandler(), new EntityResolver() {
-                public @Override
-                InputSource resolveEntity(String publicId, String systemId) throws SAXException, IOException {
-                    if (systemId.equals("http://cobertura.sourceforge.net/xml/coverage-04.dtd")) {
-                        return new InputSource(GradleCoverageProvider.class.getResourceAsStream("coverage-04.dtd")); // NOI18N
-                    }
-                    else if (publicId.equals("-//JACOCO//DTD Report 1.0//EN")) {
-                        return new InputSource(GradleCoverageProvider.class.getResourceAsStream("jacoco-1.0.dtd"));
-                    }
-                    else {
-                        return null;
-                    }
-                }
-            });
+            org.w3c.dom.Document report = parseReport(r);
             LOG.log(Level.FINE, "parsed {0}", r);
             return Pair.of(r, report);
         } catch (IOException | SAXException ex) {
@@ -198,6 +185,23 @@ public class GradleCoverageProvider implements CoverageProvider {
     }
 
 
+    static org.w3c.dom.Document parseReport(File r) throws IOException, SAXException {
+        return XMLUtil.parse(new InputSource(r.toURI().toString()), true, false, XMLUtil.defaultErrorHandler(), new EntityResolver() {
+            public @Override
+            InputSource resolveEntity(String publicId, String systemId) throws SAXException, IOException {
+                if (systemId.equals("http://cobertura.sourceforge.net/xml/coverage-04.dtd")) {
+                    return new InputSource(GradleCoverageProvider.class.getResourceAsStream("coverage-04.dtd")); // NOI18N
+                }
+                else if (publicId.equals("-//JACOCO//DTD Report 1.0//EN")) {
+                    return new InputSource(GradleCoverageProvider.class.getResourceAsStream("jacoco-1.0.dtd"));
+                }
+                else {
+                    return null;
+                }
+            }
+        });
+    }
+
     private ClassPath srcPath() {
         GradleClassPathProvider gcp = p.getLookup().lookup(GradleClassPathProvider.class);
         assert gcp != null;
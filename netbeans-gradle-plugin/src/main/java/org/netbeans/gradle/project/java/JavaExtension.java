@@ -58,6 +58,7 @@ import org.netbeans.gradle.project.java.query.GradleSourceLevelQueryImplementati
 import org.netbeans.gradle.project.java.query.GradleUnitTestFinder;
 import org.netbeans.gradle.project.java.query.J2SEPlatformFromScriptQueryImpl;
 import org.netbeans.gradle.project.java.query.JavaInitScriptQuery;
+import org.netbeans.gradle.project.java.query.OutputSourceIndex;
 import org.netbeans.gradle.project.java.tasks.GradleJavaBuiltInCommands;
 import org.netbeans.gradle.project.java.tasks.JavaGradleTaskVariableQuery;
 import org.netbeans.gradle.project.model.issue.DependencyResolutionIssue;
@@ -488,6 +489,10 @@ public final class JavaExtension implements GradleProjectExtension2<NbJavaModel>
         markOwnedDirs(mainModule);
 
         fireModelChange();
+
+        if (!mainModule.hasRuntimeClassPaths()) {
+            JavaRuntimeClassPathLoader.loadRuntimeClassPathsIfNeeded(this);
+        }
     }
 
     @Override
@@ -548,7 +553,9 @@ public final class JavaExtension implements GradleProjectExtension2<NbJavaModel>
     }
 
     // OpenHook is important for debugging because the debugger relies on the
-    // globally registered source class paths for source stepping.
+    // globally registered source class paths for source stepping. The module
+    // is also registered in the shared index of the build outputs while the
+    // project is opened.
     private static class OpenHook extends ProjectOpenedHook {
         private final CloseableActionContainer closeableActions;
 
@@ -560,6 +567,7 @@ public final class JavaExtension implements GradleProjectExtension2<NbJavaModel>
                     ClassPath.BOOT,
                     ClassPath.COMPILE,
                     ClassPath.EXECUTE));
+            closeableActions.defineAction(OutputSourceIndex.getDefault().forProject(javaExt.currentModel()));
         }
 
         @Override
@@ -2,13 +2,17 @@ package org.netbeans.gradle.project.java;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import org.gradle.tooling.model.idea.IdeaProject;
 import org.netbeans.api.project.Project;
+import org.netbeans.gradle.model.api.ProjectInfoBuilder2;
 import org.netbeans.gradle.model.java.JavaModelBuilders;
+import org.netbeans.gradle.model.java.JavaSourcesModel;
 import org.netbeans.gradle.model.util.CollectionUtils;
 import org.netbeans.gradle.project.NbGradleProjectFactory;
 import org.netbeans.gradle.project.api.entry.GradleProjectExtension2;
@@ -25,6 +29,7 @@ import org.netbeans.gradle.project.java.model.NbJavaModel;
 import org.netbeans.gradle.project.java.model.NbJavaModule;
 import org.netbeans.gradle.project.java.model.idea.IdeaJavaModelUtils;
 import org.netbeans.gradle.project.others.OtherPlugins;
+import org.netbeans.gradle.project.properties.global.CommonGlobalSettings;
 import org.netbeans.gradle.project.script.ScriptFileProvider;
 import org.openide.util.Lookup;
 import org.openide.util.lookup.Lookups;
@@ -143,26 +148,51 @@ public final class JavaExtensionDef implements GradleProjectExtensionDef<NbJavaM
     }
 
     private static final class Query2 implements GradleModelDefQuery2 {
-        private static final GradleModelDef RESULT = GradleModelDef.fromProjectInfoBuilders2(
-                JavaModelBuilders.JAR_OUTPUTS_BUILDER,
+        private static final GradleModelDef RESULT = createModelDef(
                 JavaModelBuilders.JAVA_SOURCES_BUILDER_COMPLETE,
-                JavaModelBuilders.JAVA_COMPATIBILITY_BUILDER,
-                JavaModelBuilders.JAVA_TEST_BUILDER,
-                JavaModelBuilders.JACOCO_BUILDER,
-                JavaModelBuilders.WAR_FOLDERS_BUILDER);
+                true);
 
-        private static final GradleModelDef RESULT_WITHOUT_WAR = GradleModelDef.fromProjectInfoBuilders2(
-                JavaModelBuilders.JAR_OUTPUTS_BUILDER,
+        private static final GradleModelDef RESULT_WITHOUT_WAR = createModelDef(
                 JavaModelBuilders.JAVA_SOURCES_BUILDER_COMPLETE,
-                JavaModelBuilders.JAVA_COMPATIBILITY_BUILDER,
-                JavaModelBuilders.JAVA_TEST_BUILDER,
-                JavaModelBuilders.JACOCO_BUILDER);
+                false);
+
+        private static final GradleModelDef RESULT_ONLY_COMPILE = createModelDef(
+                JavaModelBuilders.JAVA_SOURCES_BUILDER_ONLY_COMPILE,
+                true);
+
+        private static final GradleModelDef RESULT_ONLY_COMPILE_WITHOUT_WAR = createModelDef(
+                JavaModelBuilders.JAVA_SOURCES_BUILDER_ONLY_COMPILE,
+                false);
+
+        private static GradleModelDef createModelDef(
+                ProjectInfoBuilder2<JavaSourcesModel> sourcesBuilder,
+                boolean needWarFolders) {
+
+            List<ProjectInfoBuilder2<?>> builders = new ArrayList<>();
+            builders.add(JavaModelBuilders.JAR_OUTPUTS_BUILDER);
+            builders.add(sourcesBuilder);
+            builders.add(JavaModelBuilders.JAVA_COMPATIBILITY_BUILDER);
+            builders.add(JavaModelBuilders.JAVA_TEST_BUILDER);
+            builders.add(JavaModelBuilders.JACOCO_BUILDER);
+            if (needWarFolders) {
+                builders.add(JavaModelBuilders.WAR_FOLDERS_BUILDER);
+            }
+
+            return GradleModelDef.fromProjectInfoBuilders2(builders.toArray(new ProjectInfoBuilder2<?>[builders.size()]));
+        }
 
         @Override
         public GradleModelDef getModelDef(GradleTarget gradleTarget) {
-            return OtherPlugins.hasJavaEEExtension()
-                    ? RESULT_WITHOUT_WAR
-                    : RESULT;
+            boolean needWarFolders = !OtherPlugins.hasJavaEEExtension();
+
+            // The runtime class paths are requested separately by
+            // JavaRuntimeClassPathLoader after the project has been loaded.
+            if (CommonGlobalSettings.getDefault().loadRuntimeClassPathLazily().getActiveValue()) {
+                return needWarFolders ? RESULT_ONLY_COMPILE : RESULT_ONLY_COMPILE_WITHOUT_WAR;
+            }
+            else {
+                return needWarFolders ? RESULT : RESULT_WITHOUT_WAR;
+            }
         }
     }
 }
@@ -0,0 +1,379 @@
+package org.netbeans.gradle.project.java;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.gradle.tooling.GradleConnector;
+import org.gradle.tooling.ProjectConnection;
+import org.jtrim.cancel.Cancellation;
+import org.jtrim.cancel.CancellationToken;
+import org.jtrim.concurrent.CancelableTask;
+import org.jtrim.concurrent.CleanupTask;
+import org.jtrim.concurrent.TaskExecutor;
+import org.jtrim.concurrent.WaitableSignal;
+import org.jtrim.utils.ExceptionHelper;
+import org.netbeans.api.progress.ProgressHandle;
+import org.netbeans.gradle.model.BuilderResult;
+import org.netbeans.gradle.model.FetchedModels;
+import org.netbeans.gradle.model.FetchedModelsOrError;
+import org.netbeans.gradle.model.FetchedProjectModels;
+import org.netbeans.gradle.model.GenericModelFetcher;
+import org.netbeans.gradle.model.GradleBuildInfoQuery;
+import org.netbeans.gradle.model.OperationInitializer;
+import org.netbeans.gradle.model.api.GradleProjectInfoQuery2;
+import org.netbeans.gradle.model.java.JavaModelBuilders;
+import org.netbeans.gradle.model.java.JavaSourceSet;
+import org.netbeans.gradle.model.util.CollectionUtils;
+import org.netbeans.gradle.project.LoadedProjectManager;
+import org.netbeans.gradle.project.NbGradleProject;
+import org.netbeans.gradle.project.NbGradleProjectFactory;
+import org.netbeans.gradle.project.NbStrings;
+import org.netbeans.gradle.project.api.entry.ModelLoadResult;
+import org.netbeans.gradle.project.api.modelquery.GradleModelDef;
+import org.netbeans.gradle.project.api.modelquery.GradleTarget;
+import org.netbeans.gradle.project.api.task.CommandCompleteListener;
+import org.netbeans.gradle.project.java.model.JavaParsingUtils;
+import org.netbeans.gradle.project.java.model.NbJavaModel;
+import org.netbeans.gradle.project.java.model.NbJavaModule;
+import org.netbeans.gradle.project.model.DefaultGradleModelLoader;
+import org.netbeans.gradle.project.model.NbGradleModel;
+import org.netbeans.gradle.project.tasks.DaemonTask;
+import org.netbeans.gradle.project.tasks.GradleDaemonManager;
+import org.netbeans.gradle.project.util.NbConsumer;
+import org.netbeans.gradle.project.util.NbTaskExecutors;
+import org.openide.util.Lookup;
+import org.openide.util.lookup.Lookups;
+
+/**
+ * Retrieves the runtime class paths of Java projects whose model was loaded
+ * with only the compile time class paths resolved (see
+ * {@link org.netbeans.gradle.project.properties.global.CommonGlobalSettings#loadRuntimeClassPathLazily()}).
+ * <P>
+ * The runtime class paths are retrieved for all the projects of the build
+ * at once, and the models of every loaded project of the build are replaced
+ * with a model containing the runtime class paths. Listeners of the model
+ * (e.g., the class path provider) will then update themselves as they would
+ * after a complete reload. The runtime class paths are only applied to models
+ * which were the current models of their project when the retrieval started.
+ * That is, if the model of a project is reloaded meanwhile, the retrieved
+ * class paths are discarded for that project.
+ */
+public final class JavaRuntimeClassPathLoader {
+    private static final Logger LOGGER = Logger.getLogger(JavaRuntimeClassPathLoader.class.getName());
+
+    private static final TaskExecutor RUNTIME_CLASSPATH_LOADER
+            = NbTaskExecutors.newExecutor("Gradle-Runtime-ClassPath-Loader", 1);
+
+    private static final GradleModelDef RUNTIME_CLASSPATH_MODEL_DEF = GradleModelDef.fromProjectInfoBuilders2(
+            JavaModelBuilders.JAR_OUTPUTS_BUILDER,
+            JavaModelBuilders.JAVA_SOURCES_BUILDER_COMPLETE);
+
+    private static final ConcurrentMap<File, WaitableSignal> LOADING_BUILDS = new ConcurrentHashMap<>();
+
+    /**
+     * Starts retrieving the runtime class paths of the given project in the
+     * background if the current model of the project does not contain them.
+     * This method does nothing if the runtime class paths are already being
+     * retrieved for the build of the given project.
+     *
+     * @param javaExt the extension of the project whose runtime class paths
+     *   are needed. This argument cannot be {@code null}.
+     *
+     * @see #awaitRuntimeClassPaths(JavaExtension)
+     */
+    public static void loadRuntimeClassPathsIfNeeded(JavaExtension javaExt) {
+        ExceptionHelper.checkNotNullArgument(javaExt, "javaExt");
+
+        NbJavaModel javaModel = javaExt.getCurrentModel();
+        if (javaModel.getMainModule().hasRuntimeClassPaths()) {
+            return;
+        }
+
+        NbGradleProject project = NbGradleProjectFactory.tryGetGradleProject(javaExt.getProject());
+        if (project == null) {
+            return;
+        }
+
+        final File rootProjectDir = getRootProjectDir(project);
+        final WaitableSignal loadedSignal = new WaitableSignal();
+        if (LOADING_BUILDS.putIfAbsent(rootProjectDir, loadedSignal) != null) {
+            return;
+        }
+
+        String caption = NbStrings.getLoadingRuntimeClassPathsText(project.getDisplayName());
+        GradleDaemonManager.submitGradleTask(
+                signalingExecutor(rootProjectDir, loadedSignal),
+                caption,
+                new RuntimeClassPathTask(project, javaModel.getEvaluationEnvironment()),
+                true,
+                new CommandCompleteListener() {
+                    @Override
+                    public void onComplete(Throwable error) {
+                        if (error != null) {
+                            LOGGER.log(Level.INFO, "Failed to load the runtime class paths of " + rootProjectDir, error);
+                        }
+                    }
+                });
+    }
+
+    /**
+     * Returns {@code true} if the runtime class paths are currently being
+     * retrieved for the build of the given project.
+     *
+     * @param javaExt the extension of the project to be checked. This argument
+     *   cannot be {@code null}.
+     * @return {@code true} if the runtime class paths are currently being
+     *   retrieved for the build of the given project, {@code false} otherwise
+     */
+    public static boolean isLoadingRuntimeClassPaths(JavaExtension javaExt) {
+        ExceptionHelper.checkNotNullArgument(javaExt, "javaExt");
+        return tryGetLoadedSignal(javaExt) != null;
+    }
+
+    /**
+     * Waits until the runtime class paths being retrieved for the build of the
+     * given project are applied to the loaded projects (or the retrieval
+     * fails). This method returns immediately if the runtime class paths are
+     * not being retrieved.
+     * <P>
+     * This method must not be called while executing an exclusive Gradle task
+     * (see {@link GradleDaemonManager#isRunningExclusiveTask()}) because the
+     * retrieval itself needs to be executed exclusively. This method returns
+     * immediately in this case without waiting.
+     *
+     * @param javaExt the extension of the project whose runtime class paths
+     *   are needed. This argument cannot be {@code null}.
+     */
+    public static void awaitRuntimeClassPaths(JavaExtension javaExt) {
+        ExceptionHelper.checkNotNullArgument(javaExt, "javaExt");
+
+        if (GradleDaemonManager.isRunningExclusiveTask()) {
+            LOGGER.log(Level.WARNING, "Cannot wait for the runtime class paths in an exclusive task.");
+            return;
+        }
+
+        WaitableSignal loadedSignal = tryGetLoadedSignal(javaExt);
+        if (loadedSignal != null) {
+            loadedSignal.waitSignal(Cancellation.UNCANCELABLE_TOKEN);
+        }
+    }
+
+    private static WaitableSignal tryGetLoadedSignal(JavaExtension javaExt) {
+        NbGradleProject project = NbGradleProjectFactory.tryGetGradleProject(javaExt.getProject());
+        if (project == null) {
+            return null;
+        }
+        return LOADING_BUILDS.get(getRootProjectDir(project));
+    }
+
+    private static File getRootProjectDir(NbGradleProject project) {
+        NbGradleModel gradleModel = project.currentModel().getValue();
+        return gradleModel.getProjectDef().getRootProject().getProjectDir();
+    }
+
+    /**
+     * Returns an executor signaling the completion of the retrieval in the
+     * cleanup of the submitted task. The cleanup is called even if the task is
+     * canceled before it is started (unlike the {@code CommandCompleteListener}),
+     * so waiting threads are always released.
+     */
+    private static TaskExecutor signalingExecutor(final File rootProjectDir, final WaitableSignal loadedSignal) {
+        return new TaskExecutor() {
+            @Override
+            public void execute(CancellationToken cancelToken, CancelableTask task, final CleanupTask cleanupTask) {
+                RUNTIME_CLASSPATH_LOADER.execute(cancelToken, task, new CleanupTask() {
+                    @Override
+                    public void cleanup(boolean canceled, Throwable error) throws Exception {
+                        try {
+                            if (cleanupTask != null) {
+                                cleanupTask.cleanup(canceled, error);
+                            }
+                        } finally {
+                            LOADING_BUILDS.remove(rootProjectDir, loadedSignal);
+                            loadedSignal.signal();
+                        }
+                    }
+                });
+            }
+        };
+    }
+
+    private static Map<Object, List<GradleProjectInfoQuery2<?>>> getProjectInfoRequests() {
+        List<GradleProjectInfoQuery2<?>> queries = new ArrayList<>(RUNTIME_CLASSPATH_MODEL_DEF.getProjectInfoQueries2());
+        return Collections.<Object, List<GradleProjectInfoQuery2<?>>>singletonMap(
+                JavaExtensionDef.EXTENSION_NAME,
+                queries);
+    }
+
+    private static File getProjectDir(FetchedProjectModels projectModels) {
+        return projectModels
+                .getProjectDef()
+                .getMainProject()
+                .getGenericProperties()
+                .getProjectDir();
+    }
+
+    private static Lookup getProjectInfoLookup(FetchedProjectModels projectModels) {
+        List<BuilderResult> builderResults = projectModels.getProjectInfoResults(JavaExtensionDef.EXTENSION_NAME);
+        if (builderResults.isEmpty()) {
+            return Lookup.EMPTY;
+        }
+
+        List<Object> models = new ArrayList<>(builderResults.size());
+        for (BuilderResult builderResult: builderResults) {
+            Object resultObject = builderResult.getResultObject();
+            if (resultObject != null) {
+                models.add(resultObject);
+            }
+        }
+        return Lookups.fixed(models.toArray());
+    }
+
+    private static ModelLoadResult toModelLoadResult(GradleTarget evaluationEnvironment, FetchedModels fetchedModels) {
+        FetchedProjectModels defaultProjectModels = fetchedModels.getDefaultProjectModels();
+        Collection<FetchedProjectModels> otherProjectModels = fetchedModels.getOtherProjectModels();
+
+        Map<File, Lookup> lookups = CollectionUtils.newHashMap(otherProjectModels.size() + 1);
+        for (FetchedProjectModels projectModels: otherProjectModels) {
+            lookups.put(getProjectDir(projectModels), getProjectInfoLookup(projectModels));
+        }
+
+        File defaultProjectDir = getProjectDir(defaultProjectModels);
+        lookups.put(defaultProjectDir, getProjectInfoLookup(defaultProjectModels));
+
+        return new ModelLoadResult(evaluationEnvironment, defaultProjectDir, lookups);
+    }
+
+    private static NbJavaModule tryGetMainModule(NbGradleModel model) {
+        Object extensionModel = model.getModelOfExtension(JavaExtensionDef.EXTENSION_NAME);
+        return extensionModel instanceof NbJavaModel
+                ? ((NbJavaModel)extensionModel).getMainModule()
+                : null;
+    }
+
+    private static Map<NbGradleProject, NbJavaModule> getModulesToUpdate(final File rootProjectDir) {
+        final Map<NbGradleProject, NbJavaModule> result = new HashMap<>();
+        LoadedProjectManager.getDefault().forProjects(new NbConsumer<NbGradleProject>() {
+            @Override
+            public void accept(NbGradleProject project) {
+                NbGradleModel model = project.currentModel().getValue();
+                if (!rootProjectDir.equals(model.getProjectDef().getRootProject().getProjectDir())) {
+                    return;
+                }
+
+                NbJavaModule mainModule = tryGetMainModule(model);
+                if (mainModule != null && !mainModule.hasRuntimeClassPaths()) {
+                    result.put(project, mainModule);
+                }
+            }
+        });
+        return result;
+    }
+
+    private static void updateProjectModel(
+            NbGradleProject project,
+            NbJavaModule expectedModule,
+            Collection<JavaSourceSet> completeSources) {
+
+        NbGradleModel currentModel = project.currentModel().getValue();
+        Object extensionModel = currentModel.getModelOfExtension(JavaExtensionDef.EXTENSION_NAME);
+        if (!(extensionModel instanceof NbJavaModel)) {
+            return;
+        }
+
+        NbJavaModel javaModel = (NbJavaModel)extensionModel;
+        NbJavaModule mainModule = javaModel.getMainModule();
+        if (mainModule != expectedModule) {
+            // The model was replaced while we were retrieving the runtime
+            // class paths, so they might not match the current model.
+            LOGGER.log(Level.FINE, "Discarding the runtime class paths of {0} because its model has changed.",
+                    project.getProjectDirectoryAsFile());
+            return;
+        }
+
+        NbJavaModel newJavaModel = javaModel.withMainModule(mainModule.withRuntimeClassPaths(completeSources));
+
+        NbGradleModel.Builder newModel = new NbGradleModel.Builder(currentModel);
+        newModel.setModelForExtension(JavaExtensionDef.EXTENSION_NAME, newJavaModel);
+        project.tryReplaceModel(newModel.create());
+    }
+
+    private static final class RuntimeClassPathTask implements DaemonTask {
+        private final NbGradleProject project;
+        private final GradleTarget evaluationEnvironment;
+
+        public RuntimeClassPathTask(NbGradleProject project, GradleTarget evaluationEnvironment) {
+            this.project = project;
+            this.evaluationEnvironment = evaluationEnvironment;
+        }
+
+        private FetchedModels fetchModels(CancellationToken cancelToken, ProgressHandle progress) throws IOException {
+            GradleConnector connector = DefaultGradleModelLoader.createGradleConnector(cancelToken, project);
+            connector.forProjectDirectory(project.getProjectDirectoryAsFile());
+
+            OperationInitializer setup = DefaultGradleModelLoader.modelBuilderSetup(project, progress);
+
+            GenericModelFetcher modelFetcher = new GenericModelFetcher(
+                    Collections.<Object, List<GradleBuildInfoQuery<?>>>emptyMap(),
+                    getProjectInfoRequests(),
+                    Collections.<Class<?>>emptySet());
+
+            FetchedModelsOrError fetchedModelsOrError;
+            ProjectConnection connection = connector.connect();
+            try {
+                fetchedModelsOrError = modelFetcher.getModels(connection, setup);
+            } finally {
+                connection.close();
+            }
+
+            FetchedModels fetchedModels = fetchedModelsOrError.getModels();
+            if (fetchedModels == null) {
+                Throwable error = fetchedModelsOrError.getBuildScriptEvaluationError();
+                if (error == null) {
+                    error = fetchedModelsOrError.getUnexpectedError();
+                }
+                throw new IOException("Failed to retrieve the runtime class paths.", error);
+            }
+            return fetchedModels;
+        }
+
+        @Override
+        public void run(CancellationToken cancelToken, ProgressHandle progress) {
+            // The models current before the evaluation are the ones the
+            // retrieved class paths can be safely applied to.
+            Map<NbGradleProject, NbJavaModule> modulesToUpdate = getModulesToUpdate(getRootProjectDir(project));
+
+            FetchedModels fetchedModels;
+            try {
+                fetchedModels = fetchModels(cancelToken, progress);
+            } catch (IOException ex) {
+                throw new RuntimeException(ex);
+            }
+
+            ModelLoadResult modelLoadResult = toModelLoadResult(evaluationEnvironment, fetchedModels);
+            Map<File, Collection<JavaSourceSet>> sourceSets = JavaParsingUtils.parseSourceSets(modelLoadResult);
+
+            LoadedProjectManager loadedProjects = LoadedProjectManager.getDefault();
+            for (Map.Entry<File, Collection<JavaSourceSet>> entry: sourceSets.entrySet()) {
+                NbGradleProject loadedProject = loadedProjects.tryGetLoadedProject(entry.getKey());
+                NbJavaModule expectedModule = loadedProject != null ? modulesToUpdate.get(loadedProject) : null;
+                if (expectedModule != null) {
+                    updateProjectModel(loadedProject, expectedModule, entry.getValue());
+                }
+            }
+        }
+    }
+
+    private JavaRuntimeClassPathLoader() {
+        throw new AssertionError();
+    }
+}
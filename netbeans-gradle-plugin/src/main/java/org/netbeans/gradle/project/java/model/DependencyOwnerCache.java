@@ -0,0 +1,240 @@
+package org.netbeans.gradle.project.java.model;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.io.File;
+import java.lang.ref.WeakReference;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import org.jtrim.utils.ExceptionHelper;
+import org.netbeans.api.project.FileOwnerQuery;
+import org.netbeans.api.project.Project;
+import org.netbeans.api.project.ui.OpenProjects;
+import org.netbeans.gradle.project.util.GradleFileUtils;
+import org.netbeans.gradle.project.util.NbFunction;
+import org.netbeans.gradle.project.util.NbSupplier;
+import org.openide.util.Utilities;
+
+/**
+ * Caches the owner projects of class path entries for every project, so that
+ * {@link FileOwnerQuery} is only called once for an owned file until a project
+ * is opened or closed. Files in the Gradle user home and in the JDK the IDE runs
+ * on are never owned by a project, so they are not even queried.
+ * <P>
+ * Files without an owner are not cached, because a project might become their
+ * owner without opening a project (e.g., when a subproject is found while
+ * loading the model of its root project). The cache holds at most a fixed
+ * number of files, and the owner projects are only referenced weakly, so the
+ * cache does not keep closed projects in memory.
+ */
+final class DependencyOwnerCache {
+    private static final DependencyOwnerCache DEFAULT = new DependencyOwnerCache(new NbSupplier<Collection<File>>() {
+        @Override
+        public Collection<File> get() {
+            return getDefaultUnownedRoots();
+        }
+    });
+
+    private static final int DEFAULT_MAX_CACHED_OWNERS = 10000;
+
+    private final NbSupplier<? extends Collection<File>> unownedRootsProvider;
+    private final NbFunction<? super File, ? extends Project> ownerQuery;
+    private final int maxCachedOwners;
+    private final AtomicReference<ConcurrentMap<File, Owner>> ownersRef;
+    private final AtomicBoolean listeningForProjects;
+
+    public DependencyOwnerCache(NbSupplier<? extends Collection<File>> unownedRootsProvider) {
+        this(unownedRootsProvider, new NbFunction<File, Project>() {
+            @Override
+            public Project apply(File file) {
+                return FileOwnerQuery.getOwner(Utilities.toURI(file));
+            }
+        }, DEFAULT_MAX_CACHED_OWNERS);
+    }
+
+    DependencyOwnerCache(
+            NbSupplier<? extends Collection<File>> unownedRootsProvider,
+            NbFunction<? super File, ? extends Project> ownerQuery,
+            int maxCachedOwners) {
+        ExceptionHelper.checkNotNullArgument(unownedRootsProvider, "unownedRootsProvider");
+        ExceptionHelper.checkNotNullArgument(ownerQuery, "ownerQuery");
+        ExceptionHelper.checkArgumentInRange(maxCachedOwners, 1, Integer.MAX_VALUE, "maxCachedOwners");
+
+        this.unownedRootsProvider = unownedRootsProvider;
+        this.ownerQuery = ownerQuery;
+        this.maxCachedOwners = maxCachedOwners;
+        this.ownersRef = new AtomicReference<>(newOwnersMap());
+        this.listeningForProjects = new AtomicBoolean(false);
+    }
+
+    public static DependencyOwnerCache getDefault() {
+        DEFAULT.startListeningForProjects();
+        return DEFAULT;
+    }
+
+    private static ConcurrentMap<File, Owner> newOwnersMap() {
+        return new ConcurrentHashMap<>();
+    }
+
+    private static Collection<File> getDefaultUnownedRoots() {
+        List<File> result = new ArrayList<>(3);
+
+        File gradleUserHome = GradleFileUtils.GRADLE_USER_HOME.getValue();
+        if (gradleUserHome != null) {
+            result.add(gradleUserHome);
+        }
+
+        String javaHomeStr = System.getProperty("java.home");
+        if (javaHomeStr != null) {
+            File javaHome = new File(javaHomeStr);
+            result.add(javaHome);
+
+            // Java 8 and before: java.home points to the "jre" directory of the JDK.
+            File javaHomeParent = javaHome.getParentFile();
+            if ("jre".equals(javaHome.getName()) && javaHomeParent != null) {
+                result.add(javaHomeParent);
+            }
+        }
+
+        return result;
+    }
+
+    private void startListeningForProjects() {
+        if (!listeningForProjects.compareAndSet(false, true)) {
+            return;
+        }
+
+        OpenProjects.getDefault().addPropertyChangeListener(openProjectsListener());
+    }
+
+    /**
+     * Returns the listener to be registered with {@link OpenProjects} which
+     * invalidates this cache when a project is opened or closed.
+     */
+    PropertyChangeListener openProjectsListener() {
+        return new PropertyChangeListener() {
+            @Override
+            public void propertyChange(PropertyChangeEvent evt) {
+                if (OpenProjects.PROPERTY_OPEN_PROJECTS.equals(evt.getPropertyName())) {
+                    invalidate();
+                }
+            }
+        };
+    }
+
+    /**
+     * Removes every cached owner. This method must be called when the owner of
+     * a previously queried file might have changed.
+     */
+    public void invalidate() {
+        ownersRef.set(newOwnersMap());
+    }
+
+    /**
+     * Returns the owner projects of the given files. The owner of a file is
+     * only queried once, even if the file is listed multiple times (unless the
+     * file has no owner).
+     *
+     * @param files the files whose owners are to be returned. This argument
+     *   cannot be {@code null} and cannot contain {@code null} elements.
+     * @return the owner projects of the files which have an owner. This
+     *   method never returns {@code null}.
+     */
+    public Map<File, Project> findOwners(Collection<File> files) {
+        ExceptionHelper.checkNotNullElements(files, "files");
+
+        // If the cache gets invalidated while we are querying the owners,
+        // we will not pollute the new cache with possibly stale results.
+        ConcurrentMap<File, Owner> owners = ownersRef.get();
+        List<Path> unownedRoots = null;
+
+        Map<File, Project> result = new HashMap<>();
+        for (File file: files) {
+            Owner owner = owners.get(file);
+            Project project = owner != null ? owner.tryGetProject() : null;
+
+            if (project == null) {
+                if (unownedRoots == null) {
+                    unownedRoots = toPaths(unownedRootsProvider.get());
+                }
+
+                project = queryOwner(file, unownedRoots);
+                if (project != null) {
+                    owners = cacheOwner(owners, file, project);
+                }
+                else if (owner != null) {
+                    owners.remove(file, owner);
+                }
+            }
+
+            if (project != null) {
+                result.put(file, project);
+            }
+        }
+        return result.isEmpty()
+                ? Collections.<File, Project>emptyMap()
+                : result;
+    }
+
+    private ConcurrentMap<File, Owner> cacheOwner(ConcurrentMap<File, Owner> owners, File file, Project project) {
+        ConcurrentMap<File, Owner> result = owners;
+        if (result.size() >= maxCachedOwners && !result.containsKey(file)) {
+            // Simply start over: The owners are cheap to query again compared
+            // to keeping track of the least recently used files.
+            ConcurrentMap<File, Owner> newOwners = newOwnersMap();
+            if (!ownersRef.compareAndSet(owners, newOwners)) {
+                // The cache was invalidated concurrently.
+                return owners;
+            }
+            result = newOwners;
+        }
+
+        result.put(file, new Owner(project));
+        return result;
+    }
+
+    private static List<Path> toPaths(Collection<File> files) {
+        List<Path> result = new ArrayList<>(files.size());
+        for (File file: files) {
+            result.add(file.toPath());
+        }
+        return result;
+    }
+
+    private static boolean isInOneOf(Path path, List<Path> roots) {
+        for (Path root: roots) {
+            if (path.startsWith(root)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Project queryOwner(File file, List<Path> unownedRoots) {
+        if (isInOneOf(file.toPath(), unownedRoots)) {
+            return null;
+        }
+        return ownerQuery.apply(file);
+    }
+
+    private static final class Owner {
+        private final WeakReference<Project> projectRef;
+
+        public Owner(Project project) {
+            this.projectRef = new WeakReference<>(project);
+        }
+
+        public Project tryGetProject() {
+            return projectRef.get();
+        }
+    }
+}
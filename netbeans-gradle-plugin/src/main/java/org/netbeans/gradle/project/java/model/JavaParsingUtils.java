@@ -249,13 +249,36 @@ public final class JavaParsingUtils {
                     listedDirs,
                     getJarOutputs(projectInfo, jarsToBuildDirs),
                     testModel,
-                    getCodeCoverage(projectInfo));
+                    getCodeCoverage(projectInfo),
+                    sourcesModel.hasRuntimeClassPaths());
             result.add(module);
         }
 
         return result;
     }
 
+    /**
+     * Returns the source sets (with adjusted class paths) of each evaluated
+     * project having a {@code JavaSourcesModel}. This method is intended to
+     * be used when only the class paths need to be updated, so it only needs
+     * the {@code JavaSourcesModel} and the {@code JarOutputsModel} to be
+     * available.
+     */
+    public static Map<File, Collection<JavaSourceSet>> parseSourceSets(ModelLoadResult retrievedModels) {
+        Map<File, Set<File>> jarsToBuildDirs = getJarsToBuildDirs(retrievedModels);
+
+        Map<File, Lookup> allProjects = retrievedModels.getEvaluatedProjectsModel();
+
+        Map<File, Collection<JavaSourceSet>> result = CollectionUtils.newHashMap(allProjects.size());
+        for (Map.Entry<File, Lookup> entry: allProjects.entrySet()) {
+            JavaSourcesModel sourcesModel = entry.getValue().lookup(JavaSourcesModel.class);
+            if (sourcesModel != null) {
+                result.put(entry.getKey(), adjustedSources(sourcesModel, jarsToBuildDirs));
+            }
+        }
+        return result;
+    }
+
     private static List<NbJarOutput> getJarOutputs(Lookup projectInfo, Map<File, Set<File>> jarsToBuildDirs) {
         JarOutputsModel model = projectInfo.lookup(JarOutputsModel.class);
         if (model == null) {
@@ -4,13 +4,13 @@ import com.google.common.base.Function;
 import com.google.common.base.Predicate;
 import com.google.common.collect.Maps;
 import java.io.File;
-import java.net.URI;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import org.jtrim.collections.CollectionsEx;
 import org.jtrim.concurrent.GenericUpdateTaskExecutor;
 import org.jtrim.concurrent.TaskExecutor;
 import org.jtrim.concurrent.TaskExecutors;
@@ -23,7 +23,6 @@ import org.jtrim.property.PropertySource;
 import org.jtrim.property.ValueConverter;
 import org.jtrim.swing.concurrent.SwingTaskExecutor;
 import org.jtrim.utils.ExceptionHelper;
-import org.netbeans.api.project.FileOwnerQuery;
 import org.netbeans.api.project.Project;
 import org.netbeans.gradle.model.java.JavaClassPaths;
 import org.netbeans.gradle.model.java.JavaSourceSet;
@@ -32,7 +31,6 @@ import org.netbeans.gradle.project.properties.NbProperties;
 import org.netbeans.gradle.project.util.NbConsumer;
 import org.netbeans.gradle.project.util.NbFunction;
 import org.netbeans.gradle.project.util.NbTaskExecutors;
-import org.openide.util.Utilities;
 
 public final class JavaProjectDependencies {
     private static final PropertySource<Map<File, JavaProjectDependencyDef>> NO_DEPENDENCIES
@@ -147,41 +145,22 @@ public final class JavaProjectDependencies {
     }
 
     private static Map<File, ProjectDependencyCandidate> translateDependencies(NbJavaModule module) {
-        Map<File, ProjectDependencyCandidate> result = new HashMap<>();
-
+        Set<File> dependencies = new LinkedHashSet<>();
         for (JavaSourceSet sourceSet: module.getSources()) {
             JavaClassPaths classpaths = sourceSet.getClasspaths();
-
-            Set<File> compileClasspaths = classpaths.getCompileClasspaths();
-            for (File dependency: compileClasspaths) {
-                tryTranslateDependency(dependency, result);
-            }
-
-            for (File dependency: classpaths.getRuntimeClasspaths()) {
-                if (!compileClasspaths.contains(dependency)) {
-                    tryTranslateDependency(dependency, result);
-                }
-            }
+            dependencies.addAll(classpaths.getCompileClasspaths());
+            dependencies.addAll(classpaths.getRuntimeClasspaths());
         }
 
-        return Collections.unmodifiableMap(result);
-    }
-
-    private static void tryTranslateDependency(File dependency, Map<File, ProjectDependencyCandidate> result) {
-        ProjectDependencyCandidate translated = tryTranslateDependency(dependency);
-        if (translated != null) {
-            result.put(dependency, translated);
-        }
-    }
+        Map<File, Project> owners = DependencyOwnerCache.getDefault().findOwners(dependencies);
 
-    private static ProjectDependencyCandidate tryTranslateDependency(File dependency) {
-        URI dependencyUri = Utilities.toURI(dependency);
-        Project owner = FileOwnerQuery.getOwner(dependencyUri);
-        if (owner == null) {
-            return null;
+        Map<File, ProjectDependencyCandidate> result = CollectionsEx.newHashMap(owners.size());
+        for (Map.Entry<File, Project> entry: owners.entrySet()) {
+            File dependency = entry.getKey();
+            result.put(dependency, new ProjectDependencyCandidate(entry.getValue(), dependency));
         }
 
-        return new ProjectDependencyCandidate(owner, dependency);
+        return Collections.unmodifiableMap(result);
     }
 
     private static final class TranslatedDependencies {
@@ -0,0 +1,492 @@
+package org.netbeans.gradle.project.java.model;
+
+import java.io.File;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.jtrim.utils.ExceptionHelper;
+import org.netbeans.gradle.model.java.JavaSourceGroup;
+import org.netbeans.gradle.model.java.JavaSourceSet;
+import org.netbeans.gradle.model.util.CollectionUtils;
+import org.netbeans.gradle.project.util.ExcludeIncludeRules;
+import org.netbeans.gradle.project.util.UrlFactory;
+
+/**
+ * Maps the roots of a module (source roots, class path entries, class
+ * directories and jar outputs) to their source sets, and the source sets to
+ * the test task running their tests. The roots are stored in a single hash
+ * map, so a lookup only has to check the file and its parent directories
+ * instead of every source set of the module.
+ * <P>
+ * The index is created once for each {@link NbJavaModule} (i.e., once for
+ * each loaded model), so queries asked repeatedly (like the class path of a
+ * file or "Go to Test") do not have to scan the source sets again.
+ * <P>
+ * Every root has an order: Jar outputs precede everything else, then the
+ * source sets follow in the order of the module, and within a source set:
+ * the compile class path, the runtime class path, the source roots and then
+ * the class directories. When multiple roots contain a file, the one with
+ * the lowest order wins.
+ * <P>
+ * Instances of this class are immutable and safe to be accessed from multiple
+ * threads concurrently.
+ *
+ * @see NbJavaModule#getSourceRootIndex()
+ */
+public final class JavaSourceRootIndex {
+    private static final Comparator<RootEntry> ORDER_CMP = new Comparator<RootEntry>() {
+        @Override
+        public int compare(RootEntry o1, RootEntry o2) {
+            return Integer.compare(o1.order, o2.order);
+        }
+    };
+
+    private static final Set<RootKind> SOURCES = EnumSet.of(RootKind.SOURCE_ROOT);
+    private static final Set<RootKind> BINARIES = EnumSet.of(RootKind.JAR_OUTPUT, RootKind.CLASSES_DIR);
+    private static final Set<RootKind> CLASS_PATH_OWNERS = EnumSet.of(RootKind.CLASS_PATH, RootKind.SOURCE_ROOT);
+
+    private final Map<File, List<RootEntry>> roots;
+    private final Set<File> binaryRoots;
+    private final Set<File> sourceRoots;
+    private final URL[] nonTestRootUrls;
+    private final URL[] testRootUrls;
+    private final Map<String, String> sourceSetToTestTask;
+
+    private JavaSourceRootIndex(NbJavaModule module) {
+        this.roots = new Builder(module).roots;
+        this.binaryRoots = Collections.unmodifiableSet(getRootsOfKind(roots, BINARIES));
+        this.sourceRoots = Collections.unmodifiableSet(getRootsOfKind(roots, SOURCES));
+
+        this.nonTestRootUrls = toUrls(module.getNonTestSourceSets());
+        this.testRootUrls = toUrls(module.getTestSourceSets());
+
+        List<JavaSourceSet> sourceSets = module.getSources();
+        this.sourceSetToTestTask = CollectionUtils.newHashMap(sourceSets.size());
+        for (JavaSourceSet sourceSet: sourceSets) {
+            String name = sourceSet.getName();
+            sourceSetToTestTask.put(name, module.computeTestTaskForSourceSet(name));
+        }
+    }
+
+    static JavaSourceRootIndex create(NbJavaModule module) {
+        return new JavaSourceRootIndex(module);
+    }
+
+    private static List<File> getSourceRoots(JavaSourceSet sourceSet) {
+        List<File> result = new ArrayList<>();
+        for (JavaSourceGroup sourceGroup: sourceSet.getSourceGroups()) {
+            result.addAll(sourceGroup.getSourceRoots());
+        }
+        return result;
+    }
+
+    private static Set<File> getRootsOfKind(Map<File, List<RootEntry>> roots, Set<RootKind> kinds) {
+        Set<File> result = new HashSet<>();
+        for (Map.Entry<File, List<RootEntry>> entry: roots.entrySet()) {
+            for (RootEntry rootEntry: entry.getValue()) {
+                if (kinds.contains(rootEntry.kind)) {
+                    result.add(entry.getKey());
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static URL[] toUrls(Collection<JavaSourceSet> sourceSets) {
+        UrlFactory urlFactory = UrlFactory.getDefaultArchiveOrDirFactory();
+
+        List<URL> result = new ArrayList<>();
+        for (JavaSourceSet sourceSet: sourceSets) {
+            for (File sourceRoot: getSourceRoots(sourceSet)) {
+                URL url = urlFactory.toUrl(sourceRoot);
+                if (url != null) {
+                    result.add(url);
+                }
+            }
+        }
+
+        return result.toArray(new URL[result.size()]);
+    }
+
+    private RootEntry tryFindExact(File root, Set<RootKind> kinds) {
+        List<RootEntry> entries = roots.get(root);
+        if (entries == null) {
+            return null;
+        }
+
+        RootEntry result = null;
+        for (RootEntry entry: entries) {
+            if (kinds.contains(entry.kind) && (result == null || entry.order < result.order)) {
+                result = entry;
+            }
+        }
+        return result;
+    }
+
+    private RootEntry tryFindContaining(File file, Set<RootKind> kinds) {
+        RootEntry result = null;
+        for (File current = file; current != null; current = current.getParentFile()) {
+            List<RootEntry> entries = roots.get(current);
+            if (entries == null) {
+                continue;
+            }
+
+            for (RootEntry entry: entries) {
+                if (!kinds.contains(entry.kind)) {
+                    continue;
+                }
+                // Jars are only matched exactly.
+                if (entry.kind == RootKind.JAR_OUTPUT && current != file) {
+                    continue;
+                }
+                if (result == null || entry.order < result.order) {
+                    result = entry;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the first source set of the module having a source root
+     * containing the given file.
+     *
+     * @param file the file to be checked. This argument cannot be {@code null}.
+     * @return the first source set of the module having a source root
+     *   containing the given file, or {@code null} if there is no such
+     *   source set
+     */
+    public JavaSourceSet tryGetSourceSetOfFile(File file) {
+        ExceptionHelper.checkNotNullArgument(file, "file");
+
+        RootEntry entry = tryFindContaining(file, SOURCES);
+        return entry != null ? entry.sourceSet : null;
+    }
+
+    /**
+     * Returns the source set whose class paths apply to the given file. The
+     * result is the same as checking the source sets in order, and within a
+     * source set: the compile class path, the runtime class path and then the
+     * source groups (where only the first containing root of a source group is
+     * checked against the exclude rules of the group).
+     *
+     * @param file the file to be checked. This argument cannot be {@code null}.
+     * @return the source set whose class paths apply to the given file, or
+     *   {@code null} if the file does not belong to any source set
+     */
+    public JavaSourceSet tryGetClassPathSourceSet(File file) {
+        ExceptionHelper.checkNotNullArgument(file, "file");
+
+        List<RootEntry> candidates = null;
+        for (File current = file; current != null; current = current.getParentFile()) {
+            List<RootEntry> entries = roots.get(current);
+            if (entries == null) {
+                continue;
+            }
+
+            for (RootEntry entry: entries) {
+                if (CLASS_PATH_OWNERS.contains(entry.kind)) {
+                    if (candidates == null) {
+                        candidates = new ArrayList<>(entries.size());
+                    }
+                    candidates.add(entry);
+                }
+            }
+        }
+
+        if (candidates == null) {
+            return null;
+        }
+
+        Collections.sort(candidates, ORDER_CMP);
+
+        Set<Integer> checkedGroups = null;
+        for (RootEntry candidate: candidates) {
+            if (candidate.excludeRules == null) {
+                return candidate.sourceSet;
+            }
+
+            // Only the first root of a source group containing the file
+            // is checked against the exclude rules.
+            if (checkedGroups == null) {
+                checkedGroups = new HashSet<>();
+            }
+            if (checkedGroups.add(candidate.groupId)) {
+                if (candidate.excludeRules.isIncluded(candidate.root.toPath(), file)) {
+                    return candidate.sourceSet;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns {@code true} if the given file is within a source root of a
+     * non-test source set.
+     *
+     * @param file the file to be checked. This argument cannot be {@code null}.
+     * @return {@code true} if the given file is within a source root of a
+     *   non-test source set, {@code false} otherwise
+     */
+    public boolean isInNonTestSources(File file) {
+        ExceptionHelper.checkNotNullArgument(file, "file");
+
+        for (File current = file; current != null; current = current.getParentFile()) {
+            List<RootEntry> entries = roots.get(current);
+            if (entries == null) {
+                continue;
+            }
+
+            for (RootEntry entry: entries) {
+                if (entry.kind == RootKind.SOURCE_ROOT && entry.nonTest) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the jar or class directory containing the given file. Jars are
+     * only matched exactly.
+     *
+     * @param binaryPath the file to be checked. This argument cannot be
+     *   {@code null}.
+     * @return the jar or class directory containing the given file, or
+     *   {@code null} if the file is not a build output of the module
+     */
+    public File tryNormalizeBinaryPath(File binaryPath) {
+        ExceptionHelper.checkNotNullArgument(binaryPath, "binaryPath");
+
+        RootEntry entry = tryFindContaining(binaryPath, BINARIES);
+        return entry != null ? entry.root : null;
+    }
+
+    /**
+     * Returns the source roots compiled into the given jar or class
+     * directory.
+     *
+     * @param binaryRoot the jar or class directory. This argument cannot be
+     *   {@code null}.
+     * @return the source roots compiled into the given jar or class
+     *   directory, or {@code null} if the given file is not a build
+     *   output of the module
+     */
+    public List<File> tryGetSourceRootsOfBinary(File binaryRoot) {
+        ExceptionHelper.checkNotNullArgument(binaryRoot, "binaryRoot");
+
+        RootEntry entry = tryFindExact(binaryRoot, BINARIES);
+        return entry != null ? entry.targets : null;
+    }
+
+    /**
+     * Returns the source root containing the given file.
+     *
+     * @param sourcePath the file to be checked. This argument cannot be
+     *   {@code null}.
+     * @return the source root containing the given file, or {@code null}
+     *   if the file is not within a source root of the module
+     */
+    public File tryNormalizeSourcePath(File sourcePath) {
+        ExceptionHelper.checkNotNullArgument(sourcePath, "sourcePath");
+
+        RootEntry entry = tryFindContaining(sourcePath, SOURCES);
+        return entry != null ? entry.root : null;
+    }
+
+    /**
+     * Returns the class directories of the source set of the given
+     * source root.
+     *
+     * @param sourceRoot the source root. This argument cannot be
+     *   {@code null}.
+     * @return the class directories of the source set of the given
+     *   source root. This method never returns {@code null} but returns
+     *   an empty collection if the given file is not a source root of
+     *   the module.
+     */
+    public List<File> getOutputDirsOfSourceRoot(File sourceRoot) {
+        ExceptionHelper.checkNotNullArgument(sourceRoot, "sourceRoot");
+
+        RootEntry entry = tryFindExact(sourceRoot, SOURCES);
+        return entry != null ? entry.targets : Collections.<File>emptyList();
+    }
+
+    /**
+     * Returns the jars and class directories built from the source sets of
+     * the module. That is, the files for which
+     * {@link #tryGetSourceRootsOfBinary(File)} does not return {@code null}.
+     *
+     * @return the jars and class directories built from the source sets of
+     *   the module. This method never returns {@code null}.
+     */
+    public Set<File> getBinaryRoots() {
+        return binaryRoots;
+    }
+
+    /**
+     * Returns the source roots of all the source sets of the module.
+     *
+     * @return the source roots of all the source sets of the module. This
+     *   method never returns {@code null}.
+     */
+    public Set<File> getSourceRoots() {
+        return sourceRoots;
+    }
+
+    /**
+     * Returns the URLs of the source roots of the non-test source sets.
+     * <P>
+     * The returned array is shared, so it must not be modified.
+     *
+     * @return the URLs of the source roots of the non-test source sets. This
+     *   method never returns {@code null}.
+     */
+    public URL[] getNonTestRootUrls() {
+        return nonTestRootUrls;
+    }
+
+    /**
+     * Returns the URLs of the source roots of the test source sets.
+     * <P>
+     * The returned array is shared, so it must not be modified.
+     *
+     * @return the URLs of the source roots of the test source sets. This
+     *   method never returns {@code null}.
+     */
+    public URL[] getTestRootUrls() {
+        return testRootUrls;
+    }
+
+    /**
+     * Returns the name of the test task running the tests of the given source
+     * set, if the module has a source set with the given name.
+     *
+     * @param sourceSetName the name of the source set. This argument cannot be
+     *   {@code null}.
+     * @return the name of the test task running the tests of the given source
+     *   set, or {@code null} if the module has no such source set
+     */
+    public String tryGetTestTaskName(String sourceSetName) {
+        return sourceSetToTestTask.get(sourceSetName);
+    }
+
+    private enum RootKind {
+        JAR_OUTPUT,
+        CLASS_PATH,
+        SOURCE_ROOT,
+        CLASSES_DIR
+    }
+
+    private static final class Builder {
+        private final Map<File, List<RootEntry>> roots;
+        private int order;
+        private int groupId;
+
+        public Builder(NbJavaModule module) {
+            this.roots = new HashMap<>();
+            this.order = 0;
+            this.groupId = 0;
+
+            List<JavaSourceSet> sourceSets = module.getSources();
+
+            List<File> allSourceRoots = new ArrayList<>();
+            for (JavaSourceSet sourceSet: sourceSets) {
+                allSourceRoots.addAll(getSourceRoots(sourceSet));
+            }
+            allSourceRoots = Collections.unmodifiableList(allSourceRoots);
+
+            for (NbJarOutput jarOutput: module.getJarOutputs()) {
+                File jar = jarOutput.getJar();
+                if (!module.getSourceSetsForJarOutput(jar).isEmpty()) {
+                    add(new RootEntry(RootKind.JAR_OUTPUT, order, jar, null, false, allSourceRoots, -1, null));
+                }
+            }
+
+            Set<JavaSourceSet> nonTestSourceSets = Collections.newSetFromMap(new IdentityHashMap<JavaSourceSet, Boolean>());
+            nonTestSourceSets.addAll(module.getNonTestSourceSets());
+            for (JavaSourceSet sourceSet: sourceSets) {
+                addSourceSet(sourceSet, nonTestSourceSets.contains(sourceSet));
+            }
+        }
+
+        private void addSourceSet(JavaSourceSet sourceSet, boolean nonTest) {
+            List<File> classesDirs = Collections.unmodifiableList(
+                    new ArrayList<>(sourceSet.getOutputDirs().getClassesDirs()));
+            List<File> sourceRoots = Collections.unmodifiableList(getSourceRoots(sourceSet));
+
+            addClassPath(sourceSet, sourceSet.getClasspaths().getCompileClasspaths());
+            addClassPath(sourceSet, sourceSet.getClasspaths().getRuntimeClasspaths());
+
+            for (JavaSourceGroup sourceGroup: sourceSet.getSourceGroups()) {
+                ExcludeIncludeRules excludeRules = ExcludeIncludeRules.create(sourceGroup);
+                for (File root: sourceGroup.getSourceRoots()) {
+                    add(new RootEntry(RootKind.SOURCE_ROOT, order, root, sourceSet, nonTest, classesDirs, groupId, excludeRules));
+                }
+                groupId++;
+            }
+
+            for (File classesDir: classesDirs) {
+                add(new RootEntry(RootKind.CLASSES_DIR, order, classesDir, sourceSet, nonTest, sourceRoots, -1, null));
+            }
+        }
+
+        private void addClassPath(JavaSourceSet sourceSet, Set<File> classPath) {
+            List<File> noTargets = Collections.emptyList();
+            for (File root: classPath) {
+                add(new RootEntry(RootKind.CLASS_PATH, order, root, sourceSet, false, noTargets, -1, null));
+            }
+        }
+
+        private void add(RootEntry entry) {
+            order++;
+
+            List<RootEntry> entries = roots.get(entry.root);
+            if (entries == null) {
+                entries = new ArrayList<>(1);
+                roots.put(entry.root, entries);
+            }
+            entries.add(entry);
+        }
+    }
+
+    private static final class RootEntry {
+        public final RootKind kind;
+        public final int order;
+        public final File root;
+        public final JavaSourceSet sourceSet;
+        public final boolean nonTest;
+        public final List<File> targets;
+        public final int groupId;
+        public final ExcludeIncludeRules excludeRules;
+
+        public RootEntry(
+                RootKind kind,
+                int order,
+                File root,
+                JavaSourceSet sourceSet,
+                boolean nonTest,
+                List<File> targets,
+                int groupId,
+                ExcludeIncludeRules excludeRules) {
+            this.kind = kind;
+            this.order = order;
+            this.root = root;
+            this.sourceSet = sourceSet;
+            this.nonTest = nonTest;
+            this.targets = targets;
+            this.groupId = groupId;
+            this.excludeRules = excludeRules;
+        }
+    }
+}
@@ -49,6 +49,10 @@ public final class NbJavaModel implements Serializable {
         return mainModule;
     }
 
+    public NbJavaModel withMainModule(NbJavaModule newMainModule) {
+        return createModel(evaluationEnvironment, modelSource, newMainModule);
+    }
+
     private Object writeReplace() {
         return new SerializedFormat(this);
     }
@@ -18,8 +18,10 @@ import java.util.concurrent.atomic.AtomicReference;
 import org.jtrim.collections.CollectionsEx;
 import org.jtrim.utils.ExceptionHelper;
 import org.netbeans.gradle.model.GenericProjectProperties;
+import org.netbeans.gradle.model.java.JavaClassPaths;
 import org.netbeans.gradle.model.java.JavaCompatibilityModel;
 import org.netbeans.gradle.model.java.JavaOutputDirs;
+import org.netbeans.gradle.model.java.JavaSourceGroup;
 import org.netbeans.gradle.model.java.JavaSourceSet;
 import org.netbeans.gradle.model.java.JavaTestModel;
 import org.netbeans.gradle.model.java.JavaTestTask;
@@ -36,6 +38,7 @@ public final class NbJavaModule implements Serializable {
     private final List<NbJarOutput> jarOutputs;
     private final JavaTestModel testTasks;
     private final NbCodeCoverage codeCoverage;
+    private final boolean hasRuntimeClassPaths;
 
     private final AtomicReference<JavaSourceSet> mainSourceSetRef;
     private final AtomicReference<JavaSourceSet> testSourceSetRef;
@@ -48,6 +51,7 @@ public final class NbJavaModule implements Serializable {
     private final AtomicReference<Map<File, List<JavaSourceSet>>> outputsToSourceSets;
     private final AtomicReference<Map<File, List<JavaSourceSet>>> buildOutputToSourceSets;
     private final AtomicReference<Map<File, List<JavaSourceSet>>> jarOutputsToSourceSets;
+    private final AtomicReference<JavaSourceRootIndex> sourceRootIndexRef;
 
     public NbJavaModule(
             GenericProjectProperties properties,
@@ -57,6 +61,18 @@ public final class NbJavaModule implements Serializable {
             List<NbJarOutput> jarOutputs,
             JavaTestModel testTasks,
             NbCodeCoverage codeCoverage) {
+        this(properties, compatibilityModel, sources, listedDirs, jarOutputs, testTasks, codeCoverage, true);
+    }
+
+    public NbJavaModule(
+            GenericProjectProperties properties,
+            JavaCompatibilityModel compatibilityModel,
+            Collection<JavaSourceSet> sources,
+            List<NbListedDir> listedDirs,
+            List<NbJarOutput> jarOutputs,
+            JavaTestModel testTasks,
+            NbCodeCoverage codeCoverage,
+            boolean hasRuntimeClassPaths) {
 
         ExceptionHelper.checkNotNullArgument(properties, "properties");
         ExceptionHelper.checkNotNullArgument(compatibilityModel, "compatibilityModel");
@@ -73,6 +89,7 @@ public final class NbJavaModule implements Serializable {
         this.jarOutputs = CollectionUtils.copyNullSafeList(jarOutputs);
         this.testTasks = testTasks;
         this.codeCoverage = codeCoverage;
+        this.hasRuntimeClassPaths = hasRuntimeClassPaths;
 
         this.mainSourceSetRef = new AtomicReference<>(null);
         this.testSourceSetRef = new AtomicReference<>(null);
@@ -85,6 +102,7 @@ public final class NbJavaModule implements Serializable {
         this.outputsToSourceSets = new AtomicReference<>(null);
         this.buildOutputToSourceSets = new AtomicReference<>(null);
         this.jarOutputsToSourceSets = new AtomicReference<>(null);
+        this.sourceRootIndexRef = new AtomicReference<>(null);
     }
 
     public GenericProjectProperties getProperties() {
@@ -127,6 +145,76 @@ public final class NbJavaModule implements Serializable {
         return jarOutputs;
     }
 
+    /**
+     * Returns {@code true} if the runtime class paths of the source sets of
+     * this module were resolved. If this method returns {@code false}, the
+     * runtime class paths of the source sets are the same as their compile
+     * time class paths, until they are replaced by
+     * {@link #withRuntimeClassPaths(Collection) withRuntimeClassPaths}.
+     *
+     * @return {@code true} if the runtime class paths of the source sets of
+     *   this module were resolved, {@code false} otherwise
+     */
+    public boolean hasRuntimeClassPaths() {
+        return hasRuntimeClassPaths;
+    }
+
+    /**
+     * Returns a module which is the same as this module, except that the
+     * runtime class paths (and the problems resolving them) are taken from
+     * the source sets with the same name in the given collection. Source sets
+     * not found in the given collection will have their runtime class paths
+     * unchanged.
+     *
+     * @param completeSources the source sets of this module with resolved
+     *   runtime class paths. This argument cannot be {@code null}.
+     * @return the module with the runtime class paths replaced. This method
+     *   never returns {@code null}.
+     */
+    public NbJavaModule withRuntimeClassPaths(Collection<JavaSourceSet> completeSources) {
+        ExceptionHelper.checkNotNullElements(completeSources, "completeSources");
+
+        Map<String, JavaSourceSet> completeSourcesMap = CollectionUtils.newHashMap(completeSources.size());
+        for (JavaSourceSet sourceSet: completeSources) {
+            completeSourcesMap.put(sourceSet.getName(), sourceSet);
+        }
+
+        List<JavaSourceSet> newSources = new ArrayList<>(sources.size());
+        for (JavaSourceSet sourceSet: sources) {
+            JavaSourceSet completeSourceSet = completeSourcesMap.get(sourceSet.getName());
+            newSources.add(completeSourceSet != null
+                    ? withRuntimeClassPaths(sourceSet, completeSourceSet)
+                    : sourceSet);
+        }
+
+        return new NbJavaModule(
+                properties,
+                compatibilityModel,
+                newSources,
+                listedDirs,
+                jarOutputs,
+                testTasks,
+                codeCoverage,
+                true);
+    }
+
+    private static JavaSourceSet withRuntimeClassPaths(JavaSourceSet sourceSet, JavaSourceSet completeSourceSet) {
+        JavaClassPaths classPaths = new JavaClassPaths(
+                sourceSet.getClasspaths().getCompileClasspaths(),
+                completeSourceSet.getClasspaths().getRuntimeClasspaths());
+
+        JavaSourceSet.Builder result = new JavaSourceSet.Builder(sourceSet.getName(), sourceSet.getOutputDirs());
+        result.setClasspaths(classPaths);
+        result.setCompileClassPathProblem(sourceSet.getCompileClassPathProblem());
+        result.setRuntimeClassPathProblem(completeSourceSet.getRuntimeClassPathProblem());
+
+        for (JavaSourceGroup group: sourceSet.getSourceGroups()) {
+            result.addSourceGroup(group);
+        }
+
+        return result.create();
+    }
+
     private Map<File, List<JavaSourceSet>> createBuildOutputsToSourceSets() {
         Map<File, List<JavaSourceSet>> result = new HashMap<>();
 
@@ -406,9 +494,23 @@ public final class NbJavaModule implements Serializable {
         return Math.abs(diff1) < Math.abs(diff2);
     }
 
+    public JavaSourceRootIndex getSourceRootIndex() {
+        JavaSourceRootIndex result = sourceRootIndexRef.get();
+        if (result == null) {
+            sourceRootIndexRef.set(JavaSourceRootIndex.create(this));
+            result = sourceRootIndexRef.get();
+        }
+        return result;
+    }
+
     public String findTestTaskForSourceSet(String sourceSetName) {
         ExceptionHelper.checkNotNullArgument(sourceSetName, "sourceSetName");
 
+        String result = getSourceRootIndex().tryGetTestTaskName(sourceSetName);
+        return result != null ? result : computeTestTaskForSourceSet(sourceSetName);
+    }
+
+    String computeTestTaskForSourceSet(String sourceSetName) {
         String expectedName = getExpectedTestName(sourceSetName);
 
         String bestName = null;
@@ -444,6 +546,7 @@ public final class NbJavaModule implements Serializable {
         private final List<NbJarOutput> jarOutputs;
         private final JavaTestModel testTasks;
         private final NbCodeCoverage codeCoverage;
+        private final boolean compileClassPathsOnly;
 
         public SerializedFormat(NbJavaModule source) {
             this.properties = source.properties;
@@ -453,6 +556,7 @@ public final class NbJavaModule implements Serializable {
             this.jarOutputs = source.jarOutputs;
             this.testTasks = source.testTasks;
             this.codeCoverage = source.codeCoverage;
+            this.compileClassPathsOnly = !source.hasRuntimeClassPaths;
         }
 
         private NbCodeCoverage getCodeCoverage() {
@@ -472,7 +576,8 @@ public final class NbJavaModule implements Serializable {
                     listedDirs,
                     jarOutputs(),
                     testTasks,
-                    getCodeCoverage());
+                    getCodeCoverage(),
+                    !compileClassPathsOnly);
         }
     }
 
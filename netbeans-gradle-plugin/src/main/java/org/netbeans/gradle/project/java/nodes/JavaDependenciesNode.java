@@ -10,6 +10,7 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -19,6 +20,9 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.swing.AbstractAction;
 import javax.swing.Action;
+import org.jtrim.cancel.Cancellation;
+import org.jtrim.cancel.CancellationToken;
+import org.jtrim.concurrent.CancelableTask;
 import org.jtrim.concurrent.TaskExecutor;
 import org.jtrim.utils.ExceptionHelper;
 import org.netbeans.api.project.Project;
@@ -40,6 +44,7 @@ import org.netbeans.gradle.project.tasks.DaemonTaskDef;
 import org.netbeans.gradle.project.tasks.DownloadSourcesTask;
 import org.netbeans.gradle.project.tasks.GradleDaemonManager;
 import org.netbeans.gradle.project.util.ListenerRegistrations;
+import org.netbeans.gradle.project.util.NbSupplier;
 import org.netbeans.gradle.project.util.NbTaskExecutors;
 import org.netbeans.gradle.project.util.StringUtils;
 import org.openide.filesystems.FileObject;
@@ -95,7 +100,7 @@ public final class JavaDependenciesNode extends AbstractNode {
     public Action[] getActions(boolean context) {
         NbGradleProject project = NbGradleProjectFactory.getGradleProject(javaExt.getProject());
         return new Action[]{
-            new DownloadSourcesAction(project)
+            new DownloadSourcesAction(project, javaExt)
         };
     }
 
@@ -193,17 +198,17 @@ public final class JavaDependenciesNode extends AbstractNode {
 
         private void addDependencyGroup(
                 String groupName,
-                Collection<? extends SingleNodeFactory> dependencies,
+                Set<File> dependencies,
                 List<SingleNodeFactory> toPopulate) {
 
             if (dependencies.isEmpty()) {
                 return;
             }
 
-            toPopulate.add(new DependencyGroupNodeFactory(groupName, dependencies));
+            toPopulate.add(new DependencyGroupNodeFactory(javaExt, groupName, dependencies));
         }
 
-        private List<SingleNodeFactory> filesToNodes(Collection<File> files) {
+        private static List<SingleNodeFactory> filesToNodes(JavaExtension javaExt, Collection<File> files) {
             List<SingleNodeFactory> result = new ArrayList<>(files.size());
 
             Map<FileObject, List<JavaProjectDependencyDef>> allProjectDependencies = new HashMap<>();
@@ -336,6 +341,10 @@ public final class JavaDependenciesNode extends AbstractNode {
             return Arrays.asList(nodesArray);
         }
 
+        public static List<SingleNodeFactory> createDependencyNodes(JavaExtension javaExt, Collection<File> files) {
+            return sortDependencyNodes(filesToNodes(javaExt, files));
+        }
+
         private void addSourceSetDependencyNodes(
                 NbJavaModel currentModel,
                 String nodeGroupName,
@@ -357,10 +366,9 @@ public final class JavaDependenciesNode extends AbstractNode {
                 }
             }
 
-            List<SingleNodeFactory> dependencyNodes = filesToNodes(classpaths);
-            dependencyNodes = sortDependencyNodes(dependencyNodes);
-
-            addDependencyGroup(nodeGroupName, dependencyNodes, toPopulate);
+            // The nodes of the dependencies are only created when the group
+            // is expanded.
+            addDependencyGroup(nodeGroupName, classpaths, toPopulate);
         }
 
         private static <T> Set<T> splitSets(Set<T> set1, Set<T> set2) {
@@ -483,17 +491,19 @@ public final class JavaDependenciesNode extends AbstractNode {
     }
 
     private static class DependencyGroupNodeFactory implements SingleNodeFactory {
+        private final JavaExtension javaExt;
         private final String groupName;
-        private final List<SingleNodeFactory> dependencies;
+        private final Set<File> dependencies;
 
-        public DependencyGroupNodeFactory(String groupName, Collection<? extends SingleNodeFactory> dependencies) {
-            this.dependencies = new ArrayList<>(dependencies);
+        public DependencyGroupNodeFactory(JavaExtension javaExt, String groupName, Set<File> dependencies) {
+            this.javaExt = javaExt;
             this.groupName = groupName;
+            this.dependencies = Collections.unmodifiableSet(new LinkedHashSet<>(dependencies));
         }
 
         @Override
         public Node createNode() {
-            AbstractNode result = new AbstractNode(Children.create(new DependencyGroupChildFactory(dependencies), true)) {
+            AbstractNode result = new AbstractNode(new DependencyGroupChildren(javaExt, dependencies)) {
                 @Override
                 public Image getIcon(int type) {
                     return NbIcons.getLibrariesIcon();
@@ -527,36 +537,82 @@ public final class JavaDependenciesNode extends AbstractNode {
             if (obj == null) return false;
             if (getClass() != obj.getClass()) return false;
 
+            // Groups of the same class path are equal, so their (possibly
+            // expanded) nodes are kept when the project is reloaded.
             final DependencyGroupNodeFactory other = (DependencyGroupNodeFactory)obj;
             return Objects.equals(this.groupName, other.groupName)
                     && Objects.equals(this.dependencies, other.dependencies);
         }
     }
 
-    private static class DependencyGroupChildFactory extends ChildFactory<SingleNodeFactory> {
-        private final List<SingleNodeFactory> dependencies;
+    /**
+     * Lazy children of a dependency group: The keys are only created when the
+     * group is expanded and the nodes are only created when they are actually
+     * displayed (e.g., scrolled into view).
+     * <P>
+     * The keys are created in the background, because {@code addNotify} is
+     * usually called on the EDT, and creating the keys requires looking up the
+     * project dependencies and sorting every entry of the group.
+     */
+    static final class DependencyGroupChildren extends Children.Keys<SingleNodeFactory> {
+        private final NbSupplier<? extends Collection<SingleNodeFactory>> keysProvider;
+        private final TaskExecutor keysExecutor;
+        private final AtomicReference<Object> currentRequestRef;
+
+        public DependencyGroupChildren(final JavaExtension javaExt, final Set<File> dependencies) {
+            this(new NbSupplier<List<SingleNodeFactory>>() {
+                @Override
+                public List<SingleNodeFactory> get() {
+                    return DependenciesChildFactory.createDependencyNodes(javaExt, dependencies);
+                }
+            }, NbTaskExecutors.DEFAULT_EXECUTOR);
+        }
+
+        DependencyGroupChildren(
+                NbSupplier<? extends Collection<SingleNodeFactory>> keysProvider,
+                TaskExecutor keysExecutor) {
+            super(true);
 
-        public DependencyGroupChildFactory(Collection<? extends SingleNodeFactory> dependencies) {
-            this.dependencies = new ArrayList<>(dependencies);
+            ExceptionHelper.checkNotNullArgument(keysProvider, "keysProvider");
+            ExceptionHelper.checkNotNullArgument(keysExecutor, "keysExecutor");
+
+            this.keysProvider = keysProvider;
+            this.keysExecutor = keysExecutor;
+            this.currentRequestRef = new AtomicReference<>(null);
         }
 
-        protected void readKeys(List<SingleNodeFactory> toPopulate) throws DataObjectNotFoundException {
-            toPopulate.addAll(dependencies);
+        @Override
+        protected void addNotify() {
+            final Object request = new Object();
+            currentRequestRef.set(request);
+
+            keysExecutor.execute(Cancellation.UNCANCELABLE_TOKEN, new CancelableTask() {
+                @Override
+                public void execute(CancellationToken cancelToken) {
+                    if (currentRequestRef.get() != request) {
+                        return;
+                    }
+
+                    Collection<SingleNodeFactory> keys = keysProvider.get();
+                    // If the group is collapsed right now, the keys might be
+                    // set after removeNotify but they are replaced once the
+                    // group is expanded again.
+                    if (currentRequestRef.get() == request) {
+                        setKeys(keys);
+                    }
+                }
+            }, null);
         }
 
         @Override
-        protected boolean createKeys(List<SingleNodeFactory> toPopulate) {
-            try {
-                readKeys(toPopulate);
-            } catch (DataObjectNotFoundException ex) {
-                throw new RuntimeException(ex);
-            }
-            return true;
+        protected void removeNotify() {
+            currentRequestRef.set(null);
+            setKeys(Collections.<SingleNodeFactory>emptySet());
         }
 
         @Override
-        protected Node createNodeForKey(SingleNodeFactory key) {
-            return key.createNode();
+        protected Node[] createNodes(SingleNodeFactory key) {
+            return new Node[]{key.createNode()};
         }
     }
 
@@ -709,15 +765,27 @@ public final class JavaDependenciesNode extends AbstractNode {
     @SuppressWarnings("serial")
     private static final class DownloadSourcesAction extends AbstractAction {
         private final NbGradleProject project;
+        private final JavaExtension javaExt;
 
-        public DownloadSourcesAction(NbGradleProject project) {
+        public DownloadSourcesAction(NbGradleProject project, JavaExtension javaExt) {
             super(NbStrings.getDownloadSources());
             this.project = project;
+            this.javaExt = javaExt;
+        }
+
+        private Set<File> getAllBinaries() {
+            Set<File> result = new HashSet<>();
+            for (JavaSourceSet sourceSet: javaExt.getCurrentModel().getMainModule().getSources()) {
+                JavaClassPaths classpaths = sourceSet.getClasspaths();
+                result.addAll(classpaths.getCompileClasspaths());
+                result.addAll(classpaths.getRuntimeClasspaths());
+            }
+            return result;
         }
 
         @Override
         public void actionPerformed(ActionEvent e) {
-            DaemonTaskDef taskDef = DownloadSourcesTask.createTaskDef(project);
+            DaemonTaskDef taskDef = DownloadSourcesTask.createTaskDef(project, getAllBinaries());
             GradleDaemonManager.submitGradleTask(SOURCES_DOWNLOADER, taskDef, new CommandCompleteListener() {
                 @Override
                 public void onComplete(Throwable error) {
@@ -5,23 +5,18 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
-import java.util.Objects;
-import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.swing.event.ChangeListener;
 import org.jtrim.utils.ExceptionHelper;
 import org.netbeans.api.java.queries.BinaryForSourceQuery;
-import org.netbeans.gradle.model.java.JavaSourceGroup;
-import org.netbeans.gradle.model.java.JavaSourceSet;
 import org.netbeans.gradle.project.java.JavaExtension;
 import org.netbeans.gradle.project.java.JavaModelChangeListener;
+import org.netbeans.gradle.project.java.model.JavaSourceRootIndex;
 import org.netbeans.gradle.project.java.model.NbJavaModule;
 import org.netbeans.gradle.project.query.AbstractBinaryForSourceQuery;
 import org.netbeans.gradle.project.util.LazyChangeSupport;
-import org.netbeans.gradle.project.util.NbFileUtils;
 import org.netbeans.gradle.project.util.NbSupplier;
 import org.openide.util.Utilities;
 
@@ -55,19 +50,8 @@ implements
         this.changes = LazyChangeSupport.createSwing(new EventSource());
     }
 
-    private static Set<File> getOutputDirs(
-            NbJavaModule module, File root) {
-
-        for (JavaSourceSet sourceSet: module.getSources()) {
-            for (JavaSourceGroup sourceGroup: sourceSet.getSourceGroups()) {
-                for (File sourceRoot: sourceGroup.getSourceRoots()) {
-                    if (Objects.equals(sourceRoot, root)) {
-                        return sourceSet.getOutputDirs().getClassesDirs();
-                    }
-                }
-            }
-        }
-        return Collections.emptySet();
+    private JavaSourceRootIndex getIndex() {
+        return moduleProvider.get().getSourceRootIndex();
     }
 
     private static URL toUrl(File file) {
@@ -81,9 +65,9 @@ implements
     }
 
     private static URL[] getRootsAsURLs(
-            NbJavaModule module, File root) {
+            JavaSourceRootIndex index, File root) {
 
-        Set<File> outputDirs = getOutputDirs(module, root);
+        List<File> outputDirs = index.getOutputDirsOfSourceRoot(root);
         if (outputDirs.isEmpty()) {
             return NO_ROOTS;
         }
@@ -105,17 +89,7 @@ implements
 
     @Override
     protected File normalizeSourcePath(File sourcePath) {
-        NbJavaModule module = moduleProvider.get();
-        for (JavaSourceSet sourceSet: module.getSources()) {
-            for (JavaSourceGroup sourceGroup: sourceSet.getSourceGroups()) {
-                for (File sourceRoot: sourceGroup.getSourceRoots()) {
-                    if (NbFileUtils.isParentOrSame(sourceRoot, sourcePath)) {
-                        return sourceRoot;
-                    }
-                }
-            }
-        }
-        return null;
+        return getIndex().tryNormalizeSourcePath(sourcePath);
     }
 
     @Override
@@ -125,8 +99,7 @@ implements
         return new BinaryForSourceQuery.Result() {
             @Override
             public URL[] getRoots() {
-                NbJavaModule mainModule = moduleProvider.get();
-                return getRootsAsURLs(mainModule, sourceRoot);
+                return getRootsAsURLs(getIndex(), sourceRoot);
             }
 
             @Override
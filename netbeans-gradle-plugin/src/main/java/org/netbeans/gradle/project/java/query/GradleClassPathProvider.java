@@ -52,7 +52,6 @@ import org.netbeans.gradle.project.util.ExcludeIncludeRules;
 import org.netbeans.gradle.project.util.LazyValue;
 import org.netbeans.gradle.project.util.ListenerRegistrations;
 import org.netbeans.gradle.project.util.NbConsumer;
-import org.netbeans.gradle.project.util.NbFileUtils;
 import org.netbeans.gradle.project.util.NbSupplier;
 import org.netbeans.gradle.project.util.NbTaskExecutors;
 import org.netbeans.spi.java.classpath.ClassPathFactory;
@@ -244,46 +243,13 @@ implements
         changes.removePropertyChangeListener(listener);
     }
 
-    private boolean isInOneOf(File file, Collection<File> roots) {
-        return isInOneOf(file, roots, null);
-    }
-
-    private boolean isInOneOf(File file, Collection<File> roots, ExcludeIncludeRules excludeRules) {
-        for (File root: roots) {
-            if (NbFileUtils.isParentOrSame(root, file)) {
-                if (excludeRules == null) {
-                    return true;
-                }
-                return excludeRules.isIncluded(root.toPath(), file);
-            }
-        }
-        return false;
-    }
-
     private JavaSourceSet findAssociatedSourceSet(NbJavaModel projectModel, FileObject fileObj) {
         File file = FileUtil.toFile(fileObj);
         if (file == null) {
             return null;
         }
 
-        for (JavaSourceSet sourceSet: projectModel.getMainModule().getSources()) {
-            if (isInOneOf(file, sourceSet.getClasspaths().getCompileClasspaths())) {
-                return sourceSet;
-            }
-
-            if (isInOneOf(file, sourceSet.getClasspaths().getRuntimeClasspaths())) {
-                return sourceSet;
-            }
-
-            for (JavaSourceGroup sourceGroup: sourceSet.getSourceGroups()) {
-                ExcludeIncludeRules excludeRules = ExcludeIncludeRules.create(sourceGroup);
-                if (isInOneOf(file, sourceGroup.getSourceRoots(), excludeRules)) {
-                    return sourceSet;
-                }
-            }
-        }
-
-        return null;
+        return projectModel.getMainModule().getSourceRootIndex().tryGetClassPathSourceSet(file);
     }
 
     private ClassPathKey getClassPathType(NbJavaModel projectModel, FileObject fileObj, String type) {
@@ -3,12 +3,16 @@ package org.netbeans.gradle.project.java.query;
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
 import java.io.File;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Level;
@@ -16,6 +20,9 @@ import java.util.logging.Logger;
 import javax.swing.Icon;
 import javax.swing.SwingUtilities;
 import javax.swing.event.ChangeListener;
+import org.jtrim.concurrent.GenericUpdateTaskExecutor;
+import org.jtrim.concurrent.MonitorableTaskExecutorService;
+import org.jtrim.concurrent.TaskExecutors;
 import org.jtrim.concurrent.UpdateTaskExecutor;
 import org.jtrim.utils.ExceptionHelper;
 import org.netbeans.api.java.project.JavaProjectConstants;
@@ -47,6 +54,11 @@ public final class GradleProjectSources implements Sources, JavaModelChangeListe
 
     private static final SourceGroup[] NO_SOURCE_GROUPS = new SourceGroup[0];
 
+    // Shared by every project, so that opening many projects at once does not
+    // start checking the source roots of all of them concurrently.
+    private static final MonitorableTaskExecutorService SOURCE_SCANNER_EXECUTOR
+            = NbTaskExecutors.newExecutor("Gradle-Source-Scanner", getScannerThreadCount());
+
     private final JavaExtension javaExt;
     private final ChangeSupport changeSupport;
 
@@ -62,7 +74,8 @@ public final class GradleProjectSources implements Sources, JavaModelChangeListe
         this.changeSupport = new ChangeSupport(this);
         this.currentGroups = Collections.emptyMap();
         this.hasScanned = new AtomicBoolean(false);
-        this.scanSourcesExecutor = NbTaskExecutors.newDefaultUpdateExecutor();
+        this.scanSourcesExecutor = new GenericUpdateTaskExecutor(
+                TaskExecutors.inOrderSimpleExecutor(SOURCE_SCANNER_EXECUTOR));
 
         javaExt.getSourceDirsHandler().addDirsCreatedListener(new Runnable() {
             @Override
@@ -72,6 +85,12 @@ public final class GradleProjectSources implements Sources, JavaModelChangeListe
         });
     }
 
+    private static int getScannerThreadCount() {
+        // Scanning is mostly waiting for the disk, more threads would
+        // just compete for it.
+        return Math.min(Runtime.getRuntime().availableProcessors(), 4);
+    }
+
     public static SingleNodeFactory tryCreateSourceGroupNodeFactory(NamedSourceRoot root) {
         SourceGroup group = tryCreateSourceGroup(root);
         return group != null ? createSourceGroupNodeFactory(root, group) : null;
@@ -84,7 +103,7 @@ public final class GradleProjectSources implements Sources, JavaModelChangeListe
     public static SourceGroup tryCreateSourceGroup(NamedSourceRoot root) {
         File sourceDir = root.getRoot();
 
-        if (sourceDir.isDirectory()) {
+        if (Files.isDirectory(sourceDir.toPath())) {
             FileObject groupRoot = FileUtil.toFileObject(sourceDir);
             if (groupRoot != null) {
                 return new GradleSourceGroup(groupRoot, root.getDisplayName(), root.getIncludeRules());
@@ -96,7 +115,7 @@ public final class GradleProjectSources implements Sources, JavaModelChangeListe
     public static SourceGroup tryCreateSourceGroup(NbListedDir root) {
         File sourceDir = root.getDirectory();
 
-        if (sourceDir.isDirectory()) {
+        if (Files.isDirectory(sourceDir.toPath())) {
             FileObject groupRoot = FileUtil.toFileObject(sourceDir);
             if (groupRoot != null) {
                 return new GradleSourceGroup(groupRoot, root.getName());
@@ -274,6 +293,7 @@ public final class GradleProjectSources implements Sources, JavaModelChangeListe
         private final String displayName;
 
         private final AtomicReference<Path> locationPathRef;
+        private final Map<FileObject, DirectoryVerdict> directoryVerdicts;
 
         public GradleSourceGroup(FileObject location) {
             this(location, NbStrings.getSrcPackageCaption());
@@ -289,6 +309,7 @@ public final class GradleProjectSources implements Sources, JavaModelChangeListe
             this.displayName = displayName;
             this.changes = new PropertyChangeSupport(this);
             this.locationPathRef = new AtomicReference<>(null);
+            this.directoryVerdicts = Collections.synchronizedMap(new WeakHashMap<FileObject, DirectoryVerdict>());
         }
 
         public Path getRootPath() {
@@ -329,11 +350,21 @@ public final class GradleProjectSources implements Sources, JavaModelChangeListe
                 return true;
             }
 
-            boolean result = includeRules.isIncluded(rootPath, file);
-            // Directories are always allowed because otherwise
-            // package view might skip the entire directory, regardless that
-            // it might contain included sub directories.
-            return result || file.isFolder();
+            return includeRules.isIncluded(rootPath, file);
+        }
+
+        private DirectoryVerdict getDirectoryVerdict(FileObject dir) {
+            String dirPath = dir.getPath();
+
+            DirectoryVerdict verdict = directoryVerdicts.get(dir);
+            // The path of a directory changes when it (or one of its
+            // parents) is renamed, in which case the verdict might be stale.
+            if (verdict == null || !verdict.dirPath.equals(dirPath)) {
+                boolean inRoot = dir == location || FileUtil.isParentOf(location, dir);
+                verdict = new DirectoryVerdict(dirPath, inRoot);
+                directoryVerdicts.put(dir, verdict);
+            }
+            return verdict;
         }
 
         @Override
@@ -342,11 +373,31 @@ public final class GradleProjectSources implements Sources, JavaModelChangeListe
                 return true;
             }
 
-            if (FileUtil.getRelativePath(location, file) == null) {
+            FileObject parent = file.getParent();
+            if (parent == null) {
+                return false;
+            }
+
+            DirectoryVerdict dirVerdict = getDirectoryVerdict(parent);
+            if (!dirVerdict.inRoot) {
                 return false;
             }
 
-            return rulesAllow(file);
+            if (includeRules.isAllowAll()) {
+                return true;
+            }
+
+            String name = file.getNameExt();
+            Boolean included = dirVerdict.fileVerdicts.get(name);
+            if (included == null) {
+                included = rulesAllow(file);
+                dirVerdict.fileVerdicts.put(name, included);
+            }
+
+            // Directories are always allowed because otherwise
+            // package view might skip the entire directory, regardless that
+            // it might contain included sub directories.
+            return included || file.isFolder();
         }
 
         @Override
@@ -364,4 +415,16 @@ public final class GradleProjectSources implements Sources, JavaModelChangeListe
             return "GradleSources.Group[name=" + getName() + ",rootFolder=" + getRootFolder() + "]";
         }
     }
+
+    private static final class DirectoryVerdict {
+        public final String dirPath;
+        public final boolean inRoot;
+        public final ConcurrentMap<String, Boolean> fileVerdicts;
+
+        public DirectoryVerdict(String dirPath, boolean inRoot) {
+            this.dirPath = dirPath;
+            this.inRoot = inRoot;
+            this.fileVerdicts = new ConcurrentHashMap<>();
+        }
+    }
 }
@@ -6,15 +6,12 @@ import java.util.Arrays;
 import java.util.List;
 import javax.swing.event.ChangeListener;
 import org.jtrim.utils.ExceptionHelper;
-import org.netbeans.gradle.model.java.JavaOutputDirs;
-import org.netbeans.gradle.model.java.JavaSourceGroup;
-import org.netbeans.gradle.model.java.JavaSourceSet;
 import org.netbeans.gradle.project.java.JavaExtension;
 import org.netbeans.gradle.project.java.JavaModelChangeListener;
+import org.netbeans.gradle.project.java.model.JavaSourceRootIndex;
 import org.netbeans.gradle.project.java.model.NbJavaModule;
 import org.netbeans.gradle.project.query.AbstractSourceForBinaryQuery;
 import org.netbeans.gradle.project.util.LazyChangeSupport;
-import org.netbeans.gradle.project.util.NbFileUtils;
 import org.netbeans.gradle.project.util.NbSupplier;
 import org.netbeans.spi.java.queries.SourceForBinaryQueryImplementation2;
 import org.openide.filesystems.FileObject;
@@ -62,37 +59,14 @@ implements
         this.changes = LazyChangeSupport.createSwing(new EventSource());
     }
 
-    private static List<File> tryGetSourceRoots(NbJavaModule module, File binaryRoot) {
-        List<JavaSourceSet> jarSources = module.getSourceSetsForJarOutput(binaryRoot);
-        if (!jarSources.isEmpty()) {
-            List<File> result = new ArrayList<>();
-            for (JavaSourceSet sourceSet: module.getSources()) {
-                for (JavaSourceGroup sourceGroup: sourceSet.getSourceGroups()) {
-                    result.addAll(sourceGroup.getSourceRoots());
-                }
-            }
-            return result;
-        }
-
-        for (JavaSourceSet sourceSet: module.getSources()) {
-            JavaOutputDirs outputDirs = sourceSet.getOutputDirs();
-            if (outputDirs.getClassesDirs().contains(binaryRoot)) {
-                List<File> result = new ArrayList<>();
-
-                for (JavaSourceGroup sourceGroup: sourceSet.getSourceGroups()) {
-                    result.addAll(sourceGroup.getSourceRoots());
-                }
-
-                return result;
-            }
-        }
-        return null;
+    private JavaSourceRootIndex getIndex() {
+        return moduleProvider.get().getSourceRootIndex();
     }
 
     private static FileObject[] getSourceRoots(
-            NbJavaModule module, File binaryRoot) {
+            JavaSourceRootIndex index, File binaryRoot) {
 
-        List<File> srcRoots = tryGetSourceRoots(module, binaryRoot);
+        List<File> srcRoots = index.tryGetSourceRootsOfBinary(binaryRoot);
         if (srcRoots == null) {
             return NO_ROOTS;
         }
@@ -116,28 +90,14 @@ implements
 
     @Override
     protected File normalizeBinaryPath(File binaryRoot) {
-        NbJavaModule mainModule = moduleProvider.get();
-
-        // Is Jar output?
-        if (!mainModule.getSourceSetsForJarOutput(binaryRoot).isEmpty()) {
-            return binaryRoot;
-        }
-
-        for (JavaSourceSet sourceSet: mainModule.getSources()) {
-            JavaOutputDirs outputDirs = sourceSet.getOutputDirs();
-            for (File classesDir: outputDirs.getClassesDirs()) {
-                if (NbFileUtils.isParentOrSame(classesDir, binaryRoot)) {
-                    return classesDir;
-                }
-            }
-        }
-        return null;
+        // Jar outputs are only matched exactly, class directories are also
+        // matched for files within them.
+        return getIndex().tryNormalizeBinaryPath(binaryRoot);
     }
 
     @Override
     protected Result tryFindSourceRoot(final File binaryRoot) {
-        NbJavaModule mainModule = moduleProvider.get();
-        if (tryGetSourceRoots(mainModule, binaryRoot) == null) {
+        if (getIndex().tryGetSourceRootsOfBinary(binaryRoot) == null) {
             return null;
         }
 
@@ -149,9 +109,7 @@ implements
 
             @Override
             public FileObject[] getRoots() {
-                NbJavaModule mainModule = moduleProvider.get();
-
-                return getSourceRoots(mainModule, binaryRoot);
+                return getSourceRoots(getIndex(), binaryRoot);
             }
 
             @Override
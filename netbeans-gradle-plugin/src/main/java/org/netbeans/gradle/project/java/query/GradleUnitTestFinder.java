@@ -2,16 +2,11 @@ package org.netbeans.gradle.project.java.query;
 
 import java.io.File;
 import java.net.URL;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
 import org.jtrim.utils.ExceptionHelper;
-import org.netbeans.gradle.model.java.JavaSourceGroup;
-import org.netbeans.gradle.model.java.JavaSourceSet;
 import org.netbeans.gradle.project.java.JavaExtension;
+import org.netbeans.gradle.project.java.model.JavaSourceRootIndex;
 import org.netbeans.gradle.project.java.model.NbJavaModel;
 import org.netbeans.gradle.project.java.model.NbJavaModule;
-import org.netbeans.gradle.project.util.UrlFactory;
 import org.netbeans.spi.java.queries.MultipleRootsUnitTestForSourceQueryImplementation;
 import org.openide.filesystems.FileObject;
 import org.openide.filesystems.FileUtil;
@@ -24,54 +19,22 @@ public final class GradleUnitTestFinder implements MultipleRootsUnitTestForSourc
         this.javaExt = javaExt;
     }
 
-    private static boolean hasSource(NbJavaModule module, FileObject source) {
-        for (JavaSourceSet sourceSet: module.getNonTestSourceSets()) {
-            for (JavaSourceGroup sourceGroup: sourceSet.getSourceGroups()) {
-                for (File sourceRoot: sourceGroup.getSourceRoots()) {
-                    FileObject sourceRootObj = FileUtil.toFileObject(sourceRoot);
-                    if (sourceRootObj != null && FileUtil.getRelativePath(sourceRootObj, source) != null) {
-                        return true;
-                    }
-                }
-            }
-        }
-
-        return false;
-    }
-
-    private static URL[] urlsFromSourceSets(Collection<JavaSourceSet> sourceSets) {
-        UrlFactory urlFactory = UrlFactory.getDefaultArchiveOrDirFactory();
-
-        List<URL> result = new ArrayList<>();
-        for (JavaSourceSet sourceSet: sourceSets) {
-            for (JavaSourceGroup sourceGroup: sourceSet.getSourceGroups()) {
-                for (File sourceRoot: sourceGroup.getSourceRoots()) {
-                    URL url = urlFactory.toUrl(sourceRoot);
-                    if (url != null) {
-                        result.add(url);
-                    }
-                }
-            }
-        }
-
-        return result.toArray(new URL[result.size()]);
-    }
-
-    private static URL[] getSourceRoots(NbJavaModule module) {
-        return urlsFromSourceSets(module.getNonTestSourceSets());
+    private static boolean hasSource(JavaSourceRootIndex index, FileObject source) {
+        File sourceFile = FileUtil.toFile(source);
+        return sourceFile != null && index.isInNonTestSources(sourceFile);
     }
 
-    private static URL[] getTestRoots(NbJavaModule module) {
-        return urlsFromSourceSets(module.getTestSourceSets());
+    private JavaSourceRootIndex getSourceRootIndex() {
+        NbJavaModel projectModel = javaExt.getCurrentModel();
+        NbJavaModule mainModule = projectModel.getMainModule();
+        return mainModule.getSourceRootIndex();
     }
 
     @Override
     public URL[] findUnitTests(FileObject source) {
-        NbJavaModel projectModel = javaExt.getCurrentModel();
-
-        NbJavaModule mainModule = projectModel.getMainModule();
-        if (hasSource(mainModule, source)) {
-            return getTestRoots(mainModule);
+        JavaSourceRootIndex index = getSourceRootIndex();
+        if (hasSource(index, source)) {
+            return index.getTestRootUrls().clone();
         }
 
         return null;
@@ -79,11 +42,9 @@ public final class GradleUnitTestFinder implements MultipleRootsUnitTestForSourc
 
     @Override
     public URL[] findSources(FileObject unitTest) {
-        NbJavaModel projectModel = javaExt.getCurrentModel();
-
-        NbJavaModule mainModule = projectModel.getMainModule();
-        if (!hasSource(mainModule, unitTest)) {
-            return getSourceRoots(mainModule);
+        JavaSourceRootIndex index = getSourceRootIndex();
+        if (!hasSource(index, unitTest)) {
+            return index.getNonTestRootUrls().clone();
         }
 
         return null;
@@ -0,0 +1,137 @@
+package org.netbeans.gradle.project.java.query;
+
+import java.io.File;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.swing.event.ChangeListener;
+import org.jtrim.utils.ExceptionHelper;
+import org.netbeans.api.java.queries.BinaryForSourceQuery;
+import org.netbeans.gradle.project.query.AbstractBinaryForSourceQuery;
+import org.netbeans.gradle.project.util.LazyChangeSupport;
+import org.netbeans.spi.java.queries.BinaryForSourceQueryImplementation;
+import org.openide.util.Utilities;
+import org.openide.util.lookup.ServiceProvider;
+import org.openide.util.lookup.ServiceProviders;
+
+/**
+ * Finds the class directories of the source roots of every opened project
+ * with a single lookup in the {@link OutputSourceIndex shared index}.
+ */
+@ServiceProviders({@ServiceProvider(service = BinaryForSourceQueryImplementation.class, position = 60)})
+public final class OpenedProjectsBinaryForSourceQuery extends AbstractBinaryForSourceQuery {
+    private static final Logger LOGGER = Logger.getLogger(OpenedProjectsBinaryForSourceQuery.class.getName());
+
+    private static final URL[] NO_ROOTS = new URL[0];
+
+    private final OutputSourceIndex index;
+    private final LazyChangeSupport changes;
+
+    public OpenedProjectsBinaryForSourceQuery() {
+        this(OutputSourceIndex.getDefault());
+    }
+
+    public OpenedProjectsBinaryForSourceQuery(OutputSourceIndex index) {
+        ExceptionHelper.checkNotNullArgument(index, "index");
+
+        this.index = index;
+        this.changes = LazyChangeSupport.createSwing(new EventSource());
+
+        index.addChangeListener(new Runnable() {
+            @Override
+            public void run() {
+                changes.fireChange();
+            }
+        });
+    }
+
+    private static URL toUrl(File file) {
+        try {
+            return Utilities.toURI(file).toURL();
+        } catch (MalformedURLException ex) {
+            LOGGER.log(Level.INFO, "Cannot convert to URL: " + file, ex);
+            return null;
+        }
+    }
+
+    private URL[] getRootsAsURLs(File sourceRoot) {
+        List<File> outputDirs = index.getOutputDirsOfSourceRoot(sourceRoot);
+        if (outputDirs.isEmpty()) {
+            return NO_ROOTS;
+        }
+
+        List<URL> result = new ArrayList<>(outputDirs.size());
+        for (File outputDir: outputDirs) {
+            URL url = toUrl(outputDir);
+            if (url != null) {
+                result.add(url);
+            }
+        }
+        return result.toArray(new URL[result.size()]);
+    }
+
+    @Override
+    protected File normalizeSourcePath(File sourcePath) {
+        return index.tryNormalizeSourcePath(sourcePath);
+    }
+
+    @Override
+    protected BinaryForSourceQuery.Result tryFindBinaryRoots(final File sourceRoot) {
+        // If source path normalization succeeds, it is a source root of an
+        // opened project.
+
+        return new BinaryForSourceQuery.Result() {
+            @Override
+            public URL[] getRoots() {
+                return getRootsAsURLs(sourceRoot);
+            }
+
+            @Override
+            public void addChangeListener(ChangeListener listener) {
+                changes.addChangeListener(listener);
+            }
+
+            @Override
+            public void removeChangeListener(ChangeListener listener) {
+                changes.removeChangeListener(listener);
+            }
+
+            @Override
+            public String toString() {
+                return Arrays.toString(getRoots());
+            }
+        };
+    }
+
+    private static final class EventSource
+    implements
+            BinaryForSourceQuery.Result,
+            LazyChangeSupport.Source {
+        private volatile LazyChangeSupport changes;
+
+        @Override
+        public void init(LazyChangeSupport changes) {
+            assert changes != null;
+            this.changes = changes;
+        }
+
+        @Override
+        public URL[] getRoots() {
+            return NO_ROOTS;
+        }
+
+        @Override
+        public void addChangeListener(ChangeListener l) {
+            changes.addChangeListener(l);
+        }
+
+        @Override
+        public void removeChangeListener(ChangeListener l) {
+            changes.removeChangeListener(l);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package org.netbeans.gradle.project.java.query;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.swing.event.ChangeListener;
+import org.jtrim.utils.ExceptionHelper;
+import org.netbeans.gradle.project.query.AbstractSourceForBinaryQuery;
+import org.netbeans.gradle.project.util.LazyChangeSupport;
+import org.netbeans.spi.java.queries.SourceForBinaryQueryImplementation;
+import org.netbeans.spi.java.queries.SourceForBinaryQueryImplementation2;
+import org.openide.filesystems.FileObject;
+import org.openide.filesystems.FileUtil;
+import org.openide.util.lookup.ServiceProvider;
+import org.openide.util.lookup.ServiceProviders;
+
+/**
+ * Finds the source roots of the build outputs of every opened project with a
+ * single lookup in the {@link OutputSourceIndex shared index}, so that
+ * NetBeans does not have to find the owner project of a build output (e.g.,
+ * a jar outside the directory of the project) and ask it.
+ */
+@ServiceProviders({
+    @ServiceProvider(service = SourceForBinaryQueryImplementation2.class, position = 60),
+    @ServiceProvider(service = SourceForBinaryQueryImplementation.class, position = 60)})
+public final class OpenedProjectsSourceForBinaryQuery extends AbstractSourceForBinaryQuery {
+    private static final FileObject[] NO_ROOTS = new FileObject[0];
+
+    private final OutputSourceIndex index;
+    private final LazyChangeSupport changes;
+
+    public OpenedProjectsSourceForBinaryQuery() {
+        this(OutputSourceIndex.getDefault());
+    }
+
+    public OpenedProjectsSourceForBinaryQuery(OutputSourceIndex index) {
+        ExceptionHelper.checkNotNullArgument(index, "index");
+
+        this.index = index;
+        this.changes = LazyChangeSupport.createSwing(new EventSource());
+
+        index.addChangeListener(new Runnable() {
+            @Override
+            public void run() {
+                changes.fireChange();
+            }
+        });
+    }
+
+    private FileObject[] getSourceRoots(File binaryRoot) {
+        List<File> srcRoots = index.tryGetSourceRootsOfBinary(binaryRoot);
+        if (srcRoots == null) {
+            return NO_ROOTS;
+        }
+
+        List<FileObject> result = new ArrayList<>(srcRoots.size());
+        for (File srcRoot: srcRoots) {
+            FileObject rootObj = FileUtil.toFileObject(srcRoot);
+            if (rootObj != null) {
+                result.add(rootObj);
+            }
+        }
+
+        return result.toArray(new FileObject[result.size()]);
+    }
+
+    @Override
+    protected File normalizeBinaryPath(File binaryRoot) {
+        return index.tryNormalizeBinaryPath(binaryRoot);
+    }
+
+    @Override
+    protected Result tryFindSourceRoot(final File binaryRoot) {
+        if (index.tryGetSourceRootsOfBinary(binaryRoot) == null) {
+            return null;
+        }
+
+        return new SourceForBinaryQueryImplementation2.Result() {
+            @Override
+            public boolean preferSources() {
+                return getRoots().length > 0;
+            }
+
+            @Override
+            public FileObject[] getRoots() {
+                return getSourceRoots(binaryRoot);
+            }
+
+            @Override
+            public void addChangeListener(ChangeListener listener) {
+                changes.addChangeListener(listener);
+            }
+
+            @Override
+            public void removeChangeListener(ChangeListener listener) {
+                changes.removeChangeListener(listener);
+            }
+
+            @Override
+            public String toString() {
+                return Arrays.toString(getRoots());
+            }
+        };
+    }
+
+    private static final class EventSource
+    implements
+            SourceForBinaryQueryImplementation2.Result,
+            LazyChangeSupport.Source {
+
+        private volatile LazyChangeSupport changes;
+
+        @Override
+        public void init(LazyChangeSupport changes) {
+            assert changes != null;
+            this.changes = changes;
+        }
+
+        @Override
+        public boolean preferSources() {
+            return true;
+        }
+
+        @Override
+        public FileObject[] getRoots() {
+            return NO_ROOTS;
+        }
+
+        @Override
+        public void addChangeListener(ChangeListener l) {
+            changes.addChangeListener(l);
+        }
+
+        @Override
+        public void removeChangeListener(ChangeListener l) {
+            changes.removeChangeListener(l);
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package org.netbeans.gradle.project.java.query;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import org.jtrim.collections.RefCollection;
+import org.jtrim.collections.RefLinkedList;
+import org.jtrim.collections.RefList;
+import org.jtrim.event.CopyOnTriggerListenerManager;
+import org.jtrim.event.EventListeners;
+import org.jtrim.event.ListenerManager;
+import org.jtrim.event.ListenerRef;
+import org.jtrim.property.PropertyFactory;
+import org.jtrim.property.PropertySource;
+import org.jtrim.property.ValueConverter;
+import org.jtrim.utils.ExceptionHelper;
+import org.netbeans.gradle.project.java.model.JavaSourceRootIndex;
+import org.netbeans.gradle.project.java.model.NbJavaModel;
+import org.netbeans.gradle.project.java.model.NbJavaModule;
+import org.netbeans.gradle.project.util.CloseableAction;
+
+/**
+ * Maps the build outputs (class directories and jars) and the source roots of
+ * the modules of every opened project to the modules owning them. A lookup
+ * only has to check the file and its parent directories, and then asks the
+ * {@link JavaSourceRootIndex} of the modules owning the found root, so the
+ * binary and source queries of all opened projects are answered without
+ * asking each project.
+ * <P>
+ * Projects register their current module while they are opened (see
+ * {@link #forProject(PropertySource) forProject}). Registering or
+ * unregistering a module only invalidates the map, which is then rebuilt on
+ * the next lookup. So loading the models of many projects in a row does not
+ * rebuild the map for each of them.
+ * <P>
+ * Instances of this class are safe to be accessed from multiple threads
+ * concurrently.
+ */
+public final class OutputSourceIndex {
+    private static final OutputSourceIndex DEFAULT = new OutputSourceIndex();
+
+    private final Lock mainLock;
+    private final RefList<JavaSourceRootIndex> modules;
+    private final AtomicReference<RootsSnapshot> snapshotRef;
+    private final ListenerManager<Runnable> changeListeners;
+
+    public OutputSourceIndex() {
+        this.mainLock = new ReentrantLock();
+        this.modules = new RefLinkedList<>();
+        this.snapshotRef = new AtomicReference<>(null);
+        this.changeListeners = new CopyOnTriggerListenerManager<>();
+    }
+
+    public static OutputSourceIndex getDefault() {
+        return DEFAULT;
+    }
+
+    public PropertySource<CloseableAction> forProject(PropertySource<? extends NbJavaModel> currentModel) {
+        return PropertyFactory.convert(currentModel, new ValueConverter<NbJavaModel, CloseableAction>() {
+            @Override
+            public CloseableAction convert(final NbJavaModel input) {
+                return new CloseableAction() {
+                    @Override
+                    public CloseableAction.Ref open() {
+                        return registerModule(input.getMainModule());
+                    }
+                };
+            }
+        });
+    }
+
+    public CloseableAction.Ref registerModule(NbJavaModule module) {
+        ExceptionHelper.checkNotNullArgument(module, "module");
+
+        final RefCollection.ElementRef<JavaSourceRootIndex> elementRef;
+        mainLock.lock();
+        try {
+            elementRef = modules.addGetReference(module.getSourceRootIndex());
+            snapshotRef.set(null);
+        } finally {
+            mainLock.unlock();
+        }
+        fireChange();
+
+        return new CloseableAction.Ref() {
+            @Override
+            public void close() {
+                mainLock.lock();
+                try {
+                    if (elementRef.isRemoved()) {
+                        return;
+                    }
+                    elementRef.remove();
+                    snapshotRef.set(null);
+                } finally {
+                    mainLock.unlock();
+                }
+                fireChange();
+            }
+        };
+    }
+
+    /**
+     * Registers a listener to be notified after a module has been registered
+     * or unregistered. The listener might be called from any thread.
+     *
+     * @param listener the listener to be notified. This argument cannot be
+     *   {@code null}.
+     * @return the reference which can be used to unregister the listener.
+     *   This method never returns {@code null}.
+     */
+    public ListenerRef addChangeListener(Runnable listener) {
+        return changeListeners.registerListener(listener);
+    }
+
+    private void fireChange() {
+        EventListeners.dispatchRunnable(changeListeners);
+    }
+
+    private RootsSnapshot getSnapshot() {
+        RootsSnapshot result = snapshotRef.get();
+        if (result == null) {
+            mainLock.lock();
+            try {
+                result = snapshotRef.get();
+                if (result == null) {
+                    result = new RootsSnapshot(modules);
+                    snapshotRef.set(result);
+                }
+            } finally {
+                mainLock.unlock();
+            }
+        }
+        return result;
+    }
+
+    private static List<JavaSourceRootIndex> findOwners(
+            Map<File, List<JavaSourceRootIndex>> roots,
+            File file) {
+
+        List<JavaSourceRootIndex> result = null;
+        for (File current = file; current != null; current = current.getParentFile()) {
+            List<JavaSourceRootIndex> owners = roots.get(current);
+            if (owners == null) {
+                continue;
+            }
+
+            if (result == null) {
+                result = new ArrayList<>(owners);
+            }
+            else {
+                for (JavaSourceRootIndex owner: owners) {
+                    if (!result.contains(owner)) {
+                        result.add(owner);
+                    }
+                }
+            }
+        }
+        return result != null ? result : Collections.<JavaSourceRootIndex>emptyList();
+    }
+
+    private static List<JavaSourceRootIndex> findExactOwners(
+            Map<File, List<JavaSourceRootIndex>> roots,
+            File root) {
+
+        List<JavaSourceRootIndex> result = roots.get(root);
+        return result != null ? result : Collections.<JavaSourceRootIndex>emptyList();
+    }
+
+    /**
+     * Returns the jar or class directory of a registered module containing the
+     * given file. Jars are only matched exactly.
+     *
+     * @param binaryPath the file to be checked. This argument cannot be
+     *   {@code null}.
+     * @return the jar or class directory containing the given file, or
+     *   {@code null} if the file is not a build output of a registered module
+     */
+    public File tryNormalizeBinaryPath(File binaryPath) {
+        ExceptionHelper.checkNotNullArgument(binaryPath, "binaryPath");
+
+        for (JavaSourceRootIndex owner: findOwners(getSnapshot().binaryRoots, binaryPath)) {
+            File result = owner.tryNormalizeBinaryPath(binaryPath);
+            if (result != null) {
+                return result;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the source roots compiled into the given jar or class directory
+     * of a registered module.
+     *
+     * @param binaryRoot the jar or class directory. This argument cannot be
+     *   {@code null}.
+     * @return the source roots compiled into the given jar or class
+     *   directory, or {@code null} if the given file is not a build output of
+     *   a registered module
+     */
+    public List<File> tryGetSourceRootsOfBinary(File binaryRoot) {
+        ExceptionHelper.checkNotNullArgument(binaryRoot, "binaryRoot");
+
+        for (JavaSourceRootIndex owner: findExactOwners(getSnapshot().binaryRoots, binaryRoot)) {
+            List<File> result = owner.tryGetSourceRootsOfBinary(binaryRoot);
+            if (result != null) {
+                return result;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the source root of a registered module containing the given
+     * file.
+     *
+     * @param sourcePath the file to be checked. This argument cannot be
+     *   {@code null}.
+     * @return the source root containing the given file, or {@code null} if
+     *   the file is not within a source root of a registered module
+     */
+    public File tryNormalizeSourcePath(File sourcePath) {
+        ExceptionHelper.checkNotNullArgument(sourcePath, "sourcePath");
+
+        for (JavaSourceRootIndex owner: findOwners(getSnapshot().sourceRoots, sourcePath)) {
+            File result = owner.tryNormalizeSourcePath(sourcePath);
+            if (result != null) {
+                return result;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the class directories of the source set of the given source
+     * root of a registered module.
+     *
+     * @param sourceRoot the source root. This argument cannot be
+     *   {@code null}.
+     * @return the class directories of the source set of the given source
+     *   root. This method never returns {@code null} but returns an empty
+     *   collection if the given file is not a source root of a registered
+     *   module.
+     */
+    public List<File> getOutputDirsOfSourceRoot(File sourceRoot) {
+        ExceptionHelper.checkNotNullArgument(sourceRoot, "sourceRoot");
+
+        List<JavaSourceRootIndex> owners = findExactOwners(getSnapshot().sourceRoots, sourceRoot);
+        return owners.isEmpty()
+                ? Collections.<File>emptyList()
+                : owners.get(0).getOutputDirsOfSourceRoot(sourceRoot);
+    }
+
+    private static final class RootsSnapshot {
+        public final Map<File, List<JavaSourceRootIndex>> binaryRoots;
+        public final Map<File, List<JavaSourceRootIndex>> sourceRoots;
+
+        public RootsSnapshot(Iterable<JavaSourceRootIndex> modules) {
+            this.binaryRoots = new HashMap<>();
+            this.sourceRoots = new HashMap<>();
+
+            for (JavaSourceRootIndex module: modules) {
+                addRoots(binaryRoots, module.getBinaryRoots(), module);
+                addRoots(sourceRoots, module.getSourceRoots(), module);
+            }
+        }
+
+        private static void addRoots(
+                Map<File, List<JavaSourceRootIndex>> result,
+                Iterable<File> roots,
+                JavaSourceRootIndex owner) {
+
+            for (File root: roots) {
+                List<JavaSourceRootIndex> owners = result.get(root);
+                if (owners == null) {
+                    owners = new ArrayList<>(1);
+                    result.put(root, owners);
+                }
+                if (!owners.contains(owner)) {
+                    owners.add(owner);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package org.netbeans.gradle.project.java.query;
+
+import java.io.File;
+import java.net.URL;
+import java.util.Objects;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import org.jtrim.utils.ExceptionHelper;
+import org.netbeans.gradle.project.properties.WeakValueHashMap;
+import org.netbeans.gradle.project.util.FileGroupFilter;
+import org.netbeans.gradle.project.util.UrlFactory;
+import org.netbeans.spi.java.classpath.PathResourceImplementation;
+import org.netbeans.spi.java.classpath.support.ClassPathSupport;
+
+/**
+ * Shares the {@code PathResourceImplementation} instances of class path
+ * entries between the class paths of all projects. A resource is kept until
+ * no class path refers to it anymore. The shared resources are immutable, so
+ * they can be used in any number of class paths.
+ */
+final class PathResourcePool {
+    private static final PathResourcePool DEFAULT = new PathResourcePool();
+
+    private final Lock resourcesLock;
+    private final WeakValueHashMap<ResourceKey, PathResourceImplementation> resources;
+
+    public PathResourcePool() {
+        this.resourcesLock = new ReentrantLock();
+        this.resources = new WeakValueHashMap<>();
+    }
+
+    public static PathResourcePool getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Returns the resource for the given class path entry.
+     *
+     * @param root the class path entry. This argument cannot be {@code null}.
+     * @param includeRules the rules defining which files of the class path
+     *   entry are part of the class path. This argument cannot be {@code null}.
+     * @param urlFactory the factory creating the URL of a new resource. This
+     *   argument cannot be {@code null}.
+     * @return the resource for the given class path entry or {@code null} if
+     *   no URL can be created for the given entry
+     */
+    public PathResourceImplementation tryGetResource(
+            File root,
+            FileGroupFilter includeRules,
+            UrlFactory urlFactory) {
+        ExceptionHelper.checkNotNullArgument(root, "root");
+        ExceptionHelper.checkNotNullArgument(includeRules, "includeRules");
+        ExceptionHelper.checkNotNullArgument(urlFactory, "urlFactory");
+
+        ResourceKey key = new ResourceKey(root, includeRules);
+
+        PathResourceImplementation result;
+        resourcesLock.lock();
+        try {
+            result = resources.get(key);
+        } finally {
+            resourcesLock.unlock();
+        }
+
+        if (result != null) {
+            return result;
+        }
+
+        result = tryCreateResource(root, includeRules, urlFactory);
+        if (result == null) {
+            return null;
+        }
+
+        resourcesLock.lock();
+        try {
+            PathResourceImplementation prevResult = resources.get(key);
+            if (prevResult != null) {
+                return prevResult;
+            }
+
+            resources.put(key, result);
+        } finally {
+            resourcesLock.unlock();
+        }
+        return result;
+    }
+
+    private static PathResourceImplementation tryCreateResource(
+            File root,
+            FileGroupFilter includeRules,
+            UrlFactory urlFactory) {
+        if (includeRules.isAllowAll()) {
+            URL url = urlFactory.toUrl(root);
+            return url != null ? ClassPathSupport.createResource(url) : null;
+        }
+        else {
+            return ExcludeAwarePathResource.tryCreate(root, includeRules, urlFactory);
+        }
+    }
+
+    private static final class ResourceKey {
+        private final File root;
+        private final FileGroupFilter includeRules;
+
+        public ResourceKey(File root, FileGroupFilter includeRules) {
+            this.root = root;
+            // Every "allow all" rule is equivalent.
+            this.includeRules = includeRules.isAllowAll() ? null : includeRules;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = 7;
+            hash = 59 * hash + root.hashCode();
+            hash = 59 * hash + Objects.hashCode(includeRules);
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) return true;
+            if (obj == null) return false;
+            if (getClass() != obj.getClass()) return false;
+
+            final ResourceKey other = (ResourceKey)obj;
+            return root.equals(other.root)
+                    && Objects.equals(includeRules, other.includeRules);
+        }
+    }
+}
@@ -348,15 +348,14 @@ public final class ProjectClassPathResourceBuilder {
 
 
     private static PathResourceImplementation toPathResource(File file, UrlFactory urlForArchiveFactory) {
-        URL url = urlForArchiveFactory.toUrl(file);
-        return url != null ? ClassPathSupport.createResource(url) : null;
+        return toPathResource(file, ExcludeIncludeRules.ALLOW_ALL, urlForArchiveFactory);
     }
 
     private static PathResourceImplementation toPathResource(
             File file,
             FileGroupFilter includeRules,
             UrlFactory urlForArchiveFactory) {
-        return ExcludeAwarePathResource.tryCreate(file, includeRules, urlForArchiveFactory);
+        return PathResourcePool.getDefault().tryGetResource(file, includeRules, urlForArchiveFactory);
     }
 
     private static List<PathResourceImplementation> getPathResources(
@@ -376,14 +375,10 @@ public final class ProjectClassPathResourceBuilder {
             Set<File> invalid,
             FileGroupFilter includeRules) {
 
-        boolean allowAll = includeRules.isAllowAll();
-
         UrlFactory urlFactory = UrlFactory.getDefaultArchiveOrDirFactory();
         List<PathResourceImplementation> result = new ArrayList<>(files.size());
         for (File file: asSet(files)) {
-            PathResourceImplementation pathResource = allowAll
-                    ? toPathResource(file, urlFactory)
-                    : toPathResource(file, includeRules, urlFactory);
+            PathResourceImplementation pathResource = toPathResource(file, includeRules, urlFactory);
             // Ignore invalid classpath entries
             if (pathResource != null) {
                 result.add(pathResource);
@@ -4,13 +4,17 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.WeakHashMap;
 import java.util.logging.Logger;
+import org.gradle.tooling.events.OperationType;
+import org.gradle.tooling.events.ProgressListener;
 import org.gradle.util.GradleVersion;
 import org.jtrim.cancel.Cancellation;
 import org.jtrim.cancel.CancellationSource;
@@ -30,18 +34,23 @@ import org.netbeans.gradle.project.api.task.ContextAwareCommandAction;
 import org.netbeans.gradle.project.api.task.ContextAwareCommandCompleteAction;
 import org.netbeans.gradle.project.api.task.ContextAwareCommandCompleteListener;
 import org.netbeans.gradle.project.api.task.ContextAwareCommandFinalizer;
+import org.netbeans.gradle.project.api.task.ContextAwareGradleTargetVerifier;
+import org.netbeans.gradle.project.api.task.ContextAwareProgressListenerAction;
 import org.netbeans.gradle.project.api.task.CustomCommandActions;
 import org.netbeans.gradle.project.api.task.ExecutedCommandContext;
 import org.netbeans.gradle.project.api.task.GradleCommandTemplate;
 import org.netbeans.gradle.project.api.task.GradleTargetVerifier;
 import org.netbeans.gradle.project.api.task.SingleExecutionOutputProcessor;
+import org.netbeans.gradle.project.api.task.SingleExecutionProgressListener;
 import org.netbeans.gradle.project.api.task.TaskKind;
 import org.netbeans.gradle.project.api.task.TaskOutputProcessor;
 import org.netbeans.gradle.project.api.task.TaskVariable;
 import org.netbeans.gradle.project.api.task.TaskVariableMap;
 import org.netbeans.gradle.project.java.JavaExtension;
+import org.netbeans.gradle.project.java.JavaRuntimeClassPathLoader;
 import org.netbeans.gradle.project.java.model.NbJavaModule;
 import org.netbeans.gradle.project.java.properties.DebugMode;
+import org.netbeans.gradle.project.java.test.TestProgressDisplayer;
 import org.netbeans.gradle.project.java.test.TestTaskName;
 import org.netbeans.gradle.project.java.test.TestXmlDisplayer;
 import org.netbeans.gradle.project.output.DebugTextListener;
@@ -49,6 +58,7 @@ import org.netbeans.gradle.project.tasks.AttacherListener;
 import org.netbeans.gradle.project.tasks.DebugUtils;
 import org.netbeans.gradle.project.tasks.vars.StandardTaskVariable;
 import org.netbeans.gradle.project.util.GradleVersions;
+import org.netbeans.gradle.project.util.NbFunction;
 import org.netbeans.gradle.project.view.GlobalErrorReporter;
 import org.netbeans.spi.project.ActionProvider;
 import org.netbeans.spi.project.SingleMethod;
@@ -513,11 +523,13 @@ public final class GradleJavaBuiltInCommands implements BuiltInGradleCommandQuer
     private static ContextAwareCommandCompleteListener displayTestResults(
             final Project project,
             final JavaExtension javaExt,
-            final Lookup startContext) {
+            final Lookup startContext,
+            final LiveTestDisplayers liveDisplayers) {
         return new ContextAwareCommandCompleteListener() {
             @Override
             public void onComplete(ExecutedCommandContext executedCommandContext, Throwable error) {
-                displayTestReports(project, javaExt, executedCommandContext, startContext, error);
+                TestProgressDisplayer liveDisplayer = liveDisplayers.removeDisplayer(startContext);
+                displayTestReports(project, javaExt, executedCommandContext, startContext, liveDisplayer, error);
             }
         };
     }
@@ -535,11 +547,16 @@ public final class GradleJavaBuiltInCommands implements BuiltInGradleCommandQuer
             JavaExtension javaExt,
             ExecutedCommandContext executedCommandContext,
             Lookup startContext,
+            TestProgressDisplayer liveDisplayer,
             Throwable error) {
 
         List<String> testNames = getTestNames(javaExt, executedCommandContext);
 
         for (String testName: testNames) {
+            if (liveDisplayer != null && liveDisplayer.completeLiveResults(testName)) {
+                continue;
+            }
+
             TestXmlDisplayer xmlDisplayer = new TestXmlDisplayer(project, testName);
             if (!xmlDisplayer.displayReport(startContext)) {
                 if (error == null) {
@@ -547,13 +564,53 @@ public final class GradleJavaBuiltInCommands implements BuiltInGradleCommandQuer
                 }
             }
         }
+
+        if (liveDisplayer != null) {
+            liveDisplayer.completeRemainingLiveResults();
+        }
     }
 
-    private static ContextAwareCommandCompleteAction displayTestAction(final JavaExtension javaExt) {
+    private static ContextAwareCommandCompleteAction displayTestAction(
+            final JavaExtension javaExt,
+            final LiveTestDisplayers liveDisplayers) {
         return new ContextAwareCommandCompleteAction() {
             @Override
             public ContextAwareCommandCompleteListener startCommand(Project project, Lookup commandContext) {
-                return displayTestResults(project, javaExt, commandContext);
+                return displayTestResults(project, javaExt, commandContext, liveDisplayers);
+            }
+        };
+    }
+
+    private static NbFunction<String, String> testNameResolver(final JavaExtension javaExt) {
+        return new NbFunction<String, String>() {
+            @Override
+            public String apply(String taskPath) {
+                List<String> testNames = filterTestTaskNames(javaExt, Collections.singletonList(taskPath));
+                return testNames.isEmpty() ? null : testNames.get(0);
+            }
+        };
+    }
+
+    private static ContextAwareProgressListenerAction displayLiveTestAction(
+            final JavaExtension javaExt,
+            final LiveTestDisplayers liveDisplayers) {
+        return new ContextAwareProgressListenerAction() {
+            @Override
+            public SingleExecutionProgressListener startCommand(Project project, final Lookup commandContext) {
+                return new SingleExecutionProgressListener() {
+                    @Override
+                    public Set<OperationType> getOperationTypes() {
+                        return EnumSet.of(OperationType.TEST);
+                    }
+
+                    @Override
+                    public ProgressListener startExecution(Project project) {
+                        TestProgressDisplayer displayer
+                                = new TestProgressDisplayer(project, commandContext, testNameResolver(javaExt));
+                        liveDisplayers.setDisplayer(commandContext, displayer);
+                        return displayer;
+                    }
+                };
             }
         };
     }
@@ -562,7 +619,9 @@ public final class GradleJavaBuiltInCommands implements BuiltInGradleCommandQuer
         return new CustomCommandAdjuster() {
             @Override
             public void adjust(JavaExtension javaExt, CustomCommandActions.Builder customActions) {
-                customActions.setContextAwareFinalizer(displayTestAction(javaExt));
+                LiveTestDisplayers liveDisplayers = new LiveTestDisplayers();
+                customActions.setContextAwareProgressListener(displayLiveTestAction(javaExt, liveDisplayers));
+                customActions.setContextAwareFinalizer(displayTestAction(javaExt, liveDisplayers));
             }
         };
     }
@@ -591,6 +650,36 @@ public final class GradleJavaBuiltInCommands implements BuiltInGradleCommandQuer
         };
     }
 
+    private static CustomCommandAdjuster awaitRuntimeClassPaths() {
+        return new CustomCommandAdjuster() {
+            @Override
+            public void adjust(final JavaExtension javaExt, CustomCommandActions.Builder customActions) {
+                customActions.setContextAwareGradleTargetVerifier(new ContextAwareGradleTargetVerifier() {
+                    @Override
+                    public GradleTargetVerifier startCommand(Project project, Lookup commandContext) {
+                        if (!JavaRuntimeClassPathLoader.isLoadingRuntimeClassPaths(javaExt)) {
+                            return null;
+                        }
+
+                        // The verifier is called in the background right before
+                        // the command is executed, so it is a good place to
+                        // wait without blocking the caller of the action.
+                        return new GradleTargetVerifier() {
+                            @Override
+                            public boolean checkTaskExecutable(
+                                    GradleTarget gradleTarget,
+                                    OutputWriter output,
+                                    OutputWriter errOutput) {
+                                JavaRuntimeClassPathLoader.awaitRuntimeClassPaths(javaExt);
+                                return true;
+                            }
+                        };
+                    }
+                });
+            }
+        };
+    }
+
     private static SingleExecutionOutputProcessor attachDebuggerListener(
             final JavaExtension javaExt,
             CustomCommandActions.Builder customActions) {
@@ -736,6 +825,30 @@ public final class GradleJavaBuiltInCommands implements BuiltInGradleCommandQuer
         public CommandWithActions get(JavaExtension javaExt);
     }
 
+    /**
+     * Passes the {@link TestProgressDisplayer} listening for an execution of
+     * a command to the finalizer of the same execution. The listener and the
+     * finalizer of a command are both started with the same context, and the
+     * executions of a command are sequential.
+     */
+    private static final class LiveTestDisplayers {
+        private final Map<Lookup, TestProgressDisplayer> displayers;
+
+        public LiveTestDisplayers() {
+            // Weak keys, so that a context whose finalizer is never called
+            // does not keep its displayer forever.
+            this.displayers = Collections.synchronizedMap(new WeakHashMap<Lookup, TestProgressDisplayer>());
+        }
+
+        public void setDisplayer(Lookup commandContext, TestProgressDisplayer displayer) {
+            displayers.put(commandContext, displayer);
+        }
+
+        public TestProgressDisplayer removeDisplayer(Lookup commandContext) {
+            return displayers.remove(commandContext);
+        }
+    }
+
     private static final class CommandWithActions {
         private final TaskKind taskKind;
         private final GradleCommandTemplate command;
@@ -780,6 +893,16 @@ public final class GradleJavaBuiltInCommands implements BuiltInGradleCommandQuer
         }
 
         public CustomCommandActions getCustomActions(JavaExtension javaExt) {
+            if (taskKind == TaskKind.RUN || taskKind == TaskKind.DEBUG) {
+                // Running and debugging needs the runtime class paths (e.g.,
+                // for stepping into the sources of runtime dependencies).
+                JavaRuntimeClassPathLoader.loadRuntimeClassPathsIfNeeded(javaExt);
+
+                CustomCommandAdjuster[] adjusters = new CustomCommandAdjuster[customActions.length + 1];
+                System.arraycopy(customActions, 0, adjusters, 0, customActions.length);
+                adjusters[customActions.length] = awaitRuntimeClassPaths();
+                return createCustomActions(taskKind, javaExt, adjusters);
+            }
             return createCustomActions(taskKind, javaExt, customActions);
         }
     }
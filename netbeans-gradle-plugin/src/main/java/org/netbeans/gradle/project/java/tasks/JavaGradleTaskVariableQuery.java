@@ -7,12 +7,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicReference;
 import org.jtrim.utils.ExceptionHelper;
-import org.netbeans.gradle.model.java.JavaSourceGroup;
 import org.netbeans.gradle.model.java.JavaSourceSet;
 import org.netbeans.gradle.project.api.task.GradleTaskVariableQuery;
 import org.netbeans.gradle.project.api.task.TaskVariable;
 import org.netbeans.gradle.project.api.task.TaskVariableMap;
 import org.netbeans.gradle.project.java.JavaExtension;
+import org.netbeans.gradle.project.java.model.JavaSourceRootIndex;
 import org.netbeans.gradle.project.java.test.TestTaskName;
 import org.netbeans.gradle.project.tasks.vars.CachingVariableMap;
 import org.netbeans.gradle.project.tasks.vars.CachingVariableMap.ValueGetter;
@@ -20,7 +20,6 @@ import org.netbeans.gradle.project.tasks.vars.CachingVariableMap.VariableDef;
 import org.netbeans.gradle.project.tasks.vars.CachingVariableMap.VariableDefMap;
 import org.netbeans.gradle.project.tasks.vars.CachingVariableMap.VariableValue;
 import org.netbeans.gradle.project.tasks.vars.StandardTaskVariable;
-import org.netbeans.gradle.project.util.NbFileUtils;
 import org.netbeans.gradle.project.util.StringUtils;
 import org.netbeans.spi.project.SingleMethod;
 import org.openide.filesystems.FileObject;
@@ -61,17 +60,9 @@ public final class JavaGradleTaskVariableQuery implements GradleTaskVariableQuer
             return null;
         }
 
-        List<JavaSourceSet> sourceSets = project.getCurrentModel().getMainModule().getSources();
-        for (JavaSourceSet sourceSet: sourceSets) {
-            for (JavaSourceGroup sourceGroup: sourceSet.getSourceGroups()) {
-                for (File sourceRoot: sourceGroup.getSourceRoots()) {
-                    if (NbFileUtils.isParentOrSame(sourceRoot, fileOfContext)) {
-                        return sourceSet.getName();
-                    }
-                }
-            }
-        }
-        return null;
+        JavaSourceRootIndex index = project.getCurrentModel().getMainModule().getSourceRootIndex();
+        JavaSourceSet sourceSet = index.tryGetSourceSetOfFile(fileOfContext);
+        return sourceSet != null ? sourceSet.getName() : null;
     }
 
     private static String getTestTaskName(TaskVariableMap variables, JavaExtension project, Lookup actionContext) {
@@ -0,0 +1,346 @@
+package org.netbeans.gradle.project.java.test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.gradle.tooling.Failure;
+import org.gradle.tooling.events.OperationDescriptor;
+import org.gradle.tooling.events.ProgressEvent;
+import org.gradle.tooling.events.ProgressListener;
+import org.gradle.tooling.events.test.JvmTestKind;
+import org.gradle.tooling.events.test.JvmTestOperationDescriptor;
+import org.gradle.tooling.events.test.TestFailureResult;
+import org.gradle.tooling.events.test.TestFinishEvent;
+import org.gradle.tooling.events.test.TestOperationResult;
+import org.gradle.tooling.events.test.TestSkippedResult;
+import org.gradle.tooling.events.test.TestStartEvent;
+import org.jtrim.utils.ExceptionHelper;
+import org.netbeans.api.project.Project;
+import org.netbeans.gradle.project.others.test.NbGradleTestManager;
+import org.netbeans.gradle.project.others.test.NbGradleTestManagers;
+import org.netbeans.gradle.project.others.test.NbGradleTestSession;
+import org.netbeans.gradle.project.others.test.NbGradleTestSuite;
+import org.netbeans.gradle.project.util.NbFunction;
+import org.netbeans.modules.gsf.testrunner.api.Status;
+import org.netbeans.modules.gsf.testrunner.api.Testcase;
+import org.netbeans.modules.gsf.testrunner.api.Trouble;
+import org.openide.util.Lookup;
+
+/**
+ * Displays the results of the tests as they complete, based on the test events
+ * of the Tooling API. A new instance must be created for each execution of a
+ * Gradle command.
+ * <P>
+ * Once the command completes, {@link #completeLiveResults(String) completeLiveResults}
+ * of the instance listening for the execution must be called for each test
+ * task the results were requested for. If it returns {@code false} then the
+ * Gradle version did not send test events (or the test task was not
+ * executed), so the results have to be read from the XML reports. Finally,
+ * {@link #completeRemainingLiveResults() completeRemainingLiveResults} must
+ * be called.
+ * <P>
+ * The test events do not carry the output of the tests, so the test session
+ * is kept open until the command completes, and then the standard output and
+ * error of the displayed suites are read from their XML reports.
+ * <P>
+ * A test task is recognized by the "Gradle Test Run" suite Gradle starts for
+ * it, not by its position in the event hierarchy: Depending on the Gradle
+ * version and the requested operation types, this suite might have the task
+ * as its parent.
+ */
+public final class TestProgressDisplayer implements ProgressListener {
+    private static final String TEST_RUN_PREFIX = "Gradle Test Run ";
+
+    private final Project project;
+    private final Lookup runContext;
+    private final NbFunction<? super String, String> testNameResolver;
+    private final NbGradleTestManager testManager;
+
+    private final Map<OperationDescriptor, LiveTestRun> runs;
+    private final Map<String, LiveTestRun> runsByTestName;
+    private final Map<OperationDescriptor, NbGradleTestSuite> suites;
+
+    /**
+     * Creates a new {@code TestProgressDisplayer} for a single execution of
+     * a Gradle command.
+     *
+     * @param project the project whose tests are to be displayed. This
+     *   argument cannot be {@code null}.
+     * @param runContext the context the command was started with. This
+     *   argument cannot be {@code null}.
+     * @param testNameResolver the function returning the name of the test task
+     *   of the project for a task path (e.g.: ":subproject:test") or
+     *   {@code null} if the task is not a test task of the project. This
+     *   argument cannot be {@code null}.
+     */
+    public TestProgressDisplayer(
+            Project project,
+            Lookup runContext,
+            NbFunction<? super String, String> testNameResolver) {
+        this(project, runContext, testNameResolver, NbGradleTestManagers.getTestManager());
+    }
+
+    public TestProgressDisplayer(
+            Project project,
+            Lookup runContext,
+            NbFunction<? super String, String> testNameResolver,
+            NbGradleTestManager testManager) {
+        ExceptionHelper.checkNotNullArgument(project, "project");
+        ExceptionHelper.checkNotNullArgument(runContext, "runContext");
+        ExceptionHelper.checkNotNullArgument(testNameResolver, "testNameResolver");
+        ExceptionHelper.checkNotNullArgument(testManager, "testManager");
+
+        this.project = project;
+        this.runContext = runContext;
+        this.testNameResolver = testNameResolver;
+        this.testManager = testManager;
+        this.runs = new HashMap<>();
+        this.runsByTestName = new HashMap<>();
+        this.suites = new HashMap<>();
+    }
+
+    /**
+     * Displays the output of the tests of the given test task and ends its
+     * test session if its results were displayed by this
+     * {@code TestProgressDisplayer}.
+     *
+     * @param testName the name of the test task (e.g.: "test"). This argument
+     *   cannot be {@code null}.
+     * @return {@code true} if the results of the test task were displayed,
+     *   {@code false} if they have to be read from the XML reports
+     */
+    public boolean completeLiveResults(String testName) {
+        ExceptionHelper.checkNotNullArgument(testName, "testName");
+
+        LiveTestRun run;
+        synchronized (this) {
+            run = runsByTestName.remove(testName);
+        }
+
+        if (run == null) {
+            return false;
+        }
+
+        run.completeSession();
+        return true;
+    }
+
+    /**
+     * Completes the results of the test tasks not completed by
+     * {@link #completeLiveResults(String) completeLiveResults}. That is, the
+     * test tasks executed without being requested.
+     */
+    public void completeRemainingLiveResults() {
+        List<LiveTestRun> remainingRuns;
+        synchronized (this) {
+            remainingRuns = new ArrayList<>(runsByTestName.values());
+            runsByTestName.clear();
+        }
+
+        for (LiveTestRun run: remainingRuns) {
+            run.completeSession();
+        }
+    }
+
+    @Override
+    public synchronized void statusChanged(ProgressEvent event) {
+        if (event instanceof TestStartEvent) {
+            testStarted(event.getDescriptor());
+        }
+        else if (event instanceof TestFinishEvent) {
+            TestFinishEvent finishEvent = (TestFinishEvent)event;
+            testFinished(finishEvent.getDescriptor(), finishEvent.getResult());
+        }
+    }
+
+    private static JvmTestOperationDescriptor tryGetJvmDescriptor(OperationDescriptor descriptor) {
+        return descriptor instanceof JvmTestOperationDescriptor
+                ? (JvmTestOperationDescriptor)descriptor
+                : null;
+    }
+
+    private static boolean isClassSuite(JvmTestOperationDescriptor descriptor) {
+        return descriptor != null
+                && descriptor.getJvmTestKind() == JvmTestKind.SUITE
+                && descriptor.getClassName() != null;
+    }
+
+    private static boolean isTestRun(OperationDescriptor descriptor) {
+        String name = descriptor.getName();
+        if (name == null || !name.startsWith(TEST_RUN_PREFIX)) {
+            return false;
+        }
+
+        JvmTestOperationDescriptor jvmDescriptor = tryGetJvmDescriptor(descriptor);
+        return jvmDescriptor == null || jvmDescriptor.getClassName() == null;
+    }
+
+    private void testStarted(OperationDescriptor descriptor) {
+        if (isTestRun(descriptor)) {
+            startTestRun(descriptor);
+            return;
+        }
+
+        JvmTestOperationDescriptor jvmDescriptor = tryGetJvmDescriptor(descriptor);
+        if (isClassSuite(jvmDescriptor)) {
+            LiveTestRun run = tryFindRun(descriptor);
+            if (run != null) {
+                suites.put(descriptor, run.startTestSuite(jvmDescriptor.getClassName()));
+            }
+        }
+    }
+
+    private void startTestRun(OperationDescriptor descriptor) {
+        String name = descriptor.getName();
+        String testName = testNameResolver.apply(name.substring(TEST_RUN_PREFIX.length()));
+        if (testName == null) {
+            return;
+        }
+
+        TestXmlDisplayer displayer = new TestXmlDisplayer(project, testName, testManager);
+        LiveTestRun run = new LiveTestRun(displayer, displayer.startTestSession(runContext));
+        runs.put(descriptor, run);
+
+        LiveTestRun prevRun = runsByTestName.put(testName, run);
+        if (prevRun != null) {
+            prevRun.endSession();
+        }
+    }
+
+    private LiveTestRun tryFindRun(OperationDescriptor descriptor) {
+        OperationDescriptor current = descriptor.getParent();
+        while (current != null) {
+            LiveTestRun run = runs.get(current);
+            if (run != null) {
+                return run;
+            }
+            current = current.getParent();
+        }
+        return null;
+    }
+
+    private NbGradleTestSuite tryFindSuite(OperationDescriptor descriptor) {
+        OperationDescriptor current = descriptor.getParent();
+        while (current != null) {
+            NbGradleTestSuite suite = suites.get(current);
+            if (suite != null) {
+                return suite;
+            }
+            current = current.getParent();
+        }
+        return null;
+    }
+
+    private void testFinished(OperationDescriptor descriptor, TestOperationResult result) {
+        long elapsedMillis = result.getEndTime() - result.getStartTime();
+
+        // The XML reports (and so the output of the tests) are only written
+        // after the test run, so its session is ended by completeLiveResults.
+        if (runs.remove(descriptor) != null) {
+            return;
+        }
+
+        NbGradleTestSuite suite = suites.remove(descriptor);
+        if (suite != null) {
+            suite.endSuite(elapsedMillis);
+            return;
+        }
+
+        JvmTestOperationDescriptor jvmDescriptor = tryGetJvmDescriptor(descriptor);
+        if (jvmDescriptor != null && jvmDescriptor.getJvmTestKind() == JvmTestKind.ATOMIC) {
+            addTestcase(jvmDescriptor, result, elapsedMillis);
+        }
+    }
+
+    private void addTestcase(JvmTestOperationDescriptor descriptor, TestOperationResult result, long elapsedMillis) {
+        NbGradleTestSuite suite = tryFindSuite(descriptor);
+        if (suite == null) {
+            return;
+        }
+
+        String methodName = descriptor.getMethodName();
+        Testcase testcase = suite.addTestcase(methodName != null ? methodName : descriptor.getName());
+
+        String className = descriptor.getClassName();
+        if (className != null) {
+            testcase.setClassName(className);
+        }
+        testcase.setTimeMillis(elapsedMillis);
+
+        if (result instanceof TestFailureResult) {
+            // The XML reports of Gradle mark every unsuccessful test as
+            // a failure, so do the same to display the same results.
+            testcase.setStatus(Status.FAILED);
+
+            List<? extends Failure> failures = ((TestFailureResult)result).getFailures();
+            if (!failures.isEmpty()) {
+                Trouble trouble = new Trouble(false);
+                trouble.setStackTrace(TestXmlDisplayer.extractStackTrace(getFailureText(failures.get(0))));
+                testcase.setTrouble(trouble);
+            }
+        }
+        else if (result instanceof TestSkippedResult) {
+            testcase.setStatus(Status.SKIPPED);
+        }
+        else {
+            testcase.setStatus(Status.PASSED);
+        }
+    }
+
+    private static String getFailureText(Failure failure) {
+        String description = failure.getDescription();
+        if (description != null) {
+            return description;
+        }
+
+        String message = failure.getMessage();
+        return message != null ? message : "";
+    }
+
+    private static final class LiveTestRun {
+        private final TestXmlDisplayer xmlDisplayer;
+        private final NbGradleTestSession session;
+        private final Set<String> suiteNames;
+        private boolean ended;
+
+        public LiveTestRun(TestXmlDisplayer xmlDisplayer, NbGradleTestSession session) {
+            this.xmlDisplayer = xmlDisplayer;
+            this.session = session;
+            this.suiteNames = new LinkedHashSet<>();
+            this.ended = false;
+        }
+
+        public NbGradleTestSuite startTestSuite(String suiteName) {
+            synchronized (this) {
+                suiteNames.add(suiteName);
+            }
+            return session.startTestSuite(suiteName);
+        }
+
+        public void completeSession() {
+            List<String> outputSuiteNames;
+            synchronized (this) {
+                if (ended) {
+                    return;
+                }
+                outputSuiteNames = new ArrayList<>(suiteNames);
+            }
+
+            xmlDisplayer.displaySuiteOutputs(session, outputSuiteNames);
+            endSession();
+        }
+
+        public void endSession() {
+            synchronized (this) {
+                if (ended) {
+                    return;
+                }
+                ended = true;
+            }
+            session.endSession();
+        }
+    }
+}
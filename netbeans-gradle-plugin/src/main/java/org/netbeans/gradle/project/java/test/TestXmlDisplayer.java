@@ -3,6 +3,7 @@ package org.netbeans.gradle.project.java.test;
 import java.io.File;
 import java.io.FilenameFilter;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Locale;
 import java.util.Set;
@@ -115,7 +116,7 @@ public final class TestXmlDisplayer {
                 .split(NEW_LINE_PATTERN);
     }
 
-    private static String[] extractStackTrace(String text) {
+    static String[] extractStackTrace(String text) {
         String[] lines = toLines(text);
 
         // The first line is the exception message.
@@ -132,7 +133,7 @@ public final class TestXmlDisplayer {
         return lines;
     }
 
-    private void displayTestSuite(final File reportFile, SAXParser parser, final NbGradleTestSession testSession) throws Exception {
+    static void displayTestSuite(File reportFile, SAXParser parser, NbGradleTestSession testSession) throws Exception {
         parser.reset();
 
         TestXmlContentHandler testXmlContentHandler = new TestXmlContentHandler(testSession, reportFile);
@@ -176,12 +177,70 @@ public final class TestXmlDisplayer {
         return true;
     }
 
-    private boolean displayReport(Lookup runContext, File[] reportFiles) {
-        NbGradleTestSession testSession = testManager.startSession(
+    private static File getReportFileOfSuite(File reportDir, String suiteName) {
+        return new File(reportDir, "TEST-" + suiteName + ".xml");
+    }
+
+    private static void displayOutput(NbGradleTestSession testSession, String output, boolean error) {
+        if (output != null && !output.isEmpty()) {
+            testSession.displayOutput(output, error);
+        }
+    }
+
+    /**
+     * Displays the standard error and output of the given test suites read
+     * from their XML reports. The test cases of these suites are expected to
+     * have been displayed already, so the reports are only searched for the
+     * output.
+     */
+    void displaySuiteOutputs(NbGradleTestSession testSession, Collection<String> suiteNames) {
+        ExceptionHelper.checkNotNullArgument(testSession, "testSession");
+        ExceptionHelper.checkNotNullArgument(suiteNames, "suiteNames");
+
+        if (suiteNames.isEmpty()) {
+            return;
+        }
+
+        File reportDir = tryGetReportDirectory();
+        if (reportDir == null) {
+            return;
+        }
+
+        SAXParser parser = tryGetSaxParser();
+        if (parser == null) {
+            return;
+        }
+
+        for (String suiteName: suiteNames) {
+            File reportFile = getReportFileOfSuite(reportDir, suiteName);
+            if (!reportFile.isFile()) {
+                continue;
+            }
+
+            TestOutputContentHandler outputHandler = new TestOutputContentHandler();
+            try {
+                parser.reset();
+                parser.parse(reportFile, outputHandler);
+            } catch (Exception ex) {
+                LOGGER.log(Level.INFO, "Error while parsing " + reportFile, ex);
+                continue;
+            }
+
+            displayOutput(testSession, outputHandler.stderr, true);
+            displayOutput(testSession, outputHandler.stdout, false);
+        }
+    }
+
+    NbGradleTestSession startTestSession(Lookup runContext) {
+        return testManager.startSession(
                 getProjectName(),
                 project,
                 new JavaTestRunnerNodeFactory(javaExt, new TestTaskName(testName)),
                 new JavaRerunHandler(runContext));
+    }
+
+    private boolean displayReport(Lookup runContext, File[] reportFiles) {
+        NbGradleTestSession testSession = startTestSession(runContext);
 
         try {
             return displayTestSession(testSession, reportFiles);
@@ -457,4 +516,59 @@ public final class TestXmlDisplayer {
             tryAppend(ch, start, length, failureContent, outputBuilder);
         }
     }
+
+    private static final class TestOutputContentHandler extends DefaultHandler {
+        private int level;
+        private boolean outputBuilderIsStdOut;
+        private StringBuilder outputBuilder;
+
+        private String stdout;
+        private String stderr;
+
+        public TestOutputContentHandler() {
+            this.level = 0;
+            this.outputBuilderIsStdOut = false;
+            this.outputBuilder = null;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) throws SAXException {
+            if (level == 1) {
+                switch (qName) {
+                    case "system-out":
+                        outputBuilder = new StringBuilder();
+                        outputBuilderIsStdOut = true;
+                        break;
+                    case "system-err":
+                        outputBuilder = new StringBuilder();
+                        outputBuilderIsStdOut = false;
+                        break;
+                }
+            }
+
+            level++;
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) throws SAXException {
+            level--;
+
+            if (level == 1 && outputBuilder != null) {
+                if (outputBuilderIsStdOut) {
+                    stdout = outputBuilder.toString();
+                }
+                else {
+                    stderr = outputBuilder.toString();
+                }
+                outputBuilder = null;
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) throws SAXException {
+            if (outputBuilder != null) {
+                outputBuilder.append(ch, start, length);
+            }
+        }
+    }
 }
@@ -44,6 +44,8 @@ import org.netbeans.gradle.project.api.modelquery.GradleTarget;
 import org.netbeans.gradle.project.api.task.CommandCompleteListener;
 import org.netbeans.gradle.project.api.task.DaemonTaskContext;
 import org.netbeans.gradle.project.extensions.NbGradleExtensionRef;
+import org.netbeans.gradle.project.model.diagnostics.ModelLoadDiagnostics;
+import org.netbeans.gradle.project.model.diagnostics.ModelLoadDiagnosticsLog;
 import org.netbeans.gradle.project.model.issue.ModelLoadIssue;
 import org.netbeans.gradle.project.model.issue.ModelLoadIssueReporter;
 import org.netbeans.gradle.project.model.issue.ModelLoadIssues;
@@ -55,6 +57,8 @@ import org.netbeans.gradle.project.tasks.GradleArguments;
 import org.netbeans.gradle.project.tasks.GradleDaemonFailures;
 import org.netbeans.gradle.project.tasks.GradleDaemonManager;
 import org.netbeans.gradle.project.tasks.GradleTasks;
+import org.netbeans.gradle.project.util.BackgroundIOExecutors;
+import org.netbeans.gradle.project.util.CloseableAction;
 import org.netbeans.gradle.project.util.GradleVersions;
 import org.netbeans.gradle.project.util.NbFunction;
 import org.netbeans.gradle.project.util.NbSupplier;
@@ -70,9 +74,6 @@ public final class DefaultGradleModelLoader implements ModelLoader<NbGradleModel
     private static final MonitorableTaskExecutorService DEFAULT_MODEL_LOAD_NOTIFIER
             = NbTaskExecutors.newExecutor("Gradle-Project-Load-Notifier", 1);
 
-    private static final MonitorableTaskExecutorService DEFAULT_MODEL_PERSISTER
-            = NbTaskExecutors.newExecutor("Gradle-Project-Model-Persister", 1);
-
     private static final AtomicReference<GradleModelCache> DEFAULT_CACHE_REF
             = new AtomicReference<>(null);
 
@@ -410,6 +411,8 @@ public final class DefaultGradleModelLoader implements ModelLoader<NbGradleModel
 
                 NbGradleModel model = null;
                 Throwable error = null;
+                // Cache writes would only slow down loading the model.
+                CloseableAction.Ref busyRef = BackgroundIOExecutors.startBusyPeriod();
                 try {
                     ProjectLoadRequest fixedLoadKey = fixProjectLoadKey(cancelToken, projectLoadKey, progress);
                     if (mayFetchFromCache) {
@@ -426,6 +429,7 @@ public final class DefaultGradleModelLoader implements ModelLoader<NbGradleModel
                     error = ex;
                     reportModelLoadError(project, ex);
                 } finally {
+                    busyRef.close();
                     safeCompleteListener.run();
                     onModelLoaded(model, error, listener);
 
@@ -535,12 +539,15 @@ public final class DefaultGradleModelLoader implements ModelLoader<NbGradleModel
                 "Loading Gradle project from directory: {0}, settings.gradle: {1}",
                 new Object[]{projectDir, projectLoadKey.settingsGradleDef});
 
+        ModelLoadDiagnostics.Builder diagnostics = new ModelLoadDiagnostics.Builder(project.getDisplayName());
+
         GradleConnector gradleConnector = createGradleConnector(cancelToken, project);
         gradleConnector.forProjectDirectory(projectDir);
         ProjectConnection projectConnection = null;
 
         NbModelLoader.Result loadedModels;
         try {
+            long connectStartTime = System.nanoTime();
             projectConnection = gradleConnector.connect();
 
             DefaultModelBuilderSetup setup = modelBuilderSetup(projectLoadKey, progress);
@@ -549,6 +556,7 @@ public final class DefaultGradleModelLoader implements ModelLoader<NbGradleModel
             setupLongRunningOP(setup, modelBuilder);
 
             BuildEnvironment env = modelBuilder.get();
+            diagnostics.setPhaseTime(ModelLoadDiagnostics.Phase.CONNECT, System.nanoTime() - connectStartTime);
             reportKnownIssues(env);
 
             GradleTarget gradleTarget = new GradleTarget(
@@ -556,7 +564,7 @@ public final class DefaultGradleModelLoader implements ModelLoader<NbGradleModel
                     GradleVersion.version(env.getGradle().getGradleVersion()));
             NbModelLoader modelLoader = chooseModel(projectLoadKey.settingsGradleDef, gradleTarget, cachedEntry, setup);
 
-            loadedModels = modelLoader.loadModels(project, projectConnection, progress);
+            loadedModels = modelLoader.loadModels(project, projectConnection, progress, diagnostics);
         } finally {
             if (projectConnection != null) {
                 projectConnection.close();
@@ -569,7 +577,12 @@ public final class DefaultGradleModelLoader implements ModelLoader<NbGradleModel
                 ? cachedEntry.updateEntry(loadedModels.getMainModel())
                 : loadedModels.getMainModel();
 
+        long introduceStartTime = System.nanoTime();
         introduceProjects(loadedModels.getOtherModels(), result);
+        diagnostics.setPhaseTime(ModelLoadDiagnostics.Phase.INTRODUCE, System.nanoTime() - introduceStartTime);
+        diagnostics.setQueuedBackgroundIOTasks(BackgroundIOExecutors.getNumberOfQueuedTasks());
+
+        ModelLoadDiagnosticsLog.record(projectDir, diagnostics.create());
 
         return result;
     }
@@ -645,7 +658,7 @@ public final class DefaultGradleModelLoader implements ModelLoader<NbGradleModel
         private static final PersistentProjectModelStoreFactory DEFAULT_MODEL_STORE_FACTORY
                 = new PersistentProjectModelStoreFactory();
         private static final LazyPersistentModelStoreFactory<NbGradleModel> DEFAULT_LAZY_MODEL_STORE_FACTORY
-                = new LazyPersistentModelStoreFactory<>(DEFAULT_MODEL_STORE_FACTORY.getModelPersister(), DEFAULT_MODEL_PERSISTER);
+                = new LazyPersistentModelStoreFactory<>(DEFAULT_MODEL_STORE_FACTORY.getModelPersister(), BackgroundIOExecutors.getCacheExecutor());
 
         private final NbGradleProject project;
 
@@ -33,6 +33,7 @@ import org.netbeans.gradle.project.api.modelquery.GradleModelDefQuery1;
 import org.netbeans.gradle.project.api.modelquery.GradleTarget;
 import org.netbeans.gradle.project.extensions.NbGradleExtensionRef;
 import org.netbeans.gradle.project.java.model.idea.IdeaJavaModelUtils;
+import org.netbeans.gradle.project.model.diagnostics.ModelLoadDiagnostics;
 import org.netbeans.gradle.project.script.ScriptFileProvider;
 import org.openide.util.lookup.Lookups;
 
@@ -63,8 +64,10 @@ public final class NbCompatibleModelLoader implements NbModelLoader {
     public Result loadModels(
             NbGradleProject project,
             ProjectConnection connection,
-            ProgressHandle progress) throws IOException {
+            ProgressHandle progress,
+            ModelLoadDiagnostics.Builder diagnostics) throws IOException {
 
+        long startTime = System.nanoTime();
         ArrayList<NbGradleModel.Builder> otherModels = new ArrayList<>();
 
         NbGradleModel.Builder mainModel;
@@ -84,6 +87,9 @@ public final class NbCompatibleModelLoader implements NbModelLoader {
 
         getExtensionModels(project, connection, progress, mainModel, otherModelsMap);
 
+        // This loader queries models one by one, so its phases cannot be separated.
+        diagnostics.setPhaseTime(ModelLoadDiagnostics.Phase.EVALUATE, System.nanoTime() - startTime);
+
         return new Result(mainModel.create(), NbGradleModel.createAll(otherModels));
     }
 
@@ -7,8 +7,12 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import org.gradle.tooling.ProjectConnection;
 import org.jtrim.utils.ExceptionHelper;
 import org.netbeans.api.progress.ProgressHandle;
@@ -32,12 +36,15 @@ import org.netbeans.gradle.project.api.modelquery.GradleModelDef;
 import org.netbeans.gradle.project.api.modelquery.GradleModelDefQuery2;
 import org.netbeans.gradle.project.api.modelquery.GradleTarget;
 import org.netbeans.gradle.project.extensions.NbGradleExtensionRef;
+import org.netbeans.gradle.project.model.diagnostics.ModelLoadDiagnostics;
 import org.netbeans.gradle.project.model.issue.ModelLoadIssue;
 import org.netbeans.gradle.project.model.issue.ModelLoadIssues;
 import org.openide.util.Lookup;
 import org.openide.util.lookup.Lookups;
 
 public final class NbGradle18ModelLoader implements NbModelLoader {
+    private static final Logger LOGGER = Logger.getLogger(NbGradle18ModelLoader.class.getName());
+
     private final SettingsGradleDef settingsGradleDef;
     private final GradleTarget gradleTarget;
     private final OperationInitializer setup;
@@ -62,7 +69,8 @@ public final class NbGradle18ModelLoader implements NbModelLoader {
     public Result loadModels(
             NbGradleProject project,
             ProjectConnection connection,
-            ProgressHandle progress) throws IOException, GradleModelLoadError {
+            ProgressHandle progress,
+            ModelLoadDiagnostics.Builder diagnostics) throws IOException, GradleModelLoadError {
 
         ProjectModelFetcher modelFetcher = new ProjectModelFetcher(project, gradleTarget, settingsGradleDef);
         FetchedModelsOrError fetchedModelsOrError = modelFetcher.getModels(connection, setup);
@@ -76,8 +84,26 @@ public final class NbGradle18ModelLoader implements NbModelLoader {
 
         progress.progress(NbStrings.getParsingModel());
 
+        long parseStartTime = System.nanoTime();
         ProjectModelParser parser = new ProjectModelParser(gradleTarget, project, settingsGradleDef, modelFetcher);
-        return parser.parseModel(fetchedModels);
+        Result result = parser.parseModel(fetchedModels);
+        diagnostics.setPhaseTime(ModelLoadDiagnostics.Phase.PARSE, System.nanoTime() - parseStartTime);
+
+        // Only after parsing, so that we can see the timings of the
+        // builders whose results were actually needed.
+        addDiagnostics(fetchedModels, diagnostics);
+
+        return result;
+    }
+
+    private static void addDiagnostics(FetchedModels fetchedModels, ModelLoadDiagnostics.Builder diagnostics) {
+        diagnostics.setPhaseTime(ModelLoadDiagnostics.Phase.EVALUATE, fetchedModels.getBuildActionTimeNanos());
+        diagnostics.setPhaseTime(ModelLoadDiagnostics.Phase.DESERIALIZE, fetchedModels.getDeserializeTimeNanos());
+
+        diagnostics.addProjectModels(fetchedModels.getDefaultProjectModels());
+        for (FetchedProjectModels projectModels: fetchedModels.getOtherProjectModels()) {
+            diagnostics.addProjectModels(projectModels);
+        }
     }
 
     private static File getProjectDirFromModels(FetchedProjectModels projectModels) {
@@ -114,25 +140,41 @@ public final class NbGradle18ModelLoader implements NbModelLoader {
             this.modelLoadResultCache = CollectionUtils.newHashMap(extensions.size());
         }
 
-        private void addProjectInfoResults(
+        private void addProjectInfoIssues(FetchedProjectModels projectModels) {
+            for (NbGradleExtensionRef extension: extensions) {
+                for (BuilderResult builderResult: projectModels.getProjectInfoIssues(extension.getName())) {
+                    issues.add(ModelLoadIssues.builderError(
+                            mainProject,
+                            projectModels,
+                            extension,
+                            builderResult.getIssue()));
+                }
+            }
+        }
+
+        private static void addProjectInfoResults(
                 FetchedProjectModels projectModels,
                 NbGradleExtensionRef extension,
                 List<Object> results) {
 
-            List<BuilderResult> builderResults
-                    = projectModels.getProjectInfoResults().get(extension.getName());
-            if (builderResults == null) {
-                return;
-            }
+            String extensionName = extension.getName();
+
+            // The failed builders were already reported by parseModel. What
+            // remains are failures to deserialize the results, which might
+            // be noticed after the models were parsed, so they are only logged.
+            Set<BuilderResult> reportedIssues
+                    = Collections.newSetFromMap(new IdentityHashMap<BuilderResult, Boolean>());
+            reportedIssues.addAll(projectModels.getProjectInfoIssues(extensionName));
 
-            for (BuilderResult builderResult: builderResults) {
+            for (BuilderResult builderResult: projectModels.getProjectInfoResults(extensionName)) {
                 BuilderIssue issue = builderResult.getIssue();
                 if (issue != null) {
-                    issues.add(ModelLoadIssues.builderError(
-                            mainProject,
-                            projectModels,
-                            extension,
-                            issue));
+                    if (!reportedIssues.contains(builderResult)) {
+                        LOGGER.log(Level.WARNING,
+                                "Failed to deserialize the result of a project info builder for " + extensionName,
+                                issue.getException());
+                    }
+                    continue;
                 }
 
                 Object resultObject = builderResult.getResultObject();
@@ -142,20 +184,26 @@ public final class NbGradle18ModelLoader implements NbModelLoader {
             }
         }
 
-        private Map<String, Lookup> createLookups(FetchedProjectModels projectModels) {
+        private Lookup createLookup(FetchedProjectModels projectModels, NbGradleExtensionRef extension) {
             GenericProjectProperties genericProperties
                     = projectModels.getProjectDef().getMainProject().getGenericProperties();
 
-            Map<String, Lookup> result = CollectionUtils.newHashMap(extensions.size());
-            for (NbGradleExtensionRef extension: extensions) {
-                String extensionName = extension.getName();
+            List<Object> models = new ArrayList<>();
+            addProjectInfoResults(projectModels, extension, models);
+            addAllNullSafe(models, modelFetcher.getToolingModelsForExtension(extension, projectModels));
+            models.add(genericProperties);
 
-                List<Object> models = new ArrayList<>();
-                addProjectInfoResults(projectModels, extension, models);
-                addAllNullSafe(models, modelFetcher.getToolingModelsForExtension(extension, projectModels));
-                models.add(genericProperties);
+            return Lookups.fixed(models.toArray());
+        }
 
-                result.put(extensionName, Lookups.fixed(models.toArray()));
+        private Map<String, Lookup> createLookups(FetchedProjectModels projectModels) {
+            Map<String, Lookup> result = CollectionUtils.newHashMap(extensions.size());
+            for (NbGradleExtensionRef extension: extensions) {
+                // The results of the builders are only deserialized if the
+                // extension actually looks at the models of this project.
+                // The failed builders are reported regardless by parseModel.
+                LazyExtensionLookup lookupProvider = new LazyExtensionLookup(this, projectModels, extension);
+                result.put(extension.getName(), Lookups.proxy(lookupProvider));
             }
 
             return result;
@@ -230,6 +278,8 @@ public final class NbGradle18ModelLoader implements NbModelLoader {
                         issue));
             }
 
+            addProjectInfoIssues(projectModels);
+
             NbGradleMultiProjectDef projectDef = new NbGradleMultiProjectDef(projectModels.getProjectDef());
             NbGenericModelInfo genericInfo = new NbGenericModelInfo(projectDef, modelFetcher.getSettingsFile());
             NbGradleModel.Builder result = new NbGradleModel.Builder(genericInfo);
@@ -293,6 +343,31 @@ public final class NbGradle18ModelLoader implements NbModelLoader {
         }
     }
 
+    private static final class LazyExtensionLookup implements Lookup.Provider {
+        private final ProjectModelParser parser;
+        private final FetchedProjectModels projectModels;
+        private final NbGradleExtensionRef extension;
+        private Lookup lookup;
+
+        public LazyExtensionLookup(
+                ProjectModelParser parser,
+                FetchedProjectModels projectModels,
+                NbGradleExtensionRef extension) {
+            this.parser = parser;
+            this.projectModels = projectModels;
+            this.extension = extension;
+            this.lookup = null;
+        }
+
+        @Override
+        public synchronized Lookup getLookup() {
+            if (lookup == null) {
+                lookup = parser.createLookup(projectModels, extension);
+            }
+            return lookup;
+        }
+    }
+
     private static final class CachedModel {
         public final Object model;
 
@@ -9,6 +9,7 @@ import org.jtrim.utils.ExceptionHelper;
 import org.netbeans.api.progress.ProgressHandle;
 import org.netbeans.gradle.model.util.CollectionUtils;
 import org.netbeans.gradle.project.NbGradleProject;
+import org.netbeans.gradle.project.model.diagnostics.ModelLoadDiagnostics;
 import org.netbeans.gradle.project.model.issue.ModelLoadIssue;
 
 public interface NbModelLoader {
@@ -50,5 +51,6 @@ public interface NbModelLoader {
     public Result loadModels(
             NbGradleProject project,
             ProjectConnection connection,
-            ProgressHandle progress) throws IOException, GradleModelLoadError;
+            ProgressHandle progress,
+            ModelLoadDiagnostics.Builder diagnostics) throws IOException, GradleModelLoadError;
 }
@@ -0,0 +1,389 @@
+package org.netbeans.gradle.project.model.diagnostics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.jtrim.utils.ExceptionHelper;
+import org.netbeans.gradle.model.BuilderResult;
+import org.netbeans.gradle.model.FetchedProjectModels;
+
+/**
+ * Defines the timings and payload sizes measured during a single model load
+ * of a Gradle project. Instances of this class are immutable.
+ *
+ * @see ModelLoadDiagnosticsLog
+ */
+public final class ModelLoadDiagnostics {
+    public static enum Phase {
+        /**
+         * Connecting to the Gradle daemon and querying the build environment.
+         */
+        CONNECT,
+        /**
+         * Evaluating the build scripts and running the model builders,
+         * including sending their results to the IDE.
+         */
+        EVALUATE,
+        /**
+         * Deserializing the results of the model builders in the IDE. The
+         * results of the project info builders are deserialized lazily
+         * (during {@link #PARSE}), so they are not part of this phase.
+         */
+        DESERIALIZE,
+        /**
+         * Converting the received models to the models of the extensions.
+         */
+        PARSE,
+        /**
+         * Updating the loaded projects and the caches with the new models.
+         */
+        INTRODUCE
+    }
+
+    public static final class BuilderTime {
+        private final String projectPath;
+        private final String key;
+        private final String builderName;
+        private final long buildTimeNanos;
+
+        private BuilderTime(String projectPath, String key, String builderName, long buildTimeNanos) {
+            this.projectPath = projectPath;
+            this.key = key;
+            this.builderName = builderName;
+            this.buildTimeNanos = buildTimeNanos;
+        }
+
+        public String getProjectPath() {
+            return projectPath;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public String getBuilderName() {
+            return builderName;
+        }
+
+        public long getBuildTimeNanos() {
+            return buildTimeNanos;
+        }
+    }
+
+    public static final class PayloadSize {
+        private final String projectPath;
+        private final String key;
+        private final long sizeInBytes;
+
+        private PayloadSize(String projectPath, String key, long sizeInBytes) {
+            this.projectPath = projectPath;
+            this.key = key;
+            this.sizeInBytes = sizeInBytes;
+        }
+
+        public String getProjectPath() {
+            return projectPath;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public long getSizeInBytes() {
+            return sizeInBytes;
+        }
+    }
+
+    public static final class Builder {
+        private final String projectName;
+        private final long startTimeMillis;
+        private final Map<Phase, Long> phaseTimes;
+        private final List<BuilderTime> builderTimes;
+        private final List<PayloadSize> payloadSizes;
+        private long queuedBackgroundIOTasks;
+
+        public Builder(String projectName) {
+            ExceptionHelper.checkNotNullArgument(projectName, "projectName");
+
+            this.projectName = projectName;
+            this.startTimeMillis = System.currentTimeMillis();
+            this.phaseTimes = new EnumMap<>(Phase.class);
+            this.builderTimes = new ArrayList<>();
+            this.payloadSizes = new ArrayList<>();
+            this.queuedBackgroundIOTasks = -1;
+        }
+
+        public void setPhaseTime(Phase phase, long timeNanos) {
+            ExceptionHelper.checkNotNullArgument(phase, "phase");
+
+            if (timeNanos >= 0) {
+                phaseTimes.put(phase, timeNanos);
+            }
+        }
+
+        /**
+         * Sets the number of tasks waiting for the background I/O thread
+         * (saving settings and writing caches) after the model load.
+         */
+        public void setQueuedBackgroundIOTasks(long taskCount) {
+            this.queuedBackgroundIOTasks = taskCount;
+        }
+
+        public void addBuilderTime(String projectPath, String key, String builderName, long buildTimeNanos) {
+            ExceptionHelper.checkNotNullArgument(projectPath, "projectPath");
+            ExceptionHelper.checkNotNullArgument(key, "key");
+
+            if (buildTimeNanos >= 0) {
+                builderTimes.add(new BuilderTime(projectPath, key, builderName, buildTimeNanos));
+            }
+        }
+
+        public void addPayloadSize(String projectPath, String key, long sizeInBytes) {
+            ExceptionHelper.checkNotNullArgument(projectPath, "projectPath");
+            ExceptionHelper.checkNotNullArgument(key, "key");
+
+            payloadSizes.add(new PayloadSize(projectPath, key, sizeInBytes));
+        }
+
+        /**
+         * Adds the builder timings and payload sizes of the results of the
+         * project info builders of the given project. Only the timings of the
+         * results already deserialized are added, since the results are
+         * deserialized lazily and this method does not want to force them.
+         */
+        public void addProjectModels(FetchedProjectModels projectModels) {
+            ExceptionHelper.checkNotNullArgument(projectModels, "projectModels");
+
+            String projectPath = projectModels.getProjectDef().getMainProject().getGenericProperties().getProjectFullName();
+
+            for (Map.Entry<Object, List<BuilderResult>> entry: projectModels.getLoadedProjectInfoResults().entrySet()) {
+                String key = String.valueOf(entry.getKey());
+                for (BuilderResult builderResult: entry.getValue()) {
+                    addBuilderTime(projectPath, key, builderResult.getBuilderName(), builderResult.getBuildTimeNanos());
+                }
+            }
+
+            for (Map.Entry<Object, Integer> entry: projectModels.getProjectInfoResultSizes().entrySet()) {
+                addPayloadSize(projectPath, String.valueOf(entry.getKey()), entry.getValue());
+            }
+        }
+
+        public ModelLoadDiagnostics create() {
+            return new ModelLoadDiagnostics(this);
+        }
+    }
+
+    private final String projectName;
+    private final long startTimeMillis;
+    private final Map<Phase, Long> phaseTimes;
+    private final List<BuilderTime> builderTimes;
+    private final List<PayloadSize> payloadSizes;
+    private final long queuedBackgroundIOTasks;
+
+    private ModelLoadDiagnostics(Builder builder) {
+        this.projectName = builder.projectName;
+        this.startTimeMillis = builder.startTimeMillis;
+        this.phaseTimes = Collections.unmodifiableMap(new EnumMap<>(builder.phaseTimes));
+        this.builderTimes = Collections.unmodifiableList(new ArrayList<>(builder.builderTimes));
+        this.payloadSizes = Collections.unmodifiableList(new ArrayList<>(builder.payloadSizes));
+        this.queuedBackgroundIOTasks = builder.queuedBackgroundIOTasks;
+    }
+
+    public String getProjectName() {
+        return projectName;
+    }
+
+    public long getStartTimeMillis() {
+        return startTimeMillis;
+    }
+
+    /**
+     * Returns the measured time of the phases of the model load. Phases which
+     * were not measured (e.g., because the model loader does not have such
+     * phase) are not contained in the returned map.
+     */
+    public Map<Phase, Long> getPhaseTimes() {
+        return phaseTimes;
+    }
+
+    public List<BuilderTime> getBuilderTimes() {
+        return builderTimes;
+    }
+
+    public List<PayloadSize> getPayloadSizes() {
+        return payloadSizes;
+    }
+
+    /**
+     * Returns the number of tasks waiting for the background I/O thread after
+     * the model load, or a negative number if it was not recorded.
+     */
+    public long getQueuedBackgroundIOTasks() {
+        return queuedBackgroundIOTasks;
+    }
+
+    public long getTotalPayloadSize() {
+        long result = 0;
+        for (PayloadSize payloadSize: payloadSizes) {
+            result += payloadSize.getSizeInBytes();
+        }
+        return result;
+    }
+
+    private static String toMillisStr(long nanos) {
+        return String.format(Locale.ROOT, "%.1f ms", nanos / (double)TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    /**
+     * Returns a human readable summary of these diagnostics. The builders
+     * and payloads are listed in descending order of their cost.
+     */
+    public String toReport() {
+        StringBuilder result = new StringBuilder(1024);
+        result.append("Project: ").append(projectName).append('\n');
+        if (queuedBackgroundIOTasks >= 0) {
+            result.append("Queued background I/O tasks: ").append(queuedBackgroundIOTasks).append('\n');
+        }
+        result.append('\n');
+
+        result.append("Phases:\n");
+        for (Map.Entry<Phase, Long> entry: phaseTimes.entrySet()) {
+            result.append("  ").append(entry.getKey()).append(": ").append(toMillisStr(entry.getValue())).append('\n');
+        }
+        result.append('\n');
+
+        List<BuilderTime> sortedBuilderTimes = new ArrayList<>(builderTimes);
+        Collections.sort(sortedBuilderTimes, new Comparator<BuilderTime>() {
+            @Override
+            public int compare(BuilderTime o1, BuilderTime o2) {
+                return Long.compare(o2.getBuildTimeNanos(), o1.getBuildTimeNanos());
+            }
+        });
+
+        result.append("Builders (slowest first):\n");
+        for (BuilderTime builderTime: sortedBuilderTimes) {
+            result.append("  ").append(toMillisStr(builderTime.getBuildTimeNanos()))
+                    .append(" - ").append(builderTime.getBuilderName())
+                    .append(" [").append(builderTime.getKey()).append(", ")
+                    .append(builderTime.getProjectPath()).append("]\n");
+        }
+        result.append('\n');
+
+        List<PayloadSize> sortedPayloadSizes = new ArrayList<>(payloadSizes);
+        Collections.sort(sortedPayloadSizes, new Comparator<PayloadSize>() {
+            @Override
+            public int compare(PayloadSize o1, PayloadSize o2) {
+                return Long.compare(o2.getSizeInBytes(), o1.getSizeInBytes());
+            }
+        });
+
+        result.append("Payload (largest first, total: ").append(getTotalPayloadSize()).append(" bytes):\n");
+        for (PayloadSize payloadSize: sortedPayloadSizes) {
+            result.append("  ").append(payloadSize.getSizeInBytes()).append(" bytes")
+                    .append(" [").append(payloadSize.getKey()).append(", ")
+                    .append(payloadSize.getProjectPath()).append("]\n");
+        }
+
+        return result.toString();
+    }
+
+    private static void appendJsonString(String str, StringBuilder result) {
+        if (str == null) {
+            result.append("null");
+            return;
+        }
+
+        result.append('"');
+        int length = str.length();
+        for (int i = 0; i < length; i++) {
+            char ch = str.charAt(i);
+            switch (ch) {
+                case '"':
+                    result.append("\\\"");
+                    break;
+                case '\\':
+                    result.append("\\\\");
+                    break;
+                default:
+                    if (ch < 0x20) {
+                        result.append(String.format(Locale.ROOT, "\\u%04x", (int)ch));
+                    }
+                    else {
+                        result.append(ch);
+                    }
+                    break;
+            }
+        }
+        result.append('"');
+    }
+
+    /**
+     * Returns these diagnostics as a single line JSON object. Times are in
+     * nanoseconds, sizes are in bytes.
+     */
+    public String toJson() {
+        StringBuilder result = new StringBuilder(1024);
+        result.append("{\"project\":");
+        appendJsonString(projectName, result);
+        result.append(",\"startTimeMillis\":").append(startTimeMillis);
+        if (queuedBackgroundIOTasks >= 0) {
+            result.append(",\"queuedBackgroundIOTasks\":").append(queuedBackgroundIOTasks);
+        }
+
+        result.append(",\"phases\":{");
+        boolean first = true;
+        for (Map.Entry<Phase, Long> entry: phaseTimes.entrySet()) {
+            if (!first) {
+                result.append(',');
+            }
+            first = false;
+
+            appendJsonString(entry.getKey().name(), result);
+            result.append(':').append(entry.getValue());
+        }
+        result.append('}');
+
+        result.append(",\"builders\":[");
+        first = true;
+        for (BuilderTime builderTime: builderTimes) {
+            if (!first) {
+                result.append(',');
+            }
+            first = false;
+
+            result.append("{\"project\":");
+            appendJsonString(builderTime.getProjectPath(), result);
+            result.append(",\"key\":");
+            appendJsonString(builderTime.getKey(), result);
+            result.append(",\"builder\":");
+            appendJsonString(builderTime.getBuilderName(), result);
+            result.append(",\"timeNanos\":").append(builderTime.getBuildTimeNanos());
+            result.append('}');
+        }
+        result.append(']');
+
+        result.append(",\"payloads\":[");
+        first = true;
+        for (PayloadSize payloadSize: payloadSizes) {
+            if (!first) {
+                result.append(',');
+            }
+            first = false;
+
+            result.append("{\"project\":");
+            appendJsonString(payloadSize.getProjectPath(), result);
+            result.append(",\"key\":");
+            appendJsonString(payloadSize.getKey(), result);
+            result.append(",\"bytes\":").append(payloadSize.getSizeInBytes());
+            result.append('}');
+        }
+        result.append("]}");
+
+        return result.toString();
+    }
+}
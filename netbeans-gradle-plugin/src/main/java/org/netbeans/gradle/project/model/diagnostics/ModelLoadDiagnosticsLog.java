@@ -0,0 +1,153 @@
+package org.netbeans.gradle.project.model.diagnostics;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.jtrim.cancel.Cancellation;
+import org.jtrim.cancel.CancellationToken;
+import org.jtrim.concurrent.CancelableTask;
+import org.jtrim.concurrent.TaskExecutor;
+import org.jtrim.utils.ExceptionHelper;
+import org.netbeans.gradle.project.properties.global.GlobalSettingsUtils;
+import org.netbeans.gradle.project.util.BackgroundIOExecutors;
+import org.netbeans.gradle.project.util.CloseableAction;
+
+/**
+ * Keeps the diagnostics of the last model load of each opened project and
+ * appends all the recorded diagnostics to a log file (one JSON object per
+ * line). The
+ * log file is rotated once it grows too large, so only the last two log
+ * files are kept.
+ */
+public final class ModelLoadDiagnosticsLog {
+    private static final Logger LOGGER = Logger.getLogger(ModelLoadDiagnosticsLog.class.getName());
+
+    private static final Charset LOG_ENCODING = StandardCharsets.UTF_8;
+    private static final String LOG_FILE_NAME = "model-load-diagnostics.log";
+    private static final String OLD_LOG_FILE_NAME = "model-load-diagnostics.old.log";
+    private static final long MAX_LOG_SIZE = 4L * 1024 * 1024;
+
+    private static final TaskExecutor LOG_WRITER = BackgroundIOExecutors.getCacheExecutor();
+
+    // Only the opened projects have an entry, so this map does not grow with
+    // the projects loaded only as dependencies or closed since.
+    private static final Map<File, AtomicReference<ModelLoadDiagnostics>> LATEST_DIAGNOSTICS
+            = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the action keeping the diagnostics of the last model load of the
+     * given project while the action is open. The action is meant to be
+     * opened while the project is opened.
+     *
+     * @param projectDir the directory of the project. This argument cannot be
+     *   {@code null}.
+     * @return the action keeping the diagnostics of the last model load of the
+     *   given project while the action is open. This method never returns
+     *   {@code null}.
+     */
+    public static CloseableAction keepLatestWhileOpened(final File projectDir) {
+        ExceptionHelper.checkNotNullArgument(projectDir, "projectDir");
+
+        return new CloseableAction() {
+            @Override
+            public CloseableAction.Ref open() {
+                final AtomicReference<ModelLoadDiagnostics> latestRef = new AtomicReference<>(null);
+                LATEST_DIAGNOSTICS.put(projectDir, latestRef);
+
+                return new CloseableAction.Ref() {
+                    @Override
+                    public void close() {
+                        LATEST_DIAGNOSTICS.remove(projectDir, latestRef);
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Records the diagnostics of a model load of the given project. This
+     * method does not wait for the diagnostics to be written to the log file.
+     *
+     * @param projectDir the directory of the project whose model was loaded.
+     *   This argument cannot be {@code null}.
+     * @param diagnostics the diagnostics of the model load. This argument
+     *   cannot be {@code null}.
+     */
+    public static void record(File projectDir, ModelLoadDiagnostics diagnostics) {
+        ExceptionHelper.checkNotNullArgument(projectDir, "projectDir");
+        ExceptionHelper.checkNotNullArgument(diagnostics, "diagnostics");
+
+        AtomicReference<ModelLoadDiagnostics> latestRef = LATEST_DIAGNOSTICS.get(projectDir);
+        if (latestRef != null) {
+            latestRef.set(diagnostics);
+        }
+
+        final String logLine = diagnostics.toJson();
+        LOG_WRITER.execute(Cancellation.UNCANCELABLE_TOKEN, new CancelableTask() {
+            @Override
+            public void execute(CancellationToken cancelToken) {
+                appendToLog(logLine);
+            }
+        }, null);
+    }
+
+    /**
+     * Returns the diagnostics of the last model load of the given project or
+     * {@code null} if the project is not opened or its model was not loaded
+     * since the project was opened.
+     */
+    public static ModelLoadDiagnostics tryGetLatest(File projectDir) {
+        ExceptionHelper.checkNotNullArgument(projectDir, "projectDir");
+
+        AtomicReference<ModelLoadDiagnostics> latestRef = LATEST_DIAGNOSTICS.get(projectDir);
+        return latestRef != null ? latestRef.get() : null;
+    }
+
+    public static Path tryGetLogFile() {
+        return GlobalSettingsUtils.cacheRoot().tryGetSubPath(LOG_FILE_NAME);
+    }
+
+    private static void rotateIfNeeded(Path logFile) throws IOException {
+        if (!Files.isRegularFile(logFile) || Files.size(logFile) < MAX_LOG_SIZE) {
+            return;
+        }
+
+        Path oldLogFile = logFile.resolveSibling(OLD_LOG_FILE_NAME);
+        Files.move(logFile, oldLogFile, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static void appendToLog(String logLine) {
+        Path logFile = tryGetLogFile();
+        if (logFile == null) {
+            return;
+        }
+
+        try {
+            Files.createDirectories(logFile.getParent());
+            rotateIfNeeded(logFile);
+
+            try (Writer output = Files.newBufferedWriter(logFile, LOG_ENCODING,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                output.write(logLine);
+                output.write('\n');
+            }
+        } catch (IOException ex) {
+            LOGGER.log(Level.INFO, "Failed to write the model load diagnostics to " + logFile, ex);
+        }
+    }
+
+    private ModelLoadDiagnosticsLog() {
+        throw new AssertionError();
+    }
+}
@@ -0,0 +1,111 @@
+package org.netbeans.gradle.project.model.diagnostics;
+
+import java.awt.Dialog;
+import java.awt.Toolkit;
+import java.awt.datatransfer.StringSelection;
+import java.nio.file.Path;
+import org.jtrim.utils.ExceptionHelper;
+import org.netbeans.gradle.project.NbGradleProject;
+import org.netbeans.gradle.project.NbStrings;
+import org.openide.DialogDescriptor;
+import org.openide.DialogDisplayer;
+
+@SuppressWarnings("serial")
+public class ModelLoadDiagnosticsPanel extends javax.swing.JPanel {
+    public ModelLoadDiagnosticsPanel(String diagnosticsContent, Path logFile) {
+        initComponents();
+
+        jHintCaption.setText(NbStrings.getModelLoadDiagnosticsLogFile(logFile));
+        jInfoTextArea.setText(diagnosticsContent);
+        jInfoTextArea.setCaretPosition(0);
+    }
+
+    public static void showModalDialog(NbGradleProject project) {
+        ExceptionHelper.checkNotNullArgument(project, "project");
+
+        ModelLoadDiagnostics diagnostics = ModelLoadDiagnosticsLog.tryGetLatest(project.getProjectDirectoryAsFile());
+        String content = diagnostics != null
+                ? diagnostics.toReport()
+                : NbStrings.getNoModelLoadDiagnostics();
+
+        ModelLoadDiagnosticsPanel panel = new ModelLoadDiagnosticsPanel(content, ModelLoadDiagnosticsLog.tryGetLogFile());
+        DialogDescriptor dlgDescriptor = new DialogDescriptor(
+                panel,
+                NbStrings.getModelLoadDiagnosticsCaption(project.getDisplayName()),
+                true,
+                new Object[]{DialogDescriptor.OK_OPTION},
+                DialogDescriptor.OK_OPTION,
+                DialogDescriptor.BOTTOM_ALIGN,
+                null,
+                null);
+        Dialog dlg = DialogDisplayer.getDefault().createDialog(dlgDescriptor);
+        dlg.pack();
+        dlg.setVisible(true);
+    }
+
+    /**
+     * This method is called from within the constructor to
+     * initialize the form.
+     * WARNING: Do NOT modify this code. The content of this method is
+     * always regenerated by the Form Editor.
+     */
+    @SuppressWarnings("unchecked")
+    // <editor-fold defaultstate="collapsed" desc="Generated Code">//GEN-BEGIN:initComponents
+    private void initComponents() {
+
+        jScrollPane1 = new javax.swing.JScrollPane();
+        jInfoTextArea = new javax.swing.JTextArea();
+        jHintCaption = new javax.swing.JLabel();
+        jCopyToClipboardButton = new javax.swing.JButton();
+
+        jInfoTextArea.setEditable(false);
+        jInfoTextArea.setColumns(20);
+        jInfoTextArea.setRows(5);
+        jScrollPane1.setViewportView(jInfoTextArea);
+
+        org.openide.awt.Mnemonics.setLocalizedText(jCopyToClipboardButton, org.openide.util.NbBundle.getMessage(ModelLoadDiagnosticsPanel.class, "ModelLoadDiagnosticsPanel.jCopyToClipboardButton.text")); // NOI18N
+        jCopyToClipboardButton.addActionListener(new java.awt.event.ActionListener() {
+            public void actionPerformed(java.awt.event.ActionEvent evt) {
+                jCopyToClipboardButtonActionPerformed(evt);
+            }
+        });
+
+        javax.swing.GroupLayout layout = new javax.swing.GroupLayout(this);
+        this.setLayout(layout);
+        layout.setHorizontalGroup(
+            layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
+            .addGroup(layout.createSequentialGroup()
+                .addContainerGap()
+                .addGroup(layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
+                    .addComponent(jScrollPane1, javax.swing.GroupLayout.DEFAULT_SIZE, 560, Short.MAX_VALUE)
+                    .addComponent(jHintCaption, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                    .addGroup(javax.swing.GroupLayout.Alignment.TRAILING, layout.createSequentialGroup()
+                        .addGap(0, 0, Short.MAX_VALUE)
+                        .addComponent(jCopyToClipboardButton)))
+                .addContainerGap())
+        );
+        layout.setVerticalGroup(
+            layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
+            .addGroup(javax.swing.GroupLayout.Alignment.TRAILING, layout.createSequentialGroup()
+                .addContainerGap()
+                .addComponent(jHintCaption)
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                .addComponent(jScrollPane1, javax.swing.GroupLayout.DEFAULT_SIZE, 380, Short.MAX_VALUE)
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                .addComponent(jCopyToClipboardButton))
+        );
+    }// </editor-fold>//GEN-END:initComponents
+
+    private void jCopyToClipboardButtonActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jCopyToClipboardButtonActionPerformed
+        String text = jInfoTextArea.getText();
+        Toolkit.getDefaultToolkit().getSystemClipboard().setContents(new StringSelection(text), null);
+    }//GEN-LAST:event_jCopyToClipboardButtonActionPerformed
+
+
+    // Variables declaration - do not modify//GEN-BEGIN:variables
+    private javax.swing.JButton jCopyToClipboardButton;
+    private javax.swing.JLabel jHintCaption;
+    private javax.swing.JTextArea jInfoTextArea;
+    private javax.swing.JScrollPane jScrollPane1;
+    // End of variables declaration//GEN-END:variables
+}
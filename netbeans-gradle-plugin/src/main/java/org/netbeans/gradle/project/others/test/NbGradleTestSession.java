@@ -2,6 +2,7 @@ package org.netbeans.gradle.project.others.test;
 
 public interface NbGradleTestSession {
     public NbGradleTestSuite startTestSuite(String suiteName);
+    public void displayOutput(String output, boolean error);
 
     public void endSession();
 }
@@ -65,6 +65,12 @@ public final class VisualNbGradleTestManager implements NbGradleTestManager {
             return new NbGradleTestSuiteImpl(manager, session);
         }
 
+        @Override
+        public void displayOutput(String output, boolean error) {
+            ExceptionHelper.checkNotNullArgument(output, "output");
+            manager.displayOutput(session, output, error);
+        }
+
         @Override
         public void endSession() {
             manager.sessionFinished(session);
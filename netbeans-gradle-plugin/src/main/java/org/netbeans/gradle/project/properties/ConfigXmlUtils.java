@@ -262,6 +262,16 @@ final class ConfigXmlUtils {
         return setValue;
     }
 
+    private static void addChildElement(Element element, ConfigTree.Builder result) {
+        String elementKey = fromElementName(element.getNodeName());
+
+        ConfigTree.Builder childBuilder = result.addChildBuilder(elementKey);
+        String nodeValue = parseNode(element, Collections.<String>emptySet(), childBuilder);
+        if (nodeValue != null) {
+            childBuilder.setValue(nodeValue);
+        }
+    }
+
     private static int addChildren(Element element, Set<String> excludedNames, ConfigTree.Builder result) {
         NodeList childNodes = element.getChildNodes();
 
@@ -277,14 +287,7 @@ final class ConfigXmlUtils {
                     continue;
                 }
 
-                String elementKey = fromElementName(elementChild.getNodeName());
-
-                ConfigTree.Builder childBuilder = result.addChildBuilder(elementKey);
-                String nodeValue = parseNode(elementChild, Collections.<String>emptySet(), childBuilder);
-                if (nodeValue != null) {
-                    childBuilder.setValue(nodeValue);
-                }
-
+                addChildElement(elementChild, result);
                 addedChildren++;
             }
         }
@@ -485,16 +488,9 @@ final class ConfigXmlUtils {
         return str1.compareTo(str2);
     }
 
-    public static void addAuxiliary(Document document, Element... auxElements) {
-        Element root = Objects.requireNonNull(document.getDocumentElement(),
-                "document.getDocumentElement()");
-
-        if (auxElements.length == 0) {
-            return;
-        }
-
-        Element[] sortedAuxElements = auxElements.clone();
-        Arrays.sort(sortedAuxElements, new Comparator<Element>() {
+    private static Element[] sortAuxElements(Element[] auxElements) {
+        Element[] result = auxElements.clone();
+        Arrays.sort(result, new Comparator<Element>() {
             @Override
             public int compare(Element o1, Element o2) {
                 String uri1 = o1.getNamespaceURI();
@@ -507,6 +503,32 @@ final class ConfigXmlUtils {
                 return nullSafeStrCmp(o1.getNodeName(), o2.getNodeName());
             }
         });
+        return result;
+    }
+
+    /**
+     * Returns the configuration tree {@link #parseDocument(Document, String[]) parseDocument}
+     * would return for the node added by {@link #addAuxiliary(Document, Element[]) addAuxiliary}
+     * with the same elements. This method does not create an intermediate
+     * {@code Document}.
+     */
+    public static ConfigTree parseAuxiliary(Element... auxElements) {
+        ConfigTree.Builder result = new ConfigTree.Builder();
+        for (Element auxElement: sortAuxElements(auxElements)) {
+            addChildElement(auxElement, result);
+        }
+        return result.create();
+    }
+
+    public static void addAuxiliary(Document document, Element... auxElements) {
+        Element root = Objects.requireNonNull(document.getDocumentElement(),
+                "document.getDocumentElement()");
+
+        if (auxElements.length == 0) {
+            return;
+        }
+
+        Element[] sortedAuxElements = sortAuxElements(auxElements);
 
         Element auxRoot = document.createElement(AUXILIARY_NODE_NAME);
         root.appendChild(auxRoot);
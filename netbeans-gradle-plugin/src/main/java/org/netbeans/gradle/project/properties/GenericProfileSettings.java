@@ -8,7 +8,7 @@ import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.jtrim.concurrent.GenericUpdateTaskExecutor;
-import org.jtrim.concurrent.TaskExecutorService;
+import org.jtrim.concurrent.TaskExecutor;
 import org.jtrim.concurrent.UpdateTaskExecutor;
 import org.jtrim.event.ListenerRef;
 import org.jtrim.property.MutableProperty;
@@ -17,14 +17,14 @@ import org.netbeans.gradle.project.api.config.ConfigTree;
 import org.netbeans.gradle.project.api.config.ProfileKey;
 import org.netbeans.gradle.project.api.config.PropertyDef;
 import org.netbeans.gradle.project.event.OneShotChangeListenerManager;
-import org.netbeans.gradle.project.util.NbTaskExecutors;
+import org.netbeans.gradle.project.util.BackgroundIOExecutors;
 import org.w3c.dom.Element;
 
 public final class GenericProfileSettings implements LoadableSingleProfileSettingsEx {
     private static final Logger LOGGER = Logger.getLogger(ProjectProfileSettings.class.getName());
     // Should be single threaded to avoid unnecessary multiple load.
-    private static final TaskExecutorService SAVE_LOAD_EXECUTOR
-            = NbTaskExecutors.newExecutor("Profile-I/O", 1);
+    private static final TaskExecutor SAVE_LOAD_EXECUTOR
+            = BackgroundIOExecutors.getSettingsExecutor();
 
     private final ProfileLocationProvider locationProvider;
     private final ProfileSettings settings;
@@ -23,6 +23,7 @@ import org.jtrim.concurrent.CancelableTask;
 import org.jtrim.concurrent.GenericUpdateTaskExecutor;
 import org.jtrim.concurrent.MonitorableTaskExecutor;
 import org.jtrim.concurrent.TaskExecutor;
+import org.jtrim.concurrent.TaskExecutors;
 import org.jtrim.concurrent.UpdateTaskExecutor;
 import org.jtrim.event.ListenerRef;
 import org.jtrim.property.MutableProperty;
@@ -32,7 +33,7 @@ import org.netbeans.gradle.project.api.config.ProfileDef;
 import org.netbeans.gradle.project.api.config.ProfileKey;
 import org.netbeans.gradle.project.event.ChangeListenerManager;
 import org.netbeans.gradle.project.event.GenericChangeListenerManager;
-import org.netbeans.gradle.project.util.NbTaskExecutors;
+import org.netbeans.gradle.project.util.BackgroundIOExecutors;
 import org.netbeans.gradle.project.util.SerializationUtils2;
 
 public final class NbGradleConfigProvider {
@@ -40,7 +41,7 @@ public final class NbGradleConfigProvider {
 
     // Must be FIFO executor
     private static final TaskExecutor PROFILE_APPLIER_EXECUTOR
-            = NbTaskExecutors.newExecutor("Profile-applier", 1);
+            = BackgroundIOExecutors.getSettingsExecutor();
 
     private static final String LAST_PROFILE_FILE = "last-profile";
 
@@ -83,7 +84,7 @@ public final class NbGradleConfigProvider {
         this.multiProfileProperties = multiProfileProperties;
         this.settingsContainer = settingsContainer;
         this.profileApplierExecutor = new GenericUpdateTaskExecutor(PROFILE_APPLIER_EXECUTOR);
-        this.profileIOExecutor = NbTaskExecutors.newDefaultFifoExecutor();
+        this.profileIOExecutor = TaskExecutors.inOrderExecutor(BackgroundIOExecutors.getSettingsExecutor());
 
         this.configurations = NbProperties.<Collection<NbGradleConfiguration>>atomicValueView(configs, configsChangeListeners);
 
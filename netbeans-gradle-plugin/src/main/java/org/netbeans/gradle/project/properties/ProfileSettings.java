@@ -50,6 +50,7 @@ public final class ProfileSettings {
     private static final Logger LOGGER = Logger.getLogger(ProfileSettings.class.getName());
     private static final int FILE_STREAM_BUFFER_SIZE = 8 * 1024;
     private static final Set<ConfigPath> ROOT_PATH = Collections.singleton(ConfigPath.ROOT);
+    private static final ConfigPath AUXILIARY_PATH = ConfigPath.fromKeys(ConfigXmlUtils.AUXILIARY_NODE_NAME);
     private static final Document EXPORT_DOCUMENT = tryCreateDocument();
 
     private final ListenerManager<ConfigUpdateListener> configUpdateListeners;
@@ -57,7 +58,7 @@ public final class ProfileSettings {
 
     private final ReentrantLock configLock;
     private volatile Object configStateKey;
-    private ConfigTree.Builder currentConfig;
+    private ConfigTree currentConfig;
     private final Map<DomElementKey, Element> auxConfigs;
 
     private static Document tryCreateDocument() {
@@ -71,7 +72,7 @@ public final class ProfileSettings {
 
     public ProfileSettings() {
         this.configLock = new ReentrantLock();
-        this.currentConfig = new ConfigTree.Builder();
+        this.currentConfig = ConfigTree.EMPTY;
         this.configUpdateListeners = new CopyOnTriggerListenerManager<>();
         this.configStateKey = new Object();
         this.auxConfigs = new HashMap<>();
@@ -154,8 +155,30 @@ public final class ProfileSettings {
         loadFromDocument(document);
     }
 
+    /**
+     * Returns the current content of these settings including the auxiliary
+     * configurations. Since {@code ConfigTree} instances are immutable and
+     * updates only replace the subtrees along the updated paths, this method
+     * does not need to copy anything.
+     */
     public ConfigTree getContentSnapshot() {
-        return ConfigXmlUtils.parseDocument(toXml()).create();
+        ConfigTree configTree;
+        List<Element> auxConfigList;
+
+        configLock.lock();
+        try {
+            configTree = currentConfig;
+            auxConfigList = new ArrayList<>(auxConfigs.values());
+        } finally {
+            configLock.unlock();
+        }
+
+        if (auxConfigList.isEmpty()) {
+            return configTree;
+        }
+
+        ConfigTree auxTree = ConfigXmlUtils.parseAuxiliary(auxConfigList.toArray(new Element[auxConfigList.size()]));
+        return configTree.withChildTree(AUXILIARY_PATH, auxTree);
     }
 
     private Document toXml() {
@@ -164,7 +187,7 @@ public final class ProfileSettings {
 
         configLock.lock();
         try {
-            configTree = currentConfig.create();
+            configTree = currentConfig;
             auxConfigList = new ArrayList<>(auxConfigs.values());
         } finally {
             configLock.unlock();
@@ -247,7 +270,7 @@ public final class ProfileSettings {
         configLock.lock();
         try {
             auxConfigs.clear();
-            currentConfig = new ConfigTree.Builder();
+            currentConfig = ConfigTree.EMPTY;
             newConfigState();
         } finally {
             configLock.unlock();
@@ -259,7 +282,7 @@ public final class ProfileSettings {
     private void loadFromDocument(final Document document) {
         ExceptionHelper.checkNotNullArgument(document, "document");
 
-        ConfigTree.Builder parsedDocument = ConfigXmlUtils.parseDocument(document, ConfigXmlUtils.AUXILIARY_NODE_NAME);
+        ConfigTree parsedDocument = ConfigXmlUtils.parseDocument(document, ConfigXmlUtils.AUXILIARY_NODE_NAME).create();
         List<Element> loadedAuxConfigs = getAuxiliaryElements(document.getDocumentElement());
 
         configLock.lock();
@@ -278,12 +301,6 @@ public final class ProfileSettings {
         fireDocumentUpdate(ROOT_PATH);
     }
 
-    private static ConfigTree createChildTree(ConfigTree.Builder builer, ConfigPath path) {
-        ConfigTree.Builder childBuilder = builer.getDeepChildBuilder(path);
-        childBuilder.detachChildTreeBuilders();
-        return childBuilder.create();
-    }
-
     private <Value> ValueWithStateKey<Value> withStateKey(Value value) {
         assert configLock.isHeldByCurrentThread();
         return new ValueWithStateKey<>(configStateKey, value);
@@ -292,36 +309,35 @@ public final class ProfileSettings {
     private ValueWithStateKey<ConfigTree> getChildConfig(ConfigPath path) {
         configLock.lock();
         try {
-            return withStateKey(createChildTree(currentConfig, path));
+            return withStateKey(currentConfig.getDeepChildTree(path));
         } finally {
             configLock.unlock();
         }
     }
 
-    private ValueWithStateKey<ConfigTree> getChildConfig(ConfigPath basePath, ConfigPath[] relPaths) {
+    private ValueWithStateKey<ConfigTree[]> getChildConfigs(ConfigPath basePath, ConfigPath[] relPaths) {
+        ValueWithStateKey<ConfigTree> baseConfig = getChildConfig(basePath);
+
+        ConfigTree[] result = new ConfigTree[relPaths.length];
+        for (int i = 0; i < relPaths.length; i++) {
+            result[i] = baseConfig.value.getDeepChildTree(relPaths[i]);
+        }
+        return baseConfig.withNewValue(result);
+    }
+
+    private static ConfigTree combineChildConfigs(ConfigPath[] relPaths, ConfigTree[] childConfigs) {
         if (relPaths.length == 1) {
             assert relPaths[0].getKeyCount() == 0;
 
             // Common case
-            return getChildConfig(basePath);
+            return childConfigs[0];
         }
 
-        Object resultStateKey;
-        ConfigTree.Builder result = new ConfigTree.Builder();
-        configLock.lock();
-        try {
-            resultStateKey = configStateKey;
-
-            ConfigTree.Builder baseBuilder = currentConfig.getDeepChildBuilder(basePath);
-            for (ConfigPath relPath: relPaths) {
-                ConfigTree childTree = createChildTree(baseBuilder, relPath);
-                setChildTree(result, relPath, childTree);
-            }
-        } finally {
-            configLock.unlock();
+        ConfigTree result = ConfigTree.EMPTY;
+        for (int i = 0; i < relPaths.length; i++) {
+            result = result.withChildTree(relPaths[i], childConfigs[i]);
         }
-
-        return new ValueWithStateKey<>(resultStateKey, result.create());
+        return result;
     }
 
     public Collection<DomElementKey> getAuxConfigKeys() {
@@ -430,29 +446,6 @@ public final class ProfileSettings {
         return ConfigPath.fromKeys(result);
     }
 
-    private static void setChildTree(ConfigTree.Builder builder, ConfigPath path, ConfigTree content) {
-        int keyCount = path.getKeyCount();
-        assert keyCount > 0;
-
-        ConfigTree.Builder childConfig = builder;
-        for (int i = 0; i < keyCount - 1; i++) {
-            childConfig = childConfig.getChildBuilder(path.getKeyAt(i));
-        }
-        childConfig.setChildTree(path.getKeyAt(keyCount - 1), content);
-    }
-
-    private <ValueKey> ValueWithStateKey<ValueKey> getValueKeyFromCurrentConfig(
-            ConfigPath parent,
-            ConfigPath[] relativePaths,
-            PropertyKeyEncodingDef<ValueKey> keyEncodingDef) {
-
-        ValueWithStateKey<ConfigTree> parentBasedConfig = getChildConfig(parent, relativePaths);
-        ConfigTree value = parentBasedConfig.value;
-        assert value != null;
-
-        return parentBasedConfig.withNewValue(keyEncodingDef.decode(value));
-    }
-
     private static interface ConfigUpdateListener {
         public void configUpdated(Collection<ConfigPath> changedPaths);
     }
@@ -470,6 +463,7 @@ public final class ProfileSettings {
         private final PropertyValueDef<ValueKey, ValueType> valueDef;
         private final EqualityComparator<? super ValueKey> valueKeyEquality;
         private final AtomicReference<ValueWithStateKey<ValueKey>> lastValueKeyRef;
+        private final AtomicReference<DecodedConfig<ValueKey>> lastDecodedConfigRef;
 
         private final UpdateTaskExecutor eventThread;
 
@@ -487,10 +481,8 @@ public final class ProfileSettings {
             this.valueDef = propertyDef.getValueDef();
             this.valueKeyEquality = propertyDef.getValueKeyEquality();
 
-            ValueWithStateKey<ValueKey> initialValueKey = getValueKeyFromCurrentConfig(
-                    this.configParent,
-                    this.relativeConfigPaths,
-                    this.keyEncodingDef);
+            this.lastDecodedConfigRef = new AtomicReference<>(null);
+            ValueWithStateKey<ValueKey> initialValueKey = getValueKey();
             this.lastValueKeyRef = new AtomicReference<>(initialValueKey);
             this.source = PropertyFactory.proxySource(valueDef.property(initialValueKey.value));
 
@@ -537,12 +529,7 @@ public final class ProfileSettings {
         private void updateConfigAtPath(ConfigPath path, ConfigTree content) {
             assert configLock.isHeldByCurrentThread();
 
-            if (path.getKeyCount() == 0) {
-                currentConfig = new ConfigTree.Builder(content);
-            }
-            else {
-                setChildTree(currentConfig, path, content);
-            }
+            currentConfig = currentConfig.withChildTree(path, content);
         }
 
         private ValueWithStateKey<ValueKey> getUpToDateValueKey() {
@@ -604,7 +591,21 @@ public final class ProfileSettings {
         }
 
         private ValueWithStateKey<ValueKey> getValueKey() {
-            return getValueKeyFromCurrentConfig(configParent, relativeConfigPaths, keyEncodingDef);
+            ValueWithStateKey<ConfigTree[]> childConfigs = getChildConfigs(configParent, relativeConfigPaths);
+
+            // Updates of other paths keep our subtrees as is, so there is no
+            // need to decode them again. The subtrees are compared instead of
+            // the tree combined from them, because the combined tree is
+            // created anew for properties stored in multiple paths.
+            DecodedConfig<ValueKey> lastDecodedConfig = lastDecodedConfigRef.get();
+            if (lastDecodedConfig != null && lastDecodedConfig.isDecodedFrom(childConfigs.value)) {
+                return childConfigs.withNewValue(lastDecodedConfig.valueKey);
+            }
+
+            ConfigTree config = combineChildConfigs(relativeConfigPaths, childConfigs.value);
+            ValueKey valueKey = keyEncodingDef.decode(config);
+            lastDecodedConfigRef.set(new DecodedConfig<>(childConfigs.value, valueKey));
+            return childConfigs.withNewValue(valueKey);
         }
 
         private boolean updateSource(ValueWithStateKey<ValueKey> valueKey) {
@@ -651,6 +652,29 @@ public final class ProfileSettings {
         }
     }
 
+    private static final class DecodedConfig<ValueKey> {
+        private final ConfigTree[] childConfigs;
+        public final ValueKey valueKey;
+
+        public DecodedConfig(ConfigTree[] childConfigs, ValueKey valueKey) {
+            this.childConfigs = childConfigs;
+            this.valueKey = valueKey;
+        }
+
+        public boolean isDecodedFrom(ConfigTree[] otherChildConfigs) {
+            if (childConfigs.length != otherChildConfigs.length) {
+                return false;
+            }
+
+            for (int i = 0; i < childConfigs.length; i++) {
+                if (childConfigs[i] != otherChildConfigs[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
     private static final class ValueWithStateKey<Value> {
         public final Object stateKey;
 
@@ -55,6 +55,8 @@ public final class CommonGlobalSettings {
     private final PropertyReference<Boolean> detectProjectDependenciesByJarName;
     private final PropertyReference<SelfMaintainedTasks> selfMaintainedTasks;
     private final PropertyReference<ModelLoadingStrategy> modelLoadingStrategy;
+    private final PropertyReference<Boolean> loadRuntimeClassPathLazily;
+    private final PropertyReference<Boolean> reloadOnScriptChange;
 
     private final PropertyReference<Integer> projectCacheSize;
     private final PropertyReference<Integer> gradleDaemonTimeoutSec;
@@ -80,6 +82,8 @@ public final class CommonGlobalSettings {
         this.detectProjectDependenciesByJarName = detectProjectDependenciesByJarName(activeSettingsQuery);
         this.selfMaintainedTasks = selfMaintainedTasks(activeSettingsQuery);
         this.modelLoadingStrategy = modelLoadingStrategy(activeSettingsQuery);
+        this.loadRuntimeClassPathLazily = loadRuntimeClassPathLazily(activeSettingsQuery);
+        this.reloadOnScriptChange = reloadOnScriptChange(activeSettingsQuery);
         this.projectCacheSize = projectCacheSize(activeSettingsQuery);
         this.gradleDaemonTimeoutSec = gradleDaemonTimeoutSec(activeSettingsQuery);
         this.showGradleVersion = showGradleVersion(activeSettingsQuery);
@@ -245,6 +249,28 @@ public final class CommonGlobalSettings {
         return modelLoadingStrategy;
     }
 
+    public static PropertyReference<Boolean> loadRuntimeClassPathLazily(ActiveSettingsQuery activeSettingsQuery) {
+        return propertyRef(
+                defineBooleanProperty("model-loading", "lazy-runtime-classpath"),
+                activeSettingsQuery,
+                false);
+    }
+
+    public PropertyReference<Boolean> loadRuntimeClassPathLazily() {
+        return loadRuntimeClassPathLazily;
+    }
+
+    public static PropertyReference<Boolean> reloadOnScriptChange(ActiveSettingsQuery activeSettingsQuery) {
+        return propertyRef(
+                defineBooleanProperty("model-loading", "reload-on-script-change"),
+                activeSettingsQuery,
+                false);
+    }
+
+    public PropertyReference<Boolean> reloadOnScriptChange() {
+        return reloadOnScriptChange;
+    }
+
     public static PropertyReference<Boolean> showGradleVersion(ActiveSettingsQuery activeSettingsQuery) {
         return NbGradleCommonProperties.showGradleVersion(activeSettingsQuery);
     }
@@ -56,11 +56,15 @@ public class BuildScriptParsingPanel extends javax.swing.JPanel implements Profi
         private final PropertyReference<ModelLoadingStrategy> modelLoadingStrategyRef;
         private final PropertyReference<Boolean> loadRootProjectFirstRef;
         private final PropertyReference<Boolean> mayRelyOnJavaOfScriptRef;
+        private final PropertyReference<Boolean> loadRuntimeClassPathLazilyRef;
+        private final PropertyReference<Boolean> reloadOnScriptChangeRef;
 
         public PropertyRefs(ActiveSettingsQuery settingsQuery) {
             modelLoadingStrategyRef = CommonGlobalSettings.modelLoadingStrategy(settingsQuery);
             loadRootProjectFirstRef = CommonGlobalSettings.loadRootProjectFirst(settingsQuery);
             mayRelyOnJavaOfScriptRef = CommonGlobalSettings.mayRelyOnJavaOfScript(settingsQuery);
+            loadRuntimeClassPathLazilyRef = CommonGlobalSettings.loadRuntimeClassPathLazily(settingsQuery);
+            reloadOnScriptChangeRef = CommonGlobalSettings.reloadOnScriptChange(settingsQuery);
         }
 
         @Override
@@ -80,6 +84,8 @@ public class BuildScriptParsingPanel extends javax.swing.JPanel implements Profi
         private final ModelLoadingStrategy modelLoadingStrategy;
         private final Boolean loadRootProjectFirst;
         private final Boolean mayRelyOnJavaOfScript;
+        private final Boolean loadRuntimeClassPathLazily;
+        private final Boolean reloadOnScriptChange;
 
         public StoredSettingsImpl(PropertyRefs properties) {
             this.properties = properties;
@@ -87,6 +93,8 @@ public class BuildScriptParsingPanel extends javax.swing.JPanel implements Profi
             this.modelLoadingStrategy = properties.modelLoadingStrategyRef.tryGetValueWithoutFallback();
             this.loadRootProjectFirst = properties.loadRootProjectFirstRef.tryGetValueWithoutFallback();
             this.mayRelyOnJavaOfScript = properties.mayRelyOnJavaOfScriptRef.tryGetValueWithoutFallback();
+            this.loadRuntimeClassPathLazily = properties.loadRuntimeClassPathLazilyRef.tryGetValueWithoutFallback();
+            this.reloadOnScriptChange = properties.reloadOnScriptChangeRef.tryGetValueWithoutFallback();
         }
 
         public StoredSettingsImpl(PropertyRefs properties, BuildScriptParsingPanel panel) {
@@ -95,6 +103,8 @@ public class BuildScriptParsingPanel extends javax.swing.JPanel implements Profi
             this.modelLoadingStrategy = panel.modelLoadingStrategyCombo.getSelectedValue();
             this.loadRootProjectFirst = panel.jLoadRootProjectFirst.isSelected();
             this.mayRelyOnJavaOfScript = panel.jReliableJavaVersionCheck.isSelected();
+            this.loadRuntimeClassPathLazily = panel.jLazyRuntimeClassPath.isSelected();
+            this.reloadOnScriptChange = panel.jReloadOnScriptChange.isSelected();
         }
 
         @Override
@@ -104,6 +114,8 @@ public class BuildScriptParsingPanel extends javax.swing.JPanel implements Profi
                     : properties.modelLoadingStrategyRef.getActiveValue());
             displayCheck(jLoadRootProjectFirst, loadRootProjectFirst, properties.loadRootProjectFirstRef);
             displayCheck(jReliableJavaVersionCheck, mayRelyOnJavaOfScript, properties.mayRelyOnJavaOfScriptRef);
+            displayCheck(jLazyRuntimeClassPath, loadRuntimeClassPathLazily, properties.loadRuntimeClassPathLazilyRef);
+            displayCheck(jReloadOnScriptChange, reloadOnScriptChange, properties.reloadOnScriptChangeRef);
         }
 
         @Override
@@ -111,6 +123,8 @@ public class BuildScriptParsingPanel extends javax.swing.JPanel implements Profi
             properties.modelLoadingStrategyRef.setValue(modelLoadingStrategy);
             properties.loadRootProjectFirstRef.setValue(loadRootProjectFirst);
             properties.mayRelyOnJavaOfScriptRef.setValue(mayRelyOnJavaOfScript);
+            properties.loadRuntimeClassPathLazilyRef.setValue(loadRuntimeClassPathLazily);
+            properties.reloadOnScriptChangeRef.setValue(reloadOnScriptChange);
         }
     }
 
@@ -126,6 +140,8 @@ public class BuildScriptParsingPanel extends javax.swing.JPanel implements Profi
         jModelLoadStrategyLabel = new javax.swing.JLabel();
         jReliableJavaVersionCheck = new javax.swing.JCheckBox();
         jLoadRootProjectFirst = new javax.swing.JCheckBox();
+        jLazyRuntimeClassPath = new javax.swing.JCheckBox();
+        jReloadOnScriptChange = new javax.swing.JCheckBox();
 
         org.openide.awt.Mnemonics.setLocalizedText(jModelLoadStrategyLabel, org.openide.util.NbBundle.getMessage(BuildScriptParsingPanel.class, "BuildScriptParsingPanel.jModelLoadStrategyLabel.text")); // NOI18N
 
@@ -133,6 +149,10 @@ public class BuildScriptParsingPanel extends javax.swing.JPanel implements Profi
 
         org.openide.awt.Mnemonics.setLocalizedText(jLoadRootProjectFirst, org.openide.util.NbBundle.getMessage(BuildScriptParsingPanel.class, "BuildScriptParsingPanel.jLoadRootProjectFirst.text")); // NOI18N
 
+        org.openide.awt.Mnemonics.setLocalizedText(jLazyRuntimeClassPath, org.openide.util.NbBundle.getMessage(BuildScriptParsingPanel.class, "BuildScriptParsingPanel.jLazyRuntimeClassPath.text")); // NOI18N
+
+        org.openide.awt.Mnemonics.setLocalizedText(jReloadOnScriptChange, org.openide.util.NbBundle.getMessage(BuildScriptParsingPanel.class, "BuildScriptParsingPanel.jReloadOnScriptChange.text")); // NOI18N
+
         javax.swing.GroupLayout layout = new javax.swing.GroupLayout(this);
         this.setLayout(layout);
         layout.setHorizontalGroup(
@@ -145,7 +165,9 @@ public class BuildScriptParsingPanel extends javax.swing.JPanel implements Profi
                         .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
                         .addComponent(jModelLoadStrategy, 0, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE))
                     .addComponent(jReliableJavaVersionCheck)
-                    .addComponent(jLoadRootProjectFirst))
+                    .addComponent(jLoadRootProjectFirst)
+                    .addComponent(jLazyRuntimeClassPath)
+                    .addComponent(jReloadOnScriptChange))
                 .addContainerGap())
         );
         layout.setVerticalGroup(
@@ -159,15 +181,21 @@ public class BuildScriptParsingPanel extends javax.swing.JPanel implements Profi
                 .addComponent(jLoadRootProjectFirst)
                 .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.UNRELATED)
                 .addComponent(jReliableJavaVersionCheck)
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.UNRELATED)
+                .addComponent(jLazyRuntimeClassPath)
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.UNRELATED)
+                .addComponent(jReloadOnScriptChange)
                 .addContainerGap(javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE))
         );
     }// </editor-fold>//GEN-END:initComponents
 
 
     // Variables declaration - do not modify//GEN-BEGIN:variables
+    private javax.swing.JCheckBox jLazyRuntimeClassPath;
     private javax.swing.JCheckBox jLoadRootProjectFirst;
     private javax.swing.JComboBox<EnumCombo.Item<ModelLoadingStrategy>> jModelLoadStrategy;
     private javax.swing.JLabel jModelLoadStrategyLabel;
     private javax.swing.JCheckBox jReliableJavaVersionCheck;
+    private javax.swing.JCheckBox jReloadOnScriptChange;
     // End of variables declaration//GEN-END:variables
 }
@@ -0,0 +1,466 @@
+package org.netbeans.gradle.project.query;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.jtrim.cancel.Cancellation;
+import org.jtrim.cancel.CancellationToken;
+import org.jtrim.concurrent.CancelableTask;
+import org.jtrim.concurrent.GenericUpdateTaskExecutor;
+import org.jtrim.concurrent.TaskExecutor;
+import org.jtrim.concurrent.UpdateTaskExecutor;
+import org.jtrim.utils.ExceptionHelper;
+import org.netbeans.gradle.project.properties.global.GlobalSettingsUtils;
+import org.netbeans.gradle.project.util.BackgroundIOExecutors;
+import org.netbeans.gradle.project.util.GradleFileUtils;
+import org.netbeans.gradle.project.util.NbSupplier;
+import org.netbeans.gradle.project.util.NbTaskExecutors;
+import org.netbeans.gradle.project.util.SerializationUtils2;
+
+/**
+ * Indexes the artifacts in the Gradle cache by the version directory of their
+ * module. The Gradle cache stores the artifacts in the form:
+ * {@code GROUP/NAME/VERSION/HASH/artifact.jar}, so every artifact of a module
+ * (the binary, the sources and the javadoc) is in a subdirectory of the same
+ * version directory.
+ * <P>
+ * The index is filled by a single scan of {@code caches/modules-2/files-2.1}
+ * and persisted between sessions. After {@link #notifyCacheChange() a change}
+ * of the cache, a version directory is only listed again if its last modified
+ * time has changed. Version directories not (yet) indexed, and artifacts
+ * missing from the index are looked up directly in the cache.
+ * <P>
+ * The scan of the cache has its own thread, because it might take minutes
+ * for a large cache and must not hold back other background I/O.
+ */
+public final class GradleCacheArtifactIndex {
+    private static final Logger LOGGER = Logger.getLogger(GradleCacheArtifactIndex.class.getName());
+
+    private static final String INDEX_FILE_NAME = "gradle-cache-artifacts.index";
+    private static final int INDEX_FORMAT_VERSION = 1;
+
+    // File systems with a coarse timestamp resolution might not update
+    // the last modified time of a directory modified shortly after listing it.
+    private static final long UNRELIABLE_TIMESTAMP_MS = 2000;
+    private static final long UNKNOWN_TIMESTAMP = Long.MIN_VALUE;
+
+    private static final GradleCacheArtifactIndex DEFAULT = new GradleCacheArtifactIndex(
+            new NbSupplier<Path>() {
+                @Override
+                public Path get() {
+                    return GlobalSettingsUtils.cacheRoot().tryGetSubPath(INDEX_FILE_NAME);
+                }
+            },
+            GradleFileUtils.GRADLE_USER_HOME_PROVIDER,
+            NbTaskExecutors.newExecutor("Gradle-Cache-Indexer", 1),
+            BackgroundIOExecutors.getCacheExecutor());
+
+    private final NbSupplier<? extends Path> indexFileProvider;
+    private final NbSupplier<? extends File> gradleUserHomeProvider;
+    private final TaskExecutor scanExecutor;
+    private final UpdateTaskExecutor indexPersister;
+
+    private final ConcurrentMap<Path, ModuleEntry> modules;
+    private final AtomicLong generation;
+    private final AtomicBoolean initStarted;
+
+    /**
+     * @param scanExecutor the executor loading the persisted index and
+     *   scanning the cache
+     * @param ioExecutor the executor saving the index
+     */
+    public GradleCacheArtifactIndex(
+            NbSupplier<? extends Path> indexFileProvider,
+            NbSupplier<? extends File> gradleUserHomeProvider,
+            TaskExecutor scanExecutor,
+            TaskExecutor ioExecutor) {
+        ExceptionHelper.checkNotNullArgument(indexFileProvider, "indexFileProvider");
+        ExceptionHelper.checkNotNullArgument(gradleUserHomeProvider, "gradleUserHomeProvider");
+        ExceptionHelper.checkNotNullArgument(scanExecutor, "scanExecutor");
+        ExceptionHelper.checkNotNullArgument(ioExecutor, "ioExecutor");
+
+        this.indexFileProvider = indexFileProvider;
+        this.gradleUserHomeProvider = gradleUserHomeProvider;
+        this.scanExecutor = scanExecutor;
+        this.indexPersister = new GenericUpdateTaskExecutor(ioExecutor);
+
+        this.modules = new ConcurrentHashMap<>();
+        this.generation = new AtomicLong(0);
+        this.initStarted = new AtomicBoolean(false);
+    }
+
+    public static GradleCacheArtifactIndex getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Marks every indexed module as possibly changed. The version directory
+     * of a module is checked again the next time one of its artifacts is
+     * requested.
+     */
+    public void notifyCacheChange() {
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Returns the artifacts of the module stored in the given version
+     * directory mapped by their file names.
+     *
+     * @param versionDir the version directory of the module in the form
+     *   {@code GROUP/NAME/VERSION}. This argument cannot be {@code null}.
+     * @return the artifacts of the module mapped by their file names. This
+     *   method never returns {@code null}.
+     */
+    public Map<String, Path> getArtifacts(Path versionDir) {
+        ExceptionHelper.checkNotNullArgument(versionDir, "versionDir");
+        return getEntry(versionDir).artifacts;
+    }
+
+    private ModuleEntry getEntry(Path versionDir) {
+        startInitIfNeeded();
+
+        long currentGeneration = generation.get();
+        ModuleEntry entry = modules.get(versionDir);
+        if (entry == null || entry.generation != currentGeneration) {
+            entry = updateEntry(versionDir, entry, currentGeneration, false);
+        }
+        return entry;
+    }
+
+    /**
+     * Returns the artifact with the given file name of the module stored in
+     * the given version directory.
+     *
+     * @param versionDir the version directory of the module in the form
+     *   {@code GROUP/NAME/VERSION}. This argument cannot be {@code null}.
+     * @param fileName the file name of the requested artifact. This argument
+     *   cannot be {@code null}.
+     * @return the requested artifact or {@code null} if the artifact is not
+     *   in the cache
+     */
+    public Path tryGetArtifact(Path versionDir, String fileName) {
+        ExceptionHelper.checkNotNullArgument(versionDir, "versionDir");
+        ExceptionHelper.checkNotNullArgument(fileName, "fileName");
+
+        ModuleEntry entry = getEntry(versionDir);
+        Path result = entry.artifacts.get(fileName);
+        if (result == null && !entry.scannedNow) {
+            // The artifact might have been downloaded without notifying us.
+            // Listing the version directory is what we did for every lookup
+            // before the index, so a miss is never slower than that.
+            result = updateEntry(versionDir, entry, generation.get(), true).artifacts.get(fileName);
+        }
+        return result;
+    }
+
+    private ModuleEntry updateEntry(
+            Path versionDir,
+            ModuleEntry prevEntry,
+            long currentGeneration,
+            boolean forceScan) {
+        long lastModified = tryGetLastModified(versionDir);
+        if (!forceScan
+                && prevEntry != null
+                && prevEntry.lastModified != UNKNOWN_TIMESTAMP
+                && prevEntry.lastModified == lastModified) {
+            ModuleEntry result = prevEntry.withGeneration(currentGeneration);
+            modules.replace(versionDir, prevEntry, result);
+            return result;
+        }
+
+        ModuleEntry result = scanVersionDir(versionDir, lastModified, currentGeneration);
+        if (result.artifacts.isEmpty()) {
+            modules.remove(versionDir);
+        }
+        else {
+            modules.put(versionDir, result);
+        }
+
+        if (!result.equalArtifacts(prevEntry)) {
+            persistIndex();
+        }
+        return result.asScannedNow();
+    }
+
+    private static long tryGetLastModified(Path dir) {
+        try {
+            return Files.getLastModifiedTime(dir).toMillis();
+        } catch (IOException ex) {
+            return UNKNOWN_TIMESTAMP;
+        }
+    }
+
+    private static ModuleEntry scanVersionDir(Path versionDir, long lastModified, long generation) {
+        long scanTime = System.currentTimeMillis();
+
+        Map<String, Path> artifacts = new HashMap<>();
+        try (DirectoryStream<Path> hashDirs = Files.newDirectoryStream(versionDir)) {
+            for (Path hashDir: hashDirs) {
+                if (!Files.isDirectory(hashDir)) {
+                    continue;
+                }
+
+                try (DirectoryStream<Path> files = Files.newDirectoryStream(hashDir)) {
+                    for (Path file: files) {
+                        Path fileName = file.getFileName();
+                        if (fileName != null && !artifacts.containsKey(fileName.toString())) {
+                            artifacts.put(fileName.toString(), file);
+                        }
+                    }
+                }
+            }
+        } catch (NoSuchFileException ex) {
+            return new ModuleEntry(UNKNOWN_TIMESTAMP, generation, Collections.<String, Path>emptyMap());
+        } catch (IOException ex) {
+            LOGGER.log(Level.INFO, "Failed to list the artifacts in " + versionDir, ex);
+            return new ModuleEntry(UNKNOWN_TIMESTAMP, generation, artifacts);
+        }
+
+        long storedLastModified = scanTime - lastModified < UNRELIABLE_TIMESTAMP_MS
+                ? UNKNOWN_TIMESTAMP
+                : lastModified;
+        return new ModuleEntry(storedLastModified, generation, artifacts);
+    }
+
+    private void startInitIfNeeded() {
+        if (!initStarted.compareAndSet(false, true)) {
+            return;
+        }
+
+        scanExecutor.execute(Cancellation.UNCANCELABLE_TOKEN, new CancelableTask() {
+            @Override
+            public void execute(CancellationToken cancelToken) {
+                initIndex(cancelToken);
+            }
+        }, null);
+    }
+
+    private void initIndex(CancellationToken cancelToken) {
+        if (tryLoadIndex()) {
+            pruneMissingModules(cancelToken);
+            return;
+        }
+
+        File gradleUserHome = gradleUserHomeProvider.get();
+        if (gradleUserHome == null) {
+            return;
+        }
+
+        Path filesDir = GradleFileUtils.getModuleFilesDir(gradleUserHome.toPath());
+        if (!Files.isDirectory(filesDir)) {
+            return;
+        }
+
+        try {
+            scanAllModules(cancelToken, filesDir);
+        } catch (IOException ex) {
+            LOGGER.log(Level.INFO, "Failed to scan the Gradle cache: " + filesDir, ex);
+        }
+        persistIndex();
+    }
+
+    private void scanAllModules(CancellationToken cancelToken, Path filesDir) throws IOException {
+        // Lookups processed while scanning might have already added a more
+        // recent entry.
+        long scanGeneration = generation.get();
+
+        try (DirectoryStream<Path> groupDirs = Files.newDirectoryStream(filesDir)) {
+            for (Path groupDir: groupDirs) {
+                if (!Files.isDirectory(groupDir)) {
+                    continue;
+                }
+
+                try (DirectoryStream<Path> nameDirs = Files.newDirectoryStream(groupDir)) {
+                    for (Path nameDir: nameDirs) {
+                        if (!Files.isDirectory(nameDir)) {
+                            continue;
+                        }
+
+                        try (DirectoryStream<Path> versionDirs = Files.newDirectoryStream(nameDir)) {
+                            for (Path versionDir: versionDirs) {
+                                cancelToken.checkCanceled();
+
+                                ModuleEntry entry = scanVersionDir(versionDir, tryGetLastModified(versionDir), scanGeneration);
+                                if (!entry.artifacts.isEmpty()) {
+                                    modules.putIfAbsent(versionDir, entry);
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes the modules deleted from the cache since the index was saved,
+     * so that the persisted index does not grow forever.
+     */
+    private void pruneMissingModules(CancellationToken cancelToken) {
+        boolean removedAny = false;
+        for (Path versionDir: modules.keySet()) {
+            cancelToken.checkCanceled();
+
+            if (!Files.isDirectory(versionDir)) {
+                removedAny |= modules.remove(versionDir) != null;
+            }
+        }
+
+        if (removedAny) {
+            persistIndex();
+        }
+    }
+
+    private boolean tryLoadIndex() {
+        Path indexFile = indexFileProvider.get();
+        if (indexFile == null || !Files.isRegularFile(indexFile)) {
+            return false;
+        }
+
+        Object rawIndex;
+        try {
+            rawIndex = SerializationUtils2.deserializeFile(indexFile);
+        } catch (IOException ex) {
+            LOGGER.log(Level.INFO, "Failed to load the index of the Gradle cache: " + indexFile, ex);
+            return false;
+        }
+
+        if (!(rawIndex instanceof PersistentIndex)) {
+            return false;
+        }
+
+        PersistentIndex index = (PersistentIndex)rawIndex;
+        if (index.formatVersion != INDEX_FORMAT_VERSION) {
+            return false;
+        }
+
+        // Loaded entries are always checked before their first use because
+        // the cache might have changed since they were saved.
+        long loadedGeneration = generation.get() - 1;
+        for (Map.Entry<String, PersistentModule> entry: index.modules.entrySet()) {
+            PersistentModule module = entry.getValue();
+            Path versionDir = Paths.get(entry.getKey());
+
+            Map<String, Path> artifacts = new HashMap<>();
+            for (String fileName: module.artifacts.keySet()) {
+                artifacts.put(fileName, versionDir.resolve(module.artifacts.get(fileName)));
+            }
+
+            modules.putIfAbsent(versionDir, new ModuleEntry(module.lastModified, loadedGeneration, artifacts));
+        }
+        return true;
+    }
+
+    private void persistIndex() {
+        indexPersister.execute(new Runnable() {
+            @Override
+            public void run() {
+                saveIndexNow();
+            }
+        });
+    }
+
+    // Visible for testing
+    void saveIndexNow() {
+        Path indexFile = indexFileProvider.get();
+        if (indexFile == null) {
+            return;
+        }
+
+        Map<String, PersistentModule> savedModules = new HashMap<>();
+        for (Map.Entry<Path, ModuleEntry> entry: modules.entrySet()) {
+            Path versionDir = entry.getKey();
+            ModuleEntry module = entry.getValue();
+
+            Map<String, String> artifacts = new HashMap<>();
+            for (Map.Entry<String, Path> artifact: module.artifacts.entrySet()) {
+                artifacts.put(artifact.getKey(), versionDir.relativize(artifact.getValue()).toString());
+            }
+            savedModules.put(versionDir.toString(), new PersistentModule(module.lastModified, artifacts));
+        }
+
+        try {
+            Files.createDirectories(indexFile.getParent());
+            SerializationUtils2.serializeToFile(indexFile, new PersistentIndex(INDEX_FORMAT_VERSION, savedModules));
+        } catch (IOException ex) {
+            LOGGER.log(Level.INFO, "Failed to save the index of the Gradle cache: " + indexFile, ex);
+        }
+    }
+
+    // Visible for testing
+    int getIndexedModuleCount() {
+        return modules.size();
+    }
+
+    private static final class ModuleEntry {
+        public final long lastModified;
+        public final long generation;
+        public final Map<String, Path> artifacts;
+        // true if the entry was returned by a scan of the current lookup
+        public final boolean scannedNow;
+
+        public ModuleEntry(long lastModified, long generation, Map<String, Path> artifacts) {
+            this(lastModified, generation, Collections.unmodifiableMap(artifacts), false);
+        }
+
+        private ModuleEntry(long lastModified, long generation, Map<String, Path> artifacts, boolean scannedNow) {
+            this.lastModified = lastModified;
+            this.generation = generation;
+            this.artifacts = artifacts;
+            this.scannedNow = scannedNow;
+        }
+
+        public ModuleEntry withGeneration(long newGeneration) {
+            return new ModuleEntry(lastModified, newGeneration, artifacts, false);
+        }
+
+        public ModuleEntry asScannedNow() {
+            return new ModuleEntry(lastModified, generation, artifacts, true);
+        }
+
+        public boolean equalArtifacts(ModuleEntry other) {
+            if (other == null) {
+                return artifacts.isEmpty();
+            }
+            return lastModified == other.lastModified && artifacts.equals(other.artifacts);
+        }
+    }
+
+    private static final class PersistentIndex implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        public final int formatVersion;
+        public final Map<String, PersistentModule> modules;
+
+        public PersistentIndex(int formatVersion, Map<String, PersistentModule> modules) {
+            this.formatVersion = formatVersion;
+            this.modules = modules;
+        }
+    }
+
+    private static final class PersistentModule implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        public final long lastModified;
+        public final Map<String, String> artifacts;
+
+        public PersistentModule(long lastModified, Map<String, String> artifacts) {
+            this.lastModified = lastModified;
+            this.artifacts = artifacts;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package org.netbeans.gradle.project.query;
 
 import java.io.File;
+import java.nio.file.Path;
 import javax.swing.event.ChangeListener;
 import org.jtrim.utils.ExceptionHelper;
 import org.netbeans.gradle.project.util.GradleFileUtils;
@@ -19,6 +20,7 @@ public final class GradleCacheByBinaryLookup {
     private final String searchedPackaging;
     private final NbSupplier<File> gradleUserHomeProvider;
     private final NbFunction<FileObject, String> binaryToSearchedEntry;
+    private final GradleCacheArtifactIndex artifactIndex;
 
     public GradleCacheByBinaryLookup(
             String searchedPackaging,
@@ -31,42 +33,77 @@ public final class GradleCacheByBinaryLookup {
         this.searchedPackaging = searchedPackaging;
         this.gradleUserHomeProvider = gradleUserHomeProvider;
         this.binaryToSearchedEntry = binaryToSearchedEntry;
+        this.artifactIndex = GradleCacheArtifactIndex.getDefault();
     }
 
     public static void notifyCacheChange() {
+        GradleCacheArtifactIndex.getDefault().notifyCacheChange();
         CHANGES.fireChange();
     }
 
+    /**
+     * Returns the module of the given binary in the Gradle cache in
+     * {@code "group:name:version"} notation. The Gradle cache stores the
+     * binaries in the form: {@code GROUP/NAME/VERSION/HASH/binary.jar}.
+     *
+     * @param gradleUserHome the Gradle user home directory containing the
+     *   cache. This argument cannot be {@code null}.
+     * @param binary the binary in the cache. This argument cannot be
+     *   {@code null}.
+     * @return the module of the given binary or {@code null} if the binary is
+     *   not in the Gradle cache or is stored in the old cache format
+     */
+    public static String tryGetModuleId(File gradleUserHome, File binary) {
+        ExceptionHelper.checkNotNullArgument(gradleUserHome, "gradleUserHome");
+        ExceptionHelper.checkNotNullArgument(binary, "binary");
+
+        if (!NbFileUtils.isParentOrSame(gradleUserHome, binary)) {
+            return null;
+        }
+
+        File hashDir = binary.getParentFile();
+        File versionDir = hashDir != null ? hashDir.getParentFile() : null;
+        File nameDir = versionDir != null ? versionDir.getParentFile() : null;
+        File groupDir = nameDir != null ? nameDir.getParentFile() : null;
+        if (groupDir == null || GradleFileUtils.isKnownBinaryDirName(versionDir.getName())) {
+            return null;
+        }
+
+        return groupDir.getName() + ":" + nameDir.getName() + ":" + versionDir.getName();
+    }
+
     public SourceForBinaryQueryImplementation2.Result tryFindEntryByBinary(File binaryRoot) {
         File gradleUserHome = gradleUserHomeProvider.get();
         if (gradleUserHome == null) {
             return null;
         }
 
-        final FileObject binaryRootObj = FileUtil.toFileObject(binaryRoot);
-        if (binaryRootObj == null) {
+        if (binaryRoot.equals(gradleUserHome) || !NbFileUtils.isParentOrSame(gradleUserHome, binaryRoot)) {
             return null;
         }
 
-        FileObject cacheHome = FileUtil.toFileObject(gradleUserHome);
-        if (cacheHome == null || !FileUtil.isParentOf(cacheHome, binaryRootObj)) {
+        File hashDir = binaryRoot.getParentFile();
+        if (hashDir == null) {
             return null;
         }
 
-        FileObject hashDir = binaryRootObj.getParent();
-        if (hashDir == null) {
+        File binDir = hashDir.getParentFile();
+        if (binDir == null) {
             return null;
         }
 
-        FileObject binDir = hashDir.getParent();
-        if (binDir == null) {
+        final FileObject binaryRootObj = FileUtil.toFileObject(binaryRoot);
+        if (binaryRootObj == null) {
             return null;
         }
 
         String sourceFileName = binaryToSearchedEntry.apply(binaryRootObj);
 
-        if (GradleFileUtils.isKnownBinaryDirName(binDir.getNameExt())) {
-            final FileObject artifactRoot = binDir.getParent();
+        if (GradleFileUtils.isKnownBinaryDirName(binDir.getName())) {
+            File artifactRootFile = binDir.getParentFile();
+            final FileObject artifactRoot = artifactRootFile != null
+                    ? FileUtil.toFileObject(artifactRootFile)
+                    : null;
             if (artifactRoot == null) {
                 return null;
             }
@@ -74,7 +111,7 @@ public final class GradleCacheByBinaryLookup {
             return new OldFormatCacheResult(artifactRoot, searchedPackaging, sourceFileName);
         }
 
-        return new NewFormatCacheResult(binDir, sourceFileName);
+        return new NewFormatCacheResult(artifactIndex, binDir.toPath(), sourceFileName);
     }
 
     private static final class EventSource
@@ -112,10 +149,12 @@ public final class GradleCacheByBinaryLookup {
     }
 
     private static class NewFormatCacheResult implements SourceForBinaryQueryImplementation2.Result {
-        private final FileObject artifactRoot;
+        private final GradleCacheArtifactIndex artifactIndex;
+        private final Path artifactRoot;
         private final String sourceFileName;
 
-        public NewFormatCacheResult(FileObject artifactRoot, String sourceFileName) {
+        public NewFormatCacheResult(GradleCacheArtifactIndex artifactIndex, Path artifactRoot, String sourceFileName) {
+            this.artifactIndex = artifactIndex;
             this.artifactRoot = artifactRoot;
             this.sourceFileName = sourceFileName;
         }
@@ -132,7 +171,8 @@ public final class GradleCacheByBinaryLookup {
             // ...... \\HASH_OF_SOURCE\\binary-sources.XXX
             // ...... \\HASH_OF_BINARY\\binary.XXX
 
-            FileObject srcFile = NbFileUtils.getFileFromASubDir(artifactRoot, sourceFileName);
+            Path srcPath = artifactIndex.tryGetArtifact(artifactRoot, sourceFileName);
+            FileObject srcFile = srcPath != null ? NbFileUtils.asArchiveOrDir(srcPath.toFile()) : null;
             return srcFile != null ? new FileObject[]{srcFile} : NO_ROOTS;
         }
 
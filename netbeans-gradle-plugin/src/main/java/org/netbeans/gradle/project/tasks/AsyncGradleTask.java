@@ -28,6 +28,8 @@ import org.gradle.tooling.BuildLauncher;
 import org.gradle.tooling.GradleConnector;
 import org.gradle.tooling.ModelBuilder;
 import org.gradle.tooling.ProjectConnection;
+import org.gradle.tooling.events.OperationType;
+import org.gradle.tooling.events.ProgressListener;
 import org.gradle.tooling.internal.consumer.DefaultCancellationTokenSource;
 import org.gradle.tooling.model.UnsupportedMethodException;
 import org.gradle.tooling.model.build.BuildEnvironment;
@@ -56,6 +58,7 @@ import org.netbeans.gradle.project.api.task.GradleCommandContext;
 import org.netbeans.gradle.project.api.task.GradleCommandService;
 import org.netbeans.gradle.project.api.task.GradleCommandServiceFactory;
 import org.netbeans.gradle.project.api.task.GradleTargetVerifier;
+import org.netbeans.gradle.project.api.task.SingleExecutionProgressListener;
 import org.netbeans.gradle.project.api.task.TaskVariable;
 import org.netbeans.gradle.project.api.task.TaskVariableMap;
 import org.netbeans.gradle.project.model.DefaultGradleModelLoader;
@@ -331,6 +334,23 @@ public final class AsyncGradleTask implements Runnable {
         }
     }
 
+    private static void addProgressListener(
+            NbGradleProject project,
+            GradleTaskDef taskDef,
+            BuildLauncher buildLauncher) {
+
+        SingleExecutionProgressListener listenerFactory = taskDef.getProgressListener();
+        Set<OperationType> operationTypes = listenerFactory.getOperationTypes();
+        if (operationTypes.isEmpty()) {
+            return;
+        }
+
+        ProgressListener listener = listenerFactory.startExecution(project);
+        if (listener != null) {
+            buildLauncher.addProgressListener(listener, operationTypes);
+        }
+    }
+
     private static OutputLinkFinder projectDirLinks(NbGradleProject project) {
         List<Path> roots = new ArrayList<>();
         roots.add(project.currentModel().getValue().getSettingsDir());
@@ -578,6 +598,7 @@ public final class AsyncGradleTask implements Runnable {
                                 buildOutput.println();
 
                                 configureBuildLauncher(targetSetup, buildLauncher, finalTaskDef, initScripts);
+                                addProgressListener(project, finalTaskDef, buildLauncher);
                                 runBuild(cancelToken, buildLauncher);
 
                                 taskDef.getSuccessfulCommandFinalizer().finalizeSuccessfulCommand(
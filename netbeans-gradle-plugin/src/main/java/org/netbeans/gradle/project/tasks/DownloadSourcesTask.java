@@ -1,59 +1,217 @@
 package org.netbeans.gradle.project.tasks;
 
 import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import org.gradle.tooling.GradleConnector;
-import org.gradle.tooling.ModelBuilder;
 import org.gradle.tooling.ProjectConnection;
-import org.gradle.tooling.model.idea.IdeaProject;
 import org.jtrim.cancel.CancellationToken;
 import org.jtrim.utils.ExceptionHelper;
 import org.netbeans.api.progress.ProgressHandle;
 import org.netbeans.api.project.Project;
+import org.netbeans.gradle.model.BuilderResult;
+import org.netbeans.gradle.model.FetchedModels;
+import org.netbeans.gradle.model.FetchedModelsOrError;
+import org.netbeans.gradle.model.FetchedProjectModels;
+import org.netbeans.gradle.model.GenericModelFetcher;
+import org.netbeans.gradle.model.GradleBuildInfoQuery;
 import org.netbeans.gradle.model.OperationInitializer;
+import org.netbeans.gradle.model.api.GradleProjectInfoQuery2;
+import org.netbeans.gradle.model.java.DownloadedArtifactsModel;
+import org.netbeans.gradle.model.java.JavaModelBuilders;
+import org.netbeans.gradle.project.NbGradleProject;
+import org.netbeans.gradle.project.NbGradleProjectFactory;
 import org.netbeans.gradle.project.NbStrings;
+import org.netbeans.gradle.project.api.modelquery.GradleModelDef;
 import org.netbeans.gradle.project.model.DefaultGradleModelLoader;
+import org.netbeans.gradle.project.query.GradleCacheByBinaryLookup;
+import org.netbeans.gradle.project.query.GradleCacheSourceForBinaryQuery;
+import org.netbeans.gradle.project.util.GradleFileUtils;
+import org.netbeans.spi.java.queries.SourceForBinaryQueryImplementation2;
 import org.openide.filesystems.FileObject;
 import org.openide.filesystems.FileUtil;
 
+/**
+ * Downloads the sources and the javadoc of the given binaries from the
+ * repositories of the project. Only the binaries in the Gradle cache whose
+ * sources are not yet downloaded are requested, and nothing else is resolved.
+ */
 public final class DownloadSourcesTask implements DaemonTask {
+    private static final Logger LOGGER = Logger.getLogger(DownloadSourcesTask.class.getName());
+
+    private static final String RESULT_KEY = DownloadSourcesTask.class.getName();
+    private static final List<String> DOWNLOADED_CLASSIFIERS = Collections.unmodifiableList(Arrays.asList(
+            "sources", "javadoc"));
+
     private final Project project;
+    private final Collection<File> binaries;
 
-    public DownloadSourcesTask(Project project) {
+    public DownloadSourcesTask(Project project, Collection<File> binaries) {
         ExceptionHelper.checkNotNullArgument(project, "project");
+        ExceptionHelper.checkNotNullElements(binaries, "binaries");
+
         this.project = project;
+        this.binaries = new ArrayList<>(binaries);
     }
 
-    public static DaemonTaskDef createTaskDef(Project project) {
+    public static DaemonTaskDef createTaskDef(Project project, Collection<File> binaries) {
         return new DaemonTaskDef(
                 NbStrings.getDownloadSourcesProgressCaption(),
                 true,
-                new DownloadSourcesTask(project));
+                new DownloadSourcesTask(project, binaries));
     }
 
-    @Override
-    public void run(CancellationToken cancelToken, ProgressHandle progress) {
+    private Set<String> getModulesWithoutSources() {
+        File gradleUserHome = GradleFileUtils.GRADLE_USER_HOME.getValue();
+        if (gradleUserHome == null) {
+            return Collections.emptySet();
+        }
+
+        GradleCacheByBinaryLookup sourceLookup = new GradleCacheByBinaryLookup(
+                GradleFileUtils.SOURCE_DIR_NAME,
+                GradleFileUtils.GRADLE_USER_HOME_PROVIDER,
+                GradleCacheSourceForBinaryQuery.binaryToSourceName());
+
+        Set<String> result = new LinkedHashSet<>();
+        for (File binary: binaries) {
+            String moduleId = GradleCacheByBinaryLookup.tryGetModuleId(gradleUserHome, binary);
+            if (moduleId == null || result.contains(moduleId)) {
+                continue;
+            }
+
+            SourceForBinaryQueryImplementation2.Result sources = sourceLookup.tryFindEntryByBinary(binary);
+            if (sources != null && sources.getRoots().length == 0) {
+                result.add(moduleId);
+            }
+        }
+        return result;
+    }
+
+    private String getProjectPath() {
+        NbGradleProject gradleProject = NbGradleProjectFactory.tryGetGradleProject(project);
+        if (gradleProject == null) {
+            return ":";
+        }
+
+        return gradleProject.currentModel().getValue().getProjectDef().getMainProject().getProjectFullName();
+    }
+
+    private Map<Object, List<GradleProjectInfoQuery2<?>>> getProjectInfoRequests(Collection<String> modules) {
+        GradleModelDef modelDef = GradleModelDef.fromProjectInfoBuilders2(
+                JavaModelBuilders.downloadArtifactsBuilder(getProjectPath(), modules, DOWNLOADED_CLASSIFIERS));
+
+        List<GradleProjectInfoQuery2<?>> queries = new ArrayList<>(modelDef.getProjectInfoQueries2());
+        return Collections.<Object, List<GradleProjectInfoQuery2<?>>>singletonMap(RESULT_KEY, queries);
+    }
+
+    private FetchedModels fetchModels(
+            CancellationToken cancelToken,
+            ProgressHandle progress,
+            Collection<String> modules) throws IOException {
+
         GradleConnector connector = DefaultGradleModelLoader.createGradleConnector(cancelToken, project);
         FileObject projectDirObj = project.getProjectDirectory();
         File projectDir = FileUtil.toFile(projectDirObj);
         if (projectDir == null) {
-            throw new RuntimeException("Missing project directory: " + projectDirObj);
+            throw new IOException("Missing project directory: " + projectDirObj);
         }
 
         connector.forProjectDirectory(projectDir);
 
         OperationInitializer setup = DefaultGradleModelLoader.modelBuilderSetup(project, progress);
 
-        // FIXME: Currently we just fetch IdeaProject and rely on that to fetch
-        //   the sources. Then the source locator query will find the sources
-        //   in the Gradle cache.
+        GenericModelFetcher modelFetcher = new GenericModelFetcher(
+                Collections.<Object, List<GradleBuildInfoQuery<?>>>emptyMap(),
+                getProjectInfoRequests(modules),
+                Collections.<Class<?>>emptySet());
+
+        FetchedModelsOrError fetchedModelsOrError;
         ProjectConnection connection = connector.connect();
         try {
-            ModelBuilder<IdeaProject> builder = connection.model(IdeaProject.class);
-            DefaultGradleModelLoader.setupLongRunningOP(setup, builder);
-
-            builder.get();
+            fetchedModelsOrError = modelFetcher.getModels(connection, setup);
         } finally {
             connection.close();
         }
+
+        FetchedModels fetchedModels = fetchedModelsOrError.getModels();
+        if (fetchedModels == null) {
+            Throwable error = fetchedModelsOrError.getBuildScriptEvaluationError();
+            if (error == null) {
+                error = fetchedModelsOrError.getUnexpectedError();
+            }
+            throw new IOException("Failed to download the sources.", error);
+        }
+        return fetchedModels;
+    }
+
+    private static DownloadedArtifactsModel tryGetResult(FetchedModels fetchedModels) throws IOException {
+        List<FetchedProjectModels> allProjectModels = new ArrayList<>(fetchedModels.getOtherProjectModels().size() + 1);
+        allProjectModels.add(fetchedModels.getDefaultProjectModels());
+        allProjectModels.addAll(fetchedModels.getOtherProjectModels());
+
+        for (FetchedProjectModels projectModels: allProjectModels) {
+            for (BuilderResult builderResult: projectModels.getProjectInfoResults(RESULT_KEY)) {
+                if (builderResult.getIssue() != null) {
+                    throw new IOException("Failed to download the sources.", builderResult.getIssue().getException());
+                }
+
+                Object result = builderResult.getResultObject();
+                if (result instanceof DownloadedArtifactsModel) {
+                    return (DownloadedArtifactsModel)result;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static void logMissingSources(Collection<String> modules, DownloadedArtifactsModel downloaded) {
+        if (!LOGGER.isLoggable(Level.INFO)) {
+            return;
+        }
+
+        Map<String, File> artifacts = downloaded != null
+                ? downloaded.getArtifacts()
+                : Collections.<String, File>emptyMap();
+
+        List<String> missing = new ArrayList<>();
+        for (String module: modules) {
+            if (!artifacts.containsKey(module + ":sources")) {
+                missing.add(module);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            LOGGER.log(Level.INFO, "Sources are not available for: {0}", missing);
+        }
+    }
+
+    @Override
+    public void run(CancellationToken cancelToken, ProgressHandle progress) {
+        Set<String> modules = getModulesWithoutSources();
+        if (modules.isEmpty()) {
+            return;
+        }
+
+        // Gradle reports each downloaded artifact through the progress
+        // listener of the setup.
+        progress.progress(NbStrings.getDownloadSourcesOfModules(modules.size()));
+
+        try {
+            FetchedModels fetchedModels = fetchModels(cancelToken, progress, modules);
+            logMissingSources(modules, tryGetResult(fetchedModels));
+        } catch (IOException ex) {
+            throw new RuntimeException(ex);
+        } finally {
+            GradleCacheByBinaryLookup.notifyCacheChange();
+        }
     }
 }
@@ -4,8 +4,11 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import org.gradle.tooling.events.OperationType;
+import org.gradle.tooling.events.ProgressListener;
 import org.jtrim.cancel.Cancellation;
 import org.jtrim.cancel.CancellationToken;
 import org.jtrim.utils.ExceptionHelper;
@@ -20,12 +23,14 @@ import org.netbeans.gradle.project.api.task.ContextAwareCommandCompleteAction;
 import org.netbeans.gradle.project.api.task.ContextAwareCommandCompleteListener;
 import org.netbeans.gradle.project.api.task.ContextAwareCommandFinalizer;
 import org.netbeans.gradle.project.api.task.ContextAwareGradleTargetVerifier;
+import org.netbeans.gradle.project.api.task.ContextAwareProgressListenerAction;
 import org.netbeans.gradle.project.api.task.CustomCommandActions;
 import org.netbeans.gradle.project.api.task.ExecutedCommandContext;
 import org.netbeans.gradle.project.api.task.GradleCommandServiceFactory;
 import org.netbeans.gradle.project.api.task.GradleCommandTemplate;
 import org.netbeans.gradle.project.api.task.GradleTargetVerifier;
 import org.netbeans.gradle.project.api.task.SingleExecutionOutputProcessor;
+import org.netbeans.gradle.project.api.task.SingleExecutionProgressListener;
 import org.netbeans.gradle.project.api.task.TaskKind;
 import org.netbeans.gradle.project.api.task.TaskOutputProcessor;
 import org.netbeans.gradle.project.api.task.TaskVariableMap;
@@ -50,6 +55,7 @@ public final class GradleTaskDef {
 
         private SingleExecutionOutputProcessor stdOutListener;
         private SingleExecutionOutputProcessor stdErrListener;
+        private SingleExecutionProgressListener progressListener;
         private ContextAwareCommandFinalizer successfulCommandFinalizer;
         private ContextAwareCommandCompleteListener commandFinalizer;
         private GradleTargetVerifier gradleTargetVerifier;
@@ -69,6 +75,7 @@ public final class GradleTaskDef {
             this.jvmArguments = taskDef.getJvmArguments();
             this.stdOutListener = taskDef.getStdOutListener();
             this.stdErrListener = taskDef.getStdErrListener();
+            this.progressListener = taskDef.getProgressListener();
             this.nonBlocking = taskDef.isNonBlocking();
             this.cleanOutput = taskDef.isCleanOutput();
             this.successfulCommandFinalizer = taskDef.getSuccessfulCommandFinalizer();
@@ -98,6 +105,7 @@ public final class GradleTaskDef {
             this.jvmArguments = Collections.emptyList();
             this.stdOutListener = NoOpSingleExecutionOutputProcessor.INSTANCE;
             this.stdErrListener = NoOpSingleExecutionOutputProcessor.INSTANCE;
+            this.progressListener = NoOpProgressListener.INSTANCE;
             this.nonBlocking = false;
             this.cleanOutput = false;
             this.successfulCommandFinalizer = NoOpSuccessfulFinalizer.INSTANCE;
@@ -261,6 +269,15 @@ public final class GradleTaskDef {
             this.stdErrListener = stdErrListener;
         }
 
+        public SingleExecutionProgressListener getProgressListener() {
+            return progressListener;
+        }
+
+        public void setProgressListener(SingleExecutionProgressListener progressListener) {
+            ExceptionHelper.checkNotNullArgument(progressListener, "progressListener");
+            this.progressListener = progressListener;
+        }
+
         public ContextAwareCommandFinalizer getSuccessfulCommandFinalizer() {
             return successfulCommandFinalizer;
         }
@@ -299,6 +316,7 @@ public final class GradleTaskDef {
     private final List<String> jvmArguments;
     private final SingleExecutionOutputProcessor stdOutListener;
     private final SingleExecutionOutputProcessor stdErrListener;
+    private final SingleExecutionProgressListener progressListener;
     private final ContextAwareCommandFinalizer successfulCommandFinalizer;
     private final ContextAwareCommandCompleteListener commandFinalizer;
     private final GradleTargetVerifier gradleTargetVerifier;
@@ -317,6 +335,7 @@ public final class GradleTaskDef {
         this.jvmArguments = builder.getJvmArguments();
         this.stdOutListener = builder.getStdOutListener();
         this.stdErrListener = builder.getStdErrListener();
+        this.progressListener = builder.getProgressListener();
         this.nonBlocking = builder.isNonBlocking();
         this.cleanOutput = builder.isCleanOutput();
         this.successfulCommandFinalizer = builder.getSuccessfulCommandFinalizer();
@@ -412,6 +431,10 @@ public final class GradleTaskDef {
         return stdErrListener;
     }
 
+    public SingleExecutionProgressListener getProgressListener() {
+        return progressListener;
+    }
+
     public ContextAwareCommandFinalizer getSuccessfulCommandFinalizer() {
         return successfulCommandFinalizer;
     }
@@ -622,6 +645,11 @@ public final class GradleTaskDef {
             builder.setSuccessfulCommandFinalizer(finalizer);
         }
 
+        ContextAwareProgressListenerAction contextAwareProgressListener = customActions.getContextAwareProgressListener();
+        if (contextAwareProgressListener != null) {
+            builder.setProgressListener(contextAwareProgressListener.startCommand(project, actionContext));
+        }
+
         ContextAwareCommandCompleteAction contextAwareFinalizer = customActions.getContextAwareFinalizer();
         if (contextAwareFinalizer != null) {
             ContextAwareCommandCompleteListener finalizer
@@ -656,6 +684,20 @@ public final class GradleTaskDef {
         }
     }
 
+    private enum NoOpProgressListener implements SingleExecutionProgressListener {
+        INSTANCE;
+
+        @Override
+        public Set<OperationType> getOperationTypes() {
+            return Collections.emptySet();
+        }
+
+        @Override
+        public ProgressListener startExecution(Project project) {
+            return null;
+        }
+    }
+
     private enum NoOpSuccessfulFinalizer implements ContextAwareCommandFinalizer {
         INSTANCE;
 
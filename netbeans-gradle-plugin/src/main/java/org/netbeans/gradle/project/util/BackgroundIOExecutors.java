@@ -0,0 +1,181 @@
+package org.netbeans.gradle.project.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.jtrim.cancel.CancellationToken;
+import org.jtrim.concurrent.CancelableTask;
+import org.jtrim.concurrent.CleanupTask;
+import org.jtrim.concurrent.MonitorableTaskExecutorService;
+import org.jtrim.concurrent.TaskExecutor;
+import org.jtrim.utils.ExceptionHelper;
+import org.netbeans.gradle.project.tasks.PriorityAwareExecutor;
+
+/**
+ * Defines the executors of the housekeeping I/O of the plugin: loading and
+ * saving settings and writing caches. All these tasks are executed by a single
+ * background thread, so they do not compete with each other for the disk.
+ * <P>
+ * Settings tasks are executed before cache writes. Cache writes are also held
+ * back while the IDE is busy (see {@link #startBusyPeriod() startBusyPeriod}),
+ * because nobody waits for them.
+ */
+public final class BackgroundIOExecutors {
+    private static final Logger LOGGER = Logger.getLogger(BackgroundIOExecutors.class.getName());
+
+    private static final MonitorableTaskExecutorService IO_THREAD
+            = NbTaskExecutors.newExecutor("Gradle-Background-IO", 1);
+    private static final PriorityAwareExecutor IO_EXECUTOR = new PriorityAwareExecutor(IO_THREAD);
+
+    private static final BusyThrottledExecutor CACHE_EXECUTOR
+            = new BusyThrottledExecutor(IO_EXECUTOR.getLowPriorityExecutor());
+
+    /**
+     * Returns the executor loading and saving settings. The tasks submitted
+     * to this executor are executed in submission order.
+     *
+     * @return the executor loading and saving settings. This method never
+     *   returns {@code null}.
+     */
+    public static TaskExecutor getSettingsExecutor() {
+        return IO_EXECUTOR.getHighPriorityExecutor();
+    }
+
+    /**
+     * Returns the executor writing caches. The tasks submitted to this executor
+     * are executed in submission order but only after every pending settings
+     * task, and not while the IDE is busy.
+     *
+     * @return the executor writing caches. This method never returns
+     *   {@code null}.
+     */
+    public static TaskExecutor getCacheExecutor() {
+        return CACHE_EXECUTOR;
+    }
+
+    /**
+     * Marks the IDE busy until the returned reference is closed. Cache writes
+     * are not started while there is at least one unclosed reference.
+     *
+     * @return the reference to be closed once the IDE is no longer busy. This
+     *   method never returns {@code null}.
+     */
+    public static CloseableAction.Ref startBusyPeriod() {
+        return CACHE_EXECUTOR.startBusyPeriod();
+    }
+
+    /**
+     * Returns the number of tasks waiting for the background I/O thread,
+     * including the cache writes held back because the IDE is busy.
+     *
+     * @return the number of tasks waiting to be executed. This method
+     *   always returns a value greater than or equal to zero.
+     */
+    public static long getNumberOfQueuedTasks() {
+        return IO_THREAD.getNumberOfQueuedTasks() + CACHE_EXECUTOR.getNumberOfDeferredTasks();
+    }
+
+    static final class BusyThrottledExecutor implements TaskExecutor {
+        private final TaskExecutor wrapped;
+
+        private final Lock mainLock;
+        private int busyCount;
+        private final List<DeferredTask> deferredTasks;
+
+        public BusyThrottledExecutor(TaskExecutor wrapped) {
+            ExceptionHelper.checkNotNullArgument(wrapped, "wrapped");
+
+            this.wrapped = wrapped;
+            this.mainLock = new ReentrantLock();
+            this.busyCount = 0;
+            this.deferredTasks = new ArrayList<>();
+        }
+
+        @Override
+        public void execute(CancellationToken cancelToken, CancelableTask task, CleanupTask cleanupTask) {
+            ExceptionHelper.checkNotNullArgument(cancelToken, "cancelToken");
+            ExceptionHelper.checkNotNullArgument(task, "task");
+
+            // Submitting while holding the lock keeps the submission order
+            // with the deferred tasks submitted by endBusyPeriod. This is safe
+            // because the wrapped executor only queues the task.
+            mainLock.lock();
+            try {
+                if (busyCount > 0) {
+                    deferredTasks.add(new DeferredTask(cancelToken, task, cleanupTask));
+                }
+                else {
+                    wrapped.execute(cancelToken, task, cleanupTask);
+                }
+            } finally {
+                mainLock.unlock();
+            }
+        }
+
+        public int getNumberOfDeferredTasks() {
+            mainLock.lock();
+            try {
+                return deferredTasks.size();
+            } finally {
+                mainLock.unlock();
+            }
+        }
+
+        public CloseableAction.Ref startBusyPeriod() {
+            mainLock.lock();
+            try {
+                busyCount++;
+            } finally {
+                mainLock.unlock();
+            }
+
+            final AtomicBoolean closed = new AtomicBoolean(false);
+            return new CloseableAction.Ref() {
+                @Override
+                public void close() {
+                    if (closed.compareAndSet(false, true)) {
+                        endBusyPeriod();
+                    }
+                }
+            };
+        }
+
+        private void endBusyPeriod() {
+            mainLock.lock();
+            try {
+                busyCount--;
+                if (busyCount > 0 || deferredTasks.isEmpty()) {
+                    return;
+                }
+
+                LOGGER.log(Level.FINE, "Starting {0} deferred cache writes.", deferredTasks.size());
+                for (DeferredTask task: deferredTasks) {
+                    wrapped.execute(task.cancelToken, task.task, task.cleanupTask);
+                }
+                deferredTasks.clear();
+            } finally {
+                mainLock.unlock();
+            }
+        }
+    }
+
+    private static final class DeferredTask {
+        private final CancellationToken cancelToken;
+        private final CancelableTask task;
+        private final CleanupTask cleanupTask;
+
+        public DeferredTask(CancellationToken cancelToken, CancelableTask task, CleanupTask cleanupTask) {
+            this.cancelToken = cancelToken;
+            this.task = task;
+            this.cleanupTask = cleanupTask;
+        }
+    }
+
+    private BackgroundIOExecutors() {
+        throw new AssertionError();
+    }
+}
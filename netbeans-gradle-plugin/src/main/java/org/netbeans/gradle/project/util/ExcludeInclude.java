@@ -3,7 +3,10 @@ package org.netbeans.gradle.project.util;
 import java.nio.file.FileSystem;
 import java.nio.file.Path;
 import java.nio.file.PathMatcher;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import org.jtrim.utils.ExceptionHelper;
 
 public final class ExcludeInclude {
     public static boolean includeFile(
@@ -12,42 +15,53 @@ public final class ExcludeInclude {
             Collection<String> excludePatterns,
             Collection<String> includePatterns) {
 
-        Path absoluteRoot = rootPath.toAbsolutePath();
-        Path testedPath = file.toAbsolutePath();
-
-        if (!testedPath.startsWith(absoluteRoot)) {
-            return false;
-        }
+        return compile(file.getFileSystem(), excludePatterns, includePatterns).includeFile(file, rootPath);
+    }
 
-        Path relTestedPath = absoluteRoot.relativize(testedPath);
+    /**
+     * Converts the given Ant style patterns to {@code PathMatcher}s, so that
+     * they do not need to be parsed again for every checked file.
+     *
+     * @param fileSystem the file system of the files to be checked. This
+     *   argument cannot be {@code null}.
+     * @param excludePatterns the Ant style patterns of the excluded files.
+     *   This argument cannot be {@code null}.
+     * @param includePatterns the Ant style patterns of the included files.
+     *   If this collection is empty, every file not excluded is included.
+     *   This argument cannot be {@code null}.
+     * @return the compiled rules. This method never returns {@code null}.
+     */
+    public static CompiledRules compile(
+            FileSystem fileSystem,
+            Collection<String> excludePatterns,
+            Collection<String> includePatterns) {
+        ExceptionHelper.checkNotNullArgument(fileSystem, "fileSystem");
+        ExceptionHelper.checkNotNullArgument(excludePatterns, "excludePatterns");
+        ExceptionHelper.checkNotNullArgument(includePatterns, "includePatterns");
+
+        return new CompiledRules(
+                fileSystem,
+                toMatchers(fileSystem, excludePatterns),
+                toMatchers(fileSystem, includePatterns));
+    }
 
-        if (!includePatterns.isEmpty()) {
-            if (!matchesAnyAntPattern(relTestedPath, includePatterns)) {
-                return false;
-            }
+    private static List<PathMatcher> toMatchers(FileSystem fileSystem, Collection<String> patterns) {
+        List<PathMatcher> result = new ArrayList<>(patterns.size());
+        for (String pattern: patterns) {
+            result.add(fileSystem.getPathMatcher(toMatchStr(pattern)));
         }
-
-        return !matchesAnyAntPattern(relTestedPath, excludePatterns);
+        return result;
     }
 
-    private static boolean matchesAnyAntPattern(
-            Path path,
-            Collection<String> patterns) {
-
-        for (String pattern: patterns) {
-            if (matchesAntPattern(path, pattern)) {
+    private static boolean matchesAny(Path path, List<PathMatcher> matchers) {
+        for (PathMatcher matcher: matchers) {
+            if (matcher.matches(path)) {
                 return true;
             }
         }
         return false;
     }
 
-    private static boolean matchesAntPattern(Path path, String pattern) {
-        FileSystem fileSystem = path.getFileSystem();
-        PathMatcher matcher = fileSystem.getPathMatcher(toMatchStr(pattern));
-        return matcher.matches(path);
-    }
-
     private static String toMatchStr(String pattern) {
         String normPattern = pattern.replace("\\\\", "/");
 
@@ -72,6 +86,44 @@ public final class ExcludeInclude {
         return result.toString();
     }
 
+    public static final class CompiledRules {
+        private final FileSystem fileSystem;
+        private final List<PathMatcher> excludeMatchers;
+        private final List<PathMatcher> includeMatchers;
+
+        private CompiledRules(
+                FileSystem fileSystem,
+                List<PathMatcher> excludeMatchers,
+                List<PathMatcher> includeMatchers) {
+            this.fileSystem = fileSystem;
+            this.excludeMatchers = excludeMatchers;
+            this.includeMatchers = includeMatchers;
+        }
+
+        public FileSystem getFileSystem() {
+            return fileSystem;
+        }
+
+        public boolean includeFile(Path file, Path rootPath) {
+            Path absoluteRoot = rootPath.toAbsolutePath();
+            Path testedPath = file.toAbsolutePath();
+
+            if (!testedPath.startsWith(absoluteRoot)) {
+                return false;
+            }
+
+            Path relTestedPath = absoluteRoot.relativize(testedPath);
+
+            if (!includeMatchers.isEmpty()) {
+                if (!matchesAny(relTestedPath, includeMatchers)) {
+                    return false;
+                }
+            }
+
+            return !matchesAny(relTestedPath, excludeMatchers);
+        }
+    }
+
     private ExcludeInclude() {
         throw new AssertionError();
     }
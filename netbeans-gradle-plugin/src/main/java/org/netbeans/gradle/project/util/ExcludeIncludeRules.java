@@ -5,6 +5,7 @@ import java.io.InvalidObjectException;
 import java.io.ObjectInputStream;
 import java.io.ObjectStreamException;
 import java.io.Serializable;
+import java.nio.file.FileSystem;
 import java.nio.file.Path;
 import java.util.Objects;
 import org.jtrim.utils.ExceptionHelper;
@@ -19,6 +20,7 @@ public final class ExcludeIncludeRules implements FileGroupFilter, Serializable
             SourceIncludePatterns.ALLOW_ALL);
 
     private final SourceIncludePatterns sourceIncludePatterns;
+    private transient volatile ExcludeInclude.CompiledRules compiledRules;
 
     private ExcludeIncludeRules(SourceIncludePatterns sourceIncludePatterns) {
         ExceptionHelper.checkNotNullArgument(sourceIncludePatterns, "sourceIncludePatterns");
@@ -78,11 +80,19 @@ public final class ExcludeIncludeRules implements FileGroupFilter, Serializable
             return true;
         }
 
-        return ExcludeInclude.includeFile(
-                file,
-                rootPath,
-                sourceIncludePatterns.getExcludePatterns(),
-                sourceIncludePatterns.getIncludePatterns());
+        return getCompiledRules(file.getFileSystem()).includeFile(file, rootPath);
+    }
+
+    private ExcludeInclude.CompiledRules getCompiledRules(FileSystem fileSystem) {
+        ExcludeInclude.CompiledRules result = compiledRules;
+        if (result == null || result.getFileSystem() != fileSystem) {
+            result = ExcludeInclude.compile(
+                    fileSystem,
+                    sourceIncludePatterns.getExcludePatterns(),
+                    sourceIncludePatterns.getIncludePatterns());
+            compiledRules = result;
+        }
+        return result;
     }
 
     @Override
@@ -145,6 +145,14 @@ public final class GradleFileUtils {
         return gradleHome.getFileObject("src");
     }
 
+    // The module cache of the Gradle user home looks like this:
+    //
+    // GRADLE_USER_HOME\\caches\\modules-2\\files-2.1\\GROUP\\NAME\\VERSION\\HASH\\artifact.jar
+
+    public static Path getModuleFilesDir(Path gradleUserHome) {
+        return gradleUserHome.resolve("caches").resolve("modules-2").resolve("files-2.1");
+    }
+
     public static Path toPath(FileObject fileObj) {
         return NbFileUtils.asPath(FileUtil.toFile(fileObj));
     }
@@ -1,11 +1,13 @@
 package org.netbeans.gradle.project.view;
 
 import java.awt.Image;
+import java.io.File;
 import java.lang.annotation.Annotation;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Level;
@@ -24,6 +26,7 @@ import org.netbeans.gradle.project.api.nodes.ManualRefreshedNodes;
 import org.netbeans.gradle.project.api.nodes.SingleNodeFactory;
 import org.netbeans.gradle.project.event.GenericChangeListenerManager;
 import org.netbeans.gradle.project.event.PausableChangeListenerManager;
+import org.netbeans.gradle.project.lookups.DynamicLookup;
 import org.netbeans.gradle.project.model.ModelRefreshListener;
 import org.netbeans.gradle.project.model.NbGradleModel;
 import org.netbeans.gradle.project.model.NbGradleProjectTree;
@@ -49,6 +52,7 @@ implements
     private final GradleProjectLogicalViewProvider parent;
     private final AtomicReference<NodeExtensions> nodeExtensionsRef;
     private final AtomicBoolean lastHasSubprojects;
+    private final DynamicLookup subProjectsLookup;
     private final ListenerRegistrations listenerRefs;
     private final PausableChangeListenerManager refreshNotifier;
     // Nodes comming from the NodeFactory.Registration annotation
@@ -63,6 +67,7 @@ implements
         this.parent = parent;
         this.nodeExtensionsRef = new AtomicReference<>(NodeExtensions.EMPTY);
         this.lastHasSubprojects = new AtomicBoolean(false);
+        this.subProjectsLookup = new DynamicLookup();
         this.listenerRefs = new ListenerRegistrations();
         this.annotationChildNodes = new AnnotationChildNodes(project);
         this.createdOnce = false;
@@ -170,6 +175,9 @@ implements
         listenerRefs.add(project.currentModel().addChangeListener(new Runnable() {
             @Override
             public void run() {
+                // The "Subprojects" node is kept when the model changes.
+                updateSubProjectsLookup();
+
                 NodeExtensions newNodeExtensions
                         = NodeExtensions.create(getExtensionNodes(), simpleChangeListener);
 
@@ -245,57 +253,60 @@ implements
     }
 
     private void addChildren(List<SingleNodeFactory> toPopulate) {
-        final NbGradleModel shownModule = getShownModule();
-        final Collection<NbGradleProjectTree> immediateChildren
-                = shownModule.getMainProject().getChildren();
-
-        if (immediateChildren.isEmpty()) {
+        if (getShownModule().getMainProject().getChildren().isEmpty()) {
             return;
         }
-        final List<NbGradleProjectTree> children = getAllChildren(shownModule);
 
-        toPopulate.add(new SingleNodeFactory() {
+        // The key is equal for every model of the project, so the node (and
+        // the expanded subproject nodes) are kept when the keys are read again.
+        toPopulate.add(new SubProjectsNodeFactory(this));
+    }
+
+    private void updateSubProjectsLookup() {
+        subProjectsLookup.replaceLookups(Lookups.singleton(getShownModule().getMainProject()));
+    }
+
+    private Node createSubProjectsNode() {
+        updateSubProjectsLookup();
+
+        return new FilterNode(
+                createSimpleNode(),
+                createSubprojectsChild(),
+                subProjectsLookup.getUnmodifiableView()) {
             @Override
-            public Node createNode() {
-                return new FilterNode(
-                        createSimpleNode(),
-                        createSubprojectsChild(),
-                        Lookups.singleton(shownModule.getMainProject())) {
-                    @Override
-                    public String getName() {
-                        return "SubProjectsNode_" + getShownModule().getMainProject().getProjectFullName().replace(':', '_');
-                    }
+            public String getName() {
+                return "SubProjectsNode_" + getShownModule().getMainProject().getProjectFullName().replace(':', '_');
+            }
 
-                    @Override
-                    public Action[] getActions(boolean context) {
-                        return new Action[] {
-                            createOpenAction(NbStrings.getOpenImmediateSubProjectsCaption(), immediateChildren),
-                            createOpenAction(NbStrings.getOpenSubProjectsCaption(), children)
-                        };
-                    }
+            @Override
+            public Action[] getActions(boolean context) {
+                NbGradleModel shownModule = getShownModule();
+                return new Action[] {
+                    createOpenAction(NbStrings.getOpenImmediateSubProjectsCaption(), shownModule.getMainProject().getChildren()),
+                    createOpenAction(NbStrings.getOpenSubProjectsCaption(), getAllChildren(shownModule))
+                };
+            }
 
-                    @Override
-                    public String getDisplayName() {
-                        return NbStrings.getSubProjectsCaption();
-                    }
+            @Override
+            public String getDisplayName() {
+                return NbStrings.getSubProjectsCaption();
+            }
 
-                    @Override
-                    public Image getIcon(int type) {
-                        return NbIcons.getGradleIcon();
-                    }
+            @Override
+            public Image getIcon(int type) {
+                return NbIcons.getGradleIcon();
+            }
 
-                    @Override
-                    public Image getOpenedIcon(int type) {
-                        return getIcon(type);
-                    }
+            @Override
+            public Image getOpenedIcon(int type) {
+                return getIcon(type);
+            }
 
-                    @Override
-                    public boolean canRename() {
-                        return false;
-                    }
-                };
+            @Override
+            public boolean canRename() {
+                return false;
             }
-        });
+        };
     }
 
     private void readKeys(List<SingleNodeFactory> toPopulate) throws DataObjectNotFoundException {
@@ -335,6 +346,37 @@ implements
         return true;
     }
 
+    private static final class SubProjectsNodeFactory implements SingleNodeFactory {
+        private final GradleProjectChildFactory factory;
+        private final File projectDir;
+
+        public SubProjectsNodeFactory(GradleProjectChildFactory factory) {
+            this.factory = factory;
+            this.projectDir = factory.project.getProjectDirectoryAsFile();
+        }
+
+        @Override
+        public Node createNode() {
+            return factory.createSubProjectsNode();
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = 3;
+            hash = 59 * hash + Objects.hashCode(this.projectDir);
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == null) return false;
+            if (getClass() != obj.getClass()) return false;
+
+            final SubProjectsNodeFactory other = (SubProjectsNodeFactory)obj;
+            return Objects.equals(this.projectDir, other.projectDir);
+        }
+    }
+
     private static final class NodeExtensions {
         private static final NodeExtensions EMPTY = createEmpty();
 
@@ -31,6 +31,7 @@ import org.netbeans.gradle.project.api.task.CustomCommandActions;
 import org.netbeans.gradle.project.api.task.GradleCommandTemplate;
 import org.netbeans.gradle.project.extensions.NbGradleExtensionRef;
 import org.netbeans.gradle.project.model.NbGradleModel;
+import org.netbeans.gradle.project.model.diagnostics.ModelLoadDiagnosticsPanel;
 import org.netbeans.gradle.project.properties.NbGradleCommonProperties;
 import org.netbeans.gradle.project.properties.PredefinedTask;
 import org.netbeans.gradle.project.properties.standard.PredefinedTasks;
@@ -95,6 +96,7 @@ public final class ProjectContextActionProvider implements ContextActionProvider
         projectActions.add(createProjectAction(
                 GradleActionProvider.COMMAND_RELOAD,
                 NbStrings.getReloadCommandCaption(true)));
+        projectActions.add(new ShowModelLoadDiagnosticsAction(project));
         // Add the commented code below to provide a "Refresh project node" action.
         // It was removed because it confused many, users can't easily distinguish it from "Reload project".
         // projectActions.add(NodeUtils.getRefreshNodeAction(this, NbStrings.getRefreshNodeCommandCaption()));
@@ -293,6 +295,21 @@ public final class ProjectContextActionProvider implements ContextActionProvider
         }
     }
 
+    @SuppressWarnings("serial") // don't care about serialization
+    private static class ShowModelLoadDiagnosticsAction extends AbstractAction {
+        private final NbGradleProject project;
+
+        public ShowModelLoadDiagnosticsAction(NbGradleProject project) {
+            super(NbStrings.getShowModelLoadDiagnosticsCaption());
+            this.project = project;
+        }
+
+        @Override
+        public void actionPerformed(ActionEvent e) {
+            ModelLoadDiagnosticsPanel.showModalDialog(project);
+        }
+    }
+
     @SuppressWarnings("serial") // don't care about serialization
     private static class CustomTaskAction extends AbstractAction {
         private final NbGradleProject project;
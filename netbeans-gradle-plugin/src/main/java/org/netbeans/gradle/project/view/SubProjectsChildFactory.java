@@ -2,16 +2,21 @@ package org.netbeans.gradle.project.view;
 
 import java.awt.Image;
 import java.awt.event.ActionEvent;
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Logger;
 import javax.swing.AbstractAction;
 import javax.swing.Action;
+import org.jtrim.property.PropertySource;
 import org.jtrim.utils.ExceptionHelper;
 import org.netbeans.api.project.Project;
 import org.netbeans.gradle.model.util.CollectionUtils;
@@ -19,7 +24,8 @@ import org.netbeans.gradle.project.NbGradleProject;
 import org.netbeans.gradle.project.NbGradleProjectFactory;
 import org.netbeans.gradle.project.NbIcons;
 import org.netbeans.gradle.project.NbStrings;
-import org.netbeans.gradle.project.api.nodes.SingleNodeFactory;
+import org.netbeans.gradle.project.lookups.DynamicLookup;
+import org.netbeans.gradle.project.model.NbGradleModel;
 import org.netbeans.gradle.project.model.NbGradleProjectTree;
 import org.netbeans.gradle.project.util.ListenerRegistrations;
 import org.netbeans.gradle.project.util.StringUtils;
@@ -34,40 +40,43 @@ import org.openide.util.lookup.Lookups;
 
 public final class SubProjectsChildFactory
 extends
-        ChildFactory.Detachable<SingleNodeFactory> {
+        ChildFactory.Detachable<SubProjectsChildFactory.SubProjectNodeFactory> {
 
     private static final Logger LOGGER = Logger.getLogger(SubProjectsChildFactory.class.getName());
 
     private final NbGradleProject project;
-    private final List<NbGradleProjectTree> subProjects;
-    private final AtomicReference<NbGradleProjectTree> lastTree;
-    private final boolean root;
+    private final PropertySource<? extends NbGradleModel> currentModel;
+    private final String parentPath;
+    private final AtomicReference<List<SubProjectNodeFactory>> lastKeys;
+    private final ConcurrentMap<String, SubProjectLookup> nodeLookups;
     private final ListenerRegistrations listenerRefs;
 
     public SubProjectsChildFactory(NbGradleProject project) {
-        this(project, null, true);
+        this(project, project.currentModel());
     }
 
+    SubProjectsChildFactory(NbGradleProject project, PropertySource<? extends NbGradleModel> currentModel) {
+        this(project, currentModel, null);
+    }
+
+    /**
+     * @param parentPath the full path of the project whose subprojects are
+     *   to be displayed or {@code null} to display the subprojects of the
+     *   main project
+     */
     private SubProjectsChildFactory(
             NbGradleProject project,
-            Collection<? extends NbGradleProjectTree> subProjects,
-            boolean root) {
-
+            PropertySource<? extends NbGradleModel> currentModel,
+            String parentPath) {
         ExceptionHelper.checkNotNullArgument(project, "project");
+        ExceptionHelper.checkNotNullArgument(currentModel, "currentModel");
 
-        this.root = root;
         this.project = project;
+        this.currentModel = currentModel;
+        this.parentPath = parentPath;
         this.listenerRefs = new ListenerRegistrations();
-        this.lastTree = new AtomicReference<>(null);
-        if (subProjects != null) {
-            this.subProjects = new ArrayList<>(subProjects);
-            sortModules(this.subProjects);
-
-            ExceptionHelper.checkNotNullElements(this.subProjects, "subProjects");
-        }
-        else {
-            this.subProjects = null;
-        }
+        this.lastKeys = new AtomicReference<>(null);
+        this.nodeLookups = new ConcurrentHashMap<>();
     }
 
     private static void sortModules(List<NbGradleProjectTree> modules) {
@@ -79,116 +88,99 @@ extends
         });
     }
 
-    private static boolean hasRelevantDifferences(NbGradleProjectTree tree1, NbGradleProjectTree tree2) {
-        if (tree1 == tree2) {
-            // In practice this happens only when they are nulls.
-            return false;
-        }
-        if (tree1 == null || tree2 == null) {
-            return true;
-        }
+    private static NbGradleProjectTree tryFindCurrentTree(NbGradleModel model, String projectPath) {
+        return model.getProjectDef().getRootProject().findByPath(projectPath);
+    }
 
-        return !equalsTree(tree1, tree2);
+    private static NbGradleProjectTree getCurrentTree(NbGradleProject project, NbGradleProjectTree module) {
+        NbGradleProjectTree result = tryFindCurrentTree(project.currentModel().getValue(), module.getProjectFullName());
+        return result != null ? result : module;
     }
 
-    private static boolean equalsTree(NbGradleProjectTree tree1, NbGradleProjectTree tree2) {
-        Collection<NbGradleProjectTree> children1 = tree1.getChildren();
-        Collection<NbGradleProjectTree> children2 = tree2.getChildren();
-        if (children1.size() != children2.size()) {
-            return false;
+    private NbGradleProjectTree tryGetParentTree() {
+        NbGradleModel model = currentModel.getValue();
+        if (parentPath == null) {
+            return model.getMainProject();
         }
-        if (children1.isEmpty()) {
-            return true;
-        }
-
-        Map<String, NbGradleProjectTree> children2Map = getChildrenMap2(tree2);
-        for (NbGradleProjectTree subTree1: children1) {
-            NbGradleProjectTree subTree2 = children2Map.get(subTree1.getProjectName());
-            if (subTree2 == null) {
-                return false;
-            }
+        return tryFindCurrentTree(model, parentPath);
+    }
 
-            if (!equalsTree(subTree1, subTree2)) {
-                return false;
-            }
+    private List<SubProjectNodeFactory> getCurrentKeys() {
+        NbGradleProjectTree parentTree = tryGetParentTree();
+        if (parentTree == null) {
+            // The node of this project will be removed by the parent.
+            return Collections.emptyList();
         }
-        return true;
-    }
 
-    private static Map<String, NbGradleProjectTree> getChildrenMap2(NbGradleProjectTree tree) {
-        Collection<NbGradleProjectTree> children = tree.getChildren();
-        Map<String, NbGradleProjectTree> result = CollectionUtils.newHashMap(children.size());
+        List<NbGradleProjectTree> subProjects = new ArrayList<>(parentTree.getChildren());
+        sortModules(subProjects);
 
-        for (NbGradleProjectTree child: children) {
-            result.put(child.getProjectName(), child);
+        List<SubProjectNodeFactory> result = new ArrayList<>(subProjects.size());
+        for (NbGradleProjectTree subProject: subProjects) {
+            result.add(new SubProjectNodeFactory(subProject));
         }
         return result;
     }
 
     private void modelChanged() {
-        NbGradleProjectTree newTree = project.currentModel().getValue().getMainProject();
-        NbGradleProjectTree prevTree = lastTree.getAndSet(newTree);
-        if (hasRelevantDifferences(prevTree, newTree)) {
+        // Every expanded level checks only its own subprojects, so that
+        // nodes of unchanged subprojects (and their expanded children) are
+        // kept: The nodes are only recreated for keys not equal to a
+        // previous key.
+        List<SubProjectNodeFactory> newKeys = getCurrentKeys();
+        List<SubProjectNodeFactory> prevKeys = lastKeys.getAndSet(newKeys);
+
+        // The kept nodes must not expose the project tree of the old model.
+        Set<String> newPaths = CollectionUtils.newHashSet(newKeys.size());
+        for (SubProjectNodeFactory key: newKeys) {
+            newPaths.add(key.projectFullName);
+
+            SubProjectLookup nodeLookup = nodeLookups.get(key.projectFullName);
+            if (nodeLookup != null) {
+                nodeLookup.update(key.module);
+            }
+        }
+        nodeLookups.keySet().retainAll(newPaths);
+
+        if (prevKeys != null && !prevKeys.equals(newKeys)) {
             refresh(false);
         }
     }
 
     @Override
     protected void addNotify() {
-        if (root) {
-            listenerRefs.add(project.currentModel().addChangeListener(new Runnable() {
-                @Override
-                public void run() {
-                    modelChanged();
-                }
-            }));
-        }
+        listenerRefs.add(currentModel.addChangeListener(new Runnable() {
+            @Override
+            public void run() {
+                modelChanged();
+            }
+        }));
     }
 
     @Override
     protected void removeNotify() {
         listenerRefs.unregisterAll();
+        lastKeys.set(null);
+        nodeLookups.clear();
     }
 
     @Override
-    protected Node createNodeForKey(SingleNodeFactory key) {
-        return key.createNode();
-    }
-
-    private List<NbGradleProjectTree> getSubProjects() {
-        if (subProjects != null) {
-            return subProjects;
-        }
-
-        List<NbGradleProjectTree> result = new ArrayList<>(
-                project.currentModel().getValue().getMainProject().getChildren());
-        sortModules(result);
-        return result;
+    protected Node createNodeForKey(SubProjectNodeFactory key) {
+        SubProjectLookup nodeLookup = new SubProjectLookup(key.module);
+        nodeLookups.put(key.projectFullName, nodeLookup);
+        return key.createNode(this, nodeLookup.getLookup());
     }
 
     @Override
-    protected boolean createKeys(List<SingleNodeFactory> toPopulate) {
-        for (final NbGradleProjectTree subProject: getSubProjects()) {
-            toPopulate.add(new SingleNodeFactory() {
-                @Override
-                public Node createNode() {
-                    if (subProject.getChildren().isEmpty()) {
-                        return new SubModuleNode(project, subProject);
-                    }
-                    else {
-                        return new SubModuleWithChildren(project, subProject);
-                    }
-                }
-            });
-        }
+    protected boolean createKeys(List<SubProjectNodeFactory> toPopulate) {
+        List<SubProjectNodeFactory> keys = getCurrentKeys();
+        lastKeys.set(keys);
+        toPopulate.addAll(keys);
         return true;
     }
 
-    private static Children createSubprojectsChild(
-            NbGradleProject project,
-            Collection<? extends NbGradleProjectTree> children) {
-
-        return Children.create(new SubProjectsChildFactory(project, children, false), true);
+    private Children createSubprojectsChild(NbGradleProjectTree module) {
+        return Children.create(new SubProjectsChildFactory(project, currentModel, module.getProjectFullName()), true);
     }
 
     private static Node createSimpleNode(NbGradleProject project) {
@@ -226,36 +218,48 @@ extends
         return result;
     }
 
-    private static Lookup getSubProjectLookup(NbGradleProjectTree module) {
-        Project project = NbGradleProjectFactory.tryLoadSafeProject(module.getProjectDir());
-        if (project == null) {
-            return Lookups.fixed(module);
+    private static final class SubProjectLookup {
+        private final Project project;
+        private final DynamicLookup lookup;
+
+        public SubProjectLookup(NbGradleProjectTree module) {
+            // The project directory is part of the key of the node, so the
+            // project itself cannot change while the node is kept.
+            this.project = NbGradleProjectFactory.tryLoadSafeProject(module.getProjectDir());
+            this.lookup = new DynamicLookup(createLookup(module));
         }
-        else {
-            return Lookups.fixed(module, project);
+
+        private Lookup createLookup(NbGradleProjectTree module) {
+            if (project == null) {
+                return Lookups.fixed(module);
+            }
+            else {
+                return Lookups.fixed(module, project);
+            }
+        }
+
+        public void update(NbGradleProjectTree module) {
+            lookup.replaceLookups(createLookup(module));
+        }
+
+        public Lookup getLookup() {
+            return lookup.getUnmodifiableView();
         }
     }
 
     private static class SubModuleWithChildren extends FilterNode {
+        private final NbGradleProject project;
         private final NbGradleProjectTree module;
-        private final List<NbGradleProjectTree> immediateChildren;
-        private final List<NbGradleProjectTree> children;
-
-        public SubModuleWithChildren(NbGradleProject project, NbGradleProjectTree module) {
-            this(project, module, module.getChildren());
-        }
 
-        private SubModuleWithChildren(
-                NbGradleProject project,
+        public SubModuleWithChildren(
+                SubProjectsChildFactory factory,
                 NbGradleProjectTree module,
-                Collection<? extends NbGradleProjectTree> children) {
-
-            super(createSimpleNode(project),
-                    createSubprojectsChild(project, children),
-                    getSubProjectLookup(module));
+                Lookup lookup) {
+            super(createSimpleNode(factory.project),
+                    factory.createSubprojectsChild(module),
+                    lookup);
+            this.project = factory.project;
             this.module = module;
-            this.immediateChildren = Collections.unmodifiableList(GradleProjectChildFactory.getAllChildren(module));
-            this.children = Collections.unmodifiableList(new ArrayList<>(children));
         }
 
         @Override
@@ -265,10 +269,13 @@ extends
 
         @Override
         public Action[] getActions(boolean context) {
+            // This node is kept while the subproject exists, so the
+            // subprojects might have changed since it was created.
+            NbGradleProjectTree currentModule = getCurrentTree(project, module);
             return getSubProjectContextActions(module,
                     new OpenSubProjectAction(),
-                    createOpenAction(NbStrings.getOpenImmediateSubProjectsCaption(), immediateChildren),
-                    createOpenAction(NbStrings.getOpenSubProjectsCaption(), children));
+                    createOpenAction(NbStrings.getOpenImmediateSubProjectsCaption(), currentModule.getChildren()),
+                    createOpenAction(NbStrings.getOpenSubProjectsCaption(), GradleProjectChildFactory.getAllChildren(currentModule)));
         }
 
         @Override
@@ -300,8 +307,8 @@ extends
     private static class SubModuleNode extends FilterNode {
         private final NbGradleProjectTree module;
 
-        public SubModuleNode(NbGradleProject project, NbGradleProjectTree module) {
-            super(Node.EMPTY.cloneNode(), null, getSubProjectLookup(module));
+        public SubModuleNode(NbGradleProjectTree module, Lookup lookup) {
+            super(Node.EMPTY.cloneNode(), null, lookup);
             this.module = module;
         }
 
@@ -340,6 +347,49 @@ extends
         }
     }
 
+    static final class SubProjectNodeFactory {
+        private final NbGradleProjectTree module;
+        private final String projectFullName;
+        private final File projectDir;
+        private final boolean hasChildren;
+
+        public SubProjectNodeFactory(NbGradleProjectTree module) {
+            this.module = module;
+            this.projectFullName = module.getProjectFullName();
+            this.projectDir = module.getProjectDir();
+            this.hasChildren = !module.getChildren().isEmpty();
+        }
+
+        public Node createNode(SubProjectsChildFactory factory, Lookup lookup) {
+            if (hasChildren) {
+                return new SubModuleWithChildren(factory, module, lookup);
+            }
+            else {
+                return new SubModuleNode(module, lookup);
+            }
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = 5;
+            hash = 41 * hash + Objects.hashCode(this.projectFullName);
+            hash = 41 * hash + Objects.hashCode(this.projectDir);
+            hash = 41 * hash + (this.hasChildren ? 1 : 0);
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == null) return false;
+            if (getClass() != obj.getClass()) return false;
+
+            final SubProjectNodeFactory other = (SubProjectNodeFactory)obj;
+            return this.hasChildren == other.hasChildren
+                    && Objects.equals(this.projectFullName, other.projectFullName)
+                    && Objects.equals(this.projectDir, other.projectDir);
+        }
+    }
+
     @SuppressWarnings("serial") // don't care
     private static class OpenSubProjectAction
     extends
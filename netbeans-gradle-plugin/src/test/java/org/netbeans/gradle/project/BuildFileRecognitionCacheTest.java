@@ -0,0 +1,80 @@
+package org.netbeans.gradle.project;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.jtrim.cancel.Cancellation;
+import org.junit.Test;
+import org.netbeans.gradle.project.script.DefaultScriptFileProvider;
+import org.netbeans.gradle.project.util.NbFileUtils;
+import org.openide.filesystems.FileLock;
+import org.openide.filesystems.FileObject;
+import org.openide.filesystems.FileUtil;
+
+import static org.junit.Assert.*;
+
+public class BuildFileRecognitionCacheTest {
+    private static FileObject toFileObject(Path path) {
+        return FileUtil.toFileObject(FileUtil.normalizeFile(path.toFile()));
+    }
+
+    private static void rename(FileObject file, String newName, String newExt) throws IOException {
+        FileLock lock = file.lock();
+        try {
+            file.rename(lock, newName, newExt);
+        } finally {
+            lock.releaseLock();
+        }
+    }
+
+    @Test
+    public void testScriptChangesAreRecognized() throws IOException {
+        Path tmpDir = Files.createTempDirectory("nb-build-file-cache-test");
+        try {
+            FileObject dir = toFileObject(tmpDir);
+            BuildFileRecognitionCache cache = new BuildFileRecognitionCache(new DefaultScriptFileProvider());
+
+            assertFalse(cache.hasBuildFile(dir));
+
+            dir.createData("readme.txt");
+            assertFalse(cache.hasBuildFile(dir));
+
+            FileObject buildScript = dir.createData("build.gradle");
+            assertTrue(cache.hasBuildFile(dir));
+
+            rename(buildScript, "notes", "txt");
+            assertFalse(cache.hasBuildFile(dir));
+
+            FileObject settingsScript = dir.createData("settings.gradle.kts");
+            assertTrue(cache.hasBuildFile(dir));
+
+            settingsScript.delete();
+            assertFalse(cache.hasBuildFile(dir));
+        } finally {
+            NbFileUtils.deleteDirectory(Cancellation.UNCANCELABLE_TOKEN, tmpDir);
+        }
+    }
+
+    @Test
+    public void testVerdictIsCached() throws IOException {
+        Path tmpDir = Files.createTempDirectory("nb-build-file-cache-test");
+        try {
+            FileObject dir = toFileObject(tmpDir);
+            BuildFileRecognitionCache cache = new BuildFileRecognitionCache(new DefaultScriptFileProvider());
+
+            assertFalse(cache.hasBuildFile(dir));
+            // Let the file system know the current content, so that refresh
+            // notices the new file.
+            dir.getChildren();
+
+            // Created behind the back of the file system, so no event is fired.
+            Files.createFile(tmpDir.resolve("build.gradle"));
+            assertFalse(cache.hasBuildFile(dir));
+
+            dir.refresh();
+            assertTrue(cache.hasBuildFile(dir));
+        } finally {
+            NbFileUtils.deleteDirectory(Cancellation.UNCANCELABLE_TOKEN, tmpDir);
+        }
+    }
+}
@@ -1,11 +1,13 @@
 package org.netbeans.gradle.project;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Properties;
 import org.jtrim.concurrent.Tasks;
 import org.junit.Before;
 import org.junit.Rule;
@@ -36,7 +38,11 @@ public class DefaultGlobalSettingsFileManagerTest {
     public void setUp() throws IOException {
         this.cacheDir = tmpDir.newFolder("cache").toPath();
         this.projectsDir = tmpDir.newFolder("projects").toPath();
-        this.settingsManager = new DefaultGlobalSettingsFileManager(new RootProjectRegistry(), new LazyPaths(new NbSupplier<Path>() {
+        this.settingsManager = createSettingsManager();
+    }
+
+    private DefaultGlobalSettingsFileManager createSettingsManager() {
+        return new DefaultGlobalSettingsFileManager(new RootProjectRegistry(), new LazyPaths(new NbSupplier<Path>() {
             @Override
             public Path get() {
                 return cacheDir;
@@ -120,6 +126,87 @@ public class DefaultGlobalSettingsFileManagerTest {
         testReadingBackAfterOverwrite(waitForOutstandingTask(), waitForOutstandingTask());
     }
 
+    @Test
+    public void testReadingBackFromNewInstance() throws IOException {
+        Path subDir = projectsDir.resolve("test-root").resolve("sub-dir");
+        Files.createDirectories(subDir);
+        VirtualModelBuilder builder = new VirtualModelBuilder(projectsDir.resolve("test-root"));
+        builder.projectTree().addChild(subDir);
+        NbGradleModel model = builder.build();
+
+        settingsManager.updateSettingsFile(model);
+        settingsManager.waitForOutstanding(5000);
+
+        DefaultGlobalSettingsFileManager newSettingsManager = createSettingsManager();
+        assertEquals(model.getSettingsGradleDef(), newSettingsManager.tryGetSettingsFile(model.getProjectDir()));
+        assertEquals(model.getSettingsGradleDef(), newSettingsManager.tryGetSettingsFile(subDir.toFile()));
+    }
+
+    @Test
+    public void testRemovedSubprojectIsForgotten() throws IOException {
+        Path rootDir = projectsDir.resolve("test-root");
+        Path subDir = rootDir.resolve("sub-dir");
+
+        VirtualModelBuilder builder1 = new VirtualModelBuilder(rootDir);
+        builder1.projectTree().addChild(subDir);
+        settingsManager.updateSettingsFile(builder1.build());
+        settingsManager.waitForOutstanding(5000);
+
+        VirtualModelBuilder builder2 = new VirtualModelBuilder(rootDir);
+        settingsManager.updateSettingsFile(builder2.build());
+        settingsManager.waitForOutstanding(5000);
+
+        assertNull(settingsManager.tryGetSettingsFile(subDir.toFile()));
+    }
+
+    @Test
+    public void testMissingProjectDirIsDroppedOnLoad() throws IOException {
+        Path rootDir = projectsDir.resolve("test-root");
+        Path subDir = rootDir.resolve("sub-dir");
+        Files.createDirectories(subDir);
+
+        VirtualModelBuilder builder = new VirtualModelBuilder(rootDir);
+        builder.projectTree().addChild(subDir);
+        NbGradleModel model = builder.build();
+
+        settingsManager.updateSettingsFile(model);
+        settingsManager.waitForOutstanding(5000);
+
+        Files.delete(subDir);
+
+        DefaultGlobalSettingsFileManager newSettingsManager = createSettingsManager();
+        assertEquals(model.getSettingsGradleDef(), newSettingsManager.tryGetSettingsFile(rootDir.toFile()));
+        assertNull(newSettingsManager.tryGetSettingsFile(subDir.toFile()));
+    }
+
+    @Test
+    public void testMigratesLegacySettingsFiles() throws IOException {
+        Path rootDir = projectsDir.resolve("legacy-root");
+        Path settingsGradle = rootDir.resolve("settings.gradle");
+        Files.createDirectories(rootDir);
+
+        Properties legacySettings = new Properties();
+        legacySettings.put("projectDir", rootDir.toString());
+        legacySettings.put("rootProjectDir", rootDir.toString());
+        legacySettings.put("maySearchUpwards", "true");
+        legacySettings.put("settingsGradle", settingsGradle.toString());
+        legacySettings.put("stamp", "0123");
+
+        Path legacyDir = cacheDir.resolve("settings-gradle");
+        Path legacyFile = legacyDir.resolve("ab").resolve("cdef.properties");
+        Files.createDirectories(legacyFile.getParent());
+        try (OutputStream output = Files.newOutputStream(legacyFile)) {
+            legacySettings.store(output, null);
+        }
+
+        SettingsGradleDef settingsGradleDef = settingsManager.tryGetSettingsFile(rootDir.toFile());
+        assertEquals(new SettingsGradleDef(settingsGradle, true), settingsGradleDef);
+        assertFalse("Legacy dir must be removed", Files.exists(legacyDir));
+
+        DefaultGlobalSettingsFileManager newSettingsManager = createSettingsManager();
+        assertEquals(settingsGradleDef, newSettingsManager.tryGetSettingsFile(rootDir.toFile()));
+    }
+
     private static final class VirtualModelBuilder {
         private final TestDebugTree projectTree;
         private Path defaultProjectDir;
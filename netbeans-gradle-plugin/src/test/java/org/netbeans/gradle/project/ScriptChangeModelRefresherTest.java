@@ -0,0 +1,196 @@
+package org.netbeans.gradle.project;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jtrim.cancel.Cancellation;
+import org.junit.Test;
+import org.netbeans.gradle.project.script.DefaultScriptFileProvider;
+import org.netbeans.gradle.project.util.CloseableAction;
+import org.netbeans.gradle.project.util.NbFileUtils;
+import org.openide.filesystems.FileObject;
+import org.openide.filesystems.FileUtil;
+
+import static org.junit.Assert.*;
+
+public class ScriptChangeModelRefresherTest {
+    private static FileObject toFileObject(Path path) {
+        return FileUtil.toFileObject(FileUtil.normalizeFile(path.toFile()));
+    }
+
+    private static void write(FileObject file, String content) throws IOException {
+        try (OutputStream output = file.getOutputStream()) {
+            output.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static Runnable countingTask(final AtomicInteger counter) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                counter.incrementAndGet();
+            }
+        };
+    }
+
+    private static CloseableAction.Ref watch(ScriptChangeModelRefresher refresher, Path dir, AtomicInteger counter) {
+        File dirAsFile = dir.toFile();
+        return refresher.watchDirectories(dirAsFile, Collections.singleton(dirAsFile), countingTask(counter));
+    }
+
+    private static void runTest(RefresherTest test) throws Exception {
+        Path tmpDir = Files.createTempDirectory("nb-script-refresher-test");
+        try {
+            ManualReloadScheduler scheduler = new ManualReloadScheduler();
+            ScriptChangeModelRefresher refresher = new ScriptChangeModelRefresher(
+                    new DefaultScriptFileProvider(),
+                    scheduler);
+            test.doTest(tmpDir, refresher, scheduler);
+        } finally {
+            NbFileUtils.deleteDirectory(Cancellation.UNCANCELABLE_TOKEN, tmpDir);
+        }
+    }
+
+    @Test
+    public void testSubsequentSavesCauseSingleReload() throws Exception {
+        runTest(new RefresherTest() {
+            @Override
+            public void doTest(Path tmpDir, ScriptChangeModelRefresher refresher, ManualReloadScheduler scheduler) throws Exception {
+                FileObject dir = toFileObject(tmpDir);
+                FileObject buildScript = dir.createData("build.gradle");
+
+                AtomicInteger reloadCount = new AtomicInteger(0);
+                CloseableAction.Ref ref = watch(refresher, tmpDir, reloadCount);
+                try {
+                    for (int i = 0; i < 5; i++) {
+                        write(buildScript, "// version " + i);
+                    }
+                    scheduler.runPending();
+                    assertEquals(1, reloadCount.get());
+
+                    write(dir.createData("readme.txt"), "not a script");
+                    scheduler.runPending();
+                    assertEquals(1, reloadCount.get());
+
+                    dir.createData("settings.gradle");
+                    scheduler.runPending();
+                    assertEquals(2, reloadCount.get());
+                } finally {
+                    ref.close();
+                }
+            }
+        });
+    }
+
+    @Test
+    public void testNoReloadAfterClose() throws Exception {
+        runTest(new RefresherTest() {
+            @Override
+            public void doTest(Path tmpDir, ScriptChangeModelRefresher refresher, ManualReloadScheduler scheduler) throws Exception {
+                FileObject buildScript = toFileObject(tmpDir).createData("build.gradle");
+
+                AtomicInteger reloadCount = new AtomicInteger(0);
+                CloseableAction.Ref ref = watch(refresher, tmpDir, reloadCount);
+
+                write(buildScript, "// pending change");
+                ref.close();
+
+                write(buildScript, "// change after close");
+                scheduler.runPending();
+                assertEquals(0, reloadCount.get());
+            }
+        });
+    }
+
+    @Test
+    public void testPendingReloadSurvivesModelChange() throws Exception {
+        runTest(new RefresherTest() {
+            @Override
+            public void doTest(Path tmpDir, ScriptChangeModelRefresher refresher, ManualReloadScheduler scheduler) throws Exception {
+                FileObject buildScript = toFileObject(tmpDir).createData("build.gradle");
+
+                AtomicInteger reloadCount1 = new AtomicInteger(0);
+                CloseableAction.Ref ref1 = watch(refresher, tmpDir, reloadCount1);
+                write(buildScript, "// pending change");
+                ref1.close();
+
+                AtomicInteger reloadCount2 = new AtomicInteger(0);
+                CloseableAction.Ref ref2 = watch(refresher, tmpDir, reloadCount2);
+                try {
+                    scheduler.runPending();
+                    assertEquals(0, reloadCount1.get());
+                    assertEquals(1, reloadCount2.get());
+                } finally {
+                    ref2.close();
+                }
+            }
+        });
+    }
+
+    @Test
+    public void testDueReloadIsStartedWhenWatchedAgain() throws Exception {
+        runTest(new RefresherTest() {
+            @Override
+            public void doTest(Path tmpDir, ScriptChangeModelRefresher refresher, ManualReloadScheduler scheduler) throws Exception {
+                FileObject buildScript = toFileObject(tmpDir).createData("build.gradle");
+
+                AtomicInteger reloadCount1 = new AtomicInteger(0);
+                CloseableAction.Ref ref1 = watch(refresher, tmpDir, reloadCount1);
+                write(buildScript, "// pending change");
+                ref1.close();
+
+                scheduler.runPending();
+                assertEquals(0, reloadCount1.get());
+
+                AtomicInteger reloadCount2 = new AtomicInteger(0);
+                CloseableAction.Ref ref2 = watch(refresher, tmpDir, reloadCount2);
+                try {
+                    scheduler.runPending();
+                    assertEquals(0, reloadCount1.get());
+                    assertEquals(1, reloadCount2.get());
+
+                    scheduler.runPending();
+                    assertEquals(1, reloadCount2.get());
+                } finally {
+                    ref2.close();
+                }
+            }
+        });
+    }
+
+    private interface RefresherTest {
+        public void doTest(Path tmpDir, ScriptChangeModelRefresher refresher, ManualReloadScheduler scheduler) throws Exception;
+    }
+
+    private static final class ManualReloadScheduler implements ScriptChangeModelRefresher.ReloadScheduler {
+        private final List<FutureTask<?>> tasks = new ArrayList<>();
+
+        @Override
+        public synchronized Future<?> scheduleAfterQuietPeriod(Runnable task) {
+            FutureTask<?> result = new FutureTask<>(task, null);
+            tasks.add(result);
+            return result;
+        }
+
+        public void runPending() {
+            List<FutureTask<?>> currentTasks;
+            synchronized (this) {
+                currentTasks = new ArrayList<>(tasks);
+                tasks.clear();
+            }
+
+            for (FutureTask<?> task: currentTasks) {
+                task.run();
+            }
+        }
+    }
+}
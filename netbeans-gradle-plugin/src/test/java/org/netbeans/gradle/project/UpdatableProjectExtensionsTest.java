@@ -0,0 +1,138 @@
+package org.netbeans.gradle.project;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import org.netbeans.gradle.project.extensions.NbGradleExtensionRef;
+import org.netbeans.gradle.project.lookups.DynamicLookup;
+import org.openide.util.Lookup;
+import org.openide.util.lookup.InstanceContent;
+import org.openide.util.lookup.Lookups;
+
+import static org.junit.Assert.*;
+
+public class UpdatableProjectExtensionsTest {
+    private static final int EXTENSION_COUNT = 15;
+
+    private static List<DynamicLookup> createExtensionLookups() {
+        List<DynamicLookup> result = new ArrayList<>(EXTENSION_COUNT);
+        for (int i = 0; i < EXTENSION_COUNT; i++) {
+            result.add(new DynamicLookup(Lookups.fixed("extension" + i, i)));
+        }
+        return result;
+    }
+
+    private static List<Lookup> toViews(List<DynamicLookup> lookups) {
+        List<Lookup> result = new ArrayList<>(lookups.size());
+        for (DynamicLookup lookup: lookups) {
+            result.add(lookup.getUnmodifiableView());
+        }
+        return result;
+    }
+
+    private static UpdatableProjectExtensions createExtensions(DynamicLookup combinedLookup) {
+        return new UpdatableProjectExtensions(combinedLookup.getUnmodifiableView());
+    }
+
+    @Test
+    public void testLookupAllSeesAllExtensions() {
+        DynamicLookup combinedLookup = new DynamicLookup();
+        combinedLookup.replaceLookups(toViews(createExtensionLookups()));
+
+        UpdatableProjectExtensions extensions = createExtensions(combinedLookup);
+        assertEquals(EXTENSION_COUNT, extensions.lookupAllExtensionObjs(String.class).size());
+        assertEquals(EXTENSION_COUNT, extensions.lookupAllExtensionObjs(Integer.class).size());
+        assertEquals("extension0", extensions.lookupExtensionObj(String.class));
+        assertNull(extensions.lookupExtensionObj(Double.class));
+    }
+
+    @Test
+    public void testReplacingExtensionsIsSeen() {
+        DynamicLookup combinedLookup = new DynamicLookup();
+        combinedLookup.replaceLookups(toViews(createExtensionLookups()));
+
+        UpdatableProjectExtensions extensions = createExtensions(combinedLookup);
+        assertEquals(EXTENSION_COUNT, extensions.lookupAllExtensionObjs(String.class).size());
+
+        combinedLookup.replaceLookups(Lookups.fixed("other"));
+        extensions.setExtensions(Collections.<NbGradleExtensionRef>emptyList());
+
+        assertEquals(Arrays.asList("other"), new ArrayList<>(extensions.lookupAllExtensionObjs(String.class)));
+        assertEquals("other", extensions.lookupExtensionObj(String.class));
+    }
+
+    @Test
+    public void testChangeOfAnExtensionIsSeen() {
+        List<DynamicLookup> extensionLookups = createExtensionLookups();
+        DynamicLookup combinedLookup = new DynamicLookup();
+        combinedLookup.replaceLookups(toViews(extensionLookups));
+
+        UpdatableProjectExtensions extensions = createExtensions(combinedLookup);
+        assertEquals(EXTENSION_COUNT, extensions.lookupAllExtensionObjs(String.class).size());
+
+        // This is what happens when an extension gets deactivated.
+        extensionLookups.get(0).replaceLookups(Lookup.EMPTY);
+        assertEquals(EXTENSION_COUNT - 1, extensions.lookupAllExtensionObjs(String.class).size());
+        assertEquals("extension1", extensions.lookupExtensionObj(String.class));
+
+        extensionLookups.get(0).replaceLookups(Lookups.fixed("extension0"));
+        assertEquals(EXTENSION_COUNT, extensions.lookupAllExtensionObjs(String.class).size());
+    }
+
+    @Test
+    public void testUnchangedResultIsReused() {
+        DynamicLookup combinedLookup = new DynamicLookup();
+        combinedLookup.replaceLookups(toViews(createExtensionLookups()));
+
+        UpdatableProjectExtensions extensions = createExtensions(combinedLookup);
+        assertSame(
+                extensions.lookupAllExtensionObjs(String.class),
+                extensions.lookupAllExtensionObjs(String.class));
+    }
+
+    @Test
+    public void testLookupSingleCreatesOnlyTheFirstInstance() {
+        final AtomicInteger createCount = new AtomicInteger(0);
+        InstanceContent.Convertor<Integer, String> convertor = new InstanceContent.Convertor<Integer, String>() {
+            @Override
+            public String convert(Integer obj) {
+                createCount.incrementAndGet();
+                return "extension" + obj;
+            }
+
+            @Override
+            public Class<? extends String> type(Integer obj) {
+                return String.class;
+            }
+
+            @Override
+            public String id(Integer obj) {
+                return obj.toString();
+            }
+
+            @Override
+            public String displayName(Integer obj) {
+                return obj.toString();
+            }
+        };
+
+        List<Lookup> extensionLookups = new ArrayList<>(EXTENSION_COUNT);
+        for (int i = 0; i < EXTENSION_COUNT; i++) {
+            extensionLookups.add(Lookups.fixed(new Integer[]{i}, convertor));
+        }
+
+        DynamicLookup combinedLookup = new DynamicLookup();
+        combinedLookup.replaceLookups(extensionLookups);
+
+        UpdatableProjectExtensions extensions = createExtensions(combinedLookup);
+        assertEquals("extension0", extensions.lookupExtensionObj(String.class));
+        assertEquals("extension0", extensions.lookupExtensionObj(String.class));
+        assertEquals(1, createCount.get());
+
+        combinedLookup.replaceLookups(Lookups.fixed("other"));
+        assertEquals("other", extensions.lookupExtensionObj(String.class));
+    }
+}
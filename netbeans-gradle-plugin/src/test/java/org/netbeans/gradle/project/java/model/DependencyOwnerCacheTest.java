@@ -0,0 +1,193 @@
+package org.netbeans.gradle.project.java.model;
+
+import java.beans.PropertyChangeEvent;
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import org.netbeans.api.project.Project;
+import org.netbeans.api.project.ui.OpenProjects;
+import org.netbeans.gradle.project.util.NbFunction;
+import org.netbeans.gradle.project.util.NbSupplier;
+import org.openide.filesystems.FileObject;
+import org.openide.util.Lookup;
+
+import static org.junit.Assert.*;
+
+public class DependencyOwnerCacheTest {
+    private static final File ROOT = new File("dependency-owner-cache-test").getAbsoluteFile();
+    private static final File UNOWNED_ROOT = new File(ROOT, "gradle-home");
+
+    private static Project mockProject() {
+        return new Project() {
+            @Override
+            public FileObject getProjectDirectory() {
+                throw new UnsupportedOperationException("This is a mock project.");
+            }
+
+            @Override
+            public Lookup getLookup() {
+                return Lookup.EMPTY;
+            }
+        };
+    }
+
+    private static DependencyOwnerCache createCache(OwnerQuery ownerQuery) {
+        return createCache(ownerQuery, 100);
+    }
+
+    private static DependencyOwnerCache createCache(OwnerQuery ownerQuery, int maxCachedOwners) {
+        return new DependencyOwnerCache(new NbSupplier<Collection<File>>() {
+            @Override
+            public Collection<File> get() {
+                return Collections.singleton(UNOWNED_ROOT);
+            }
+        }, ownerQuery, maxCachedOwners);
+    }
+
+    private static void fireOpenProjectsChange(DependencyOwnerCache cache, String propertyName) {
+        cache.openProjectsListener().propertyChange(new PropertyChangeEvent(
+                cache,
+                propertyName,
+                null,
+                null));
+    }
+
+    @Test
+    public void testOwnersAreQueriedOnce() {
+        File ownedFile = new File(ROOT, "owned.jar");
+        File otherFile = new File(ROOT, "other.jar");
+        Project owner = mockProject();
+
+        OwnerQuery ownerQuery = new OwnerQuery();
+        ownerQuery.setOwner(ownedFile, owner);
+        DependencyOwnerCache cache = createCache(ownerQuery);
+
+        for (int i = 0; i < 2; i++) {
+            Map<File, Project> owners = cache.findOwners(Arrays.asList(ownedFile, otherFile, ownedFile));
+            assertEquals(Collections.singletonMap(ownedFile, owner), owners);
+        }
+
+        assertEquals(1, ownerQuery.getQueryCount(ownedFile));
+        // Files without an owner are not cached.
+        assertEquals(2, ownerQuery.getQueryCount(otherFile));
+    }
+
+    @Test
+    public void testNewOwnerIsFoundWithoutEvent() {
+        File file = new File(ROOT, "lib.jar");
+        Project owner = mockProject();
+
+        OwnerQuery ownerQuery = new OwnerQuery();
+        DependencyOwnerCache cache = createCache(ownerQuery);
+
+        assertTrue(cache.findOwners(Collections.singleton(file)).isEmpty());
+
+        // A subproject owning the file was found by loading a model.
+        ownerQuery.setOwner(file, owner);
+        assertEquals(Collections.singletonMap(file, owner), cache.findOwners(Collections.singleton(file)));
+    }
+
+    @Test
+    public void testCacheIsBounded() {
+        Project owner = mockProject();
+        File[] files = new File[5];
+
+        OwnerQuery ownerQuery = new OwnerQuery();
+        for (int i = 0; i < files.length; i++) {
+            files[i] = new File(ROOT, "lib" + i + ".jar");
+            ownerQuery.setOwner(files[i], owner);
+        }
+
+        DependencyOwnerCache cache = createCache(ownerQuery, 2);
+        assertEquals(files.length, cache.findOwners(Arrays.asList(files)).size());
+        assertEquals(files.length, cache.findOwners(Arrays.asList(files)).size());
+
+        // The full cache was dropped, so some files had to be queried again.
+        int totalQueryCount = 0;
+        for (File file: files) {
+            totalQueryCount += ownerQuery.getQueryCount(file);
+        }
+        assertTrue("Query count: " + totalQueryCount, totalQueryCount > files.length);
+    }
+
+    @Test
+    public void testUnownedRootsAreNotQueried() {
+        File unownedFile = new File(UNOWNED_ROOT, "lib.jar");
+
+        OwnerQuery ownerQuery = new OwnerQuery();
+        ownerQuery.setOwner(unownedFile, mockProject());
+        DependencyOwnerCache cache = createCache(ownerQuery);
+
+        assertTrue(cache.findOwners(Collections.singleton(unownedFile)).isEmpty());
+        assertEquals(0, ownerQuery.getQueryCount(unownedFile));
+    }
+
+    @Test
+    public void testOpeningProjectsInvalidatesCache() {
+        File file = new File(ROOT, "lib.jar");
+        Project owner1 = mockProject();
+        Project owner2 = mockProject();
+
+        OwnerQuery ownerQuery = new OwnerQuery();
+        ownerQuery.setOwner(file, owner1);
+        DependencyOwnerCache cache = createCache(ownerQuery);
+
+        assertEquals(Collections.singletonMap(file, owner1), cache.findOwners(Collections.singleton(file)));
+
+        // A project nested into the previous owner was opened.
+        ownerQuery.setOwner(file, owner2);
+        fireOpenProjectsChange(cache, OpenProjects.PROPERTY_OPEN_PROJECTS);
+
+        assertEquals(Collections.singletonMap(file, owner2), cache.findOwners(Collections.singleton(file)));
+        assertEquals(2, ownerQuery.getQueryCount(file));
+    }
+
+    @Test
+    public void testOtherPropertiesKeepCache() {
+        File file = new File(ROOT, "lib.jar");
+        Project owner = mockProject();
+
+        OwnerQuery ownerQuery = new OwnerQuery();
+        ownerQuery.setOwner(file, owner);
+        DependencyOwnerCache cache = createCache(ownerQuery);
+
+        cache.findOwners(Collections.singleton(file));
+        fireOpenProjectsChange(cache, OpenProjects.PROPERTY_MAIN_PROJECT);
+
+        assertEquals(Collections.singletonMap(file, owner), cache.findOwners(Collections.singleton(file)));
+        assertEquals(1, ownerQuery.getQueryCount(file));
+    }
+
+    private static final class OwnerQuery implements NbFunction<File, Project> {
+        private final Map<File, Project> owners;
+        private final ConcurrentMap<File, AtomicInteger> queryCounts;
+
+        public OwnerQuery() {
+            this.owners = new HashMap<>();
+            this.queryCounts = new ConcurrentHashMap<>();
+        }
+
+        public void setOwner(File file, Project owner) {
+            owners.put(file, owner);
+        }
+
+        public int getQueryCount(File file) {
+            AtomicInteger count = queryCounts.get(file);
+            return count != null ? count.get() : 0;
+        }
+
+        @Override
+        public Project apply(File file) {
+            queryCounts.putIfAbsent(file, new AtomicInteger(0));
+            queryCounts.get(file).incrementAndGet();
+            return owners.get(file);
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package org.netbeans.gradle.project.java.model;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+import org.netbeans.gradle.model.GenericProjectProperties;
+import org.netbeans.gradle.model.java.JavaClassPaths;
+import org.netbeans.gradle.model.java.JavaCompatibilityModel;
+import org.netbeans.gradle.model.java.JavaOutputDirs;
+import org.netbeans.gradle.model.java.JavaSourceGroup;
+import org.netbeans.gradle.model.java.JavaSourceGroupName;
+import org.netbeans.gradle.model.java.JavaSourceSet;
+import org.netbeans.gradle.model.java.JavaTestModel;
+import org.netbeans.gradle.model.java.JavaTestTask;
+import org.netbeans.gradle.model.java.SourceIncludePatterns;
+import org.netbeans.gradle.model.util.BasicFileUtils;
+
+import static org.junit.Assert.*;
+
+public class JavaSourceRootIndexTest {
+    private static final File ROOT = new File("source-root-index-test").getAbsoluteFile();
+
+    private static File file(String... path) {
+        return BasicFileUtils.getSubPath(ROOT, path);
+    }
+
+    private static JavaSourceSet sourceSet(String name, File... roots) {
+        return sourceSet(name, Collections.<File>emptyList(),
+                new JavaSourceGroup(JavaSourceGroupName.JAVA, Arrays.asList(roots)));
+    }
+
+    private static JavaSourceSet sourceSet(
+            String name,
+            List<File> classpath,
+            JavaSourceGroup... sourceGroups) {
+
+        JavaSourceSet.Builder result = new JavaSourceSet.Builder(name, new JavaOutputDirs(
+                Collections.singleton(file("build", "classes", name)),
+                file("build", "resources", name),
+                Collections.<File>emptyList()));
+        result.setClasspaths(new JavaClassPaths(classpath));
+        for (JavaSourceGroup sourceGroup: sourceGroups) {
+            result.addSourceGroup(sourceGroup);
+        }
+        return result.create();
+    }
+
+    private static JavaSourceGroup sourceGroup(File root, String... excludePatterns) {
+        return new JavaSourceGroup(
+                JavaSourceGroupName.JAVA,
+                Collections.singletonList(root),
+                SourceIncludePatterns.create(Arrays.asList(excludePatterns), Collections.<String>emptyList()));
+    }
+
+    private static NbJavaModule moduleWithJar(List<JavaSourceSet> sources) {
+        JavaSourceSet main = sources.get(0);
+        NbJarOutput jar = new NbJarOutput(
+                "jar",
+                file("build", "libs", "testProject.jar"),
+                main.getOutputDirs().getClassesDirs());
+        return module(sources, Collections.singletonList(jar));
+    }
+
+    private static NbJavaModule module(List<JavaSourceSet> sources, String... testTaskNames) {
+        return module(sources, Collections.<NbJarOutput>emptyList(), testTaskNames);
+    }
+
+    private static NbJavaModule module(
+            List<JavaSourceSet> sources,
+            List<NbJarOutput> jarOutputs,
+            String... testTaskNames) {
+
+        GenericProjectProperties properties = new GenericProjectProperties(
+                "testProject",
+                ":testProject",
+                ROOT,
+                new File(ROOT, "build.gradle"));
+
+        JavaTestTask[] testTasks = new JavaTestTask[testTaskNames.length];
+        for (int i = 0; i < testTaskNames.length; i++) {
+            testTasks[i] = new JavaTestTask(testTaskNames[i], file("build", "test-results", testTaskNames[i]));
+        }
+
+        return new NbJavaModule(
+                properties,
+                new JavaCompatibilityModel("1.8", "1.8"),
+                sources,
+                Collections.<NbListedDir>emptyList(),
+                jarOutputs,
+                new JavaTestModel(Arrays.asList(testTasks)),
+                NbCodeCoverage.NO_CODE_COVERAGE);
+    }
+
+    @Test
+    public void testSourceSetOfFile() {
+        JavaSourceSet main = sourceSet("main", file("src", "main", "java"));
+        JavaSourceSet test = sourceSet("test", file("src", "test", "java"));
+        JavaSourceRootIndex index = module(Arrays.asList(main, test)).getSourceRootIndex();
+
+        assertSame(main, index.tryGetSourceSetOfFile(file("src", "main", "java", "pckg", "MyClass.java")));
+        assertSame(main, index.tryGetSourceSetOfFile(file("src", "main", "java")));
+        assertSame(test, index.tryGetSourceSetOfFile(file("src", "test", "java", "pckg", "MyClassTest.java")));
+        assertNull(index.tryGetSourceSetOfFile(file("src", "other", "java", "MyClass.java")));
+        assertNull(index.tryGetSourceSetOfFile(file("src")));
+    }
+
+    @Test
+    public void testFirstSourceSetWinsForNestedRoots() {
+        JavaSourceSet main = sourceSet("main", file("src"));
+        JavaSourceSet test = sourceSet("test", file("src", "test"));
+        JavaSourceRootIndex index = module(Arrays.asList(main, test)).getSourceRootIndex();
+
+        assertSame(main, index.tryGetSourceSetOfFile(file("src", "test", "MyClassTest.java")));
+    }
+
+    @Test
+    public void testNonTestSources() {
+        JavaSourceSet main = sourceSet("main", file("src", "main", "java"));
+        JavaSourceSet test = sourceSet("test", file("src", "test", "java"));
+        JavaSourceRootIndex index = module(Arrays.asList(main, test)).getSourceRootIndex();
+
+        assertTrue(index.isInNonTestSources(file("src", "main", "java", "MyClass.java")));
+        assertFalse(index.isInNonTestSources(file("src", "test", "java", "MyClassTest.java")));
+        assertFalse(index.isInNonTestSources(file("other", "MyClass.java")));
+    }
+
+    @Test
+    public void testTestTaskNames() {
+        JavaSourceSet main = sourceSet("main", file("src", "main", "java"));
+        JavaSourceSet integTest = sourceSet("integTest", file("src", "integTest", "java"));
+        NbJavaModule module = module(Arrays.asList(main, integTest), "test", "integTest");
+
+        assertEquals("test", module.getSourceRootIndex().tryGetTestTaskName("main"));
+        assertEquals("integTest", module.getSourceRootIndex().tryGetTestTaskName("integTest"));
+        assertNull(module.getSourceRootIndex().tryGetTestTaskName("unknown"));
+
+        assertEquals("integTest", module.findTestTaskForSourceSet("integTest"));
+    }
+
+    @Test
+    public void testClassPathSourceSetOfSourceFile() {
+        JavaSourceSet main = sourceSet("main", Collections.<File>emptyList(),
+                sourceGroup(file("src", "main", "java")));
+        JavaSourceSet test = sourceSet("test", Collections.<File>emptyList(),
+                sourceGroup(file("src", "test", "java")));
+        JavaSourceRootIndex index = module(Arrays.asList(main, test)).getSourceRootIndex();
+
+        assertSame(main, index.tryGetClassPathSourceSet(file("src", "main", "java", "pckg", "MyClass.java")));
+        assertSame(test, index.tryGetClassPathSourceSet(file("src", "test", "java", "pckg", "MyClassTest.java")));
+        assertNull(index.tryGetClassPathSourceSet(file("src", "other", "java", "pckg", "MyClass.java")));
+        assertNull(index.tryGetClassPathSourceSet(file("build", "classes", "main")));
+    }
+
+    @Test
+    public void testClassPathPrecedesSourcesOfLaterSourceSets() {
+        File lib = file("libs", "lib.jar");
+        JavaSourceSet main = sourceSet("main", Arrays.asList(lib),
+                sourceGroup(file("src", "main", "java")));
+        JavaSourceSet test = sourceSet("test", Collections.<File>emptyList(),
+                sourceGroup(file("libs")));
+        JavaSourceRootIndex index = module(Arrays.asList(main, test)).getSourceRootIndex();
+
+        assertSame(main, index.tryGetClassPathSourceSet(new File(lib, "pckg/MyClass.class")));
+        assertSame(test, index.tryGetClassPathSourceSet(file("libs", "other.jar")));
+        // Class paths are only considered for the class path queries.
+        assertSame(test, index.tryGetSourceSetOfFile(new File(lib, "pckg/MyClass.class")));
+    }
+
+    @Test
+    public void testExcludedFileBelongsToNextMatchingSourceSet() {
+        JavaSourceSet main = sourceSet("main", Collections.<File>emptyList(),
+                sourceGroup(file("src"), "**/Excluded.java"));
+        JavaSourceSet other = sourceSet("other", Collections.<File>emptyList(),
+                sourceGroup(file("src", "main")));
+        JavaSourceRootIndex index = module(Arrays.asList(main, other)).getSourceRootIndex();
+
+        assertSame(main, index.tryGetClassPathSourceSet(file("src", "main", "Included.java")));
+        assertSame(other, index.tryGetClassPathSourceSet(file("src", "main", "Excluded.java")));
+        assertNull(index.tryGetClassPathSourceSet(file("src", "Excluded.java")));
+    }
+
+    @Test
+    public void testBinaryToSource() {
+        JavaSourceSet main = sourceSet("main", file("src", "main", "java"));
+        JavaSourceSet test = sourceSet("test", file("src", "test", "java"));
+        JavaSourceRootIndex index = moduleWithJar(Arrays.asList(main, test)).getSourceRootIndex();
+
+        File classesDir = file("build", "classes", "main");
+        assertEquals(classesDir, index.tryNormalizeBinaryPath(new File(classesDir, "pckg/MyClass.class")));
+        assertEquals(classesDir, index.tryNormalizeBinaryPath(classesDir));
+        assertEquals(
+                Collections.singletonList(file("src", "main", "java")),
+                index.tryGetSourceRootsOfBinary(classesDir));
+
+        assertNull(index.tryNormalizeBinaryPath(file("build", "other")));
+        assertNull(index.tryGetSourceRootsOfBinary(file("build")));
+        assertNull(index.tryGetSourceRootsOfBinary(file("src", "main", "java")));
+    }
+
+    @Test
+    public void testJarIsMatchedExactly() {
+        JavaSourceSet main = sourceSet("main", file("src", "main", "java"));
+        JavaSourceSet test = sourceSet("test", file("src", "test", "java"));
+        JavaSourceRootIndex index = moduleWithJar(Arrays.asList(main, test)).getSourceRootIndex();
+
+        File jar = file("build", "libs", "testProject.jar");
+        assertEquals(jar, index.tryNormalizeBinaryPath(jar));
+        assertNull(index.tryNormalizeBinaryPath(new File(jar, "pckg")));
+        assertEquals(
+                Arrays.asList(file("src", "main", "java"), file("src", "test", "java")),
+                index.tryGetSourceRootsOfBinary(jar));
+    }
+
+    @Test
+    public void testSourceToBinary() {
+        JavaSourceSet main = sourceSet("main", file("src", "main", "java"));
+        JavaSourceSet test = sourceSet("test", file("src", "test", "java"));
+        JavaSourceRootIndex index = module(Arrays.asList(main, test)).getSourceRootIndex();
+
+        File sourceRoot = file("src", "test", "java");
+        assertEquals(sourceRoot, index.tryNormalizeSourcePath(new File(sourceRoot, "pckg/MyClassTest.java")));
+        assertEquals(
+                Collections.singletonList(file("build", "classes", "test")),
+                index.getOutputDirsOfSourceRoot(sourceRoot));
+
+        assertNull(index.tryNormalizeSourcePath(file("src")));
+        assertNull(index.tryNormalizeSourcePath(file("build", "classes", "test")));
+        assertTrue(index.getOutputDirsOfSourceRoot(file("src")).isEmpty());
+    }
+
+    @Test
+    public void testIndexIsCreatedOnce() {
+        NbJavaModule module = module(Arrays.asList(sourceSet("main", file("src", "main", "java"))));
+        assertSame(module.getSourceRootIndex(), module.getSourceRootIndex());
+    }
+}
@@ -3,9 +3,11 @@ package org.netbeans.gradle.project.java.model;
 import java.io.File;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import org.junit.Test;
 import org.netbeans.gradle.model.GenericProjectProperties;
+import org.netbeans.gradle.model.java.JavaClassPaths;
 import org.netbeans.gradle.model.java.JavaCompatibilityModel;
 import org.netbeans.gradle.model.java.JavaOutputDirs;
 import org.netbeans.gradle.model.java.JavaSourceGroup;
@@ -25,14 +27,23 @@ public class NbJavaModelTest {
     }
 
     private static JavaSourceSet createSources(String name) {
+        return createSources(name, JavaClassPaths.EMPTY);
+    }
+
+    private static JavaSourceSet createSources(String name, JavaClassPaths classPaths) {
         JavaSourceSet.Builder result = new JavaSourceSet.Builder(
                 name,
                 new JavaOutputDirs(Collections.singleton(new File(name + "-out-classes")), new File(name + "-out-res"), Collections.<File>emptySet()));
         result.addSourceGroup(createSourceGroup(name));
+        result.setClasspaths(classPaths);
         return result.create();
     }
 
     private static NbJavaModule createModule(String name) {
+        return createModule(name, true);
+    }
+
+    private static NbJavaModule createModule(String name, boolean hasRuntimeClassPaths) {
         String fullName = ":apps:" + name;
         GenericProjectProperties properties = NbGradleProjectTreeTest.createProperties(name, fullName);
         JavaCompatibilityModel compatibility = new JavaCompatibilityModel("1.6", "1.7");
@@ -47,7 +58,8 @@ public class NbJavaModelTest {
                         sources.get(0).getOutputDirs().getClassesDirs())
         );
 
-        return new NbJavaModule(properties, compatibility, sources, listedDirs, jarOutputs, testModel, NbCodeCoverage.NO_CODE_COVERAGE);
+        return new NbJavaModule(properties, compatibility, sources, listedDirs, jarOutputs, testModel,
+                NbCodeCoverage.NO_CODE_COVERAGE, hasRuntimeClassPaths);
     }
 
     @Test
@@ -66,4 +78,32 @@ public class NbJavaModelTest {
                 source.getMainModule().getModuleDir().toString(),
                 deserialized.getMainModule().getModuleDir().toString());
     }
+
+    @Test
+    public void testSerializationKeepsMissingRuntimeClassPaths() throws ClassNotFoundException {
+        NbJavaModule mainModule = createModule("mainModule", false);
+
+        byte[] serialized = SerializationUtils.serializeObject(mainModule);
+        NbJavaModule deserialized = (NbJavaModule)SerializationUtils.deserializeObject(serialized, SerializationCache.NO_CACHE);
+
+        assertFalse(deserialized.hasRuntimeClassPaths());
+    }
+
+    @Test
+    public void testWithRuntimeClassPaths() {
+        NbJavaModule mainModule = createModule("mainModule", false);
+
+        List<File> compileClassPath = Arrays.asList(new File("compile.jar"));
+        List<File> runtimeClassPath = Arrays.asList(new File("compile.jar"), new File("runtime.jar"));
+        JavaSourceSet completeMain = createSources("main", new JavaClassPaths(compileClassPath, runtimeClassPath));
+
+        NbJavaModule updated = mainModule.withRuntimeClassPaths(Collections.singleton(completeMain));
+        assertTrue(updated.hasRuntimeClassPaths());
+
+        JavaClassPaths mainClassPaths = updated.getSources().get(0).getClasspaths();
+        assertEquals(Collections.<File>emptySet(), mainClassPaths.getCompileClasspaths());
+        assertEquals(new LinkedHashSet<>(runtimeClassPath), mainClassPaths.getRuntimeClasspaths());
+
+        assertSame(mainModule.getSources().get(1), updated.getSources().get(1));
+    }
 }
@@ -0,0 +1,100 @@
+package org.netbeans.gradle.project.java.nodes;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jtrim.concurrent.ManualTaskExecutor;
+import org.junit.Test;
+import org.netbeans.gradle.project.api.nodes.SingleNodeFactory;
+import org.netbeans.gradle.project.util.NbSupplier;
+import org.openide.nodes.AbstractNode;
+import org.openide.nodes.Children;
+import org.openide.nodes.Node;
+
+import static org.junit.Assert.*;
+
+public class DependencyGroupChildrenTest {
+    private static void executeAll(ManualTaskExecutor executor) {
+        while (executor.executeCurrentlySubmitted() > 0) {
+            // Execute until there are no more tasks.
+        }
+    }
+
+    private static List<String> getDisplayNames(Node[] nodes) {
+        List<String> result = new ArrayList<>(nodes.length);
+        for (Node node: nodes) {
+            result.add(node.getDisplayName());
+        }
+        return result;
+    }
+
+    @Test
+    public void testKeysAreCreatedOnlyOnExpand() {
+        KeysProvider keysProvider = new KeysProvider("lib1.jar", "lib2.jar");
+        ManualTaskExecutor executor = new ManualTaskExecutor(true);
+
+        JavaDependenciesNode.DependencyGroupChildren children
+                = new JavaDependenciesNode.DependencyGroupChildren(keysProvider, executor);
+        Node groupNode = new AbstractNode(children);
+
+        assertSame(children, groupNode.getChildren());
+        executeAll(executor);
+        assertEquals(0, keysProvider.getCallCount());
+
+        // Expanding the group must not create the keys on the calling thread.
+        assertEquals(0, children.getNodesCount());
+        assertEquals(0, keysProvider.getCallCount());
+
+        executeAll(executor);
+        assertEquals(1, keysProvider.getCallCount());
+        assertEquals(Arrays.asList("lib1.jar", "lib2.jar"), getDisplayNames(children.getNodes()));
+    }
+
+    @Test
+    public void testCollapsedGroupIgnoresPendingKeys() {
+        KeysProvider keysProvider = new KeysProvider("lib1.jar");
+        ManualTaskExecutor executor = new ManualTaskExecutor(true);
+
+        JavaDependenciesNode.DependencyGroupChildren children
+                = new JavaDependenciesNode.DependencyGroupChildren(keysProvider, executor);
+
+        children.addNotify();
+        children.removeNotify();
+        executeAll(executor);
+
+        assertEquals(0, keysProvider.getCallCount());
+    }
+
+    private static final class KeysProvider implements NbSupplier<List<SingleNodeFactory>> {
+        private final List<String> names;
+        private final AtomicInteger callCount;
+
+        public KeysProvider(String... names) {
+            this.names = Arrays.asList(names);
+            this.callCount = new AtomicInteger(0);
+        }
+
+        public int getCallCount() {
+            return callCount.get();
+        }
+
+        @Override
+        public List<SingleNodeFactory> get() {
+            callCount.incrementAndGet();
+
+            List<SingleNodeFactory> result = new ArrayList<>(names.size());
+            for (final String name: names) {
+                result.add(new SingleNodeFactory() {
+                    @Override
+                    public Node createNode() {
+                        AbstractNode node = new AbstractNode(Children.LEAF);
+                        node.setDisplayName(name);
+                        return node;
+                    }
+                });
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package org.netbeans.gradle.project.java.query;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import org.netbeans.gradle.model.GenericProjectProperties;
+import org.netbeans.gradle.model.java.JavaCompatibilityModel;
+import org.netbeans.gradle.model.java.JavaOutputDirs;
+import org.netbeans.gradle.model.java.JavaSourceGroup;
+import org.netbeans.gradle.model.java.JavaSourceGroupName;
+import org.netbeans.gradle.model.java.JavaSourceSet;
+import org.netbeans.gradle.model.java.JavaTestModel;
+import org.netbeans.gradle.model.java.JavaTestTask;
+import org.netbeans.gradle.model.util.BasicFileUtils;
+import org.netbeans.gradle.project.java.model.NbCodeCoverage;
+import org.netbeans.gradle.project.java.model.NbJarOutput;
+import org.netbeans.gradle.project.java.model.NbJavaModule;
+import org.netbeans.gradle.project.java.model.NbListedDir;
+import org.netbeans.gradle.project.util.CloseableAction;
+
+import static org.junit.Assert.*;
+
+public class OutputSourceIndexTest {
+    private static final File ROOT = new File("output-source-index-test").getAbsoluteFile();
+
+    private static File file(String... path) {
+        return BasicFileUtils.getSubPath(ROOT, path);
+    }
+
+    private static JavaSourceSet sourceSet(File projectDir, String name) {
+        JavaSourceSet.Builder result = new JavaSourceSet.Builder(name, new JavaOutputDirs(
+                Collections.singleton(BasicFileUtils.getSubPath(projectDir, "build", "classes", name)),
+                BasicFileUtils.getSubPath(projectDir, "build", "resources", name),
+                Collections.<File>emptyList()));
+        result.addSourceGroup(new JavaSourceGroup(
+                JavaSourceGroupName.JAVA,
+                Collections.singletonList(BasicFileUtils.getSubPath(projectDir, "src", name, "java"))));
+        return result.create();
+    }
+
+    private static NbJavaModule module(String projectName) {
+        File projectDir = file(projectName);
+        GenericProjectProperties properties = new GenericProjectProperties(
+                projectName,
+                ":" + projectName,
+                projectDir,
+                new File(projectDir, "build.gradle"));
+
+        JavaSourceSet main = sourceSet(projectDir, "main");
+        JavaSourceSet test = sourceSet(projectDir, "test");
+
+        NbJarOutput jar = new NbJarOutput(
+                "jar",
+                BasicFileUtils.getSubPath(projectDir, "build", "libs", projectName + ".jar"),
+                main.getOutputDirs().getClassesDirs());
+
+        return new NbJavaModule(
+                properties,
+                new JavaCompatibilityModel("1.8", "1.8"),
+                Arrays.asList(main, test),
+                Collections.<NbListedDir>emptyList(),
+                Collections.singletonList(jar),
+                new JavaTestModel(Collections.<JavaTestTask>emptyList()),
+                NbCodeCoverage.NO_CODE_COVERAGE);
+    }
+
+    @Test
+    public void testLookupsAcrossProjects() {
+        OutputSourceIndex index = new OutputSourceIndex();
+        index.registerModule(module("app"));
+        index.registerModule(module("lib"));
+
+        for (String projectName: Arrays.asList("app", "lib")) {
+            File classesDir = file(projectName, "build", "classes", "main");
+            File sourceRoot = file(projectName, "src", "main", "java");
+
+            assertEquals(classesDir, index.tryNormalizeBinaryPath(new File(classesDir, "pckg/MyClass.class")));
+            assertEquals(Collections.singletonList(sourceRoot), index.tryGetSourceRootsOfBinary(classesDir));
+
+            assertEquals(sourceRoot, index.tryNormalizeSourcePath(new File(sourceRoot, "pckg/MyClass.java")));
+            assertEquals(Collections.singletonList(classesDir), index.getOutputDirsOfSourceRoot(sourceRoot));
+        }
+
+        assertNull(index.tryNormalizeBinaryPath(file("other", "build", "classes", "main")));
+        assertNull(index.tryGetSourceRootsOfBinary(file("app", "build")));
+        assertNull(index.tryNormalizeSourcePath(file("app", "src")));
+        assertTrue(index.getOutputDirsOfSourceRoot(file("app", "src")).isEmpty());
+    }
+
+    @Test
+    public void testJarIsMatchedExactly() {
+        OutputSourceIndex index = new OutputSourceIndex();
+        index.registerModule(module("app"));
+
+        File jar = file("app", "build", "libs", "app.jar");
+        assertEquals(jar, index.tryNormalizeBinaryPath(jar));
+        assertNull(index.tryNormalizeBinaryPath(new File(jar, "pckg")));
+        assertEquals(
+                Arrays.asList(file("app", "src", "main", "java"), file("app", "src", "test", "java")),
+                index.tryGetSourceRootsOfBinary(jar));
+    }
+
+    @Test
+    public void testUnregisteredModuleIsRemoved() {
+        OutputSourceIndex index = new OutputSourceIndex();
+        CloseableAction.Ref appRef = index.registerModule(module("app"));
+        index.registerModule(module("lib"));
+
+        File appSourceRoot = file("app", "src", "main", "java");
+        File libSourceRoot = file("lib", "src", "main", "java");
+        assertEquals(appSourceRoot, index.tryNormalizeSourcePath(appSourceRoot));
+
+        appRef.close();
+        appRef.close();
+
+        assertNull(index.tryNormalizeSourcePath(appSourceRoot));
+        assertNull(index.tryGetSourceRootsOfBinary(file("app", "build", "classes", "main")));
+        assertEquals(libSourceRoot, index.tryNormalizeSourcePath(libSourceRoot));
+    }
+
+    @Test
+    public void testReplacedModule() {
+        OutputSourceIndex index = new OutputSourceIndex();
+        NbJavaModule module = module("app");
+
+        CloseableAction.Ref ref1 = index.registerModule(module);
+        CloseableAction.Ref ref2 = index.registerModule(module);
+        ref2.close();
+
+        File sourceRoot = file("app", "src", "main", "java");
+        assertEquals(sourceRoot, index.tryNormalizeSourcePath(sourceRoot));
+
+        ref1.close();
+        index.registerModule(module("renamed"));
+        assertNull(index.tryNormalizeSourcePath(sourceRoot));
+        assertEquals(
+                file("renamed", "src", "main", "java"),
+                index.tryNormalizeSourcePath(file("renamed", "src", "main", "java", "MyClass.java")));
+    }
+
+    @Test
+    public void testChangeListener() {
+        OutputSourceIndex index = new OutputSourceIndex();
+
+        final AtomicInteger changeCount = new AtomicInteger(0);
+        index.addChangeListener(new Runnable() {
+            @Override
+            public void run() {
+                changeCount.incrementAndGet();
+            }
+        });
+
+        CloseableAction.Ref ref = index.registerModule(module("app"));
+        assertEquals(1, changeCount.get());
+
+        ref.close();
+        assertEquals(2, changeCount.get());
+
+        ref.close();
+        assertEquals(2, changeCount.get());
+    }
+}
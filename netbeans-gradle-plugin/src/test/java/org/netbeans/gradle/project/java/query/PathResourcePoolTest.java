@@ -0,0 +1,86 @@
+package org.netbeans.gradle.project.java.query;
+
+import java.io.File;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Test;
+import org.netbeans.gradle.model.java.SourceIncludePatterns;
+import org.netbeans.gradle.project.util.ExcludeIncludeRules;
+import org.netbeans.gradle.project.util.NbFunction;
+import org.netbeans.gradle.project.util.UrlFactory;
+import org.netbeans.spi.java.classpath.PathResourceImplementation;
+import org.openide.util.Utilities;
+
+import static org.junit.Assert.*;
+
+public class PathResourcePoolTest {
+    private static UrlFactory urlFactory() {
+        return new UrlFactory(new NbFunction<File, URL>() {
+            @Override
+            public URL apply(File arg) {
+                if (arg.getName().startsWith("invalid")) {
+                    return null;
+                }
+
+                // Resources only accept folder URLs.
+                try {
+                    return new URL(Utilities.toURI(arg.getAbsoluteFile()).toString() + "/");
+                } catch (MalformedURLException ex) {
+                    throw new RuntimeException(ex);
+                }
+            }
+        });
+    }
+
+    private static ExcludeIncludeRules excludeRules(String... patterns) {
+        return ExcludeIncludeRules.create(SourceIncludePatterns.create(
+                Arrays.asList(patterns),
+                Collections.<String>emptyList()));
+    }
+
+    @Test
+    public void testSharesResources() {
+        PathResourcePool pool = new PathResourcePool();
+        File root = new File("lib");
+
+        PathResourceImplementation resource1 = pool.tryGetResource(root, ExcludeIncludeRules.ALLOW_ALL, urlFactory());
+        PathResourceImplementation resource2 = pool.tryGetResource(new File("lib"), ExcludeIncludeRules.ALLOW_ALL, urlFactory());
+
+        assertNotNull(resource1);
+        assertSame(resource1, resource2);
+    }
+
+    @Test
+    public void testSharesFilteredResources() {
+        PathResourcePool pool = new PathResourcePool();
+        File root = new File("src");
+
+        PathResourceImplementation resource1 = pool.tryGetResource(root, excludeRules("**/Test*"), urlFactory());
+        PathResourceImplementation resource2 = pool.tryGetResource(root, excludeRules("**/Test*"), urlFactory());
+
+        assertNotNull(resource1);
+        assertSame(resource1, resource2);
+    }
+
+    @Test
+    public void testSeparatesRules() {
+        PathResourcePool pool = new PathResourcePool();
+        File root = new File("src");
+
+        PathResourceImplementation allowAll = pool.tryGetResource(root, ExcludeIncludeRules.ALLOW_ALL, urlFactory());
+        PathResourceImplementation filtered1 = pool.tryGetResource(root, excludeRules("**/Test*"), urlFactory());
+        PathResourceImplementation filtered2 = pool.tryGetResource(root, excludeRules("**/Other*"), urlFactory());
+
+        assertNotSame(allowAll, filtered1);
+        assertNotSame(allowAll, filtered2);
+        assertNotSame(filtered1, filtered2);
+    }
+
+    @Test
+    public void testInvalidEntry() {
+        PathResourcePool pool = new PathResourcePool();
+        assertNull(pool.tryGetResource(new File("invalid"), ExcludeIncludeRules.ALLOW_ALL, urlFactory()));
+    }
+}
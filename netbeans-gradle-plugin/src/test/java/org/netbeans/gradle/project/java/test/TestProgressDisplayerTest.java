@@ -0,0 +1,582 @@
+package org.netbeans.gradle.project.java.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.gradle.tooling.Failure;
+import org.gradle.tooling.events.OperationDescriptor;
+import org.gradle.tooling.events.test.JvmTestKind;
+import org.gradle.tooling.events.test.JvmTestOperationDescriptor;
+import org.gradle.tooling.events.test.TestFailureResult;
+import org.gradle.tooling.events.test.TestFinishEvent;
+import org.gradle.tooling.events.test.TestOperationDescriptor;
+import org.gradle.tooling.events.test.TestOperationResult;
+import org.gradle.tooling.events.test.TestSkippedResult;
+import org.gradle.tooling.events.test.TestStartEvent;
+import org.gradle.tooling.events.test.TestSuccessResult;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.netbeans.api.project.Project;
+import org.netbeans.gradle.project.api.entry.EmptyProjectTest;
+import org.netbeans.gradle.project.api.entry.SampleProjectRule;
+import org.netbeans.gradle.project.others.test.NbGradleTestManager;
+import org.netbeans.gradle.project.others.test.NbGradleTestSession;
+import org.netbeans.gradle.project.others.test.NbGradleTestSuite;
+import org.netbeans.gradle.project.util.NbFunction;
+import org.netbeans.modules.gsf.testrunner.api.RerunHandler;
+import org.netbeans.modules.gsf.testrunner.api.Status;
+import org.netbeans.modules.gsf.testrunner.api.TestSession;
+import org.netbeans.modules.gsf.testrunner.api.Testcase;
+import org.netbeans.modules.gsf.testrunner.ui.api.TestRunnerNodeFactory;
+import org.openide.filesystems.FileObject;
+import org.openide.filesystems.FileUtil;
+import org.openide.util.Lookup;
+
+import static org.junit.Assert.*;
+
+public class TestProgressDisplayerTest {
+    @ClassRule
+    public static final SampleProjectRule PROJECT_REF = SampleProjectRule.getStandardRule(EmptyProjectTest.EMPTY_PROJECT_RESOURCE);
+
+    private static final String TEST_NAME = "test";
+    private static final String TEST_CLASS = "mypackage.MyTest";
+
+    private Project rootProject;
+    private RecordingManager testManager;
+
+    @Before
+    public void setUp() throws IOException {
+        Thread.interrupted();
+
+        rootProject = PROJECT_REF.getUnloadedProject(EmptyProjectTest.EMPTY_PROJECT_NAME);
+        testManager = new RecordingManager();
+        cleanBuildDirectory();
+    }
+
+    private void cleanBuildDirectory() throws IOException {
+        FileObject buildDir = rootProject.getProjectDirectory().getFileObject("build");
+        if (buildDir != null) {
+            buildDir.delete();
+        }
+    }
+
+    private void writeReport(String stdOut, String stdErr) throws IOException {
+        File projectDir = FileUtil.toFile(rootProject.getProjectDirectory());
+        File testResultsDir = new File(new File(projectDir, "build"), "test-results");
+        testResultsDir.mkdirs();
+
+        String report = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<testsuite name=\"" + TEST_CLASS + "\" tests=\"1\" time=\"0.02\">\n"
+                + "  <testcase name=\"testPassed\" classname=\"" + TEST_CLASS + "\" time=\"0.005\"/>\n"
+                + "  <system-out><![CDATA[" + stdOut + "]]></system-out>\n"
+                + "  <system-err><![CDATA[" + stdErr + "]]></system-err>\n"
+                + "</testsuite>\n";
+        File reportFile = new File(testResultsDir, "TEST-" + TEST_CLASS + ".xml");
+        Files.write(reportFile.toPath(), report.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private TestProgressDisplayer createDisplayer() {
+        NbFunction<String, String> testNameResolver = new NbFunction<String, String>() {
+            @Override
+            public String apply(String taskPath) {
+                return (":" + TEST_NAME).equals(taskPath) ? TEST_NAME : null;
+            }
+        };
+        return new TestProgressDisplayer(rootProject, Lookup.EMPTY, testNameResolver, testManager);
+    }
+
+    private static TestDescriptor testRun(OperationDescriptor parent, String taskPath) {
+        return new TestDescriptor("Gradle Test Run " + taskPath, parent, JvmTestKind.SUITE, null, null);
+    }
+
+    private static TestDescriptor classSuite(OperationDescriptor parent) {
+        return new TestDescriptor(TEST_CLASS, parent, JvmTestKind.SUITE, TEST_CLASS, null);
+    }
+
+    private static TestDescriptor testMethod(OperationDescriptor parent, String methodName) {
+        return new TestDescriptor(methodName, parent, JvmTestKind.ATOMIC, TEST_CLASS, methodName);
+    }
+
+    private static void start(TestProgressDisplayer displayer, TestDescriptor descriptor) {
+        displayer.statusChanged(new StartEvent(descriptor));
+    }
+
+    private static void finish(TestProgressDisplayer displayer, TestDescriptor descriptor, TestOperationResult result) {
+        displayer.statusChanged(new FinishEvent(descriptor, result));
+    }
+
+    private static void runSingleClass(TestProgressDisplayer displayer, TestDescriptor testRun) {
+        TestDescriptor executor = new TestDescriptor(
+                "Gradle Test Executor 1", testRun, JvmTestKind.SUITE, null, null);
+        TestDescriptor testClass = classSuite(executor);
+        TestDescriptor passed = testMethod(testClass, "testPassed");
+        TestDescriptor failed = testMethod(testClass, "testFailed");
+        TestDescriptor skipped = testMethod(testClass, "testSkipped");
+
+        start(displayer, testRun);
+        start(displayer, executor);
+        start(displayer, testClass);
+
+        start(displayer, passed);
+        finish(displayer, passed, new SuccessResult(10, 15));
+
+        start(displayer, failed);
+        String failure = "java.lang.AssertionError: expected\n\tat mypackage.MyTest.testFailed(MyTest.java:10)";
+        finish(displayer, failed, new FailedResult(15, 18, failure));
+
+        start(displayer, skipped);
+        finish(displayer, skipped, new SkippedResult(18, 18));
+
+        finish(displayer, testClass, new SuccessResult(5, 25));
+        finish(displayer, executor, new SuccessResult(0, 30));
+    }
+
+    @Test
+    public void testResultsAreDisplayedLive() {
+        TestProgressDisplayer displayer = createDisplayer();
+        TestDescriptor testRun = testRun(null, ":" + TEST_NAME);
+        runSingleClass(displayer, testRun);
+
+        RecordingSession session = testManager.getOnlySession();
+        assertFalse("Session ended before the test run", session.ended);
+
+        RecordingSuite suite = session.getOnlySuite();
+        assertEquals(TEST_CLASS, suite.name);
+        assertEquals(20, suite.elapsedTimeInMillis);
+
+        assertEquals(3, suite.testcases.size());
+        verifyTestcase(suite.testcases.get(0), "testPassed", Status.PASSED, 5);
+        verifyTestcase(suite.testcases.get(1), "testFailed", Status.FAILED, 3);
+        verifyTestcase(suite.testcases.get(2), "testSkipped", Status.SKIPPED, 0);
+
+        String[] stackTrace = suite.testcases.get(1).getTrouble().getStackTrace();
+        assertEquals("java.lang.AssertionError: expected", stackTrace[0]);
+
+        finish(displayer, testRun, new SuccessResult(0, 30));
+        assertFalse("Session ended before the reports were written", session.ended);
+
+        assertTrue(displayer.completeLiveResults(TEST_NAME));
+        assertTrue("Session ended on completion", session.ended);
+        assertFalse("Results completed twice", displayer.completeLiveResults(TEST_NAME));
+        assertEquals("endSession calls", 1, session.endCount);
+    }
+
+    @Test
+    public void testOutputIsReadFromReports() throws IOException {
+        TestProgressDisplayer displayer = createDisplayer();
+        TestDescriptor testRun = testRun(null, ":" + TEST_NAME);
+        runSingleClass(displayer, testRun);
+        finish(displayer, testRun, new SuccessResult(0, 30));
+
+        writeReport("HELLO1\nHELLO2\n", "ERROR1\n");
+        assertTrue(displayer.completeLiveResults(TEST_NAME));
+
+        RecordingSession session = testManager.getOnlySession();
+        assertEquals(Arrays.asList("ERROR1\n"), session.stdErr);
+        assertEquals(Arrays.asList("HELLO1\nHELLO2\n"), session.stdOut);
+        assertEquals("Testcases are not read again from the report", 3, session.getOnlySuite().testcases.size());
+        assertTrue("Session ended on completion", session.ended);
+    }
+
+    @Test
+    public void testMissingReportIsIgnored() {
+        TestProgressDisplayer displayer = createDisplayer();
+        runSingleClass(displayer, testRun(null, ":" + TEST_NAME));
+
+        assertTrue(displayer.completeLiveResults(TEST_NAME));
+
+        RecordingSession session = testManager.getOnlySession();
+        assertTrue(session.stdOut.isEmpty());
+        assertTrue(session.stdErr.isEmpty());
+        assertTrue("Session ended on completion", session.ended);
+    }
+
+    @Test
+    public void testRemainingResultsAreCompleted() {
+        TestProgressDisplayer displayer = createDisplayer();
+        runSingleClass(displayer, testRun(null, ":" + TEST_NAME));
+
+        RecordingSession session = testManager.getOnlySession();
+        assertFalse("session.ended", session.ended);
+
+        displayer.completeRemainingLiveResults();
+        assertTrue("session.ended", session.ended);
+        assertFalse(displayer.completeLiveResults(TEST_NAME));
+    }
+
+    @Test
+    public void testTestRunWithTaskParent() {
+        TestProgressDisplayer displayer = createDisplayer();
+        OperationDescriptor task = new TaskDescriptor(":" + TEST_NAME);
+        runSingleClass(displayer, testRun(task, ":" + TEST_NAME));
+
+        RecordingSession session = testManager.getOnlySession();
+        assertEquals(3, session.getOnlySuite().testcases.size());
+
+        assertTrue(displayer.completeLiveResults(TEST_NAME));
+        assertTrue("Session ended on completion", session.ended);
+    }
+
+    @Test
+    public void testCompleteWithoutEvents() {
+        TestProgressDisplayer displayer = createDisplayer();
+        assertFalse(displayer.completeLiveResults(TEST_NAME));
+        assertTrue(testManager.sessions.isEmpty());
+    }
+
+    @Test
+    public void testUnknownTaskIsIgnored() {
+        TestProgressDisplayer displayer = createDisplayer();
+        runSingleClass(displayer, testRun(null, ":other:test"));
+
+        assertTrue(testManager.sessions.isEmpty());
+        assertFalse(displayer.completeLiveResults(TEST_NAME));
+    }
+
+    @Test
+    public void testExecutionsAreSeparated() {
+        TestProgressDisplayer displayer1 = createDisplayer();
+        TestProgressDisplayer displayer2 = createDisplayer();
+
+        start(displayer1, testRun(null, ":" + TEST_NAME));
+        start(displayer2, testRun(null, ":" + TEST_NAME));
+
+        assertEquals(2, testManager.sessions.size());
+        RecordingSession session1 = testManager.sessions.get(0);
+        RecordingSession session2 = testManager.sessions.get(1);
+
+        assertTrue(displayer2.completeLiveResults(TEST_NAME));
+        assertTrue("session2.ended", session2.ended);
+        assertFalse("session1.ended", session1.ended);
+
+        assertTrue(displayer1.completeLiveResults(TEST_NAME));
+        assertTrue("session1.ended", session1.ended);
+    }
+
+    private static void verifyTestcase(Testcase testcase, String name, Status status, long timeMillis) {
+        assertEquals(name, testcase.getName());
+        assertEquals(TEST_CLASS, testcase.getClassName());
+        assertEquals(status, testcase.getStatus());
+        assertEquals(timeMillis, testcase.getTimeMillis());
+    }
+
+    private static final class RecordingManager implements NbGradleTestManager {
+        public final List<RecordingSession> sessions = new ArrayList<>();
+
+        @Override
+        public NbGradleTestSession startSession(
+                String name,
+                Project project,
+                TestRunnerNodeFactory nodeFactory,
+                RerunHandler rerunHandler) {
+            RecordingSession session = new RecordingSession(name, project);
+            sessions.add(session);
+            return session;
+        }
+
+        public RecordingSession getOnlySession() {
+            assertEquals("sessions.size", 1, sessions.size());
+            return sessions.get(0);
+        }
+    }
+
+    private static final class RecordingSession implements NbGradleTestSession {
+        private final TestSession gsfSession;
+        public final List<RecordingSuite> suites;
+        public final List<String> stdOut;
+        public final List<String> stdErr;
+        public boolean ended;
+        public int endCount;
+
+        public RecordingSession(String name, Project project) {
+            this.gsfSession = new TestSession(name, project, TestSession.SessionType.TEST);
+            this.suites = new ArrayList<>();
+            this.stdOut = new ArrayList<>();
+            this.stdErr = new ArrayList<>();
+            this.ended = false;
+            this.endCount = 0;
+        }
+
+        @Override
+        public NbGradleTestSuite startTestSuite(String suiteName) {
+            RecordingSuite suite = new RecordingSuite(gsfSession, suiteName);
+            suites.add(suite);
+            return suite;
+        }
+
+        @Override
+        public void displayOutput(String output, boolean error) {
+            if (error) {
+                stdErr.add(output);
+            }
+            else {
+                stdOut.add(output);
+            }
+        }
+
+        @Override
+        public void endSession() {
+            ended = true;
+            endCount++;
+        }
+
+        public RecordingSuite getOnlySuite() {
+            assertEquals("suites.size", 1, suites.size());
+            return suites.get(0);
+        }
+    }
+
+    private static final class RecordingSuite implements NbGradleTestSuite {
+        private final TestSession parent;
+        public final String name;
+        public final List<Testcase> testcases;
+        public long elapsedTimeInMillis;
+
+        public RecordingSuite(TestSession parent, String name) {
+            this.parent = parent;
+            this.name = name;
+            this.testcases = new ArrayList<>();
+            this.elapsedTimeInMillis = -1;
+        }
+
+        @Override
+        public Testcase addTestcase(String name) {
+            Testcase testcase = new Testcase(name, null, parent);
+            testcases.add(testcase);
+            return testcase;
+        }
+
+        @Override
+        public void setStdOut(String stdOut) {
+        }
+
+        @Override
+        public void setStdErr(String stdErr) {
+        }
+
+        @Override
+        public void endSuite(long elapsedTimeInMillis) {
+            this.elapsedTimeInMillis = elapsedTimeInMillis;
+        }
+    }
+
+    private static final class TaskDescriptor implements OperationDescriptor {
+        private final String taskPath;
+
+        public TaskDescriptor(String taskPath) {
+            this.taskPath = taskPath;
+        }
+
+        @Override
+        public String getName() {
+            return taskPath;
+        }
+
+        @Override
+        public String getDisplayName() {
+            return "Task " + taskPath;
+        }
+
+        @Override
+        public OperationDescriptor getParent() {
+            return null;
+        }
+    }
+
+    private static final class TestDescriptor implements JvmTestOperationDescriptor {
+        private final String name;
+        private final OperationDescriptor parent;
+        private final JvmTestKind kind;
+        private final String className;
+        private final String methodName;
+
+        public TestDescriptor(
+                String name,
+                OperationDescriptor parent,
+                JvmTestKind kind,
+                String className,
+                String methodName) {
+            this.name = name;
+            this.parent = parent;
+            this.kind = kind;
+            this.className = className;
+            this.methodName = methodName;
+        }
+
+        @Override
+        public JvmTestKind getJvmTestKind() {
+            return kind;
+        }
+
+        @Override
+        public String getSuiteName() {
+            return kind == JvmTestKind.SUITE ? name : null;
+        }
+
+        @Override
+        public String getClassName() {
+            return className;
+        }
+
+        @Override
+        public String getMethodName() {
+            return methodName;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String getDisplayName() {
+            return name;
+        }
+
+        @Override
+        public OperationDescriptor getParent() {
+            return parent;
+        }
+    }
+
+    private static final class StartEvent implements TestStartEvent {
+        private final TestOperationDescriptor descriptor;
+
+        public StartEvent(TestOperationDescriptor descriptor) {
+            this.descriptor = descriptor;
+        }
+
+        @Override
+        public long getEventTime() {
+            return 0;
+        }
+
+        @Override
+        public String getDisplayName() {
+            return descriptor.getDisplayName() + " started";
+        }
+
+        @Override
+        public TestOperationDescriptor getDescriptor() {
+            return descriptor;
+        }
+    }
+
+    private static final class FinishEvent implements TestFinishEvent {
+        private final TestOperationDescriptor descriptor;
+        private final TestOperationResult result;
+
+        public FinishEvent(TestOperationDescriptor descriptor, TestOperationResult result) {
+            this.descriptor = descriptor;
+            this.result = result;
+        }
+
+        @Override
+        public long getEventTime() {
+            return result.getEndTime();
+        }
+
+        @Override
+        public String getDisplayName() {
+            return descriptor.getDisplayName() + " finished";
+        }
+
+        @Override
+        public TestOperationDescriptor getDescriptor() {
+            return descriptor;
+        }
+
+        @Override
+        public TestOperationResult getResult() {
+            return result;
+        }
+    }
+
+    private static final class SuccessResult implements TestSuccessResult {
+        private final long startTime;
+        private final long endTime;
+
+        public SuccessResult(long startTime, long endTime) {
+            this.startTime = startTime;
+            this.endTime = endTime;
+        }
+
+        @Override
+        public long getStartTime() {
+            return startTime;
+        }
+
+        @Override
+        public long getEndTime() {
+            return endTime;
+        }
+    }
+
+    private static final class SkippedResult implements TestSkippedResult {
+        private final long startTime;
+        private final long endTime;
+
+        public SkippedResult(long startTime, long endTime) {
+            this.startTime = startTime;
+            this.endTime = endTime;
+        }
+
+        @Override
+        public long getStartTime() {
+            return startTime;
+        }
+
+        @Override
+        public long getEndTime() {
+            return endTime;
+        }
+    }
+
+    private static final class FailedResult implements TestFailureResult {
+        private final long startTime;
+        private final long endTime;
+        private final String description;
+
+        public FailedResult(long startTime, long endTime, String description) {
+            this.startTime = startTime;
+            this.endTime = endTime;
+            this.description = description;
+        }
+
+        @Override
+        public long getStartTime() {
+            return startTime;
+        }
+
+        @Override
+        public long getEndTime() {
+            return endTime;
+        }
+
+        @Override
+        public List<? extends Failure> getFailures() {
+            return Collections.singletonList(new Failure() {
+                @Override
+                public String getMessage() {
+                    return "expected";
+                }
+
+                @Override
+                public String getDescription() {
+                    return description;
+                }
+
+                @Override
+                public List<? extends Failure> getCauses() {
+                    return Collections.emptyList();
+                }
+            });
+        }
+    }
+}
@@ -193,6 +193,10 @@ public class TestXmlDisplayerTest {
             return suite;
         }
 
+        @Override
+        public void displayOutput(String output, boolean error) {
+        }
+
         @Override
         public void endSession() {
             if (closed.getAndSet(true)) {
@@ -0,0 +1,61 @@
+package org.netbeans.gradle.project.model.diagnostics;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ModelLoadDiagnosticsTest {
+    private static ModelLoadDiagnostics createTestDiagnostics() {
+        ModelLoadDiagnostics.Builder builder = new ModelLoadDiagnostics.Builder("my \"project\"");
+        builder.setPhaseTime(ModelLoadDiagnostics.Phase.CONNECT, 1000);
+        builder.setPhaseTime(ModelLoadDiagnostics.Phase.EVALUATE, 5000);
+        builder.setPhaseTime(ModelLoadDiagnostics.Phase.DESERIALIZE, -1);
+        builder.addBuilderTime(":app", "java", "FastBuilder", 10);
+        builder.addBuilderTime(":app", "java", "SlowBuilder", 3000000);
+        builder.addBuilderTime(":app", "java", "NotMeasuredBuilder", -1);
+        builder.addPayloadSize(":app", "java", 100);
+        builder.addPayloadSize(":lib", "java", 300);
+        builder.setQueuedBackgroundIOTasks(7);
+        return builder.create();
+    }
+
+    @Test
+    public void testUnmeasuredValuesAreIgnored() {
+        ModelLoadDiagnostics diagnostics = createTestDiagnostics();
+
+        assertEquals(2, diagnostics.getPhaseTimes().size());
+        assertFalse(diagnostics.getPhaseTimes().containsKey(ModelLoadDiagnostics.Phase.DESERIALIZE));
+        assertEquals(2, diagnostics.getBuilderTimes().size());
+        assertEquals(400, diagnostics.getTotalPayloadSize());
+    }
+
+    @Test
+    public void testReportOrdersByCost() {
+        String report = createTestDiagnostics().toReport();
+
+        assertTrue(report, report.indexOf("SlowBuilder") < report.indexOf("FastBuilder"));
+        assertTrue(report, report.indexOf(":lib") < report.indexOf("100 bytes"));
+        assertTrue(report, report.contains("Queued background I/O tasks: 7"));
+    }
+
+    @Test
+    public void testQueuedBackgroundIOTasksNotRecorded() {
+        ModelLoadDiagnostics diagnostics = new ModelLoadDiagnostics.Builder("project").create();
+
+        assertTrue(diagnostics.getQueuedBackgroundIOTasks() < 0);
+        assertFalse(diagnostics.toJson().contains("queuedBackgroundIOTasks"));
+    }
+
+    @Test
+    public void testJson() {
+        String json = createTestDiagnostics().toJson();
+
+        assertFalse(json, json.contains("\n"));
+        assertTrue(json, json.startsWith("{\"project\":\"my \\\"project\\\"\","));
+        assertTrue(json, json.contains("\"queuedBackgroundIOTasks\":7,"));
+        assertTrue(json, json.contains("\"phases\":{\"CONNECT\":1000,\"EVALUATE\":5000}"));
+        assertTrue(json, json.contains("{\"project\":\":app\",\"key\":\"java\",\"builder\":\"SlowBuilder\",\"timeNanos\":3000000}"));
+        assertTrue(json, json.contains("{\"project\":\":lib\",\"key\":\"java\",\"bytes\":300}"));
+        assertTrue(json, json.endsWith("]}"));
+    }
+}
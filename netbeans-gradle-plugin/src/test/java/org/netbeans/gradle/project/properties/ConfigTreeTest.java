@@ -390,4 +390,76 @@ public class ConfigTreeTest {
 
         verifyNotEquals(builder1.create(), builder2.create());
     }
+
+    private static ConfigTree createTestTree() {
+        ConfigTree.Builder builder = new ConfigTree.Builder();
+        builder.getDeepChildBuilder("a", "b").setValue("value-ab");
+        builder.getDeepChildBuilder("a", "c").setValue("value-ac");
+        builder.addChildBuilder("a").setValue("second-a");
+        builder.getChildBuilder("d").setValue("value-d");
+        return builder.create();
+    }
+
+    private static ConfigTree withChildTreeByBuilder(ConfigTree tree, ConfigPath path, ConfigTree content) {
+        List<String> keys = path.getKeys();
+        int keyCount = keys.size();
+
+        ConfigTree.Builder builder = new ConfigTree.Builder(tree);
+        ConfigTree.Builder parentBuilder = builder.getDeepChildBuilder(ConfigPath.fromKeys(keys.subList(0, keyCount - 1)));
+        parentBuilder.setChildTree(keys.get(keyCount - 1), content);
+        return builder.create();
+    }
+
+    private static void testWithChildTree(ConfigPath path, ConfigTree content) {
+        ConfigTree tree = createTestTree();
+        ConfigTree result = tree.withChildTree(path, content);
+
+        assertEquals(withChildTreeByBuilder(tree, path, content), result);
+        assertEquals("The original must not change", createTestTree(), tree);
+    }
+
+    @Test
+    public void testWithChildTreeReplace() {
+        assumeBasicBuilderWorks();
+        testWithChildTree(ConfigPath.fromKeys("a", "b"), ConfigTree.singleValue("new-value"));
+    }
+
+    @Test
+    public void testWithChildTreeNewPath() {
+        assumeBasicBuilderWorks();
+        testWithChildTree(ConfigPath.fromKeys("x", "y", "z"), ConfigTree.singleValue("new-value"));
+    }
+
+    @Test
+    public void testWithChildTreeRemove() {
+        assumeBasicBuilderWorks();
+        testWithChildTree(ConfigPath.fromKeys("a", "b"), ConfigTree.EMPTY);
+        testWithChildTree(ConfigPath.fromKeys("d"), ConfigTree.EMPTY);
+        testWithChildTree(ConfigPath.fromKeys("a"), ConfigTree.EMPTY);
+    }
+
+    @Test
+    public void testWithChildTreeRoot() {
+        ConfigTree content = ConfigTree.singleValue("new-value");
+        assertSame(content, createTestTree().withChildTree(ConfigPath.ROOT, content));
+    }
+
+    @Test
+    public void testWithChildTreeSharesUnchangedSubtrees() {
+        ConfigTree tree = createTestTree();
+        ConfigTree result = tree.withChildTree(ConfigPath.fromKeys("a", "b"), ConfigTree.singleValue("new-value"));
+
+        assertSame(tree.getChildTree("d"), result.getChildTree("d"));
+        assertSame(tree.getDeepChildTree("a", "c"), result.getDeepChildTree("a", "c"));
+        assertSame(tree.getChildTrees("a").get(1), result.getChildTrees("a").get(1));
+    }
+
+    @Test
+    public void testWithChildTreeSameSubtree() {
+        ConfigTree tree = createTestTree();
+        ConfigPath path = ConfigPath.fromKeys("a", "b");
+
+        assertSame(tree, tree.withChildTree(path, tree.getDeepChildTree(path)));
+        assertSame(tree, tree.withChildTree(ConfigPath.fromKeys("x", "y"), ConfigTree.EMPTY));
+    }
 }
@@ -7,6 +7,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.jtrim.cancel.Cancellation;
 import org.jtrim.cancel.OperationCanceledException;
 import org.jtrim.collections.Equality;
@@ -280,6 +281,53 @@ public class ProfileSettingsTest {
         documentListener.waitForCall("Document change for multi node.");
     }
 
+    @Test
+    public void testMultiNodePropertyIsNotDecodedForUnrelatedUpdates() throws IOException {
+        ProfileSettings settings = new ProfileSettings();
+        readFromSettings1(settings);
+
+        final AtomicInteger decodeCount = new AtomicInteger(0);
+        PropertyDef.Builder<ConfigTree, ConfigTree> propertyDef = new PropertyDef.Builder<>(Arrays.asList(
+                getConfigPath("target-platform-name"),
+                getConfigPath("target-platform")));
+        propertyDef.setValueDef(new PropertyValueDef<ConfigTree, ConfigTree>() {
+            @Override
+            public PropertySource<ConfigTree> property(ConfigTree valueKey) {
+                return PropertyFactory.constSource(valueKey);
+            }
+
+            @Override
+            public ConfigTree getKeyFromValue(ConfigTree value) {
+                return value;
+            }
+        });
+        propertyDef.setKeyEncodingDef(new PropertyKeyEncodingDef<ConfigTree>() {
+            @Override
+            public ConfigTree decode(ConfigTree config) {
+                decodeCount.incrementAndGet();
+                return config;
+            }
+
+            @Override
+            public ConfigTree encode(ConfigTree value) {
+                return value;
+            }
+        });
+
+        MutableProperty<ConfigTree> property = settings.getProperty(propertyDef.create());
+        ConfigTree initialValue = property.getValue();
+        int initialDecodeCount = decodeCount.get();
+
+        MutableProperty<String> otherProperty = getTextProperty(settings, "source-encoding");
+        otherProperty.setValue("UTF-16");
+        assertEquals(initialValue, property.getValue());
+
+        otherProperty.setValue("UTF-32");
+        assertEquals(initialValue, property.getValue());
+
+        assertEquals("decodeCount", initialDecodeCount, decodeCount.get());
+    }
+
     private static final class WaitableListener implements Runnable {
         private final WaitableSignal calledSignal;
 
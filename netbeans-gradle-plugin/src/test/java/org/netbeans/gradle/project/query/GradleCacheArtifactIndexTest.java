@@ -0,0 +1,153 @@
+package org.netbeans.gradle.project.query;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.jtrim.cancel.Cancellation;
+import org.jtrim.concurrent.SyncTaskExecutor;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.netbeans.gradle.project.util.GradleFileUtils;
+import org.netbeans.gradle.project.util.NbFileUtils;
+import org.netbeans.gradle.project.util.NbSupplier;
+import org.netbeans.gradle.project.util.SafeTmpFolder;
+
+import static org.junit.Assert.*;
+
+public class GradleCacheArtifactIndexTest {
+    @ClassRule
+    public static final SafeTmpFolder TMP_DIR_ROOT = new SafeTmpFolder();
+
+    private static GradleCacheArtifactIndex createIndex(final Path indexFile, final File gradleUserHome) {
+        return new GradleCacheArtifactIndex(
+                new NbSupplier<Path>() {
+                    @Override
+                    public Path get() {
+                        return indexFile;
+                    }
+                },
+                new NbSupplier<File>() {
+                    @Override
+                    public File get() {
+                        return gradleUserHome;
+                    }
+                },
+                SyncTaskExecutor.getSimpleExecutor(),
+                SyncTaskExecutor.getSimpleExecutor());
+    }
+
+    private static Path newIndexFile() throws IOException {
+        return TMP_DIR_ROOT.newFolder().toPath().resolve("artifacts.index");
+    }
+
+    private static Path createArtifact(Path versionDir, String hash, String fileName) throws IOException {
+        Path hashDir = versionDir.resolve(hash);
+        Files.createDirectories(hashDir);
+        return Files.createFile(hashDir.resolve(fileName));
+    }
+
+    private static Path getVersionDir(File gradleUserHome, String group, String name, String version) {
+        return GradleFileUtils.getModuleFilesDir(gradleUserHome.toPath())
+                .resolve(group)
+                .resolve(name)
+                .resolve(version);
+    }
+
+    @Test
+    public void testFindsArtifactsOfModule() throws IOException {
+        File gradleUserHome = TMP_DIR_ROOT.newFolder();
+        Path versionDir = getVersionDir(gradleUserHome, "org.mygroup", "myproj", "1.2");
+
+        Path binary = createArtifact(versionDir, "57436", "myproj-1.2.jar");
+        Path sources = createArtifact(versionDir, "25754", "myproj-1.2-sources.jar");
+
+        GradleCacheArtifactIndex index = createIndex(newIndexFile(), gradleUserHome);
+        assertEquals("binary", binary, index.tryGetArtifact(versionDir, "myproj-1.2.jar"));
+        assertEquals("sources", sources, index.tryGetArtifact(versionDir, "myproj-1.2-sources.jar"));
+        assertNull("javadoc", index.tryGetArtifact(versionDir, "myproj-1.2-javadoc.jar"));
+    }
+
+    @Test
+    public void testFindsArtifactAddedAfterCacheChange() throws IOException {
+        File gradleUserHome = TMP_DIR_ROOT.newFolder();
+        Path versionDir = getVersionDir(gradleUserHome, "org.mygroup", "myproj", "1.2");
+
+        createArtifact(versionDir, "57436", "myproj-1.2.jar");
+
+        GradleCacheArtifactIndex index = createIndex(newIndexFile(), gradleUserHome);
+        assertNull("sources", index.tryGetArtifact(versionDir, "myproj-1.2-sources.jar"));
+
+        Path sources = createArtifact(versionDir, "25754", "myproj-1.2-sources.jar");
+        index.notifyCacheChange();
+
+        assertEquals("sources", sources, index.tryGetArtifact(versionDir, "myproj-1.2-sources.jar"));
+    }
+
+    @Test
+    public void testFindsArtifactOutsideOfModuleFilesDir() throws IOException {
+        File gradleUserHome = TMP_DIR_ROOT.newFolder();
+        Path artifactRoot = gradleUserHome.toPath().resolve("org").resolve("myproj");
+
+        Path binary = createArtifact(artifactRoot, "57436", "myproj.jar");
+
+        GradleCacheArtifactIndex index = createIndex(newIndexFile(), gradleUserHome);
+        assertEquals("binary", binary, index.tryGetArtifact(artifactRoot, "myproj.jar"));
+    }
+
+    @Test
+    public void testLoadsPersistedIndex() throws IOException {
+        File gradleUserHome = TMP_DIR_ROOT.newFolder();
+        Path indexFile = newIndexFile();
+
+        Path versionDir1 = getVersionDir(gradleUserHome, "org.mygroup", "myproj1", "1.0");
+        Path versionDir2 = getVersionDir(gradleUserHome, "org.mygroup", "myproj2", "2.0");
+        createArtifact(versionDir1, "57436", "myproj1-1.0.jar");
+        Path binary2 = createArtifact(versionDir2, "25754", "myproj2-2.0.jar");
+
+        GradleCacheArtifactIndex index1 = createIndex(indexFile, gradleUserHome);
+        index1.getArtifacts(versionDir1);
+        assertEquals("Scanned modules", 2, index1.getIndexedModuleCount());
+        index1.saveIndexNow();
+
+        GradleCacheArtifactIndex index2 = createIndex(indexFile, null);
+        assertEquals("binary2", binary2, index2.tryGetArtifact(versionDir2, "myproj2-2.0.jar"));
+        assertEquals("Loaded modules", 2, index2.getIndexedModuleCount());
+    }
+
+    @Test
+    public void testFindsArtifactAddedWithoutCacheChange() throws IOException {
+        File gradleUserHome = TMP_DIR_ROOT.newFolder();
+        Path versionDir = getVersionDir(gradleUserHome, "org.mygroup", "myproj", "1.2");
+
+        createArtifact(versionDir, "57436", "myproj-1.2.jar");
+
+        GradleCacheArtifactIndex index = createIndex(newIndexFile(), gradleUserHome);
+        assertNull("sources", index.tryGetArtifact(versionDir, "myproj-1.2-sources.jar"));
+
+        Path sources = createArtifact(versionDir, "25754", "myproj-1.2-sources.jar");
+        assertEquals("sources", sources, index.tryGetArtifact(versionDir, "myproj-1.2-sources.jar"));
+    }
+
+    @Test
+    public void testPrunesDeletedModulesOfPersistedIndex() throws IOException {
+        File gradleUserHome = TMP_DIR_ROOT.newFolder();
+        Path indexFile = newIndexFile();
+
+        Path versionDir1 = getVersionDir(gradleUserHome, "org.mygroup", "myproj1", "1.0");
+        Path versionDir2 = getVersionDir(gradleUserHome, "org.mygroup", "myproj2", "2.0");
+        createArtifact(versionDir1, "57436", "myproj1-1.0.jar");
+        Path binary2 = createArtifact(versionDir2, "25754", "myproj2-2.0.jar");
+
+        GradleCacheArtifactIndex index1 = createIndex(indexFile, gradleUserHome);
+        index1.getArtifacts(versionDir2);
+        assertEquals("Scanned modules", 2, index1.getIndexedModuleCount());
+        index1.saveIndexNow();
+
+        NbFileUtils.deleteDirectory(Cancellation.UNCANCELABLE_TOKEN, versionDir1);
+
+        GradleCacheArtifactIndex index2 = createIndex(indexFile, gradleUserHome);
+        assertEquals("binary2", binary2, index2.tryGetArtifact(versionDir2, "myproj2-2.0.jar"));
+        assertEquals("Loaded modules", 1, index2.getIndexedModuleCount());
+    }
+}
@@ -149,4 +149,33 @@ public class GradleCacheSourceForBinaryQueryTest {
         assertNull("result1", query.findSourceRoots(binaryUrl));
         assertNull("result2", query.findSourceRoots2(binaryUrl));
     }
+
+    @Test
+    public void testModuleIdOfBinary() throws IOException {
+        File gradleHome = TMP_DIR_ROOT.newFolder();
+
+        File filesDir = BasicFileUtils.getSubPath(gradleHome, "caches", "modules-2", "files-2.1");
+        File jar = BasicFileUtils.getSubPath(filesDir, "org.mygroup", "myproj", "1.2", "57436", "myproj-1.2.jar");
+
+        assertEquals("org.mygroup:myproj:1.2", GradleCacheByBinaryLookup.tryGetModuleId(gradleHome, jar));
+    }
+
+    @Test
+    public void testModuleIdOfBinaryInOldCacheFormat() throws IOException {
+        File gradleHome = TMP_DIR_ROOT.newFolder();
+
+        File jar = BasicFileUtils.getSubPath(gradleHome, "org", "myproj", "jar", "43253", "myproj.jar");
+
+        assertNull(GradleCacheByBinaryLookup.tryGetModuleId(gradleHome, jar));
+    }
+
+    @Test
+    public void testModuleIdOfBinaryNotInCache() throws IOException {
+        File root = TMP_DIR_ROOT.newFolder();
+
+        File gradleHome = new File(root, ".gradle");
+        File jar = BasicFileUtils.getSubPath(root, "otherdir", "org.mygroup", "myproj", "1.2", "57436", "myproj-1.2.jar");
+
+        assertNull(GradleCacheByBinaryLookup.tryGetModuleId(gradleHome, jar));
+    }
 }
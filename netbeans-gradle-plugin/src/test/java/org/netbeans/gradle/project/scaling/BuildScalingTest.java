@@ -0,0 +1,293 @@
+package org.netbeans.gradle.project.scaling;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.jtrim.cancel.Cancellation;
+import org.jtrim.cancel.CancellationToken;
+import org.jtrim.concurrent.CancelableTask;
+import org.jtrim.concurrent.CleanupTask;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.rules.TestRule;
+import org.netbeans.api.java.classpath.ClassPath;
+import org.netbeans.gradle.project.NbGradleProject;
+import org.netbeans.gradle.project.api.entry.SampleGradleProject;
+import org.netbeans.gradle.project.model.NbGradleModel;
+import org.netbeans.gradle.project.properties.ScriptPlatform;
+import org.netbeans.gradle.project.properties.SettingsFiles;
+import org.netbeans.gradle.project.properties.global.CommonGlobalSettings;
+import org.netbeans.gradle.project.util.BackgroundIOExecutors;
+import org.netbeans.gradle.project.util.CustomGlobalSettingsRule;
+import org.netbeans.gradle.project.util.NbConsumer;
+import org.netbeans.spi.java.classpath.ClassPathProvider;
+import org.openide.filesystems.FileObject;
+import org.openide.filesystems.FileUtil;
+
+import static org.junit.Assert.*;
+
+/**
+ * Loads generated builds of increasing size and fails if a measured cost grows
+ * faster than its complexity bound. This test needs a Gradle distribution and
+ * takes a long time, so it is only executed by the {@code scalingTest} task.
+ * <P>
+ * The build sizes can be set by the {@value #SIZES_PROPERTY} system property
+ * (a comma separated list of the number of subprojects).
+ */
+public class BuildScalingTest {
+    private static final Logger LOGGER = Logger.getLogger(BuildScalingTest.class.getName());
+
+    private static final String SIZES_PROPERTY = "org.netbeans.gradle.scalingSizes";
+    private static final String DEFAULT_SIZES = "10,100,1000";
+
+    private static final int CLASS_PATH_SAMPLE_COUNT = 10;
+    private static final long LOAD_TIMEOUT_MINUTES = 30;
+
+    // The allowed ratio over the growth permitted by the complexity bound.
+    // Needed because the measurements are noisy.
+    private static final double TOLERANCE = 2.0;
+
+    @Rule
+    public final TestRule settingsRule = new CustomGlobalSettingsRule(new NbConsumer<CommonGlobalSettings>() {
+        @Override
+        public void accept(CommonGlobalSettings settings) {
+            settings.gradleLocation().setValue(SampleGradleProject.DEFAULT_GRADLE_TARGET);
+            settings.gradleArgs().setValue(Arrays.asList("--offline"));
+            settings.gradleJvmArgs().setValue(Arrays.asList("-Xmx1g"));
+            settings.defaultJdk().setValue(ScriptPlatform.getDefault());
+            settings.gradleDaemonTimeoutSec().setValue(60);
+            settings.projectCacheSize().setValue(getMaxSize() + 10);
+        }
+    });
+
+    @Rule
+    public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+    /**
+     * Defines a measured cost and how fast it may grow with the number of
+     * projects in the build.
+     */
+    private enum Metric {
+        // Gradle evaluates every project, so the load time is linear at best.
+        LOAD_TIME_MS("model load time (ms)", 1.0, 2000.0),
+        // Every persisted model contains the project tree of the whole build,
+        // so the size of a single persisted model grows linearly.
+        PERSISTED_MODEL_BYTES("average persisted model size (bytes)", 1.0, 16.0 * 1024.0),
+        // The class path of a project only depends on its own dependencies.
+        CLASS_PATH_TIME_MS("average class path build time (ms)", 0.0, 50.0),
+        // Every project has a model of bounded size.
+        HEAP_BYTES("heap used by the loaded models (bytes)", 1.0, 32.0 * 1024.0 * 1024.0);
+
+        private final String displayName;
+        private final double exponent;
+        private final double floor;
+
+        private Metric(String displayName, double exponent, double floor) {
+            this.displayName = displayName;
+            this.exponent = exponent;
+            this.floor = floor;
+        }
+
+        /**
+         * Returns the greatest allowed value for the larger build. Values below
+         * the floor are considered to be measurement noise, so they are raised
+         * to the floor.
+         */
+        public double getAllowedValue(double smallerValue, int smallerSize, int largerSize) {
+            double sizeRatio = (double)largerSize / (double)smallerSize;
+            return Math.max(smallerValue, floor) * Math.pow(sizeRatio, exponent) * TOLERANCE;
+        }
+    }
+
+    private static final class Measurement {
+        private final int size;
+        private final double[] values;
+
+        public Measurement(int size) {
+            this.size = size;
+            this.values = new double[Metric.values().length];
+        }
+
+        public void set(Metric metric, double value) {
+            values[metric.ordinal()] = value;
+        }
+
+        public double get(Metric metric) {
+            return values[metric.ordinal()];
+        }
+    }
+
+    private static int[] getSizes() {
+        String sizesStr = System.getProperty(SIZES_PROPERTY, DEFAULT_SIZES);
+        String[] sizeStrs = sizesStr.split(",");
+
+        int[] result = new int[sizeStrs.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = Integer.parseInt(sizeStrs[i].trim());
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    private static int getMaxSize() {
+        int[] sizes = getSizes();
+        return sizes[sizes.length - 1];
+    }
+
+    private static long getUsedHeap() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    private static void waitForCacheWrites() throws InterruptedException {
+        // The cache executor executes tasks in submission order, so the cache
+        // writes of the load are done when this task gets executed.
+        final CountDownLatch doneSignal = new CountDownLatch(1);
+        BackgroundIOExecutors.getCacheExecutor().execute(Cancellation.UNCANCELABLE_TOKEN, new CancelableTask() {
+            @Override
+            public void execute(CancellationToken cancelToken) {
+            }
+        }, new CleanupTask() {
+            @Override
+            public void cleanup(boolean canceled, Throwable error) {
+                doneSignal.countDown();
+            }
+        });
+
+        assertTrue("Timeout while waiting for the cache writes.", doneSignal.await(LOAD_TIMEOUT_MINUTES, TimeUnit.MINUTES));
+    }
+
+    private static long getDirectorySize(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return 0;
+        }
+
+        long result = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+            for (Path file: files) {
+                if (Files.isRegularFile(file)) {
+                    result += Files.size(file);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static void waitLoaded(NbGradleProject project) {
+        assertTrue("Timeout while loading " + project.getProjectDirectoryAsPath(),
+                project.tryWaitForLoadedProject(LOAD_TIMEOUT_MINUTES, TimeUnit.MINUTES));
+    }
+
+    private static double measureClassPathTimeMs(
+            SampleGradleProject sampleProject,
+            SyntheticGradleBuild build,
+            int projectIndex) throws IOException {
+
+        String rootName = build.getRootDir().getName();
+        NbGradleProject project = sampleProject.loadProject(rootName, SyntheticGradleBuild.getProjectName(projectIndex));
+        waitLoaded(project);
+
+        FileObject sourceFile = project.getProjectDirectory().getFileObject(
+                SyntheticGradleBuild.getMainSourceFile(projectIndex));
+        assertNotNull("Source file of project " + projectIndex, sourceFile);
+
+        long startTime = System.nanoTime();
+        ClassPathProvider classPathProvider = project.getLookup().lookup(ClassPathProvider.class);
+        for (String type: Arrays.asList(ClassPath.SOURCE, ClassPath.COMPILE, ClassPath.EXECUTE)) {
+            ClassPath classPath = classPathProvider.findClassPath(sourceFile, type);
+            assertNotNull("Class path " + type + " of project " + projectIndex, classPath);
+            classPath.getRoots();
+        }
+        return (System.nanoTime() - startTime) / 1.0e6;
+    }
+
+    private Measurement measure(int size) throws Exception {
+        File parentDir = tempFolder.newFolder("build-" + size);
+        SyntheticGradleBuild build = SyntheticGradleBuild.generate(parentDir, size);
+        SampleGradleProject sampleProject = new SampleGradleProject(parentDir);
+
+        Measurement result = new Measurement(size);
+
+        long heapBefore = getUsedHeap();
+
+        long loadStartTime = System.nanoTime();
+        NbGradleProject rootProject = sampleProject.loadProject(build.getRootDir().getName());
+        waitLoaded(rootProject);
+        result.set(Metric.LOAD_TIME_MS, (System.nanoTime() - loadStartTime) / 1.0e6);
+
+        NbGradleModel model = rootProject.currentModel().getValue();
+        assertEquals("Number of loaded subprojects",
+                size,
+                model.getProjectDef().getRootProject().getChildren().size());
+
+        result.set(Metric.HEAP_BYTES, Math.max(0, getUsedHeap() - heapBefore));
+
+        waitForCacheWrites();
+        Path cacheDir = SettingsFiles.getCacheDir(FileUtil.normalizeFile(build.getRootDir()).toPath());
+        result.set(Metric.PERSISTED_MODEL_BYTES, getDirectorySize(cacheDir) / (double)(size + 1));
+
+        int sampleCount = Math.min(size, CLASS_PATH_SAMPLE_COUNT);
+        double classPathTimeMs = 0.0;
+        for (int i = 0; i < sampleCount; i++) {
+            int projectIndex = (int)((long)i * size / sampleCount);
+            classPathTimeMs += measureClassPathTimeMs(sampleProject, build, projectIndex);
+        }
+        result.set(Metric.CLASS_PATH_TIME_MS, classPathTimeMs / sampleCount);
+
+        for (Metric metric: Metric.values()) {
+            LOGGER.log(Level.INFO, "{0} subprojects: {1} = {2}",
+                    new Object[]{size, metric.displayName, String.format(Locale.ROOT, "%.1f", result.get(metric))});
+        }
+
+        return result;
+    }
+
+    private static void verifyGrowth(Measurement smaller, Measurement larger, List<String> violations) {
+        for (Metric metric: Metric.values()) {
+            double allowed = metric.getAllowedValue(smaller.get(metric), smaller.size, larger.size);
+            double actual = larger.get(metric);
+            if (actual > allowed) {
+                violations.add(String.format(Locale.ROOT,
+                        "%s grew from %.1f (%d subprojects) to %.1f (%d subprojects), allowed: %.1f",
+                        metric.displayName, smaller.get(metric), smaller.size, actual, larger.size, allowed));
+            }
+        }
+    }
+
+    @Test
+    public void testCostsGrowWithinBounds() throws Exception {
+        List<Measurement> measurements = new ArrayList<>();
+        for (int size: getSizes()) {
+            measurements.add(measure(size));
+        }
+
+        List<String> violations = new ArrayList<>();
+        for (int i = 1; i < measurements.size(); i++) {
+            verifyGrowth(measurements.get(i - 1), measurements.get(i), violations);
+        }
+
+        if (!violations.isEmpty()) {
+            StringBuilder message = new StringBuilder("Complexity bounds exceeded:");
+            for (String violation: violations) {
+                message.append('\n').append(violation);
+            }
+            fail(message.toString());
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package org.netbeans.gradle.project.scaling;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.junit.Test;
+import org.netbeans.gradle.model.java.JavaClassPaths;
+
+import static org.junit.Assert.*;
+
+/**
+ * Measures the heap retained by the class paths of the source sets of a
+ * synthetic large build (600 modules with 4 source sets, each having about
+ * 300 class path entries), and compares it to the heap retained by the same
+ * class paths stored in hash sets.
+ */
+public class ClassPathHeapTest {
+    private static final Logger LOGGER = Logger.getLogger(ClassPathHeapTest.class.getName());
+
+    private static final int MODULE_COUNT = 600;
+    private static final int SOURCE_SET_COUNT = 4;
+    private static final int LIBRARY_COUNT = 3000;
+    private static final int COMPILE_CLASSPATH_SIZE = 250;
+    private static final int RUNTIME_ONLY_CLASSPATH_SIZE = 50;
+    private static final long SEED = 20171019L;
+
+    // The compact class paths must need at most this fraction of the memory
+    // required by the hash sets.
+    private static final double MAX_RELATIVE_HEAP = 0.25;
+
+    private static long getUsedHeap() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    private static String getLibraryPath(int index) {
+        return "/home/user/.gradle/caches/modules-2/files-2.1/org.example/lib" + index
+                + "/1.0/0123456789abcdef/lib" + index + "-1.0.jar";
+    }
+
+    private static List<File> selectLibraries(Random random, int count) {
+        // Every file is a new instance, as if each source set was
+        // deserialized separately.
+        List<File> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(new File(getLibraryPath(random.nextInt(LIBRARY_COUNT))));
+        }
+        return result;
+    }
+
+    private static List<JavaClassPaths> createClassPaths() {
+        Random random = new Random(SEED);
+
+        List<JavaClassPaths> result = new ArrayList<>(MODULE_COUNT * SOURCE_SET_COUNT);
+        for (int i = 0; i < MODULE_COUNT * SOURCE_SET_COUNT; i++) {
+            List<File> compile = selectLibraries(random, COMPILE_CLASSPATH_SIZE);
+            List<File> runtime = new ArrayList<>(compile);
+            runtime.addAll(selectLibraries(random, RUNTIME_ONLY_CLASSPATH_SIZE));
+
+            result.add(new JavaClassPaths(compile, runtime));
+        }
+        return result;
+    }
+
+    private static List<Set<File>> toHashSets(List<JavaClassPaths> classPaths) {
+        List<Set<File>> result = new ArrayList<>(2 * classPaths.size());
+        for (JavaClassPaths classPath: classPaths) {
+            result.add(Collections.unmodifiableSet(new LinkedHashSet<>(classPath.getCompileClasspaths())));
+            result.add(Collections.unmodifiableSet(new LinkedHashSet<>(classPath.getRuntimeClasspaths())));
+        }
+        return result;
+    }
+
+    @Test
+    public void testCompactClassPaths() {
+        long heapBefore = getUsedHeap();
+        List<JavaClassPaths> classPaths = createClassPaths();
+        long compactHeap = getUsedHeap() - heapBefore;
+
+        // The hash sets share the file instances with the compact class
+        // paths, so only the overhead of the hash sets is measured.
+        heapBefore = getUsedHeap();
+        List<Set<File>> hashSets = toHashSets(classPaths);
+        long hashSetHeap = getUsedHeap() - heapBefore;
+
+        LOGGER.log(Level.INFO, "Heap retained by the class paths: {0} bytes (hash sets: {1} bytes)",
+                new Object[]{compactHeap, hashSetHeap});
+
+        assertEquals(2 * classPaths.size(), hashSets.size());
+        assertTrue("Class paths need " + compactHeap + " bytes, hash sets need " + hashSetHeap + " bytes",
+                compactHeap <= MAX_RELATIVE_HEAP * hashSetHeap);
+    }
+}
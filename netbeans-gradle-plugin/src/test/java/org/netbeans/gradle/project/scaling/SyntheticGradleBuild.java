@@ -0,0 +1,229 @@
+package org.netbeans.gradle.project.scaling;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import org.jtrim.utils.ExceptionHelper;
+
+/**
+ * Generates a multi-project Gradle build with the given number of Java
+ * subprojects. The build does not need network access: Every external
+ * dependency is resolved from a Maven repository generated into the
+ * {@code repo} directory of the build.
+ * <P>
+ * The dependency graph is similar to the graphs of large real builds: Every
+ * project depends on a few projects generated shortly before it (and
+ * sometimes on one generated much earlier) and on a few external libraries.
+ * The generated build is always the same for the same number of projects.
+ */
+public final class SyntheticGradleBuild {
+    private static final String EXTERNAL_GROUP = "org.example.external";
+    private static final String EXTERNAL_VERSION = "1.0";
+    private static final int EXTERNAL_LIBRARY_COUNT = 50;
+    private static final int MAX_PROJECT_DEPENDENCIES = 3;
+    private static final int MAX_EXTERNAL_DEPENDENCIES = 6;
+    private static final long SEED = 20171019L;
+
+    private final File rootDir;
+    private final int projectCount;
+
+    private SyntheticGradleBuild(File rootDir, int projectCount) {
+        this.rootDir = rootDir;
+        this.projectCount = projectCount;
+    }
+
+    /**
+     * Generates the build into a new subdirectory of the given directory.
+     *
+     * @param parentDir the directory into which the build is generated. This
+     *   argument cannot be {@code null}.
+     * @param projectCount the number of subprojects of the build. This
+     *   argument must be greater than zero.
+     * @return the generated build. This method never returns {@code null}.
+     *
+     * @throws IOException thrown if the build could not be written
+     */
+    public static SyntheticGradleBuild generate(File parentDir, int projectCount) throws IOException {
+        ExceptionHelper.checkNotNullArgument(parentDir, "parentDir");
+        ExceptionHelper.checkArgumentInRange(projectCount, 1, Integer.MAX_VALUE, "projectCount");
+
+        File rootDir = new File(parentDir, "synthetic-" + projectCount);
+        SyntheticGradleBuild result = new SyntheticGradleBuild(rootDir, projectCount);
+        result.write();
+        return result;
+    }
+
+    public static String getProjectName(int index) {
+        return "module" + index;
+    }
+
+    public File getRootDir() {
+        return rootDir;
+    }
+
+    public int getProjectCount() {
+        return projectCount;
+    }
+
+    public File getProjectDir(int index) {
+        ExceptionHelper.checkArgumentInRange(index, 0, projectCount - 1, "index");
+        return new File(rootDir, getProjectName(index));
+    }
+
+    /**
+     * Returns the main class of the given project, relative to the project
+     * directory.
+     *
+     * @param index the index of the project
+     * @return the main class of the given project, relative to the project
+     *   directory. This method never returns {@code null}.
+     */
+    public static String getMainSourceFile(int index) {
+        return "src/main/java/org/example/" + getProjectName(index) + "/Module" + index + ".java";
+    }
+
+    private void write() throws IOException {
+        Files.createDirectories(rootDir.toPath());
+
+        writeRepository(rootDir.toPath().resolve("repo"));
+        writeRootScripts();
+
+        Random random = new Random(SEED);
+        for (int i = 0; i < projectCount; i++) {
+            writeProject(i, random);
+        }
+    }
+
+    private static String getLibraryName(int index) {
+        return "lib" + index;
+    }
+
+    private static void writeRepository(Path repoDir) throws IOException {
+        for (int i = 0; i < EXTERNAL_LIBRARY_COUNT; i++) {
+            String name = getLibraryName(i);
+            Path artifactDir = repoDir
+                    .resolve(EXTERNAL_GROUP.replace('.', '/'))
+                    .resolve(name)
+                    .resolve(EXTERNAL_VERSION);
+            Files.createDirectories(artifactDir);
+
+            String baseName = name + "-" + EXTERNAL_VERSION;
+            writeJar(artifactDir.resolve(baseName + ".jar"), name);
+            writeText(artifactDir.resolve(baseName + ".pom"),
+                    "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                    + "<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\n"
+                    + "  <modelVersion>4.0.0</modelVersion>\n"
+                    + "  <groupId>" + EXTERNAL_GROUP + "</groupId>\n"
+                    + "  <artifactId>" + name + "</artifactId>\n"
+                    + "  <version>" + EXTERNAL_VERSION + "</version>\n"
+                    + "</project>\n");
+        }
+    }
+
+    private static void writeJar(Path jarFile, String name) throws IOException {
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+
+        try (OutputStream fileOutput = Files.newOutputStream(jarFile);
+                JarOutputStream output = new JarOutputStream(fileOutput, manifest)) {
+            output.putNextEntry(new JarEntry("org/example/external/" + name + "/"));
+            output.closeEntry();
+        }
+    }
+
+    private void writeRootScripts() throws IOException {
+        StringBuilder settings = new StringBuilder(projectCount * 24);
+        settings.append("rootProject.name = '").append(rootDir.getName()).append("'\n");
+        for (int i = 0; i < projectCount; i++) {
+            settings.append("include '").append(getProjectName(i)).append("'\n");
+        }
+        writeText(rootDir.toPath().resolve("settings.gradle"), settings.toString());
+
+        writeText(rootDir.toPath().resolve("build.gradle"),
+                "subprojects {\n"
+                + "    apply plugin: 'java'\n"
+                + "\n"
+                + "    repositories {\n"
+                + "        maven { url rootProject.file('repo') }\n"
+                + "    }\n"
+                + "}\n");
+    }
+
+    private static Set<Integer> selectProjectDependencies(int index, Random random) {
+        Set<Integer> result = new TreeSet<>();
+        if (index == 0) {
+            return result;
+        }
+
+        int count = Math.min(index, 1 + random.nextInt(MAX_PROJECT_DEPENDENCIES));
+        for (int i = 0; i < count; i++) {
+            // Mostly depend on recent projects (like projects of the same
+            // layer), but sometimes on a project from anywhere before.
+            int dependency = random.nextInt(4) == 0
+                    ? random.nextInt(index)
+                    : Math.max(0, index - 1 - random.nextInt(10));
+            result.add(dependency);
+        }
+        return result;
+    }
+
+    private static Set<Integer> selectExternalDependencies(Random random) {
+        Set<Integer> result = new TreeSet<>();
+        int count = 1 + random.nextInt(MAX_EXTERNAL_DEPENDENCIES);
+        for (int i = 0; i < count; i++) {
+            result.add(random.nextInt(EXTERNAL_LIBRARY_COUNT));
+        }
+        return result;
+    }
+
+    private void writeProject(int index, Random random) throws IOException {
+        Path projectDir = getProjectDir(index).toPath();
+
+        List<String> dependencies = new ArrayList<>();
+        for (int dependency: selectProjectDependencies(index, random)) {
+            dependencies.add("    compile project(':" + getProjectName(dependency) + "')");
+        }
+        for (int library: selectExternalDependencies(random)) {
+            dependencies.add("    compile '" + EXTERNAL_GROUP + ":" + getLibraryName(library) + ":" + EXTERNAL_VERSION + "'");
+        }
+        dependencies.add("    testCompile '" + EXTERNAL_GROUP + ":" + getLibraryName(0) + ":" + EXTERNAL_VERSION + "'");
+
+        StringBuilder buildScript = new StringBuilder(256);
+        buildScript.append("dependencies {\n");
+        for (String dependency: dependencies) {
+            buildScript.append(dependency).append('\n');
+        }
+        buildScript.append("}\n");
+
+        Files.createDirectories(projectDir);
+        writeText(projectDir.resolve("build.gradle"), buildScript.toString());
+
+        String packageName = "org.example." + getProjectName(index);
+        Path mainSource = projectDir.resolve(getMainSourceFile(index));
+        Files.createDirectories(mainSource.getParent());
+        writeText(mainSource, "package " + packageName + ";\n\npublic class Module" + index + " {\n}\n");
+
+        Path testSource = projectDir.resolve("src/test/java/org/example/"
+                + getProjectName(index) + "/Module" + index + "Test.java");
+        Files.createDirectories(testSource.getParent());
+        writeText(testSource, "package " + packageName + ";\n\npublic class Module" + index + "Test {\n}\n");
+
+        Files.createDirectories(projectDir.resolve("src/main/resources"));
+    }
+
+    private static void writeText(Path file, String content) throws IOException {
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
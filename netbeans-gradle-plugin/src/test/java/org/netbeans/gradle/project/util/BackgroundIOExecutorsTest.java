@@ -0,0 +1,62 @@
+package org.netbeans.gradle.project.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.jtrim.cancel.Cancellation;
+import org.jtrim.cancel.CancellationToken;
+import org.jtrim.concurrent.CancelableTask;
+import org.jtrim.concurrent.SyncTaskExecutor;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BackgroundIOExecutorsTest {
+    private static void execute(BackgroundIOExecutors.BusyThrottledExecutor executor, final List<Integer> log, final int id) {
+        executor.execute(Cancellation.UNCANCELABLE_TOKEN, new CancelableTask() {
+            @Override
+            public void execute(CancellationToken cancelToken) {
+                log.add(id);
+            }
+        }, null);
+    }
+
+    @Test
+    public void testTasksAreNotDeferredWhenNotBusy() {
+        BackgroundIOExecutors.BusyThrottledExecutor executor
+                = new BackgroundIOExecutors.BusyThrottledExecutor(SyncTaskExecutor.getSimpleExecutor());
+
+        List<Integer> log = new ArrayList<>();
+        execute(executor, log, 1);
+        execute(executor, log, 2);
+
+        assertEquals(Arrays.asList(1, 2), log);
+        assertEquals(0, executor.getNumberOfDeferredTasks());
+    }
+
+    @Test
+    public void testTasksAreDeferredUntilAllBusyPeriodsEnd() {
+        BackgroundIOExecutors.BusyThrottledExecutor executor
+                = new BackgroundIOExecutors.BusyThrottledExecutor(SyncTaskExecutor.getSimpleExecutor());
+
+        List<Integer> log = new ArrayList<>();
+
+        CloseableAction.Ref busyRef1 = executor.startBusyPeriod();
+        CloseableAction.Ref busyRef2 = executor.startBusyPeriod();
+        execute(executor, log, 1);
+        execute(executor, log, 2);
+        assertEquals(2, executor.getNumberOfDeferredTasks());
+
+        busyRef1.close();
+        // Closing the same reference again must not end the other busy period.
+        busyRef1.close();
+        assertTrue(log.isEmpty());
+
+        busyRef2.close();
+        assertEquals(Arrays.asList(1, 2), log);
+        assertEquals(0, executor.getNumberOfDeferredTasks());
+
+        execute(executor, log, 3);
+        assertEquals(Arrays.asList(1, 2, 3), log);
+    }
+}
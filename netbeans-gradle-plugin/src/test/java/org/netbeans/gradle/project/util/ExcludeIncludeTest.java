@@ -194,4 +194,19 @@ public class ExcludeIncludeTest {
         assertExclude(excludes, includes, "include", "root2", "subdir", "file1");
         assertExclude(excludes, includes, "include", "root1", "test", "file1");
     }
+
+    @Test
+    public void testCompiledRulesReused() {
+        Path rootDir = getAbsPath("root", "subDir");
+        ExcludeInclude.CompiledRules rules = ExcludeInclude.compile(
+                rootDir.getFileSystem(),
+                asSet("**/test/*"),
+                asSet("**/*.java"));
+
+        Assert.assertSame(rootDir.getFileSystem(), rules.getFileSystem());
+        Assert.assertTrue(rules.includeFile(subPath(rootDir, "pckg", "Test.java"), rootDir));
+        Assert.assertFalse(rules.includeFile(subPath(rootDir, "pckg", "test", "Test.java"), rootDir));
+        Assert.assertFalse(rules.includeFile(subPath(rootDir, "pckg", "Test.txt"), rootDir));
+        Assert.assertFalse(rules.includeFile(getAbsPath("other", "Test.java"), rootDir));
+    }
 }
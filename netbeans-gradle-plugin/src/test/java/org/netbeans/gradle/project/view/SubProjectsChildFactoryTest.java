@@ -0,0 +1,125 @@
+package org.netbeans.gradle.project.view;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.jtrim.property.MutableProperty;
+import org.jtrim.property.PropertyFactory;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.netbeans.gradle.model.GenericProjectProperties;
+import org.netbeans.gradle.model.GradleTaskID;
+import org.netbeans.gradle.project.NbGradleProject;
+import org.netbeans.gradle.project.api.entry.EmptyProjectTest;
+import org.netbeans.gradle.project.api.entry.SampleProjectRule;
+import org.netbeans.gradle.project.model.NbGenericModelInfo;
+import org.netbeans.gradle.project.model.NbGradleModel;
+import org.netbeans.gradle.project.model.NbGradleMultiProjectDef;
+import org.netbeans.gradle.project.model.NbGradleProjectTree;
+import org.openide.nodes.Children;
+import org.openide.nodes.Node;
+
+import static org.junit.Assert.*;
+
+public class SubProjectsChildFactoryTest {
+    @ClassRule
+    public static final SampleProjectRule PROJECT_REF = SampleProjectRule.getStandardRule(EmptyProjectTest.EMPTY_PROJECT_RESOURCE);
+
+    private NbGradleProject project;
+
+    @Before
+    public void setUp() throws IOException {
+        Thread.interrupted();
+
+        project = PROJECT_REF
+                .getUnloadedProject(EmptyProjectTest.EMPTY_PROJECT_NAME)
+                .getLookup()
+                .lookup(NbGradleProject.class);
+    }
+
+    private static NbGradleProjectTree tree(File projectDir, String path, NbGradleProjectTree... children) {
+        String name = path.substring(path.lastIndexOf(':') + 1);
+        GenericProjectProperties properties = new GenericProjectProperties(name, path, projectDir, null);
+        return new NbGradleProjectTree(properties, Collections.<GradleTaskID>emptyList(), Arrays.asList(children));
+    }
+
+    private NbGradleProjectTree subTree(String path, NbGradleProjectTree... children) {
+        File projectDir = new File(project.getProjectDirectoryAsFile(), path.replace(':', '_'));
+        return tree(projectDir, path, children);
+    }
+
+    private NbGradleModel model(NbGradleProjectTree... children) {
+        NbGradleProjectTree root = tree(project.getProjectDirectoryAsFile(), ":", children);
+        return new NbGradleModel(
+                new NbGenericModelInfo(
+                        new NbGradleMultiProjectDef(root, root),
+                        project.getProjectDirectoryAsPath().resolve("settings.gradle")),
+                Collections.<String, Object>emptyMap(),
+                false);
+    }
+
+    private static List<String> getDisplayNames(Node[] nodes) {
+        List<String> result = new ArrayList<>(nodes.length);
+        for (Node node: nodes) {
+            result.add(node.getDisplayName());
+        }
+        return result;
+    }
+
+    private static Node findNode(Node[] nodes, String displayName) {
+        for (Node node: nodes) {
+            if (displayName.equals(node.getDisplayName())) {
+                return node;
+            }
+        }
+        throw new AssertionError("Missing node: " + displayName);
+    }
+
+    @Test
+    public void testUnchangedSubtreeIsKeptOnReload() {
+        MutableProperty<NbGradleModel> currentModel = PropertyFactory.memProperty(model(
+                subTree(":a", subTree(":a:a1")),
+                subTree(":b")));
+
+        Children children = Children.create(new SubProjectsChildFactory(project, currentModel), false);
+
+        Node[] nodes1 = children.getNodes(true);
+        assertEquals(Arrays.asList("a", "b"), getDisplayNames(nodes1));
+        Node nodeA1 = findNode(nodes1, "a");
+        Node nodeB1 = findNode(nodes1, "b");
+
+        NbGradleProjectTree newTreeA = subTree(":a", subTree(":a:a1"));
+        currentModel.setValue(model(newTreeA, subTree(":b", subTree(":b:b1")), subTree(":c")));
+
+        Node[] nodes2 = children.getNodes(true);
+        assertEquals(Arrays.asList("a", "b", "c"), getDisplayNames(nodes2));
+        assertSame(nodeA1, findNode(nodes2, "a"));
+        assertNotSame(nodeB1, findNode(nodes2, "b"));
+
+        assertSame(newTreeA, nodeA1.getLookup().lookup(NbGradleProjectTree.class));
+    }
+
+    @Test
+    public void testUnchangedModelKeepsAllNodes() {
+        MutableProperty<NbGradleModel> currentModel = PropertyFactory.memProperty(model(
+                subTree(":a", subTree(":a:a1")),
+                subTree(":b")));
+
+        Children children = Children.create(new SubProjectsChildFactory(project, currentModel), false);
+        Node[] nodes1 = children.getNodes(true);
+
+        currentModel.setValue(model(
+                subTree(":a", subTree(":a:a1")),
+                subTree(":b")));
+
+        Node[] nodes2 = children.getNodes(true);
+        assertEquals(Arrays.asList(nodes1), Arrays.asList(nodes2));
+        for (int i = 0; i < nodes1.length; i++) {
+            assertSame(nodes1[i], nodes2[i]);
+        }
+    }
+}